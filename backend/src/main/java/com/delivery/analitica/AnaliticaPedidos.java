@@ -0,0 +1,185 @@
+package com.delivery.analitica;
+
+import com.delivery.catalogo.CatalogoCache;
+import com.delivery.decorator.Extra;
+import com.delivery.decorator.ProductoCompilado;
+import com.delivery.model.Dinero;
+import com.delivery.model.Pedido;
+import com.delivery.model.Producto;
+import com.delivery.model.Restaurante;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guarda cada pedido entregado en un {@link HistorialColumnar} y responde
+ * las consultas de historial: ventas por restaurante y hora, extras más
+ * pedidos y tiempos de preparación. A diferencia de las
+ * {@code Estadisticas}, que solo llevan contadores, acá se puede agrupar y
+ * filtrar por fecha después. Si está deshabilitada, registrar no hace nada
+ * y las consultas devuelven listas vacías.
+ */
+@Component
+public class AnaliticaPedidos {
+    private static final Extra[] EXTRAS = Extra.values();
+
+    private final ZoneId zona;
+    private final ForkJoinPool pool;
+    private final HistorialColumnar historial;
+
+    @Autowired
+    private CatalogoCache catalogoCache;
+
+    @Autowired
+    public AnaliticaPedidos(PropiedadesAnalitica propiedades) {
+        zona = propiedades.getZona() == null || propiedades.getZona().isBlank()
+                ? ZoneId.systemDefault() : ZoneId.of(propiedades.getZona());
+        if (!propiedades.isHabilitada()) {
+            pool = null;
+            historial = null;
+            return;
+        }
+        pool = crearPool(propiedades.getParalelismo());
+        historial = new HistorialColumnar(propiedades.getTamanoBloque(), propiedades.getMaximoPedidos(), zona, pool);
+    }
+
+    /** Pool de recorrido con hilos daemon con nombre; 0 = uno por procesador. */
+    static ForkJoinPool crearPool(int paralelismo) {
+        if (paralelismo <= 0) {
+            paralelismo = Runtime.getRuntime().availableProcessors();
+        }
+        return new ForkJoinPool(paralelismo, fabrica -> {
+            ForkJoinWorkerThread hilo = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(fabrica);
+            hilo.setName("analitica-" + hilo.getPoolIndex());
+            return hilo;
+        }, null, false);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    public void registrar(Pedido pedido) {
+        long entregadoEn = pedido.getEntradaEn(Pedido.Estado.ENTREGADO);
+        registrar(pedido, entregadoEn != 0 ? entregadoEn : System.currentTimeMillis());
+    }
+
+    /** Registra una entrega ocurrida en {@code entregadoEn}; al reproducir la bitácora es la hora original. */
+    public void registrar(Pedido pedido, long entregadoEn) {
+        if (historial == null || pedido.getEstado() != Pedido.Estado.ENTREGADO) {
+            return;
+        }
+        Restaurante restaurante = pedido.getRestaurante();
+        long restauranteId = restaurante != null && restaurante.getId() != null ? restaurante.getId() : 0;
+        historial.agregar(restauranteId, entregadoEn, milisegundos(pedido.getDuracionEn(Pedido.Estado.PREPARANDO)),
+                milisegundos(entregadoEn - pedido.getCreadoEn()), pedido.getTotalCentavos(),
+                pedido.getItems().size(), extras(pedido.getItems()));
+    }
+
+    private static int milisegundos(long duracion) {
+        return duracion < 0 ? -1 : (int) Math.min(duracion, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Bits de los extras que aparecen en los items. Los pedidos rehechos
+     * desde la bitácora solo tienen la descripción, así que ahí se buscan
+     * los nombres de los extras en el texto.
+     */
+    static int extras(List<Producto> items) {
+        int bits = 0;
+        for (Producto item : items) {
+            if (item instanceof ProductoCompilado compilado) {
+                for (int i = 0; i < compilado.getCantidadExtras(); i++) {
+                    bits |= 1 << compilado.getExtra(i).ordinal();
+                }
+            } else if (item.getDescripcion().indexOf(" + ") >= 0) {
+                for (Extra extra : EXTRAS) {
+                    if (item.getDescripcion().contains(" + " + extra.getNombre())) {
+                        bits |= 1 << extra.ordinal();
+                    }
+                }
+            }
+        }
+        return bits;
+    }
+
+    // Consultas entre desde (incluido) y hasta (excluido), en ms
+
+    public List<VentaPorHora> ventasPorRestauranteYHora(long desde, long hasta) {
+        return historial == null ? List.of() : historial.ventasPorRestauranteYHora(desde, hasta);
+    }
+
+    public List<UsoExtra> extrasPopulares(long desde, long hasta) {
+        return historial == null ? List.of() : historial.extrasPopulares(desde, hasta);
+    }
+
+    public List<TiemposRestaurante> tiemposPorRestaurante(long desde, long hasta) {
+        return historial == null ? List.of() : historial.tiemposPorRestaurante(desde, hasta);
+    }
+
+    public boolean isHabilitada() { return historial != null; }
+    public ZoneId getZona() { return zona; }
+
+    /** Informe de los últimos {@code dias} días, con los {@code limite} primeros de cada lista. */
+    public void mostrarInforme(int dias, int limite) {
+        System.out.println("\n📈 Historial de pedidos:");
+        if (historial == null) {
+            System.out.println("Deshabilitado (delivery.analitica.habilitada=false)");
+            return;
+        }
+        System.out.println("Pedidos guardados: " + historial.getPedidos() + " en " + historial.getBloques()
+                + " bloques (" + historial.getBytes() / (1024 * 1024) + " MB), restaurantes: "
+                + historial.getRestaurantes() + ", descartados por antigüedad: " + historial.getDescartados());
+        long hasta = System.currentTimeMillis();
+        long desde = hasta - TimeUnit.DAYS.toMillis(dias);
+        long inicio = System.nanoTime();
+
+        List<VentaPorHora> ventas = historial.ventasPorRestauranteYHora(desde, hasta);
+        StringBuilder texto = new StringBuilder(1024);
+        texto.append("Horas con más ingresos en los últimos ").append(dias).append(" días (zona ").append(zona).append("):");
+        ventas.stream()
+                .sorted(Comparator.comparingLong(VentaPorHora::ingresosCentavos).reversed())
+                .limit(limite)
+                .forEach(venta -> {
+                    texto.append("\n  ").append(nombre(venta.restauranteId())).append(' ')
+                         .append(venta.hora() < 10 ? "0" : "").append(venta.hora()).append(" h: ")
+                         .append(venta.pedidos()).append(" pedidos, $");
+                    Dinero.escribir(texto, venta.ingresosCentavos());
+                });
+
+        texto.append("\nExtras más pedidos:");
+        for (UsoExtra uso : historial.extrasPopulares(desde, hasta)) {
+            texto.append("\n  ").append(uso.extra().getNombre()).append(": ").append(uso.pedidos()).append(" pedidos");
+        }
+
+        texto.append("\nRestaurantes con más tiempo de preparación:");
+        historial.tiemposPorRestaurante(desde, hasta).stream()
+                .filter(tiempos -> tiempos.preparacionMs() >= 0)
+                .limit(limite)
+                .forEach(tiempos -> texto.append("\n  ").append(nombre(tiempos.restauranteId())).append(": ")
+                        .append(Math.round(tiempos.preparacionMs() / 1000)).append(" s preparando, ")
+                        .append(Math.round(tiempos.entregaMs() / 1000)).append(" s hasta la entrega (")
+                        .append(tiempos.pedidos()).append(" pedidos)"));
+        texto.append("\nConsultas resueltas en ").append(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio))
+             .append(" ms con ").append(historial.getParalelismo()).append(" hilos");
+        System.out.println(texto);
+    }
+
+    private String nombre(long restauranteId) {
+        if (restauranteId == 0) {
+            return "(sin restaurante)";
+        }
+        return catalogoCache.buscarRestaurante(restauranteId).map(Restaurante::getNombre)
+                .orElse("Restaurante " + restauranteId);
+    }
+}
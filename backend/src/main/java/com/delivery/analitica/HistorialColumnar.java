@@ -0,0 +1,425 @@
+package com.delivery.analitica;
+
+import com.delivery.decorator.Extra;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Pedidos entregados guardados por columnas en arreglos primitivos, en
+ * bloques de tamaño fijo: restaurante, hora de entrega, hora local del día,
+ * tiempos de preparación y de entrega, total, cantidad de items y extras
+ * como conjunto de bits. Un pedido ocupa unos 28 bytes y ningún objeto.
+ *
+ * <p>Escribe un solo hilo a la vez; las consultas no bloquean y ven los
+ * pedidos completos agregados hasta el momento en que empiezan. Cada
+ * consulta recorre los bloques en paralelo en un {@link ForkJoinPool} y
+ * saltea sin leerlos los bloques cuyo rango de horas queda fuera del
+ * filtro. Al pasar el máximo de pedidos se descarta el bloque más viejo.
+ */
+public class HistorialColumnar {
+    // Las horas se guardan en segundos desde 2020 para que entren en un int hasta 2088
+    private static final long BASE_SEGUNDOS = 1_577_836_800L;
+    private static final int HORAS = 24;
+    private static final Extra[] EXTRAS = Extra.values();
+
+    private final int tamanoBloque;
+    private final int maximoBloques;
+    private final ZoneRules reglas;
+    private final ForkJoinPool pool;
+
+    // Copy-on-write: cambia solo al abrir o descartar un bloque
+    private volatile Bloque[] bloques = new Bloque[0];
+    private long descartados;
+
+    // Diccionario de restaurantes: id → índice denso; el índice 0 es "sin restaurante"
+    private final Map<Long, Integer> indices = new HashMap<>();
+    private volatile long[] idsRestaurantes = new long[64];
+    private volatile int cantidadRestaurantes = 1;
+
+    // Desplazamiento de la zona vigente entre dos transiciones, para no consultar las reglas en cada pedido
+    private long desplazamientoDesde = Long.MAX_VALUE;
+    private long desplazamientoHasta = Long.MIN_VALUE;
+    private int desplazamiento;
+
+    public HistorialColumnar(int tamanoBloque, long maximoPedidos, ZoneId zona, ForkJoinPool pool) {
+        if (tamanoBloque <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo: " + tamanoBloque);
+        }
+        this.tamanoBloque = tamanoBloque;
+        this.maximoBloques = (int) Math.max(2, Math.min(Integer.MAX_VALUE, (maximoPedidos + tamanoBloque - 1) / tamanoBloque));
+        this.reglas = zona.getRules();
+        this.pool = pool;
+    }
+
+    /**
+     * Agrega un pedido entregado en {@code entregadoEn} (ms). Los tiempos
+     * van en ms, -1 si no se conocen; {@code extras} tiene el bit
+     * {@code 1 << ordinal} de cada {@link Extra} que aparece en el pedido.
+     */
+    public synchronized void agregar(long restauranteId, long entregadoEn, int preparacionMs, int entregaMs,
+                                     long totalCentavos, int items, int extras) {
+        Bloque[] actuales = bloques;
+        Bloque bloque = actuales.length == 0 ? null : actuales[actuales.length - 1];
+        if (bloque == null || bloque.filas == tamanoBloque) {
+            bloque = abrirBloque(actuales);
+        }
+        long segundos = Math.floorDiv(entregadoEn, 1000L);
+        int fila = bloque.filas;
+        int momento = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, segundos - BASE_SEGUNDOS));
+        bloque.restaurante[fila] = indice(restauranteId);
+        bloque.entregado[fila] = momento;
+        bloque.hora[fila] = (byte) horaLocal(segundos);
+        bloque.preparacionMs[fila] = preparacionMs;
+        bloque.entregaMs[fila] = entregaMs;
+        bloque.totalCentavos[fila] = totalCentavos;
+        bloque.items[fila] = (short) Math.min(items, Short.MAX_VALUE);
+        bloque.extras[fila] = (byte) extras;
+        if (fila == 0 || momento < bloque.minimo) {
+            bloque.minimo = momento;
+        }
+        if (fila == 0 || momento > bloque.maximo) {
+            bloque.maximo = momento;
+        }
+        // La escritura volátil publica la fila completa a las consultas
+        bloque.filas = fila + 1;
+    }
+
+    private Bloque abrirBloque(Bloque[] actuales) {
+        Bloque nuevo = new Bloque(tamanoBloque);
+        Bloque[] siguientes;
+        if (actuales.length < maximoBloques) {
+            siguientes = Arrays.copyOf(actuales, actuales.length + 1);
+        } else {
+            descartados += actuales[0].filas;
+            siguientes = Arrays.copyOfRange(actuales, 1, actuales.length + 1);
+        }
+        siguientes[siguientes.length - 1] = nuevo;
+        bloques = siguientes;
+        return nuevo;
+    }
+
+    private int indice(long restauranteId) {
+        if (restauranteId <= 0) {
+            return 0;
+        }
+        Integer existente = indices.get(restauranteId);
+        if (existente != null) {
+            return existente;
+        }
+        int nuevo = cantidadRestaurantes;
+        long[] ids = idsRestaurantes;
+        if (nuevo == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            idsRestaurantes = ids;
+        }
+        ids[nuevo] = restauranteId;
+        indices.put(restauranteId, nuevo);
+        cantidadRestaurantes = nuevo + 1;
+        return nuevo;
+    }
+
+    private int horaLocal(long segundos) {
+        if (segundos < desplazamientoDesde || segundos >= desplazamientoHasta) {
+            Instant instante = Instant.ofEpochSecond(segundos);
+            desplazamiento = reglas.getOffset(instante).getTotalSeconds();
+            ZoneOffsetTransition anterior = reglas.previousTransition(instante.plusSeconds(1));
+            ZoneOffsetTransition siguiente = reglas.nextTransition(instante);
+            desplazamientoDesde = anterior == null ? Long.MIN_VALUE : anterior.toEpochSecond();
+            desplazamientoHasta = siguiente == null ? Long.MAX_VALUE : siguiente.toEpochSecond();
+        }
+        return (int) Math.floorMod(Math.floorDiv(segundos + desplazamiento, 3600L), (long) HORAS);
+    }
+
+    // Consultas
+
+    /**
+     * Pedidos, items e ingresos por restaurante y hora local del día, entre
+     * {@code desde} (incluido) y {@code hasta} (excluido), en ms con
+     * precisión de segundos. Solo aparecen las combinaciones con pedidos,
+     * por restaurante en el orden en que se vieron por primera vez y por hora.
+     */
+    public List<VentaPorHora> ventasPorRestauranteYHora(long desde, long hasta) {
+        Recorte recorte = recortar(desde, hasta);
+        int restaurantes = cantidadRestaurantes;
+        long[] ids = idsRestaurantes;
+        int celdas = restaurantes * HORAS;
+        // Tres tramos seguidos: pedidos, items e ingresos por celda
+        Acumulado acumulado = recorrer(recorte, new Agregacion() {
+            @Override
+            Acumulado nuevo() {
+                return new Acumulado(3 * celdas);
+            }
+
+            @Override
+            void acumular(Acumulado destino, Bloque bloque, int filas, boolean filtrar, int inicio, int fin) {
+                long[] valores = destino.valores;
+                int[] restaurante = bloque.restaurante;
+                byte[] hora = bloque.hora;
+                short[] items = bloque.items;
+                long[] total = bloque.totalCentavos;
+                int[] entregado = bloque.entregado;
+                for (int i = 0; i < filas; i++) {
+                    if (filtrar && (entregado[i] < inicio || entregado[i] >= fin)) {
+                        continue;
+                    }
+                    int celda = restaurante[i] * HORAS + hora[i];
+                    valores[celda]++;
+                    valores[celdas + celda] += items[i];
+                    valores[2 * celdas + celda] += total[i];
+                }
+            }
+        });
+        List<VentaPorHora> ventas = new ArrayList<>();
+        for (int celda = 0; celda < celdas; celda++) {
+            long pedidos = acumulado.valores[celda];
+            if (pedidos > 0) {
+                ventas.add(new VentaPorHora(ids[celda / HORAS], celda % HORAS, pedidos,
+                        acumulado.valores[celdas + celda], acumulado.valores[2 * celdas + celda]));
+            }
+        }
+        return ventas;
+    }
+
+    /** Cuántos pedidos llevan cada extra, de más a menos pedido. */
+    public List<UsoExtra> extrasPopulares(long desde, long hasta) {
+        Recorte recorte = recortar(desde, hasta);
+        // Se cuentan las combinaciones de bits y recién al final se reparten por extra
+        Acumulado acumulado = recorrer(recorte, new Agregacion() {
+            @Override
+            Acumulado nuevo() {
+                return new Acumulado(256);
+            }
+
+            @Override
+            void acumular(Acumulado destino, Bloque bloque, int filas, boolean filtrar, int inicio, int fin) {
+                long[] combinaciones = destino.valores;
+                byte[] extras = bloque.extras;
+                int[] entregado = bloque.entregado;
+                for (int i = 0; i < filas; i++) {
+                    if (filtrar && (entregado[i] < inicio || entregado[i] >= fin)) {
+                        continue;
+                    }
+                    combinaciones[extras[i] & 0xFF]++;
+                }
+            }
+        });
+        List<UsoExtra> usos = new ArrayList<>();
+        for (Extra extra : EXTRAS) {
+            long pedidos = 0;
+            for (int combinacion = 1; combinacion < 256; combinacion++) {
+                if ((combinacion & (1 << extra.ordinal())) != 0) {
+                    pedidos += acumulado.valores[combinacion];
+                }
+            }
+            usos.add(new UsoExtra(extra, pedidos));
+        }
+        usos.sort(Comparator.comparingLong(UsoExtra::pedidos).reversed());
+        return usos;
+    }
+
+    /**
+     * Tiempos promedio de preparación y de entrega por restaurante, del que
+     * más tarda en preparar al que menos. Los pedidos sin un tiempo conocido
+     * no cuentan para ese promedio.
+     */
+    public List<TiemposRestaurante> tiemposPorRestaurante(long desde, long hasta) {
+        Recorte recorte = recortar(desde, hasta);
+        int restaurantes = cantidadRestaurantes;
+        long[] ids = idsRestaurantes;
+        // Cuatro tramos: pedidos y suma con preparación conocida, y lo mismo para la entrega
+        Acumulado acumulado = recorrer(recorte, new Agregacion() {
+            @Override
+            Acumulado nuevo() {
+                return new Acumulado(4 * restaurantes);
+            }
+
+            @Override
+            void acumular(Acumulado destino, Bloque bloque, int filas, boolean filtrar, int inicio, int fin) {
+                long[] valores = destino.valores;
+                int[] restaurante = bloque.restaurante;
+                int[] preparacion = bloque.preparacionMs;
+                int[] entrega = bloque.entregaMs;
+                int[] entregado = bloque.entregado;
+                for (int i = 0; i < filas; i++) {
+                    if (filtrar && (entregado[i] < inicio || entregado[i] >= fin)) {
+                        continue;
+                    }
+                    int r = restaurante[i];
+                    if (preparacion[i] >= 0) {
+                        valores[r]++;
+                        valores[restaurantes + r] += preparacion[i];
+                    }
+                    if (entrega[i] >= 0) {
+                        valores[2 * restaurantes + r]++;
+                        valores[3 * restaurantes + r] += entrega[i];
+                    }
+                }
+            }
+        });
+        long[] valores = acumulado.valores;
+        List<TiemposRestaurante> tiempos = new ArrayList<>();
+        for (int r = 0; r < restaurantes; r++) {
+            long preparados = valores[r];
+            long entregados = valores[2 * restaurantes + r];
+            if (preparados > 0 || entregados > 0) {
+                tiempos.add(new TiemposRestaurante(ids[r], entregados,
+                        preparados == 0 ? -1 : (double) valores[restaurantes + r] / preparados,
+                        entregados == 0 ? -1 : (double) valores[3 * restaurantes + r] / entregados));
+            }
+        }
+        tiempos.sort(Comparator.comparingDouble(TiemposRestaurante::preparacionMs).reversed());
+        return tiempos;
+    }
+
+    // Recorrido en paralelo
+
+    /**
+     * Bloques y filas visibles al empezar la consulta. Se toman antes de
+     * leer el diccionario de restaurantes, así todo índice que aparezca en
+     * las filas ya está en el diccionario leído.
+     */
+    private Recorte recortar(long desde, long hasta) {
+        Bloque[] vistos = bloques;
+        int[] filas = new int[vistos.length];
+        for (int b = 0; b < vistos.length; b++) {
+            filas[b] = vistos[b].filas;
+        }
+        long inicio = Math.floorDiv(desde, 1000L) - BASE_SEGUNDOS;
+        long fin = Math.floorDiv(hasta, 1000L) - BASE_SEGUNDOS;
+        return new Recorte(vistos, filas,
+                (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, inicio)),
+                (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, fin)));
+    }
+
+    private Acumulado recorrer(Recorte recorte, Agregacion agregacion) {
+        if (recorte.bloques.length == 0) {
+            return agregacion.nuevo();
+        }
+        // Unas pocas hojas por hilo: alcanza para repartir la carga sin crear un acumulado por bloque
+        int porHoja = Math.max(1, recorte.bloques.length / (4 * pool.getParallelism()));
+        return pool.invoke(new Recorrido(recorte, agregacion, 0, recorte.bloques.length, porHoja));
+    }
+
+    private record Recorte(Bloque[] bloques, int[] filas, int inicio, int fin) {}
+
+    private static final class Acumulado {
+        private final long[] valores;
+
+        private Acumulado(int tamano) {
+            this.valores = new long[tamano];
+        }
+
+        private Acumulado sumar(Acumulado otro) {
+            for (int i = 0; i < valores.length; i++) {
+                valores[i] += otro.valores[i];
+            }
+            return this;
+        }
+    }
+
+    private abstract static class Agregacion {
+        abstract Acumulado nuevo();
+
+        /** Suma las primeras {@code filas} del bloque; si {@code filtrar}, solo las de [inicio, fin). */
+        abstract void acumular(Acumulado destino, Bloque bloque, int filas, boolean filtrar, int inicio, int fin);
+    }
+
+    private static final class Recorrido extends RecursiveTask<Acumulado> {
+        private final Recorte recorte;
+        private final Agregacion agregacion;
+        private final int desde;
+        private final int hasta;
+        private final int porHoja;
+
+        private Recorrido(Recorte recorte, Agregacion agregacion, int desde, int hasta, int porHoja) {
+            this.recorte = recorte;
+            this.agregacion = agregacion;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.porHoja = porHoja;
+        }
+
+        @Override
+        protected Acumulado compute() {
+            if (hasta - desde <= porHoja) {
+                Acumulado acumulado = agregacion.nuevo();
+                for (int b = desde; b < hasta; b++) {
+                    Bloque bloque = recorte.bloques[b];
+                    int filas = recorte.filas[b];
+                    if (filas == 0 || bloque.maximo < recorte.inicio || bloque.minimo >= recorte.fin) {
+                        continue;
+                    }
+                    boolean filtrar = bloque.minimo < recorte.inicio || bloque.maximo >= recorte.fin;
+                    agregacion.acumular(acumulado, bloque, filas, filtrar, recorte.inicio, recorte.fin);
+                }
+                return acumulado;
+            }
+            int medio = (desde + hasta) >>> 1;
+            Recorrido izquierda = new Recorrido(recorte, agregacion, desde, medio, porHoja);
+            izquierda.fork();
+            Acumulado derecha = new Recorrido(recorte, agregacion, medio, hasta, porHoja).compute();
+            return izquierda.join().sumar(derecha);
+        }
+    }
+
+    // Tamaño
+
+    public long getPedidos() {
+        long total = 0;
+        for (Bloque bloque : bloques) {
+            total += bloque.filas;
+        }
+        return total;
+    }
+
+    public int getBloques() { return bloques.length; }
+    public int getRestaurantes() { return cantidadRestaurantes - 1; }
+    public synchronized long getDescartados() { return descartados; }
+    public int getParalelismo() { return pool.getParallelism(); }
+
+    /** Bytes reservados por las columnas, contando los bloques enteros aunque no estén llenos. */
+    public long getBytes() {
+        return (long) bloques.length * tamanoBloque * Bloque.BYTES_POR_FILA;
+    }
+
+    private static final class Bloque {
+        private static final int BYTES_POR_FILA = 4 + 4 + 1 + 4 + 4 + 8 + 2 + 1;
+
+        private final int[] restaurante;
+        // Segundos desde BASE_SEGUNDOS
+        private final int[] entregado;
+        // Hora local del día, 0 a 23, calculada al agregar
+        private final byte[] hora;
+        private final int[] preparacionMs;
+        private final int[] entregaMs;
+        private final long[] totalCentavos;
+        private final short[] items;
+        private final byte[] extras;
+        // Rango de entregado en el bloque; se escriben antes que filas, así que nunca quedan más angostos que lo visible
+        private int minimo;
+        private int maximo;
+        private volatile int filas;
+
+        private Bloque(int tamano) {
+            restaurante = new int[tamano];
+            entregado = new int[tamano];
+            hora = new byte[tamano];
+            preparacionMs = new int[tamano];
+            entregaMs = new int[tamano];
+            totalCentavos = new long[tamano];
+            items = new short[tamano];
+            extras = new byte[tamano];
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.delivery.analitica;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tamaño y paralelismo del historial columnar de pedidos entregados.
+ */
+@Component
+@ConfigurationProperties(prefix = "delivery.analitica")
+public class PropiedadesAnalitica {
+    private boolean habilitada = true;
+    private int tamanoBloque = 65536;
+    private long maximoPedidos = 50_000_000;
+    // Vacío = la zona del sistema
+    private String zona = "";
+    // 0 = uno por procesador
+    private int paralelismo = 0;
+
+    public boolean isHabilitada() { return habilitada; }
+    public void setHabilitada(boolean habilitada) { this.habilitada = habilitada; }
+
+    public int getTamanoBloque() { return tamanoBloque; }
+    public void setTamanoBloque(int tamanoBloque) { this.tamanoBloque = tamanoBloque; }
+
+    public long getMaximoPedidos() { return maximoPedidos; }
+    public void setMaximoPedidos(long maximoPedidos) { this.maximoPedidos = maximoPedidos; }
+
+    public String getZona() { return zona; }
+    public void setZona(String zona) { this.zona = zona; }
+
+    public int getParalelismo() { return paralelismo; }
+    public void setParalelismo(int paralelismo) { this.paralelismo = paralelismo; }
+}
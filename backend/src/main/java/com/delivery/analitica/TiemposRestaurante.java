@@ -0,0 +1,4 @@
+package com.delivery.analitica;
+
+/** Promedios en ms de un restaurante; -1 si ningún pedido tiene ese tiempo. */
+public record TiemposRestaurante(long restauranteId, long pedidos, double preparacionMs, double entregaMs) {}
@@ -0,0 +1,6 @@
+package com.delivery.analitica;
+
+import com.delivery.decorator.Extra;
+
+/** Pedidos entregados que llevan el extra en al menos un item. */
+public record UsoExtra(Extra extra, long pedidos) {}
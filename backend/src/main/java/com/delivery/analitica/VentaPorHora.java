@@ -0,0 +1,4 @@
+package com.delivery.analitica;
+
+/** Pedidos entregados por un restaurante en una hora local del día (0 a 23). */
+public record VentaPorHora(long restauranteId, int hora, long pedidos, long items, long ingresosCentavos) {}
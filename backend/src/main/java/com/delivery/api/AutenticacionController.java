@@ -0,0 +1,71 @@
+package com.delivery.api;
+
+import com.delivery.api.Dtos.LoginSolicitudDto;
+import com.delivery.api.Dtos.UsuarioDto;
+import com.delivery.auth.ServicioAutenticacion;
+import com.delivery.sesion.GestorSesiones;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/auth")
+public class AutenticacionController {
+    private static final String PREFIJO_BEARER = "Bearer ";
+
+    @Autowired
+    private ServicioAutenticacion servicioAutenticacion;
+
+    @Autowired
+    private GestorSesiones gestorSesiones;
+
+    /**
+     * Devuelve un futuro para que el hilo del servidor quede libre mientras
+     * se verifica el hash.
+     */
+    @PostMapping("/login")
+    public CompletableFuture<UsuarioDto> login(@RequestBody LoginSolicitudDto solicitud) {
+        if (solicitud.username() == null || solicitud.password() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Faltan credenciales");
+        }
+        return servicioAutenticacion.iniciarSesion(solicitud.username(), solicitud.password())
+                .thenApply(resultado -> {
+                    switch (resultado.getEstado()) {
+                        case EXITO:
+                            return UsuarioDto.de(resultado.getSesion());
+                        case BLOQUEADO:
+                            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Demasiados intentos fallidos");
+                        default:
+                            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario o contraseña incorrectos");
+                    }
+                });
+    }
+
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String autorizacion) {
+        String token = token(autorizacion);
+        if (token != null) {
+            gestorSesiones.cerrar(token);
+        }
+    }
+
+    /** Token de un encabezado "Bearer ...", o null si no viene. */
+    static String token(String autorizacion) {
+        if (autorizacion != null && autorizacion.startsWith(PREFIJO_BEARER)) {
+            return autorizacion.substring(PREFIJO_BEARER.length());
+        }
+        return null;
+    }
+}
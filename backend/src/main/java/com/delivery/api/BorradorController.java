@@ -0,0 +1,127 @@
+package com.delivery.api;
+
+import com.delivery.api.Dtos.BorradorSolicitudDto;
+import com.delivery.api.Dtos.ItemSolicitudDto;
+import com.delivery.api.Dtos.PedidoDto;
+import com.delivery.catalogo.CatalogoCache;
+import com.delivery.idempotencia.ServicioIdempotencia;
+import com.delivery.ingesta.IngestaPedidos;
+import com.delivery.model.Producto;
+import com.delivery.model.Restaurante;
+import com.delivery.service.PedidoService;
+import com.delivery.sesion.ContextoSesion;
+import com.delivery.sesion.GestorSesiones;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Pedido en armado del usuario autenticado. Cada token tiene su propio
+ * borrador, así varios usuarios pueden armar pedidos en paralelo.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/api/session/order")
+public class BorradorController {
+
+    @Autowired
+    private GestorSesiones gestorSesiones;
+
+    @Autowired
+    private CatalogoCache catalogoCache;
+
+    @Autowired
+    private ServicioIdempotencia servicioIdempotencia;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @GetMapping
+    public PedidoDto obtener(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String autorizacion) {
+        return contexto(autorizacion).getBorrador()
+                .map(PedidoDto::de)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No hay un pedido en armado"));
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public PedidoDto iniciar(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String autorizacion,
+                             @RequestBody BorradorSolicitudDto solicitud) {
+        ContextoSesion contexto = contexto(autorizacion);
+        Restaurante restaurante = null;
+        if (solicitud.restaurantId() != null) {
+            restaurante = catalogoCache.buscarRestaurante(solicitud.restaurantId())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Restaurante no encontrado"));
+        }
+        String direccion = solicitud.deliveryAddress() != null ? solicitud.deliveryAddress() : "Dirección por defecto";
+        try {
+            return PedidoDto.de(gestorSesiones.iniciarPedido(contexto, restaurante, direccion));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @PostMapping("/items")
+    public PedidoDto agregarItem(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String autorizacion,
+                                 @RequestBody ItemSolicitudDto item) {
+        ContextoSesion contexto = contexto(autorizacion);
+        Producto producto = PedidoController.crearProducto(item);
+        int cantidad = PedidoController.cantidad(item);
+        int enBorrador = contexto.getBorrador().map(borrador -> borrador.getItems().size()).orElse(0);
+        if (enBorrador + cantidad > IngestaPedidos.MAXIMO_ITEMS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "El pedido tendría " + (enBorrador + cantidad) + " items, el máximo es " + IngestaPedidos.MAXIMO_ITEMS);
+        }
+        try {
+            for (int i = 0; i < cantidad; i++) {
+                gestorSesiones.agregarItem(contexto, producto);
+            }
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+        return obtener(autorizacion);
+    }
+
+    @PostMapping("/confirm")
+    @ResponseStatus(HttpStatus.CREATED)
+    public PedidoDto confirmar(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String autorizacion,
+                               @RequestHeader(value = PedidoController.CLAVE_IDEMPOTENCIA, required = false) String clave) {
+        ContextoSesion contexto = contexto(autorizacion);
+        try {
+            if (clave == null) {
+                return PedidoDto.de(gestorSesiones.confirmarPedido(contexto));
+            }
+            // Por usuario y no por token: el token no se guarda en la base y cambia al volver a iniciar sesión
+            String alcance = "sesion:" + contexto.getSesion().getUsuarioId() + ":" + clave;
+            Long id = PedidoController.idempotente(servicioIdempotencia, alcance, clave, null, () -> {
+                contexto.getBorrador().ifPresent(borrador -> servicioIdempotencia.asociar(borrador, alcance, null));
+                return gestorSesiones.confirmarPedido(contexto).getId();
+            });
+            return pedidoService.buscar(id).map(PedidoDto::de)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pedido no encontrado"));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void cancelar(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String autorizacion) {
+        contexto(autorizacion).cancelarPedido();
+    }
+
+    private ContextoSesion contexto(String autorizacion) {
+        return gestorSesiones.buscar(AutenticacionController.token(autorizacion))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Sesión inválida o vencida"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.delivery.api;
+
+import com.delivery.difusion.AvisoEstado;
+import com.delivery.difusion.Canal;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Canal de la central sobre una conexión SSE. Los avisos ya vienen
+ * armados como eventos, así cada lote sale en una sola escritura sin
+ * pasar por el serializador por conexión.
+ */
+final class CanalSse implements Canal {
+    private static final MediaType TEXTO = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    private static final String LATIDO = ":\n\n";
+
+    private final SseEmitter emisor;
+    // Solo lo usa la tarea que escribe
+    private final StringBuilder buffer = new StringBuilder(512);
+
+    CanalSse(SseEmitter emisor) {
+        this.emisor = emisor;
+    }
+
+    @Override
+    public void enviar(List<AvisoEstado> avisos) throws IOException {
+        buffer.setLength(0);
+        for (AvisoEstado aviso : avisos) {
+            buffer.append(aviso.getTexto());
+        }
+        escribir(buffer.toString());
+    }
+
+    @Override
+    public void latido() throws IOException {
+        escribir(LATIDO);
+    }
+
+    @Override
+    public void cerrar(String motivo) {
+        // Un cliente descartado por lento no recibe el motivo: escribirlo podría volver a trabarse
+        try {
+            emisor.complete();
+        } catch (RuntimeException e) {
+            // La conexión ya estaba cerrada
+        }
+    }
+
+    private void escribir(String texto) throws IOException {
+        emisor.send(Set.of(new DataWithMediaType(texto, TEXTO)));
+    }
+}
@@ -0,0 +1,54 @@
+package com.delivery.api;
+
+import com.delivery.api.Dtos.ExtraDto;
+import com.delivery.api.Dtos.ProductoDto;
+import com.delivery.catalogo.CatalogoCache;
+import com.delivery.decorator.Plato;
+import com.delivery.precios.MotorPrecios;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api")
+public class CatalogoController {
+
+    @Autowired
+    private CatalogoCache catalogoCache;
+
+    @Autowired
+    private MotorPrecios motorPrecios;
+
+    // Sin restaurante se muestran los precios generales
+    @GetMapping("/products")
+    public List<ProductoDto> productos(@RequestParam(required = false) Long restaurantId) {
+        return catalogoCache.getProductos().stream()
+                .map(plato -> ProductoDto.de(plato, motorPrecios.precioPlato(restaurantId, plato)))
+                .toList();
+    }
+
+    @GetMapping("/products/{id}")
+    public ProductoDto producto(@PathVariable int id, @RequestParam(required = false) Long restaurantId) {
+        Plato plato = Plato.porId(id);
+        if (plato == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Producto no encontrado");
+        }
+        return ProductoDto.de(plato, motorPrecios.precioPlato(restaurantId, plato));
+    }
+
+    @GetMapping("/extras")
+    public List<ExtraDto> extras(@RequestParam(required = false) Long restaurantId) {
+        return catalogoCache.getExtras().stream()
+                .map(extra -> ExtraDto.de(extra, motorPrecios.precioExtra(restaurantId, extra)))
+                .toList();
+    }
+}
@@ -0,0 +1,176 @@
+package com.delivery.api;
+
+import com.delivery.auth.Sesion;
+import com.delivery.busqueda.ResultadoBusqueda;
+import com.delivery.decorator.Extra;
+import com.delivery.decorator.Plato;
+import com.delivery.ingesta.ResultadoIngesta;
+import com.delivery.model.Dinero;
+import com.delivery.model.ItemPedido;
+import com.delivery.model.Pedido;
+import com.delivery.model.PrecioLista;
+import com.delivery.model.Promocion;
+import com.delivery.model.Restaurante;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formas JSON de la API. Los nombres de los campos siguen los tipos de
+ * {@code Frontend/types/index.ts}.
+ */
+final class Dtos {
+    private Dtos() {}
+
+    record ClienteDto(String name, String phone, String email, String address) {}
+
+    record RestauranteDto(Long id, String name, String description, String phone, String address) {
+        static RestauranteDto de(Restaurante restaurante) {
+            if (restaurante == null) {
+                return null;
+            }
+            return new RestauranteDto(restaurante.getId(), restaurante.getNombre(),
+                    restaurante.getDescripcion(), restaurante.getTelefono(), restaurante.getDireccion());
+        }
+    }
+
+    record ProductoDto(int id, String name, double basePrice) {
+        static ProductoDto de(Plato plato) {
+            return de(plato, plato.getPrecioCentavos());
+        }
+
+        static ProductoDto de(Plato plato, long precioCentavos) {
+            return new ProductoDto(plato.getId(), plato.getNombre(), Dinero.aDecimal(precioCentavos));
+        }
+    }
+
+    record ExtraDto(int id, String name, double price) {
+        static ExtraDto de(Extra extra) {
+            return de(extra, extra.getPrecioCentavos());
+        }
+
+        static ExtraDto de(Extra extra, long precioCentavos) {
+            return new ExtraDto(extra.getId(), extra.getNombre(), Dinero.aDecimal(precioCentavos));
+        }
+    }
+
+    record ItemDto(int id, ProductoDto product, List<Object> extras, int quantity, double subtotal) {}
+
+    record BusquedaDto(int total, int page, int size, List<RestauranteDto> results) {
+        static BusquedaDto de(ResultadoBusqueda resultado) {
+            return new BusquedaDto(resultado.total(), resultado.pagina(), resultado.tamano(),
+                    resultado.restaurantes().stream().map(RestauranteDto::de).toList());
+        }
+    }
+
+    record PedidoDto(Long id, ClienteDto customer, RestauranteDto restaurant, List<ItemDto> items,
+                     String status, double totalAmount, double discountAmount, String deliveryAddress, String createdAt,
+                     String estimatedReadyAt, String estimatedDeliveryAt, String latestDeliveryAt,
+                     Map<String, String> statusHistory) {
+        static PedidoDto de(Pedido pedido) {
+            List<ItemDto> items = new ArrayList<>();
+            List<ItemPedido> lineas = pedido.getLineas();
+            for (int i = 0; i < lineas.size(); i++) {
+                ItemPedido linea = lineas.get(i);
+                items.add(new ItemDto(i + 1, new ProductoDto(0, linea.getDescripcion(), linea.getPrecio()),
+                        List.of(), 1, linea.getPrecio()));
+            }
+            ClienteDto cliente = new ClienteDto(pedido.getCliente().getNombre(), pedido.getCliente().getTelefono(),
+                    null, pedido.getCliente().getDireccion());
+            return new PedidoDto(pedido.getId(), cliente, RestauranteDto.de(pedido.getRestaurante()), items,
+                    EstadoApi.aApi(pedido.getEstado()), pedido.getTotal(), Dinero.aDecimal(pedido.getDescuentoCentavos()),
+                    pedido.getCliente().getDireccion(),
+                    Instant.ofEpochMilli(pedido.getCreadoEn()).toString(),
+                    hora(pedido.getListoEstimadoEn()), hora(pedido.getEntregaEstimadaEn()),
+                    hora(pedido.getEntregaEstimadaP90En()),
+                    historial(pedido));
+        }
+
+        private static String hora(long ms) {
+            return ms > 0 ? Instant.ofEpochMilli(ms).toString() : null;
+        }
+
+        // Hora de entrada a cada estado por el que ya pasó el pedido
+        private static Map<String, String> historial(Pedido pedido) {
+            Map<String, String> historial = new LinkedHashMap<>();
+            for (Pedido.Estado estado : Pedido.Estado.values()) {
+                long entrada = pedido.getEntradaEn(estado);
+                if (entrada > 0) {
+                    historial.put(EstadoApi.aApi(estado), Instant.ofEpochMilli(entrada).toString());
+                }
+            }
+            return historial;
+        }
+    }
+
+    record ItemSolicitudDto(int productId, List<Integer> extraIds, Integer quantity) {}
+
+    record PedidoSolicitudDto(ClienteDto customer, Long restaurantId, String deliveryAddress,
+                              List<ItemSolicitudDto> items, String notes) {}
+
+    record EstadoSolicitudDto(String status) {}
+
+    record ErrorIngestaDto(long record, String message) {}
+
+    record ResultadoIngestaDto(long accepted, long rejected, long elapsedMs, long ordersPerSecond,
+                               List<ErrorIngestaDto> errors) {
+        static ResultadoIngestaDto de(ResultadoIngesta resultado) {
+            return new ResultadoIngestaDto(resultado.aceptados(), resultado.rechazados(),
+                    resultado.duracionNanos() / 1_000_000, resultado.pedidosPorSegundo(),
+                    resultado.errores().stream().map(error -> new ErrorIngestaDto(error.registro(), error.mensaje())).toList());
+        }
+    }
+
+    record CocinaDto(Long restaurantId, int slots, int queueCapacity, int queueDepth, String estimatedReadyAt,
+                     long admitted, long delayed, long rejected) {}
+
+    record BorradorSolicitudDto(Long restaurantId, String deliveryAddress) {}
+
+    record LoginSolicitudDto(String username, String password) {}
+
+    record UsuarioDto(Long id, String username, String name, String email, String phone, String role, String token) {
+        static UsuarioDto de(Sesion sesion) {
+            return new UsuarioDto(sesion.getUsuarioId(), sesion.getNombreUsuario(), sesion.getNombre(),
+                    sesion.getEmail(), sesion.getTelefono(), "CUSTOMER", sesion.getToken());
+        }
+    }
+
+    /** {@code kind} es "product" o "extra"; {@code itemId} es el id del plato o del extra. */
+    record PrecioDto(Long restaurantId, String kind, int itemId, double price) {
+        static PrecioDto de(PrecioLista precio) {
+            return new PrecioDto(precio.getRestauranteId(), precio.getTipo() == PrecioLista.Tipo.PLATO ? "product" : "extra",
+                    precio.getCodigo(), Dinero.aDecimal(precio.getPrecioCentavos()));
+        }
+    }
+
+    /**
+     * {@code type} es "combo" o "happy_hour". Las horas van como "HH:mm" en
+     * la zona del motor de precios.
+     */
+    record PromocionDto(Long id, String name, String type, Long restaurantId, List<Integer> productIds,
+                        double discount, int percent, String from, String to, Boolean active) {
+        static PromocionDto de(Promocion promocion) {
+            List<Integer> platos = promocion.getPlatos() == null || promocion.getPlatos().isBlank() ? List.of()
+                    : Arrays.stream(promocion.getPlatos().split(",")).map(String::trim).map(Integer::valueOf).toList();
+            boolean combo = promocion.getTipo() == Promocion.Tipo.COMBO;
+            return new PromocionDto(promocion.getId(), promocion.getNombre(), combo ? "combo" : "happy_hour",
+                    promocion.getRestauranteId(), platos, Dinero.aDecimal(promocion.getDescuentoCentavos()),
+                    promocion.getPorcentaje(), combo ? null : hora(promocion.getDesdeMinuto()),
+                    combo ? null : hora(promocion.getHastaMinuto()), promocion.isActiva());
+        }
+
+        private static String hora(int minuto) {
+            return LocalTime.ofSecondOfDay(minuto * 60L).toString();
+        }
+    }
+
+    record TarifarioDto(long version, List<PrecioDto> prices, List<PromocionDto> promotions) {}
+
+    record EstadisticasDto(long totalOrders, double totalRevenue, double averageOrderValue,
+                           Map<String, Integer> ordersByStatus, List<PedidoDto> recentOrders) {}
+}
@@ -0,0 +1,44 @@
+package com.delivery.api;
+
+import com.delivery.api.Dtos.EstadisticasDto;
+import com.delivery.api.Dtos.PedidoDto;
+import com.delivery.model.Pedido;
+import com.delivery.service.AlmacenPedidos;
+import com.delivery.singleton.Estadisticas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/statistics")
+public class EstadisticasController {
+    private static final int PEDIDOS_RECIENTES = 10;
+
+    @Autowired
+    private AlmacenPedidos almacenPedidos;
+
+    private final Estadisticas estadisticas = Estadisticas.getInstancia();
+
+    @GetMapping
+    public EstadisticasDto obtener() {
+        Map<String, Integer> porEstado = new LinkedHashMap<>();
+        for (Pedido.Estado estado : Pedido.Estado.values()) {
+            porEstado.put(EstadoApi.aApi(estado), almacenPedidos.contarPorEstado(estado));
+        }
+        List<PedidoDto> recientes = almacenPedidos.getActivos().stream()
+                .sorted(Comparator.comparing(Pedido::getId).reversed())
+                .limit(PEDIDOS_RECIENTES)
+                .map(PedidoDto::de)
+                .toList();
+        return new EstadisticasDto(estadisticas.getTotalPedidos(), estadisticas.getIngresosTotales(),
+                estadisticas.getPromedioPorPedido(), porEstado, recientes);
+    }
+}
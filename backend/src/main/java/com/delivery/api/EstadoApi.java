@@ -0,0 +1,30 @@
+package com.delivery.api;
+
+import com.delivery.model.Pedido;
+
+import java.util.Locale;
+
+/**
+ * Traduce entre {@link Pedido.Estado} y los nombres de estado que usa el
+ * frontend (RECEIVED, PREPARING, READY, ON_THE_WAY, DELIVERED).
+ */
+public final class EstadoApi {
+    private static final String[] NOMBRES = { "RECEIVED", "PREPARING", "READY", "ON_THE_WAY", "DELIVERED" };
+
+    private EstadoApi() {}
+
+    public static String aApi(Pedido.Estado estado) {
+        return NOMBRES[estado.ordinal()];
+    }
+
+    public static Pedido.Estado desdeApi(String nombre) {
+        String normalizado = nombre.trim().toUpperCase(Locale.ROOT);
+        for (int i = 0; i < NOMBRES.length; i++) {
+            if (NOMBRES[i].equals(normalizado)) {
+                return Pedido.Estado.values()[i];
+            }
+        }
+        // También se aceptan los nombres en español
+        return Pedido.Estado.valueOf(normalizado);
+    }
+}
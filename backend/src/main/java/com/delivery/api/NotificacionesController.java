@@ -0,0 +1,52 @@
+package com.delivery.api;
+
+import com.delivery.difusion.CentralDifusion;
+import com.delivery.difusion.Suscripcion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Cambios de estado de los pedidos empujados al cliente por SSE. La
+ * conexión solo trae los cambios posteriores a la suscripción; el estado
+ * actual se consulta aparte con {@code GET /api/orders/{id}}.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/api/notifications")
+public class NotificacionesController {
+    private static final long REINTENTO_MS = 3000;
+
+    @Autowired
+    private CentralDifusion centralDifusion;
+
+    /**
+     * Con {@code orderId} sigue un pedido, con {@code restaurantId} los
+     * pedidos de un restaurante y sin ninguno todos los pedidos.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribir(@RequestParam(required = false) Long orderId,
+                                @RequestParam(required = false) Long restaurantId) throws IOException {
+        // Sin plazo: las conexiones muertas se detectan con los latidos de la central
+        SseEmitter emisor = new SseEmitter(0L);
+        emisor.send(SseEmitter.event().reconnectTime(REINTENTO_MS).comment("conectado"));
+        Suscripcion suscripcion;
+        try {
+            suscripcion = centralDifusion.suscribir(orderId, restaurantId, new CanalSse(emisor));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+        emisor.onCompletion(() -> centralDifusion.cancelar(suscripcion));
+        emisor.onError(error -> centralDifusion.cancelar(suscripcion));
+        return emisor;
+    }
+}
@@ -0,0 +1,246 @@
+package com.delivery.api;
+
+import com.delivery.api.Dtos.EstadoSolicitudDto;
+import com.delivery.api.Dtos.ItemSolicitudDto;
+import com.delivery.api.Dtos.PedidoDto;
+import com.delivery.api.Dtos.PedidoSolicitudDto;
+import com.delivery.api.Dtos.ResultadoIngestaDto;
+import com.delivery.catalogo.CatalogoCache;
+import com.delivery.cocina.CocinaSaturadaException;
+import com.delivery.decorator.Menu;
+import com.delivery.idempotencia.ClaveReutilizadaException;
+import com.delivery.idempotencia.ServicioIdempotencia;
+import com.delivery.ingesta.FormatoIngesta;
+import com.delivery.ingesta.IngestaPedidos;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Producto;
+import com.delivery.model.Restaurante;
+import com.delivery.service.AlmacenPedidos;
+import com.delivery.service.PedidoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/orders")
+public class PedidoController {
+    static final String CLAVE_IDEMPOTENCIA = "Idempotency-Key";
+    private static final int LARGO_MAXIMO_CLAVE = 200;
+    // El de la columna de la base, donde se guarda la clave con su alcance
+    private static final int LARGO_MAXIMO_ALCANCE = 255;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private AlmacenPedidos almacenPedidos;
+
+    @Autowired
+    private CatalogoCache catalogoCache;
+
+    @Autowired
+    private IngestaPedidos ingestaPedidos;
+
+    @Autowired
+    private ServicioIdempotencia servicioIdempotencia;
+
+    @GetMapping
+    public List<PedidoDto> listar(@RequestParam(required = false) Long restaurantId,
+                                  @RequestParam(required = false) String status) {
+        List<Pedido> pedidos;
+        if (restaurantId != null) {
+            pedidos = almacenPedidos.getPorRestaurante(restaurantId);
+        } else if (status != null) {
+            pedidos = almacenPedidos.getPorEstado(estado(status));
+        } else {
+            pedidos = almacenPedidos.getActivos();
+        }
+        return pedidos.stream().map(PedidoDto::de).toList();
+    }
+
+    @GetMapping("/{id}")
+    public PedidoDto obtener(@PathVariable Long id) {
+        return PedidoDto.de(buscar(id));
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public PedidoDto crear(@RequestHeader(value = CLAVE_IDEMPOTENCIA, required = false) String clave,
+                           @RequestBody PedidoSolicitudDto solicitud) {
+        if (solicitud.customer() == null || solicitud.items() == null || solicitud.items().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El pedido necesita cliente e items");
+        }
+        int total = 0;
+        for (ItemSolicitudDto item : solicitud.items()) {
+            total += cantidad(item);
+        }
+        if (total > IngestaPedidos.MAXIMO_ITEMS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "El pedido tiene " + total + " items, el máximo es " + IngestaPedidos.MAXIMO_ITEMS);
+        }
+        if (clave == null) {
+            return PedidoDto.de(registrar(solicitud, null, null));
+        }
+        // La clave es del cliente que la manda, que sin sesión se identifica por el teléfono:
+        // la misma clave de otro cliente es otra operación
+        if (solicitud.customer().phone() == null || solicitud.customer().phone().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, CLAVE_IDEMPOTENCIA + " necesita el teléfono del cliente");
+        }
+        String alcance = "pedido:" + solicitud.customer().phone() + ":" + clave;
+        String huella = servicioIdempotencia.huella(solicitud);
+        // Se recuerda el id y no la respuesta, así el reintento ve el estado actual del pedido
+        Long id = idempotente(servicioIdempotencia, alcance, clave, huella,
+                () -> registrar(solicitud, alcance, huella).getId());
+        return PedidoDto.de(buscar(id));
+    }
+
+    private Pedido registrar(PedidoSolicitudDto solicitud, String claveIdempotencia, String huella) {
+        Restaurante restaurante = null;
+        if (solicitud.restaurantId() != null) {
+            restaurante = catalogoCache.buscarRestaurante(solicitud.restaurantId())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Restaurante no encontrado"));
+        }
+        String direccion = solicitud.deliveryAddress() != null
+                ? solicitud.deliveryAddress() : solicitud.customer().address();
+        Cliente cliente = new Cliente(solicitud.customer().name(), solicitud.customer().phone(), direccion);
+
+        Pedido pedido = pedidoService.nuevoPedido(cliente, restaurante);
+        for (ItemSolicitudDto item : solicitud.items()) {
+            Producto producto = crearProducto(item);
+            int cantidad = cantidad(item);
+            for (int i = 0; i < cantidad; i++) {
+                pedido.agregarItem(producto);
+            }
+        }
+        if (claveIdempotencia != null) {
+            servicioIdempotencia.asociar(pedido, claveIdempotencia, huella);
+        }
+        return pedidoService.registrar(pedido);
+    }
+
+    /**
+     * Carga masiva: un pedido por línea en NDJSON o el formato binario de
+     * {@link FormatoIngesta}. Los registros inválidos se informan en la
+     * respuesta y el resto se registra igual.
+     */
+    @PostMapping(path = "/batch", consumes = { "application/x-ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    public ResultadoIngestaDto importar(@RequestHeader(HttpHeaders.CONTENT_TYPE) String tipoContenido,
+                                        InputStream cuerpo) throws IOException {
+        FormatoIngesta formato = MediaType.parseMediaType(tipoContenido).isCompatibleWith(MediaType.APPLICATION_OCTET_STREAM)
+                ? FormatoIngesta.BINARIO : FormatoIngesta.NDJSON;
+        return ResultadoIngestaDto.de(ingestaPedidos.importar(cuerpo, formato));
+    }
+
+    @PutMapping("/{id}/status")
+    public PedidoDto cambiarEstado(@PathVariable Long id,
+                                   @RequestHeader(value = CLAVE_IDEMPOTENCIA, required = false) String clave,
+                                   @RequestBody EstadoSolicitudDto solicitud) {
+        if (clave == null) {
+            return aplicarEstado(id, solicitud);
+        }
+        return idempotente(servicioIdempotencia, "estado:" + id + ":" + clave, clave, solicitud.status(),
+                () -> aplicarEstado(id, solicitud));
+    }
+
+    private PedidoDto aplicarEstado(Long id, EstadoSolicitudDto solicitud) {
+        Pedido pedido = pedidoService.buscarActivo(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pedido activo no encontrado"));
+        try {
+            pedidoService.cambiarEstado(pedido, estado(solicitud.status()));
+        } catch (CocinaSaturadaException e) {
+            ErrorResponseException saturada = new ErrorResponseException(HttpStatus.SERVICE_UNAVAILABLE);
+            saturada.setDetail(e.getMessage());
+            saturada.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(e.getReintentarEnMs() + 999))));
+            throw saturada;
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+        return PedidoDto.de(pedido);
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por clave: un reintento recibe lo
+     * mismo que la primera vez. Si la operación falla la clave no queda
+     * usada y el reintento vuelve a ejecutarla.
+     *
+     * @param alcance la clave del cliente con la operación y lo que la distingue (pedido, usuario)
+     */
+    static <T> T idempotente(ServicioIdempotencia servicio, String alcance, String clave, Object huella,
+                             Supplier<T> operacion) {
+        if (clave.isBlank() || clave.length() > LARGO_MAXIMO_CLAVE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    CLAVE_IDEMPOTENCIA + " vacía o de más de " + LARGO_MAXIMO_CLAVE + " caracteres");
+        }
+        if (alcance.length() > LARGO_MAXIMO_ALCANCE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    CLAVE_IDEMPOTENCIA + " demasiado larga junto con los datos del cliente");
+        }
+        try {
+            return servicio.ejecutar(alcance, huella, operacion);
+        } catch (ClaveReutilizadaException e) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        }
+    }
+
+    private Pedido buscar(Long id) {
+        return pedidoService.buscar(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pedido no encontrado"));
+    }
+
+    static Producto crearProducto(ItemSolicitudDto item) {
+        if (!Menu.esProductoValido(item.productId())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Producto inválido: " + item.productId());
+        }
+        Producto producto = Menu.crearProductoBase(item.productId());
+        if (item.extraIds() != null) {
+            for (Integer extraId : item.extraIds()) {
+                if (extraId == null || !Menu.esExtraValido(extraId)) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Extra inválido: " + extraId);
+                }
+                producto = Menu.agregarExtra(producto, extraId);
+            }
+        }
+        return producto;
+    }
+
+    /** Cantidad de la línea, por defecto 1, con los mismos límites que la ingesta masiva. */
+    static int cantidad(ItemSolicitudDto item) {
+        int cantidad = item.quantity() == null ? 1 : item.quantity();
+        if (cantidad < 1 || cantidad > IngestaPedidos.MAXIMO_CANTIDAD) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Cantidad inválida: " + cantidad + ", debe estar entre 1 y " + IngestaPedidos.MAXIMO_CANTIDAD);
+        }
+        return cantidad;
+    }
+
+    private Pedido.Estado estado(String nombre) {
+        try {
+            return EstadoApi.desdeApi(nombre);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Estado inválido: " + nombre);
+        }
+    }
+}
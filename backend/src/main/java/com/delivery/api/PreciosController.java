@@ -0,0 +1,150 @@
+package com.delivery.api;
+
+import com.delivery.api.Dtos.PrecioDto;
+import com.delivery.api.Dtos.PromocionDto;
+import com.delivery.api.Dtos.TarifarioDto;
+import com.delivery.decorator.Extra;
+import com.delivery.decorator.Plato;
+import com.delivery.model.Dinero;
+import com.delivery.model.PrecioLista;
+import com.delivery.model.Promocion;
+import com.delivery.precios.MotorPrecios;
+import com.delivery.repository.PrecioListaRepository;
+import com.delivery.repository.PromocionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Administración de precios y promociones. Cada cambio se guarda en la base
+ * y recarga el motor de precios, así rige para el próximo pedido que se
+ * registre; los pedidos ya registrados conservan su precio.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/api/pricing")
+public class PreciosController {
+
+    @Autowired
+    private PrecioListaRepository precioListaRepository;
+
+    @Autowired
+    private PromocionRepository promocionRepository;
+
+    @Autowired
+    private MotorPrecios motorPrecios;
+
+    @GetMapping
+    public TarifarioDto tarifario() {
+        return new TarifarioDto(motorPrecios.getTabla().getVersion(),
+                precioListaRepository.findAll().stream().map(PrecioDto::de).toList(),
+                promocionRepository.findAll().stream().map(PromocionDto::de).toList());
+    }
+
+    @PutMapping("/prices")
+    public PrecioDto fijarPrecio(@RequestBody PrecioDto solicitud) {
+        PrecioLista.Tipo tipo = tipo(solicitud.kind());
+        if (tipo == PrecioLista.Tipo.PLATO ? Plato.porId(solicitud.itemId()) == null : Extra.porId(solicitud.itemId()) == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Producto o extra inexistente");
+        }
+        long centavos = Dinero.centavos(solicitud.price());
+        if (centavos < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El precio no puede ser negativo");
+        }
+        PrecioLista precio = precioListaRepository
+                .findByRestauranteIdAndTipoAndCodigo(solicitud.restaurantId(), tipo, solicitud.itemId())
+                .orElseGet(() -> new PrecioLista(solicitud.restaurantId(), tipo, solicitud.itemId(), centavos));
+        precio.setPrecioCentavos(centavos);
+        PrecioLista guardado = precioListaRepository.save(precio);
+        motorPrecios.recargar();
+        return PrecioDto.de(guardado);
+    }
+
+    @PostMapping("/promotions")
+    @ResponseStatus(HttpStatus.CREATED)
+    public PromocionDto crearPromocion(@RequestBody PromocionDto solicitud) {
+        if (solicitud.name() == null || solicitud.name().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Falta el nombre de la promoción");
+        }
+        List<Integer> productos = solicitud.productIds() == null ? List.of() : solicitud.productIds();
+        if (productos.stream().anyMatch(id -> id == null || Plato.porId(id) == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Producto inexistente en la promoción");
+        }
+        String platos = productos.stream().map(String::valueOf).collect(Collectors.joining(","));
+
+        Promocion promocion;
+        if ("combo".equals(solicitud.type())) {
+            long descuento = Dinero.centavos(solicitud.discount());
+            if (productos.isEmpty() || descuento <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Un combo necesita productos y un descuento");
+            }
+            promocion = Promocion.combo(solicitud.name(), solicitud.restaurantId(), platos, descuento);
+        } else if ("happy_hour".equals(solicitud.type())) {
+            if (solicitud.percent() <= 0 || solicitud.percent() > 100) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El porcentaje debe estar entre 1 y 100");
+            }
+            promocion = Promocion.horaFeliz(solicitud.name(), solicitud.restaurantId(), platos, solicitud.percent(),
+                    minuto(solicitud.from()), minuto(solicitud.to()));
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tipo de promoción desconocido: " + solicitud.type());
+        }
+        promocion.setActiva(solicitud.active() == null || solicitud.active());
+        Promocion guardada = promocionRepository.save(promocion);
+        motorPrecios.recargar();
+        return PromocionDto.de(guardada);
+    }
+
+    @DeleteMapping("/promotions/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void eliminarPromocion(@PathVariable Long id) {
+        if (!promocionRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Promoción no encontrada");
+        }
+        promocionRepository.deleteById(id);
+        motorPrecios.recargar();
+    }
+
+    /** Para cuando la base se cambió por fuera de la API. */
+    @PostMapping("/reload")
+    public TarifarioDto recargar() {
+        motorPrecios.recargar();
+        return tarifario();
+    }
+
+    private static PrecioLista.Tipo tipo(String kind) {
+        if ("product".equals(kind)) {
+            return PrecioLista.Tipo.PLATO;
+        }
+        if ("extra".equals(kind)) {
+            return PrecioLista.Tipo.EXTRA;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "kind debe ser product o extra");
+    }
+
+    private static int minuto(String hora) {
+        if (hora == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Faltan las horas de la promoción");
+        }
+        try {
+            LocalTime tiempo = LocalTime.parse(hora);
+            return tiempo.getHour() * 60 + tiempo.getMinute();
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Hora inválida: " + hora);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.delivery.api;
+
+import com.delivery.api.Dtos.BusquedaDto;
+import com.delivery.api.Dtos.CocinaDto;
+import com.delivery.api.Dtos.RestauranteDto;
+import com.delivery.busqueda.BuscadorRestaurantes;
+import com.delivery.catalogo.CatalogoCache;
+import com.delivery.cocina.Cocina;
+import com.delivery.cocina.GestorCocinas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/restaurants")
+public class RestauranteController {
+    private static final int MAXIMO_POR_PAGINA = 100;
+
+    @Autowired
+    private CatalogoCache catalogoCache;
+
+    @Autowired
+    private GestorCocinas gestorCocinas;
+
+    @Autowired
+    private BuscadorRestaurantes buscadorRestaurantes;
+
+    @GetMapping
+    public List<RestauranteDto> listar() {
+        return catalogoCache.getRestaurantes().stream().map(RestauranteDto::de).toList();
+    }
+
+    /** Busca por nombre, descripción y dirección; el último término vale como prefijo. */
+    @GetMapping("/search")
+    public BusquedaDto buscar(@RequestParam("q") String consulta,
+                              @RequestParam(defaultValue = "0") int page,
+                              @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > MAXIMO_POR_PAGINA) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "page debe ser 0 o más y size entre 1 y " + MAXIMO_POR_PAGINA);
+        }
+        return BusquedaDto.de(buscadorRestaurantes.buscar(consulta, page, size));
+    }
+
+    /** Términos del índice que completan lo escrito, para autocompletar. */
+    @GetMapping("/suggest")
+    public List<String> sugerir(@RequestParam("q") String texto, @RequestParam(defaultValue = "10") int limit) {
+        return buscadorRestaurantes.sugerir(texto, Math.min(limit, MAXIMO_POR_PAGINA));
+    }
+
+    @GetMapping("/{id}")
+    public RestauranteDto obtener(@PathVariable Long id) {
+        return catalogoCache.buscarRestaurante(id)
+                .map(RestauranteDto::de)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Restaurante no encontrado"));
+    }
+
+    @GetMapping("/{id}/kitchen")
+    public CocinaDto cocina(@PathVariable Long id) {
+        if (catalogoCache.buscarRestaurante(id).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Restaurante no encontrado");
+        }
+        Cocina cocina = gestorCocinas.cocina(id);
+        return new CocinaDto(id, cocina.getPuestos(), cocina.getCapacidadCola(), gestorCocinas.getProfundidad(id),
+                Instant.ofEpochMilli(gestorCocinas.estimarListo(id)).toString(),
+                cocina.getAdmitidos(), cocina.getRetrasados(), cocina.getRechazados());
+    }
+}
@@ -0,0 +1,39 @@
+package com.delivery.arranque;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Beans que se crean al arrancar aunque el perfil {@code rapido} pida
+ * inicialización perezosa: los controladores y lo que arma las respuestas
+ * (Spring MVC, conversores HTTP y Jackson). Perezosos solo mueven el
+ * costo a la primera petición, que es justo la que espera una instancia
+ * recién creada; el resto (actuator, autoconfiguraciones sin uso) sí
+ * queda para cuando se pida.
+ */
+@Component
+public class AjustesArranque implements LazyInitializationExcludeFilter {
+    private static final String[] PAQUETES_ANSIOSOS = {"org.springframework.web.", "org.springframework.http.",
+            "org.springframework.boot.autoconfigure.web.", "org.springframework.boot.autoconfigure.http.",
+            "org.springframework.boot.autoconfigure.jackson.", "com.fasterxml.jackson."};
+
+    @Override
+    public boolean isExcluded(String nombre, BeanDefinition definicion, Class<?> tipo) {
+        if (tipo == null) {
+            return false;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(tipo, RestController.class)) {
+            return true;
+        }
+        String paquete = tipo.getName();
+        for (String ansioso : PAQUETES_ANSIOSOS) {
+            if (paquete.startsWith(ansioso)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
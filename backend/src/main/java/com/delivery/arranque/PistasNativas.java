@@ -0,0 +1,17 @@
+package com.delivery.arranque;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Lo que la imagen nativa necesita y el procesamiento AOT no deduce solo:
+ * el script de esquema del perfil {@code rapido}, que se lee por su
+ * nombre desde la configuración.
+ */
+public class PistasNativas implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern("db/esquema.sql");
+    }
+}
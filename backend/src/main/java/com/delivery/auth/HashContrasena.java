@@ -0,0 +1,66 @@
+package com.delivery.auth;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Hash de contraseñas con PBKDF2-HMAC-SHA256 y sal aleatoria. El costo
+ * (iteraciones) queda guardado junto al hash, así que se puede subir sin
+ * invalidar los hashes existentes:
+ * {@code pbkdf2$<iteraciones>$<sal base64>$<hash base64>}.
+ */
+public class HashContrasena {
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+    private static final String PREFIJO = "pbkdf2";
+    private static final int BYTES_SAL = 16;
+    private static final int BITS_HASH = 256;
+
+    private final int iteraciones;
+    private final SecureRandom aleatorio = new SecureRandom();
+
+    public HashContrasena(int iteraciones) {
+        this.iteraciones = iteraciones;
+    }
+
+    public String hashear(String contrasena) {
+        byte[] sal = new byte[BYTES_SAL];
+        aleatorio.nextBytes(sal);
+        byte[] hash = derivar(contrasena, sal, iteraciones);
+        Base64.Encoder base64 = Base64.getEncoder();
+        return PREFIJO + "$" + iteraciones + "$" + base64.encodeToString(sal) + "$" + base64.encodeToString(hash);
+    }
+
+    public boolean verificar(String contrasena, String almacenado) {
+        String[] partes = almacenado == null ? new String[0] : almacenado.split("\\$");
+        if (partes.length != 4 || !PREFIJO.equals(partes[0])) {
+            return false;
+        }
+        Base64.Decoder base64 = Base64.getDecoder();
+        byte[] sal = base64.decode(partes[2]);
+        byte[] esperado = base64.decode(partes[3]);
+        byte[] calculado = derivar(contrasena, sal, Integer.parseInt(partes[1]));
+        // Comparación en tiempo constante
+        return MessageDigest.isEqual(esperado, calculado);
+    }
+
+    /** Indica si el hash se generó con un costo menor al configurado. */
+    public boolean necesitaRehash(String almacenado) {
+        String[] partes = almacenado.split("\\$");
+        return partes.length != 4 || Integer.parseInt(partes[1]) < iteraciones;
+    }
+
+    private static byte[] derivar(String contrasena, byte[] sal, int iteraciones) {
+        PBEKeySpec spec = new PBEKeySpec(contrasena.toCharArray(), sal, iteraciones, BITS_HASH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo calcular el hash de la contraseña", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
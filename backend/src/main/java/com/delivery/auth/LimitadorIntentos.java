@@ -0,0 +1,165 @@
+package com.delivery.auth;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita los intentos fallidos de login por usuario en una ventana fija de
+ * tiempo. Se consulta antes de ir a la base de datos o calcular el hash,
+ * así que un ataque de fuerza bruta no consume CPU.
+ *
+ * <p>Cada intento reserva su lugar al entrar, antes de que se sepa si
+ * falla: los que están en curso cuentan como fallidos hasta que terminan,
+ * así muchos intentos simultáneos no pasan todos antes de que se registre
+ * el primer fallo. Las ventanas salen por orden de llegada cuando vencen
+ * o cuando hay más usuarios que el máximo, como en la ventana de
+ * deduplicación.
+ */
+public class LimitadorIntentos {
+    private final int maximoFallos;
+    private final long ventanaMs;
+    private final int maximoUsuarios;
+    private final LongSupplier reloj;
+    private final Map<String, Ventana> ventanas = new ConcurrentHashMap<>();
+    // Orden de llegada para desalojar; puede tener ventanas que ya no están en el mapa, se saltean
+    private final Queue<Ventana> orden = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock limpieza = new ReentrantLock();
+
+    public LimitadorIntentos(int maximoFallos, long ventanaMs, int maximoUsuarios) {
+        this(maximoFallos, ventanaMs, maximoUsuarios, System::currentTimeMillis);
+    }
+
+    public LimitadorIntentos(int maximoFallos, long ventanaMs, int maximoUsuarios, LongSupplier reloj) {
+        this.maximoFallos = maximoFallos;
+        this.ventanaMs = ventanaMs;
+        this.maximoUsuarios = maximoUsuarios;
+        this.reloj = reloj;
+    }
+
+    /**
+     * Reserva un intento si los fallidos más los que están en curso no
+     * llegan al máximo. Quien reserva después llama a
+     * {@link #registrarFallo}, {@link #registrarExito} o {@link #liberar}.
+     *
+     * @return false si el usuario está bloqueado
+     */
+    public boolean reservar(String nombreUsuario) {
+        long ahora = reloj.getAsLong();
+        // [0] si se reservó, [1] si se abrió una ventana nueva
+        boolean[] resultado = new boolean[2];
+        Ventana ventana = ventanas.compute(nombreUsuario, (clave, actual) -> {
+            if (actual == null || actual.vencida(ahora, ventanaMs)) {
+                actual = new Ventana(clave, ahora);
+                resultado[1] = true;
+            }
+            if (actual.fallos + actual.enCurso < maximoFallos) {
+                actual.enCurso++;
+                resultado[0] = true;
+            }
+            return actual;
+        });
+        if (resultado[1]) {
+            encolar(ventana, ahora);
+        }
+        return resultado[0];
+    }
+
+    /** Si ya se llegó al máximo de fallos, por ejemplo mientras el intento esperaba su turno. */
+    public boolean bloqueado(String nombreUsuario) {
+        Ventana ventana = ventanas.get(nombreUsuario);
+        return ventana != null && !ventana.vencida(reloj.getAsLong(), ventanaMs) && ventana.fallos >= maximoFallos;
+    }
+
+    /** El intento reservado falló. */
+    public void registrarFallo(String nombreUsuario) {
+        long ahora = reloj.getAsLong();
+        boolean[] nueva = new boolean[1];
+        Ventana ventana = ventanas.compute(nombreUsuario, (clave, actual) -> {
+            if (actual == null || actual.vencida(ahora, ventanaMs)) {
+                // La ventana de la reserva venció o se desalojó: el fallo abre una nueva
+                actual = new Ventana(clave, ahora);
+                nueva[0] = true;
+            } else if (actual.enCurso > 0) {
+                actual.enCurso--;
+            }
+            actual.fallos++;
+            return actual;
+        });
+        if (nueva[0]) {
+            encolar(ventana, ahora);
+        }
+    }
+
+    /** El intento reservado terminó sin decidir nada, por ejemplo por un error de la base. */
+    public void liberar(String nombreUsuario) {
+        ventanas.computeIfPresent(nombreUsuario, (clave, actual) -> {
+            if (actual.enCurso > 0) {
+                actual.enCurso--;
+            }
+            return actual;
+        });
+    }
+
+    public void registrarExito(String nombreUsuario) {
+        ventanas.remove(nombreUsuario);
+    }
+
+    public int getUsuarios() {
+        return ventanas.size();
+    }
+
+    private void encolar(Ventana ventana, long ahora) {
+        orden.add(ventana);
+        desalojar(ahora);
+    }
+
+    private void desalojar(long ahora) {
+        Ventana primera = orden.peek();
+        boolean lleno = ventanas.size() > maximoUsuarios;
+        if (!lleno && (primera == null || !primera.vencida(ahora, ventanaMs))) {
+            return;
+        }
+        // Pasado el máximo se espera el turno, así el mapa no crece más rápido de lo que se limpia;
+        // para lo vencido alcanza con lo que haga otro hilo
+        if (lleno) {
+            limpieza.lock();
+        } else if (!limpieza.tryLock()) {
+            return;
+        }
+        try {
+            while ((primera = orden.peek()) != null) {
+                boolean vigente = ventanas.get(primera.usuario) == primera;
+                if (vigente && ventanas.size() <= maximoUsuarios && !primera.vencida(ahora, ventanaMs)) {
+                    break;
+                }
+                orden.poll();
+                if (vigente) {
+                    ventanas.remove(primera.usuario, primera);
+                }
+            }
+        } finally {
+            limpieza.unlock();
+        }
+    }
+
+    // Los contadores se modifican solo dentro de compute, bajo el bloqueo del mapa para esa clave
+    private static final class Ventana {
+        private final String usuario;
+        private final long inicio;
+        private volatile int fallos;
+        private volatile int enCurso;
+
+        private Ventana(String usuario, long inicio) {
+            this.usuario = usuario;
+            this.inicio = inicio;
+        }
+
+        private boolean vencida(long ahora, long ventanaMs) {
+            return ahora - inicio >= ventanaMs;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.delivery.auth;
+
+public class ResultadoLogin {
+    public enum Estado {
+        EXITO, CREDENCIALES_INVALIDAS, BLOQUEADO
+    }
+
+    private final Estado estado;
+    private final Sesion sesion;
+
+    private ResultadoLogin(Estado estado, Sesion sesion) {
+        this.estado = estado;
+        this.sesion = sesion;
+    }
+
+    static ResultadoLogin exito(Sesion sesion) {
+        return new ResultadoLogin(Estado.EXITO, sesion);
+    }
+
+    static ResultadoLogin fallo(Estado estado) {
+        return new ResultadoLogin(estado, null);
+    }
+
+    // Getters
+    public Estado getEstado() { return estado; }
+    public Sesion getSesion() { return sesion; }
+    public boolean esExito() { return estado == Estado.EXITO; }
+}
@@ -0,0 +1,161 @@
+package com.delivery.auth;
+
+import com.delivery.model.Usuario;
+import com.delivery.repository.UsuarioRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Login con contraseñas hasheadas y sesiones en memoria. La verificación
+ * del hash es deliberadamente costosa, por eso corre en un pool propio y
+ * no en el hilo que atiende la petición. Una vez iniciada la sesión, el
+ * token se valida contra la caché sin tocar la base de datos.
+ */
+@Service
+public class ServicioAutenticacion {
+    private static final int BYTES_TOKEN = 32;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Value("${delivery.auth.iteraciones:120000}")
+    private int iteraciones;
+
+    @Value("${delivery.auth.hilos:0}")
+    private int hilos;
+
+    @Value("${delivery.auth.sesiones.maximo:100000}")
+    private int maximoSesiones;
+
+    @Value("${delivery.auth.sesiones.ttl-ms:1800000}")
+    private long ttlSesionMs;
+
+    @Value("${delivery.auth.intentos.maximo:5}")
+    private int maximoFallos;
+
+    @Value("${delivery.auth.intentos.ventana-ms:60000}")
+    private long ventanaFallosMs;
+
+    private HashContrasena hashContrasena;
+    private LimitadorIntentos limitador;
+    private ExecutorService verificadores;
+    // Hash de una contraseña cualquiera para que un usuario inexistente tarde lo mismo
+    private String hashFicticio;
+
+    private SesionesActivas sesiones;
+
+    private final SecureRandom aleatorio = new SecureRandom();
+
+    private final LongAdder exitos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder bloqueos = new LongAdder();
+
+    @PostConstruct
+    void iniciar() {
+        hashContrasena = new HashContrasena(iteraciones);
+        limitador = new LimitadorIntentos(maximoFallos, ventanaFallosMs, maximoSesiones);
+        sesiones = new SesionesActivas(maximoSesiones, ttlSesionMs);
+        int cantidadHilos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        verificadores = Executors.newFixedThreadPool(cantidadHilos, tarea -> {
+            Thread hilo = new Thread(tarea, "auth-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        hashFicticio = hashContrasena.hashear("contrasena-ficticia");
+    }
+
+    @PreDestroy
+    void detener() {
+        verificadores.shutdown();
+    }
+
+    public String hashear(String contrasena) {
+        return hashContrasena.hashear(contrasena);
+    }
+
+    public CompletableFuture<ResultadoLogin> iniciarSesion(String nombreUsuario, String contrasena) {
+        // El intento queda reservado desde acá, antes de esperar turno en el pool
+        if (!limitador.reservar(nombreUsuario)) {
+            bloqueos.increment();
+            return CompletableFuture.completedFuture(ResultadoLogin.fallo(ResultadoLogin.Estado.BLOQUEADO));
+        }
+        return CompletableFuture.supplyAsync(() -> verificar(nombreUsuario, contrasena), verificadores);
+    }
+
+    private ResultadoLogin verificar(String nombreUsuario, String contrasena) {
+        // Mientras esperaba se pudo haber llegado al máximo; entonces no vale la pena calcular el hash
+        if (limitador.bloqueado(nombreUsuario)) {
+            limitador.liberar(nombreUsuario);
+            bloqueos.increment();
+            return ResultadoLogin.fallo(ResultadoLogin.Estado.BLOQUEADO);
+        }
+        try {
+            return verificarContrasena(nombreUsuario, contrasena);
+        } catch (RuntimeException e) {
+            limitador.liberar(nombreUsuario);
+            throw e;
+        }
+    }
+
+    private ResultadoLogin verificarContrasena(String nombreUsuario, String contrasena) {
+        Optional<Usuario> usuarioOpt = usuarioRepository.findByNombreUsuario(nombreUsuario);
+        if (usuarioOpt.isEmpty()) {
+            hashContrasena.verificar(contrasena, hashFicticio);
+            return fallar(nombreUsuario);
+        }
+        Usuario usuario = usuarioOpt.get();
+        if (!hashContrasena.verificar(contrasena, usuario.getContrasenaHash())) {
+            return fallar(nombreUsuario);
+        }
+        if (hashContrasena.necesitaRehash(usuario.getContrasenaHash())) {
+            usuario.setContrasenaHash(hashContrasena.hashear(contrasena));
+            usuarioRepository.save(usuario);
+        }
+        limitador.registrarExito(nombreUsuario);
+        exitos.increment();
+        return ResultadoLogin.exito(crearSesion(usuario));
+    }
+
+    private ResultadoLogin fallar(String nombreUsuario) {
+        limitador.registrarFallo(nombreUsuario);
+        fallos.increment();
+        return ResultadoLogin.fallo(ResultadoLogin.Estado.CREDENCIALES_INVALIDAS);
+    }
+
+    private Sesion crearSesion(Usuario usuario) {
+        byte[] bytes = new byte[BYTES_TOKEN];
+        aleatorio.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Sesion sesion = new Sesion(token, usuario.getId(), usuario.getNombreUsuario(),
+                usuario.getNombre(), usuario.getEmail(), usuario.getTelefono());
+        sesiones.agregar(sesion);
+        return sesion;
+    }
+
+    public Optional<Sesion> validar(String token) {
+        return sesiones.validar(token);
+    }
+
+    public void cerrarSesion(String token) {
+        sesiones.quitar(token);
+    }
+
+    public long getExitos() { return exitos.sum(); }
+    public long getFallos() { return fallos.sum(); }
+    public long getBloqueos() { return bloqueos.sum(); }
+    public int getSesionesActivas() { return sesiones.getActivas(); }
+    public long getSesionesDesalojadas() { return sesiones.getDesalojadas(); }
+}
@@ -0,0 +1,38 @@
+package com.delivery.auth;
+
+/**
+ * Sesión autenticada. Guarda solo lo necesario para atender pedidos sin
+ * volver a leer el usuario de la base de datos.
+ */
+public class Sesion {
+    private final String token;
+    private final Long usuarioId;
+    private final String nombreUsuario;
+    private final String nombre;
+    private final String email;
+    private final String telefono;
+    private volatile long ultimoUso;
+
+    public Sesion(String token, Long usuarioId, String nombreUsuario, String nombre, String email, String telefono) {
+        this.token = token;
+        this.usuarioId = usuarioId;
+        this.nombreUsuario = nombreUsuario;
+        this.nombre = nombre;
+        this.email = email;
+        this.telefono = telefono;
+        this.ultimoUso = System.currentTimeMillis();
+    }
+
+    void tocar() {
+        ultimoUso = System.currentTimeMillis();
+    }
+
+    // Getters
+    public String getToken() { return token; }
+    public Long getUsuarioId() { return usuarioId; }
+    public String getNombreUsuario() { return nombreUsuario; }
+    public String getNombre() { return nombre; }
+    public String getEmail() { return email; }
+    public String getTelefono() { return telefono; }
+    public long getUltimoUso() { return ultimoUso; }
+}
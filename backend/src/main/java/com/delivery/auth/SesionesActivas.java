@@ -0,0 +1,125 @@
+package com.delivery.auth;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sesiones autenticadas por token, con vencimiento por inactividad y un
+ * máximo. Pasado el máximo se desaloja con segunda oportunidad, como los
+ * contextos de GestorSesiones: las sesiones esperan en orden de llegada y
+ * al sacar una que se usó desde que entró a la cola vuelve al final en vez
+ * de salir. Así un login con la caché llena no recorre todas las sesiones.
+ */
+public class SesionesActivas {
+    private final int maximo;
+    private final long ttlMs;
+    private final Map<String, Sesion> sesiones = new ConcurrentHashMap<>();
+    // Orden para desalojar; puede tener sesiones que ya no están en el mapa, se saltean
+    private final Queue<Turno> orden = new ConcurrentLinkedQueue<>();
+    // Largo de la cola, que en ConcurrentLinkedQueue no se puede pedir sin recorrerla
+    private final AtomicInteger turnos = new AtomicInteger();
+    private final ReentrantLock desalojo = new ReentrantLock();
+    private final LongAdder desalojadas = new LongAdder();
+
+    public SesionesActivas(int maximo, long ttlMs) {
+        this.maximo = maximo;
+        this.ttlMs = ttlMs;
+    }
+
+    public void agregar(Sesion sesion) {
+        sesiones.put(sesion.getToken(), sesion);
+        encolar(sesion);
+        // También cuando la cola junta demasiados turnos de sesiones cerradas o vencidas
+        if (sesiones.size() > maximo || turnos.get() > 2 * maximo) {
+            desalojarSobrantes();
+        }
+    }
+
+    /** La sesión del token si sigue vigente; cuenta como un uso. */
+    public Optional<Sesion> validar(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        Sesion sesion = sesiones.get(token);
+        if (sesion == null) {
+            return Optional.empty();
+        }
+        if (vencida(sesion, System.currentTimeMillis())) {
+            sesiones.remove(token, sesion);
+            return Optional.empty();
+        }
+        sesion.tocar();
+        return Optional.of(sesion);
+    }
+
+    public void quitar(String token) {
+        if (token != null) {
+            sesiones.remove(token);
+        }
+    }
+
+    private void encolar(Sesion sesion) {
+        orden.add(new Turno(sesion));
+        turnos.incrementAndGet();
+    }
+
+    private void desalojarSobrantes() {
+        desalojo.lock();
+        try {
+            long ahora = System.currentTimeMillis();
+            // Cada sesión vuelve a la cola como mucho una vez por cada uso, así que esto termina
+            Turno turno;
+            while (sesiones.size() > maximo && (turno = orden.poll()) != null) {
+                turnos.decrementAndGet();
+                Sesion sesion = turno.sesion;
+                if (sesiones.get(sesion.getToken()) != sesion) {
+                    continue;
+                }
+                if (!vencida(sesion, ahora) && sesion.getUltimoUso() > turno.usadoAlEntrar) {
+                    encolar(sesion);
+                } else if (sesiones.remove(sesion.getToken(), sesion)) {
+                    desalojadas.increment();
+                }
+            }
+            // Cada sesión tiene un solo turno vigente: si hay más del doble del máximo, al menos
+            // la mitad son de sesiones que ya no están, y recorrer la cola se paga con esos logins
+            if (turnos.get() > 2 * maximo) {
+                Iterator<Turno> iterador = orden.iterator();
+                while (iterador.hasNext()) {
+                    Sesion sesion = iterador.next().sesion;
+                    if (sesiones.get(sesion.getToken()) != sesion) {
+                        iterador.remove();
+                        turnos.decrementAndGet();
+                    }
+                }
+            }
+        } finally {
+            desalojo.unlock();
+        }
+    }
+
+    private boolean vencida(Sesion sesion, long ahora) {
+        return ahora - sesion.getUltimoUso() >= ttlMs;
+    }
+
+    public int getActivas() { return sesiones.size(); }
+    public long getDesalojadas() { return desalojadas.sum(); }
+    int getTurnos() { return turnos.get(); }
+
+    private static final class Turno {
+        private final Sesion sesion;
+        private final long usadoAlEntrar;
+
+        private Turno(Sesion sesion) {
+            this.sesion = sesion;
+            this.usadoAlEntrar = sesion.getUltimoUso();
+        }
+    }
+}
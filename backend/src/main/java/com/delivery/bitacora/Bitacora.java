@@ -0,0 +1,382 @@
+package com.delivery.bitacora;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Diario binario de solo agregado, repartido en segmentos de tamaño fijo
+ * mapeados en memoria. Agregar un registro es copiar bytes al mapa; un hilo
+ * aparte baja a disco cada {@code intervaloFsyncMs} todo lo escrito desde
+ * la última vez (group commit), así muchos registros comparten un fsync.
+ *
+ * <p>Formato de cada registro: largo del contenido (int), tipo (byte), id
+ * de pedido (long), marca de tiempo (long), contenido y CRC32C de todo lo
+ * anterior menos el largo. Un largo 0 marca el final de lo escrito y -1
+ * indica que el resto del segmento quedó vacío. Al leer, el primer registro
+ * con CRC inválido se toma como una escritura cortada y ahí termina el
+ * diario.
+ *
+ * <p>Retención: cada pedido {@linkplain #retener retenido} conserva los
+ * segmentos desde el que estaba en curso cuando se lo retuvo, hasta que se
+ * lo {@linkplain #liberar libera}. Con el descarte habilitado, cada pasada
+ * del hilo de fsync borra los segmentos más viejos que ya no conserva
+ * ningún pedido; el segmento en curso no se borra nunca.
+ */
+public class Bitacora implements AutoCloseable {
+    static final int CABECERA = 4 + 1 + 8 + 8;
+    static final int COLA = 4;
+    private static final int FIN_DE_SEGMENTO = -1;
+    private static final String PREFIJO = "bitacora-";
+    private static final String EXTENSION = ".seg";
+
+    private final Path directorio;
+    private final int tamanoSegmento;
+    private final ScheduledExecutorService sincronizador;
+    private final CRC32C crc = new CRC32C();
+
+    // Protegidos por this
+    private MappedByteBuffer actual;
+    private int numeroSegmento;
+    private final List<MappedByteBuffer> porSincronizar = new ArrayList<>();
+    private long escritos;
+    // Segmento desde el que se conserva cada pedido retenido, y cuántos pedidos conservan desde cada segmento
+    private final Map<Long, Integer> retenidos = new HashMap<>();
+    private final TreeMap<Integer, Integer> retenidosPorSegmento = new TreeMap<>();
+    private int primerSegmento;
+    private boolean descarteHabilitado;
+
+    private final Object fsync = new Object();
+    private volatile long sincronizados;
+    private final Queue<Espera> esperas = new ConcurrentLinkedQueue<>();
+    private final LongAdder fsyncs = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+
+    public Bitacora(Path directorio, int tamanoSegmento, long intervaloFsyncMs) {
+        this.directorio = directorio;
+        this.tamanoSegmento = tamanoSegmento;
+        try {
+            Files.createDirectories(directorio);
+            List<Path> segmentos = segmentos(directorio);
+            if (segmentos.isEmpty()) {
+                abrirSegmento(0);
+            } else {
+                primerSegmento = numero(segmentos.get(0));
+                // Se sigue escribiendo al final del último segmento válido
+                Path ultimo = segmentos.get(segmentos.size() - 1);
+                numeroSegmento = numero(ultimo);
+                actual = mapear(ultimo);
+                actual.position(finDeDatos(actual));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.sincronizador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "bitacora-fsync");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        sincronizador.scheduleWithFixedDelay(this::sincronizarAhora,
+                intervaloFsyncMs, intervaloFsyncMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Agrega un registro y devuelve su número de orden. El registro queda
+     * en disco en el próximo group commit; para esperarlo, usar
+     * {@link #sincronizar()}.
+     */
+    public synchronized long agregar(byte tipo, long pedidoId, long marca, ByteBuffer contenido) {
+        int largo = contenido.remaining();
+        int total = CABECERA + largo + COLA;
+        if (largo == 0) {
+            // Un largo 0 se confundiría con el final de los datos
+            throw new IllegalArgumentException("Registro sin contenido");
+        }
+        if (total + 4 > tamanoSegmento) {
+            throw new IllegalArgumentException("Registro de " + total + " bytes no entra en un segmento");
+        }
+        // Siempre queda lugar para el marcador de fin después del registro
+        if (actual.remaining() < total + 4) {
+            actual.putInt(FIN_DE_SEGMENTO);
+            porSincronizar.add(actual);
+            abrirSegmento(numeroSegmento + 1);
+        }
+        int inicio = actual.position();
+        actual.putInt(largo).put(tipo).putLong(pedidoId).putLong(marca).put(contenido);
+        crc.reset();
+        crc.update(actual.slice(inicio + 4, CABECERA - 4 + largo));
+        actual.putInt((int) crc.getValue());
+        bytes.add(total);
+        return ++escritos;
+    }
+
+    /** Conserva los registros del pedido que se agreguen desde ahora, hasta {@link #liberar}. */
+    public synchronized void retener(long pedidoId) {
+        retenerDesde(pedidoId, numeroSegmento);
+    }
+
+    /**
+     * Conserva todos los segmentos que hay: para un pedido rehecho desde la
+     * bitácora, cuyos registros pueden estar en cualquiera de ellos.
+     */
+    public synchronized void retenerDesdeElInicio(long pedidoId) {
+        retenerDesde(pedidoId, primerSegmento);
+    }
+
+    private void retenerDesde(long pedidoId, int segmento) {
+        if (retenidos.putIfAbsent(pedidoId, segmento) == null) {
+            retenidosPorSegmento.merge(segmento, 1, Integer::sum);
+        }
+    }
+
+    /** Los registros del pedido ya no hacen falta para rehacerlo. */
+    public synchronized void liberar(long pedidoId) {
+        Integer segmento = retenidos.remove(pedidoId);
+        if (segmento != null) {
+            retenidosPorSegmento.computeIfPresent(segmento, (numero, cantidad) -> cantidad == 1 ? null : cantidad - 1);
+        }
+    }
+
+    /**
+     * Desde ahora se borran los segmentos que ningún pedido retiene. Se
+     * llama después de reproducir la bitácora y retener lo recuperado;
+     * antes, el hilo de fsync borraría segmentos que todavía no se leyeron.
+     */
+    public synchronized void habilitarDescarte() {
+        descarteHabilitado = true;
+    }
+
+    /** Se completa cuando todo lo agregado hasta ahora está en disco. */
+    public CompletableFuture<Void> sincronizar() {
+        long objetivo;
+        synchronized (this) {
+            objetivo = escritos;
+        }
+        CompletableFuture<Void> futuro = new CompletableFuture<>();
+        if (objetivo <= sincronizados) {
+            futuro.complete(null);
+            return futuro;
+        }
+        Espera espera = new Espera(objetivo, futuro);
+        esperas.add(espera);
+        // El fsync pudo terminar entre la comprobación y el add, y si no se agrega nada más no vuelve a mirar la cola
+        if (objetivo <= sincronizados && esperas.remove(espera)) {
+            futuro.complete(null);
+        }
+        return futuro;
+    }
+
+    private void sincronizarAhora() {
+        // Lo llaman el hilo de fsync y close(): uno a la vez, así sincronizados no retrocede
+        synchronized (fsync) {
+            sincronizarAhoraBloqueado();
+        }
+    }
+
+    private void sincronizarAhoraBloqueado() {
+        long objetivo;
+        List<MappedByteBuffer> mapas;
+        synchronized (this) {
+            objetivo = escritos;
+            if (objetivo == sincronizados) {
+                mapas = null;
+            } else {
+                mapas = new ArrayList<>(porSincronizar);
+                mapas.add(actual);
+                porSincronizar.clear();
+            }
+        }
+        if (mapas != null) {
+            // force() fuera del bloqueo: los que agregan no esperan al disco
+            for (MappedByteBuffer mapa : mapas) {
+                mapa.force();
+            }
+            fsyncs.increment();
+            sincronizados = objetivo;
+        }
+        descartarSegmentos();
+        // En cada pasada, haya escrito o no: los objetivos no llegan ordenados a la cola
+        Iterator<Espera> iterador = esperas.iterator();
+        while (iterador.hasNext()) {
+            Espera espera = iterador.next();
+            if (espera.objetivo <= objetivo) {
+                iterador.remove();
+                espera.futuro.complete(null);
+            }
+        }
+    }
+
+    // Los segmentos anteriores al en curso ya pasaron por porSincronizar, así que no queda nada sin bajar a disco
+    private void descartarSegmentos() {
+        int desde;
+        int hasta;
+        synchronized (this) {
+            if (!descarteHabilitado) {
+                return;
+            }
+            desde = primerSegmento;
+            hasta = retenidosPorSegmento.isEmpty()
+                    ? numeroSegmento : Math.min(retenidosPorSegmento.firstKey(), numeroSegmento);
+            if (hasta <= desde) {
+                return;
+            }
+            primerSegmento = hasta;
+        }
+        for (int numero = desde; numero < hasta; numero++) {
+            try {
+                if (Files.deleteIfExists(archivo(numero))) {
+                    descartados.increment();
+                }
+            } catch (IOException e) {
+                System.err.println("❌ No se pudo borrar el segmento " + numero + " de la bitácora: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Recorre todos los registros válidos en orden.
+     *
+     * @return cantidad de registros leídos
+     */
+    public static long leer(Path directorio, Lector lector) throws IOException {
+        if (!Files.isDirectory(directorio)) {
+            return 0;
+        }
+        long leidos = 0;
+        CRC32C crc = new CRC32C();
+        for (Path segmento : segmentos(directorio)) {
+            MappedByteBuffer mapa = mapearLectura(segmento);
+            while (true) {
+                int inicio = mapa.position();
+                int largo = validar(mapa, crc);
+                if (largo < 0) {
+                    if (mapa.remaining() >= 4 && mapa.getInt(inicio) == FIN_DE_SEGMENTO) {
+                        break;
+                    }
+                    // Fin de lo escrito o escritura cortada: no hay nada válido después
+                    return leidos;
+                }
+                lector.registro(mapa.get(inicio + 4), mapa.getLong(inicio + 5), mapa.getLong(inicio + 13),
+                        mapa.slice(inicio + CABECERA, largo));
+                mapa.position(inicio + CABECERA + largo + COLA);
+                leidos++;
+            }
+        }
+        return leidos;
+    }
+
+    @Override
+    public void close() {
+        sincronizador.shutdownNow();
+        sincronizarAhora();
+    }
+
+    private void abrirSegmento(int numero) {
+        numeroSegmento = numero;
+        try {
+            actual = mapear(archivo(numero));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path archivo(int numero) {
+        return directorio.resolve(String.format("%s%06d%s", PREFIJO, numero, EXTENSION));
+    }
+
+    private MappedByteBuffer mapear(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // El archivo nuevo se crea con ceros, que se leen como fin de datos
+            return canal.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(canal.size(), tamanoSegmento));
+        }
+    }
+
+    private static MappedByteBuffer mapearLectura(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            return canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+    }
+
+    // Posición siguiente al último registro válido del segmento
+    private static int finDeDatos(MappedByteBuffer mapa) {
+        ByteBuffer copia = mapa.duplicate();
+        CRC32C crc = new CRC32C();
+        int largo;
+        while ((largo = validar(copia, crc)) >= 0) {
+            copia.position(copia.position() + CABECERA + largo + COLA);
+        }
+        return copia.position();
+    }
+
+    /**
+     * Comprueba el registro que empieza en la posición actual sin moverla.
+     *
+     * @return largo de su contenido, o -1 si ahí no hay un registro válido
+     */
+    private static int validar(ByteBuffer mapa, CRC32C crc) {
+        int inicio = mapa.position();
+        if (mapa.remaining() < CABECERA + COLA) {
+            return -1;
+        }
+        int largo = mapa.getInt(inicio);
+        // 0 son los ceros de un archivo nuevo; negativo, el fin de segmento
+        if (largo <= 0 || mapa.remaining() < CABECERA + largo + COLA) {
+            return -1;
+        }
+        crc.reset();
+        crc.update(mapa.slice(inicio + 4, CABECERA - 4 + largo));
+        return mapa.getInt(inicio + CABECERA + largo) == (int) crc.getValue() ? largo : -1;
+    }
+
+    private static List<Path> segmentos(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos
+                    .filter(archivo -> archivo.getFileName().toString().startsWith(PREFIJO))
+                    .filter(archivo -> archivo.getFileName().toString().endsWith(EXTENSION))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static int numero(Path segmento) {
+        String nombre = segmento.getFileName().toString();
+        return Integer.parseInt(nombre.substring(PREFIJO.length(), nombre.length() - EXTENSION.length()));
+    }
+
+    public long getFsyncs() { return fsyncs.sum(); }
+    public long getBytes() { return bytes.sum(); }
+    public long getSincronizados() { return sincronizados; }
+    public synchronized long getEscritos() { return escritos; }
+    public long getSegmentosDescartados() { return descartados.sum(); }
+    public synchronized int getSegmentosEnDisco() { return numeroSegmento - primerSegmento + 1; }
+    public synchronized int getPedidosRetenidos() { return retenidos.size(); }
+
+    /** Recibe cada registro durante la lectura; el contenido solo vale durante la llamada. */
+    public interface Lector {
+        void registro(byte tipo, long pedidoId, long marca, ByteBuffer contenido);
+    }
+
+    private record Espera(long objetivo, CompletableFuture<Void> futuro) {}
+}
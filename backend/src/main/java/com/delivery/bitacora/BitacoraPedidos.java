@@ -0,0 +1,175 @@
+package com.delivery.bitacora;
+
+import com.delivery.model.Cliente;
+import com.delivery.model.ItemPedido;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Registra los eventos de cada pedido en la {@link Bitacora}: creación,
+ * items, descuento y cambios de estado, codificados en binario compacto. Si la
+ * bitácora está deshabilitada, todos los métodos no hacen nada.
+ *
+ * <p>Cada pedido retiene sus segmentos desde que se crea hasta que está
+ * entregado y escrito en la base ({@link #pedidoAsentado}): de ahí en más
+ * la base alcanza para tenerlo y la bitácora ya no lo necesita.
+ */
+@Component
+public class BitacoraPedidos {
+    // Los textos se recortan para que un evento nunca supere unos pocos KB
+    static final int MAXIMO_TEXTO = 1024;
+    private static final int MAXIMO_EVENTO = 8 + 3 * (2 + MAXIMO_TEXTO);
+
+    private final Path directorio;
+    private final Bitacora bitacora;
+    private final ThreadLocal<ByteBuffer> buffers =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(MAXIMO_EVENTO));
+
+    @Autowired
+    public BitacoraPedidos(PropiedadesBitacora propiedades) {
+        this(propiedades.isHabilitada() ? Path.of(propiedades.getDirectorio()) : null,
+                propiedades.getTamanoSegmentoMb() * 1024 * 1024, propiedades.getIntervaloFsyncMs());
+    }
+
+    public BitacoraPedidos(Path directorio, int tamanoSegmento, long intervaloFsyncMs) {
+        this.directorio = directorio;
+        this.bitacora = directorio == null ? null : new Bitacora(directorio, tamanoSegmento, intervaloFsyncMs);
+    }
+
+    public void pedidoCreado(Pedido pedido) {
+        if (bitacora == null) {
+            return;
+        }
+        bitacora.retener(pedido.getId());
+        Restaurante restaurante = pedido.getRestaurante();
+        Cliente cliente = pedido.getCliente();
+        ByteBuffer buffer = buffer();
+        buffer.putLong(restaurante != null && restaurante.getId() != null ? restaurante.getId() : 0);
+        escribirTexto(buffer, cliente.getNombre());
+        escribirTexto(buffer, cliente.getTelefono());
+        escribirTexto(buffer, cliente.getDireccion());
+        agregar(TipoEvento.CREADO, pedido.getId(), pedido.getCreadoEn(), buffer);
+
+        for (ItemPedido linea : pedido.getLineas()) {
+            buffer = buffer();
+            buffer.putLong(linea.getPrecioCentavos());
+            escribirTexto(buffer, linea.getDescripcion());
+            agregar(TipoEvento.ITEM_AGREGADO, pedido.getId(), pedido.getCreadoEn(), buffer);
+        }
+        if (pedido.getDescuentoCentavos() > 0) {
+            buffer = buffer();
+            buffer.putLong(pedido.getDescuentoCentavos());
+            agregar(TipoEvento.DESCUENTO_APLICADO, pedido.getId(), pedido.getCreadoEn(), buffer);
+        }
+    }
+
+    public void estadoCambiado(Pedido pedido, Pedido.Estado estado, long marca) {
+        if (bitacora == null) {
+            return;
+        }
+        ByteBuffer buffer = buffer();
+        buffer.put((byte) estado.ordinal());
+        agregar(TipoEvento.ESTADO_CAMBIADO, pedido.getId(), marca, buffer);
+    }
+
+    /** Un pedido rehecho desde la bitácora: retiene todos los segmentos que hay. */
+    public void pedidoRecuperado(Pedido pedido) {
+        if (bitacora != null) {
+            bitacora.retenerDesdeElInicio(pedido.getId());
+        }
+    }
+
+    /** El pedido está entregado y escrito en la base: sus registros pueden descartarse. */
+    public void pedidoAsentado(Pedido pedido) {
+        if (bitacora != null) {
+            bitacora.liberar(pedido.getId());
+        }
+    }
+
+    /** Ya se reprodujo la bitácora: desde ahora se borran los segmentos que nadie retiene. */
+    public void recuperacionTerminada() {
+        if (bitacora != null) {
+            bitacora.habilitarDescarte();
+        }
+    }
+
+    /** Se completa cuando todo lo registrado hasta ahora está en disco. */
+    public CompletableFuture<Void> sincronizar() {
+        return bitacora == null ? CompletableFuture.completedFuture(null) : bitacora.sincronizar();
+    }
+
+    /**
+     * @return cantidad de eventos leídos
+     */
+    public long reproducir(Bitacora.Lector lector) throws IOException {
+        return directorio == null ? 0 : Bitacora.leer(directorio, lector);
+    }
+
+    public boolean isHabilitada() {
+        return bitacora != null;
+    }
+
+    public Bitacora getBitacora() {
+        return bitacora;
+    }
+
+    public void mostrarMetricas() {
+        System.out.println("\n📒 Bitácora de pedidos:");
+        if (bitacora == null) {
+            System.out.println("Deshabilitada");
+            return;
+        }
+        System.out.println("Directorio: " + directorio.toAbsolutePath());
+        System.out.println("Eventos escritos / en disco: " + bitacora.getEscritos() + " / " + bitacora.getSincronizados());
+        System.out.println("Bytes escritos: " + bitacora.getBytes() + ", fsyncs: " + bitacora.getFsyncs());
+        System.out.println("Segmentos en disco / descartados: " + bitacora.getSegmentosEnDisco() + " / "
+                + bitacora.getSegmentosDescartados() + ", pedidos que los retienen: " + bitacora.getPedidosRetenidos());
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        if (bitacora != null) {
+            bitacora.close();
+        }
+    }
+
+    private void agregar(TipoEvento tipo, long pedidoId, long marca, ByteBuffer buffer) {
+        buffer.flip();
+        bitacora.agregar(tipo.getCodigo(), pedidoId, marca, buffer);
+    }
+
+    private ByteBuffer buffer() {
+        ByteBuffer buffer = buffers.get();
+        buffer.clear();
+        return buffer;
+    }
+
+    private static void escribirTexto(ByteBuffer buffer, String texto) {
+        if (texto == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        int largo = Math.min(bytes.length, MAXIMO_TEXTO);
+        buffer.putShort((short) largo).put(bytes, 0, largo);
+    }
+
+    static String leerTexto(ByteBuffer buffer) {
+        int largo = buffer.getShort();
+        if (largo < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[largo];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,30 @@
+package com.delivery.bitacora;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ubicación y ritmo de escritura de la bitácora de pedidos. Viene apagada:
+ * solo tiene sentido con una base que sobrevive al reinicio, como la del
+ * perfil produccion.
+ */
+@Component
+@ConfigurationProperties(prefix = "delivery.bitacora")
+public class PropiedadesBitacora {
+    private boolean habilitada;
+    private String directorio = "datos/bitacora";
+    private int tamanoSegmentoMb = 64;
+    private long intervaloFsyncMs = 5;
+
+    public boolean isHabilitada() { return habilitada; }
+    public void setHabilitada(boolean habilitada) { this.habilitada = habilitada; }
+
+    public String getDirectorio() { return directorio; }
+    public void setDirectorio(String directorio) { this.directorio = directorio; }
+
+    public int getTamanoSegmentoMb() { return tamanoSegmentoMb; }
+    public void setTamanoSegmentoMb(int tamanoSegmentoMb) { this.tamanoSegmentoMb = tamanoSegmentoMb; }
+
+    public long getIntervaloFsyncMs() { return intervaloFsyncMs; }
+    public void setIntervaloFsyncMs(long intervaloFsyncMs) { this.intervaloFsyncMs = intervaloFsyncMs; }
+}
@@ -0,0 +1,113 @@
+package com.delivery.bitacora;
+
+import com.delivery.analitica.AnaliticaPedidos;
+import com.delivery.decorator.ProductoBase;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import com.delivery.singleton.Estadisticas;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Rehace el estado a partir de los eventos de la bitácora: los pedidos que
+ * no llegaron a ENTREGADO quedan como activos y los entregados solo suman a
+ * las estadísticas y al historial, así la memoria depende de los pedidos abiertos y no del
+ * largo de la bitácora. Los pedidos se rehacen sin observadores.
+ */
+public class ReconstruccionPedidos implements Bitacora.Lector {
+    private static final Pedido.Estado[] ESTADOS = Pedido.Estado.values();
+
+    private final LongFunction<Restaurante> restaurantes;
+    // null para reconstruir sin tocar las estadísticas globales
+    private final Estadisticas estadisticas;
+    // null para no cargar el historial de entregados
+    private final AnaliticaPedidos analitica;
+    private final Map<Long, Pedido> activos = new HashMap<>();
+
+    private long eventos;
+    private long entregados;
+    private long maximoId;
+
+    public ReconstruccionPedidos(LongFunction<Restaurante> restaurantes, Estadisticas estadisticas) {
+        this(restaurantes, estadisticas, null);
+    }
+
+    public ReconstruccionPedidos(LongFunction<Restaurante> restaurantes, Estadisticas estadisticas,
+                                 AnaliticaPedidos analitica) {
+        this.restaurantes = restaurantes;
+        this.estadisticas = estadisticas;
+        this.analitica = analitica;
+    }
+
+    @Override
+    public void registro(byte codigo, long pedidoId, long marca, ByteBuffer contenido) {
+        eventos++;
+        maximoId = Math.max(maximoId, pedidoId);
+        TipoEvento tipo = TipoEvento.porCodigo(codigo);
+        if (tipo == null) {
+            // Evento de una versión más nueva: se saltea
+            return;
+        }
+        switch (tipo) {
+            case CREADO: {
+                long restauranteId = contenido.getLong();
+                Cliente cliente = new Cliente(BitacoraPedidos.leerTexto(contenido),
+                        BitacoraPedidos.leerTexto(contenido), BitacoraPedidos.leerTexto(contenido));
+                Restaurante restaurante = restauranteId > 0 ? restaurantes.apply(restauranteId) : null;
+                Pedido pedido = new Pedido(cliente, restaurante, marca);
+                pedido.setId(pedidoId);
+                activos.put(pedidoId, pedido);
+                break;
+            }
+            case ITEM_AGREGADO: {
+                Pedido pedido = activos.get(pedidoId);
+                if (pedido != null) {
+                    long precio = contenido.getLong();
+                    pedido.agregarItem(new ProductoBase(BitacoraPedidos.leerTexto(contenido), precio));
+                }
+                break;
+            }
+            case DESCUENTO_APLICADO: {
+                Pedido pedido = activos.get(pedidoId);
+                if (pedido != null) {
+                    pedido.aplicarDescuento(contenido.getLong());
+                }
+                break;
+            }
+            case ESTADO_CAMBIADO: {
+                Pedido pedido = activos.get(pedidoId);
+                if (pedido == null) {
+                    break;
+                }
+                Pedido.Estado estado = ESTADOS[contenido.get()];
+                pedido.cambiarEstado(estado, marca);
+                if (estadisticas != null) {
+                    estadisticas.registrarCambioEstado(estado);
+                }
+                if (estado == Pedido.Estado.ENTREGADO) {
+                    if (estadisticas != null) {
+                        estadisticas.registrarPedidoCompletado(pedido, marca);
+                    }
+                    if (analitica != null) {
+                        analitica.registrar(pedido, marca);
+                    }
+                    activos.remove(pedidoId);
+                    entregados++;
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    public Collection<Pedido> getActivos() { return activos.values(); }
+    public long getEventos() { return eventos; }
+    public long getEntregados() { return entregados; }
+    public long getMaximoId() { return maximoId; }
+}
@@ -0,0 +1,89 @@
+package com.delivery.bitacora;
+
+import com.delivery.analitica.AnaliticaPedidos;
+import com.delivery.catalogo.CatalogoCache;
+import com.delivery.ciclo.MotorCicloVida;
+import com.delivery.model.Pedido;
+import com.delivery.service.AlmacenPedidos;
+import com.delivery.service.PedidoService;
+import com.delivery.singleton.Estadisticas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reproduce la bitácora al arrancar, después de cargar los restaurantes.
+ * Los runners corren con la API ya atendiendo, así que hasta que termina
+ * AlmacenPedidos hace esperar a los pedidos nuevos, que si no podrían
+ * tomar el id de uno de la bitácora. Los pedidos que no llegaron a
+ * entregarse vuelven al motor de ciclo de vida: después de reiniciar no
+ * hay forma de saber si alguien más los hacía avanzar, y si un cliente
+ * lo sigue haciendo por la API el motor continúa desde el estado nuevo.
+ * Solo si la reproducción termina bien se empiezan a borrar los segmentos
+ * que ya no retiene ningún pedido.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RecuperacionPedidos implements CommandLineRunner {
+
+    @Autowired
+    private BitacoraPedidos bitacoraPedidos;
+
+    @Autowired
+    private CatalogoCache catalogoCache;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private AlmacenPedidos almacenPedidos;
+
+    @Autowired
+    private AnaliticaPedidos analiticaPedidos;
+
+    @Autowired
+    private MotorCicloVida motorCicloVida;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Collection<Pedido> activos;
+        try {
+            activos = recuperar();
+            bitacoraPedidos.recuperacionTerminada();
+        } finally {
+            // También si falla o no hay bitácora, para no dejar colgado a quien registra
+            almacenPedidos.recuperacionTerminada();
+        }
+        activos.forEach(motorCicloVida::iniciar);
+    }
+
+    private Collection<Pedido> recuperar() throws IOException {
+        if (!bitacoraPedidos.isHabilitada()) {
+            return List.of();
+        }
+        long inicio = System.nanoTime();
+        ReconstruccionPedidos reconstruccion = new ReconstruccionPedidos(
+                id -> catalogoCache.buscarRestaurante(id).orElse(null), Estadisticas.getInstancia(), analiticaPedidos);
+        bitacoraPedidos.reproducir(reconstruccion);
+        if (reconstruccion.getEventos() == 0) {
+            return List.of();
+        }
+        // También los ids de pedidos ya entregados, que no vuelven a memoria
+        almacenPedidos.reservarHasta(reconstruccion.getMaximoId());
+        for (Pedido pedido : reconstruccion.getActivos()) {
+            pedidoService.restaurar(pedido);
+        }
+        System.out.println("📒 Bitácora reproducida: " + reconstruccion.getEventos() + " eventos en "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) + " ms, "
+                + reconstruccion.getActivos().size() + " pedidos activos recuperados, "
+                + reconstruccion.getEntregados() + " entregados");
+        return reconstruccion.getActivos();
+    }
+}
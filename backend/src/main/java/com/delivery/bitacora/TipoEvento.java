@@ -0,0 +1,32 @@
+package com.delivery.bitacora;
+
+/**
+ * Tipos de evento de un pedido. El código es lo que se guarda en disco, así
+ * que no se puede cambiar el de un tipo existente.
+ */
+public enum TipoEvento {
+    CREADO(1),
+    ITEM_AGREGADO(2),
+    ESTADO_CAMBIADO(3),
+    DESCUENTO_APLICADO(4);
+
+    private static final TipoEvento[] POR_CODIGO = new TipoEvento[5];
+
+    static {
+        for (TipoEvento tipo : values()) {
+            POR_CODIGO[tipo.codigo] = tipo;
+        }
+    }
+
+    private final byte codigo;
+
+    TipoEvento(int codigo) {
+        this.codigo = (byte) codigo;
+    }
+
+    public static TipoEvento porCodigo(byte codigo) {
+        return codigo > 0 && codigo < POR_CODIGO.length ? POR_CODIGO[codigo] : null;
+    }
+
+    public byte getCodigo() { return codigo; }
+}
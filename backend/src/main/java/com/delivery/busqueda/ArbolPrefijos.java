@@ -0,0 +1,100 @@
+package com.delivery.busqueda;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Trie de los términos del índice para completar prefijos. Cada nodo
+ * guarda sus hijos en arreglos ordenados por letra; al quitar un término
+ * solo se desmarca su nodo, así no hace falta rearmar ramas.
+ */
+final class ArbolPrefijos {
+    private final Nodo raiz = new Nodo();
+    private int terminos;
+
+    void agregar(String termino) {
+        Nodo nodo = raiz;
+        for (int i = 0; i < termino.length(); i++) {
+            nodo = nodo.hijoOCrear(termino.charAt(i));
+        }
+        if (nodo.termino == null) {
+            nodo.termino = termino;
+            terminos++;
+        }
+    }
+
+    void quitar(String termino) {
+        Nodo nodo = buscar(termino);
+        if (nodo != null && nodo.termino != null) {
+            nodo.termino = null;
+            terminos--;
+        }
+    }
+
+    /** Agrega a {@code destino} todos los términos que empiezan con {@code prefijo}. */
+    void completar(String prefijo, List<String> destino) {
+        Nodo inicio = buscar(prefijo);
+        if (inicio == null) {
+            return;
+        }
+        Deque<Nodo> pendientes = new ArrayDeque<>();
+        pendientes.push(inicio);
+        while (!pendientes.isEmpty()) {
+            Nodo nodo = pendientes.pop();
+            if (nodo.termino != null) {
+                destino.add(nodo.termino);
+            }
+            for (int i = 0; i < nodo.cantidad; i++) {
+                pendientes.push(nodo.hijos[i]);
+            }
+        }
+    }
+
+    int getTerminos() { return terminos; }
+
+    private Nodo buscar(String texto) {
+        Nodo nodo = raiz;
+        for (int i = 0; i < texto.length() && nodo != null; i++) {
+            nodo = nodo.hijo(texto.charAt(i));
+        }
+        return nodo;
+    }
+
+    private static final class Nodo {
+        private static final char[] SIN_LETRAS = new char[0];
+        private static final Nodo[] SIN_HIJOS = new Nodo[0];
+
+        private char[] letras = SIN_LETRAS;
+        private Nodo[] hijos = SIN_HIJOS;
+        private int cantidad;
+        // El término completo si alguno termina en este nodo
+        private String termino;
+
+        private Nodo hijo(char letra) {
+            int posicion = Arrays.binarySearch(letras, 0, cantidad, letra);
+            return posicion >= 0 ? hijos[posicion] : null;
+        }
+
+        private Nodo hijoOCrear(char letra) {
+            int posicion = Arrays.binarySearch(letras, 0, cantidad, letra);
+            if (posicion >= 0) {
+                return hijos[posicion];
+            }
+            int insercion = -posicion - 1;
+            if (cantidad == letras.length) {
+                int capacidad = Math.max(2, cantidad * 2);
+                letras = Arrays.copyOf(letras, capacidad);
+                hijos = Arrays.copyOf(hijos, capacidad);
+            }
+            System.arraycopy(letras, insercion, letras, insercion + 1, cantidad - insercion);
+            System.arraycopy(hijos, insercion, hijos, insercion + 1, cantidad - insercion);
+            Nodo nuevo = new Nodo();
+            letras[insercion] = letra;
+            hijos[insercion] = nuevo;
+            cantidad++;
+            return nuevo;
+        }
+    }
+}
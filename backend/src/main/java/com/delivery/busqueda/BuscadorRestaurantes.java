@@ -0,0 +1,115 @@
+package com.delivery.busqueda;
+
+import com.delivery.model.Restaurante;
+import com.delivery.repository.RestauranteRepository;
+import com.delivery.singleton.HistogramaLatencia;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Búsqueda de restaurantes para la consola y la API. El índice se carga
+ * de la base con la primera consulta y después lo mantiene al día el
+ * {@code RestauranteListener} con cada restaurante que se guarda o se
+ * borra, sin volver a leer la tabla. Lo que el listener toca mientras se
+ * lee la tabla queda anotado y la carga no lo pisa con la fila leída, que
+ * puede ser más vieja.
+ */
+@Component
+public class BuscadorRestaurantes {
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    private final IndiceRestaurantes indice = new IndiceRestaurantes();
+    private volatile boolean cargado;
+    // Ids que guardó o borró el listener antes de terminar la carga; null después
+    private volatile Set<Long> actualizadosAntesDeCargar = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder busquedas = new LongAdder();
+    private final LongAdder sugerencias = new LongAdder();
+    private final LongAdder actualizaciones = new LongAdder();
+    private final HistogramaLatencia latenciaMicros = new HistogramaLatencia();
+    private volatile long cargaMs;
+
+    /** @see IndiceRestaurantes#buscar */
+    public ResultadoBusqueda buscar(String consulta, int pagina, int tamano) {
+        asegurarCargado();
+        long inicio = System.nanoTime();
+        ResultadoBusqueda resultado = indice.buscar(consulta, pagina, tamano);
+        latenciaMicros.registrar(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio));
+        busquedas.increment();
+        return resultado;
+    }
+
+    /** @see IndiceRestaurantes#sugerir */
+    public List<String> sugerir(String texto, int limite) {
+        asegurarCargado();
+        sugerencias.increment();
+        return indice.sugerir(texto, limite);
+    }
+
+    public int getRestaurantes() {
+        asegurarCargado();
+        return indice.getRestaurantes();
+    }
+
+    // Los llama el listener de la entidad; indexar dos veces el mismo restaurante solo lo reemplaza
+
+    public void restauranteGuardado(Restaurante restaurante) {
+        anotar(restaurante);
+        indice.indexar(restaurante);
+        actualizaciones.increment();
+    }
+
+    public void restauranteBorrado(Restaurante restaurante) {
+        anotar(restaurante);
+        indice.quitar(restaurante.getId());
+        actualizaciones.increment();
+    }
+
+    // Antes de tocar el índice: la carga lo mira con el candado del índice tomado
+    private void anotar(Restaurante restaurante) {
+        Set<Long> actualizados = actualizadosAntesDeCargar;
+        if (actualizados != null && restaurante.getId() != null) {
+            actualizados.add(restaurante.getId());
+        }
+    }
+
+    private void asegurarCargado() {
+        if (!cargado) {
+            cargar();
+        }
+    }
+
+    private synchronized void cargar() {
+        if (cargado) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        indice.indexarTodos(restauranteRepository.findAll(), actualizadosAntesDeCargar);
+        actualizadosAntesDeCargar = null;
+        cargaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        cargado = true;
+    }
+
+    public void mostrarMetricas() {
+        System.out.println("\n🔎 Búsqueda de restaurantes:");
+        if (!cargado) {
+            System.out.println("Índice sin cargar: se carga con la primera búsqueda");
+            return;
+        }
+        System.out.println("Restaurantes / términos indexados: " + indice.getRestaurantes() + " / "
+                + indice.getTerminos() + " (carga inicial en " + cargaMs + " ms)");
+        System.out.println("Búsquedas / sugerencias / actualizaciones: " + busquedas.sum() + " / "
+                + sugerencias.sum() + " / " + actualizaciones.sum() + ", renumeraciones del índice: "
+                + indice.getRenumeraciones());
+        System.out.println("Latencia de búsqueda p50 / p99: " + latenciaMicros.getPercentil(50) + " µs / "
+                + latenciaMicros.getPercentil(99) + " µs");
+    }
+}
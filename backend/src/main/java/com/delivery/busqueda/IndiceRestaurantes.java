@@ -0,0 +1,608 @@
+package com.delivery.busqueda;
+
+import com.delivery.model.Restaurante;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria de los restaurantes por nombre, descripción
+ * y dirección, más un {@link ArbolPrefijos} de sus términos. Una búsqueda
+ * pide todos los términos de la consulta y toma el último como prefijo,
+ * para que sirva mientras se escribe. El orden sigue una puntuación tipo
+ * BM25: los términos raros pesan más y el nombre pesa más que el resto.
+ *
+ * <p>Cada restaurante indexado recibe un número de documento creciente,
+ * así las listas de cada término quedan ordenadas solo con agregar al
+ * final y se cruzan avanzando a saltos. Reindexar un restaurante lo
+ * quita y lo vuelve a agregar con un número nuevo; lo quitado queda en
+ * las listas hasta que sea la mitad de una, y ahí se compacta. Cuando los
+ * números usados llegan al doble de los restaurantes vivos se numeran de
+ * nuevo desde 0, en el mismo orden, así lo que se arma por número de
+ * documento en cada búsqueda queda del tamaño de lo que hay. Las
+ * búsquedas se hacen en paralelo sobre arreglos primitivos y solo ordenan
+ * los resultados hasta la página pedida; las escrituras toman el candado
+ * exclusivo.
+ */
+public class IndiceRestaurantes {
+    private static final float PESO_NOMBRE = 3f;
+    private static final float PESO_DESCRIPCION = 1f;
+    private static final float PESO_DIRECCION = 1f;
+    // Saturación de la frecuencia, como k1 en BM25
+    private static final float SATURACION = 1.2f;
+    // Con menos entradas por candidato el prefijo se resuelve uniendo sus listas; con más, mirando cada candidato
+    private static final int ENTRADAS_POR_CANDIDATO = 4;
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    private final Map<String, Lista> invertido = new HashMap<>();
+    private final ArbolPrefijos prefijos = new ArbolPrefijos();
+    private final Map<Long, Integer> documentoPorId = new HashMap<>();
+    // Por número de documento; null si el restaurante se quitó o se reindexó
+    private Documento[] documentos = new Documento[CAPACIDAD_INICIAL];
+    private int siguienteDocumento;
+    private int vivos;
+    private long renumeraciones;
+
+    /** Agrega el restaurante o reemplaza su versión anterior. */
+    public void indexar(Restaurante restaurante) {
+        if (restaurante.getId() == null) {
+            return;
+        }
+        Documento nuevo = documento(restaurante);
+        candado.writeLock().lock();
+        try {
+            agregar(nuevo);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Carga inicial: indexa todos bajo un solo candado, salvo los de
+     * {@code salvo}, que una actualización más nueva ya indexó o quitó
+     * mientras se leían. Quien actualiza anota el id antes de tomar el
+     * candado, así que acá nunca se pisa una versión más nueva.
+     */
+    public void indexarTodos(Collection<Restaurante> restaurantes, Set<Long> salvo) {
+        List<Documento> nuevos = new ArrayList<>(restaurantes.size());
+        for (Restaurante restaurante : restaurantes) {
+            if (restaurante.getId() != null) {
+                nuevos.add(documento(restaurante));
+            }
+        }
+        candado.writeLock().lock();
+        try {
+            for (Documento nuevo : nuevos) {
+                if (!salvo.contains(nuevo.restaurante.getId())) {
+                    agregar(nuevo);
+                }
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private static Documento documento(Restaurante restaurante) {
+        Map<String, Float> pesos = new LinkedHashMap<>();
+        sumar(pesos, restaurante.getNombre(), PESO_NOMBRE);
+        sumar(pesos, restaurante.getDescripcion(), PESO_DESCRIPCION);
+        sumar(pesos, restaurante.getDireccion(), PESO_DIRECCION);
+        String[] terminos = pesos.keySet().toArray(new String[0]);
+        float[] pesosTerminos = new float[terminos.length];
+        for (int i = 0; i < terminos.length; i++) {
+            pesosTerminos[i] = pesos.get(terminos[i]);
+        }
+        return new Documento(restaurante, terminos, pesosTerminos);
+    }
+
+    private void agregar(Documento nuevo) {
+        quitarDocumento(nuevo.restaurante.getId());
+        if (siguienteDocumento == documentos.length) {
+            documentos = Arrays.copyOf(documentos, documentos.length * 2);
+        }
+        int documento = siguienteDocumento++;
+        documentos[documento] = nuevo;
+        documentoPorId.put(nuevo.restaurante.getId(), documento);
+        vivos++;
+        for (int i = 0; i < nuevo.terminos.length; i++) {
+            Lista lista = invertido.get(nuevo.terminos[i]);
+            if (lista == null) {
+                lista = new Lista();
+                invertido.put(nuevo.terminos[i], lista);
+                prefijos.agregar(nuevo.terminos[i]);
+            }
+            lista.agregar(documento, nuevo.pesos[i]);
+        }
+    }
+
+    public void quitar(Long id) {
+        candado.writeLock().lock();
+        try {
+            quitarDocumento(id);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private void quitarDocumento(Long id) {
+        Integer documento = documentoPorId.remove(id);
+        if (documento == null) {
+            return;
+        }
+        Documento anterior = documentos[documento];
+        documentos[documento] = null;
+        vivos--;
+        for (String termino : anterior.terminos) {
+            Lista lista = invertido.get(termino);
+            lista.vivos--;
+            if (lista.vivos == 0) {
+                invertido.remove(termino);
+                prefijos.quitar(termino);
+            } else if (lista.vivos < lista.tamano / 2) {
+                lista.compactar(documentos);
+            }
+        }
+        // Tanto al reindexar como al quitar: solo acá aparecen números sin documento
+        if (siguienteDocumento > CAPACIDAD_INICIAL && vivos <= siguienteDocumento / 2) {
+            renumerar();
+        }
+    }
+
+    /**
+     * Numera de nuevo los documentos vivos desde 0, en el mismo orden, y
+     * saca de las listas los quitados. Recorre todas las listas, pero pasa
+     * como mucho una vez cada tantos números usados como restaurantes vivos.
+     */
+    private void renumerar() {
+        int[] nuevos = new int[siguienteDocumento];
+        Documento[] renumerados = new Documento[Math.max(CAPACIDAD_INICIAL, 2 * vivos)];
+        int siguiente = 0;
+        for (int documento = 0; documento < siguienteDocumento; documento++) {
+            Documento vivo = documentos[documento];
+            if (vivo == null) {
+                nuevos[documento] = -1;
+                continue;
+            }
+            nuevos[documento] = siguiente;
+            renumerados[siguiente] = vivo;
+            documentoPorId.put(vivo.restaurante.getId(), siguiente);
+            siguiente++;
+        }
+        for (Lista lista : invertido.values()) {
+            lista.renumerar(nuevos);
+        }
+        documentos = renumerados;
+        siguienteDocumento = siguiente;
+        renumeraciones++;
+    }
+
+    private static void sumar(Map<String, Float> pesos, String texto, float peso) {
+        for (String termino : Tokenizador.indexables(texto)) {
+            pesos.merge(termino, peso, Float::sum);
+        }
+    }
+
+    /**
+     * Restaurantes que tienen todos los términos de {@code consulta}, el
+     * último como prefijo, de mejor a peor puntaje. {@code pagina} empieza
+     * en 0.
+     *
+     * @throws IllegalArgumentException si la página es negativa o el tamaño no es positivo
+     */
+    public ResultadoBusqueda buscar(String consulta, int pagina, int tamano) {
+        if (pagina < 0 || tamano <= 0) {
+            throw new IllegalArgumentException("Página o tamaño inválidos: " + pagina + ", " + tamano);
+        }
+        List<String> terminos = Tokenizador.terminos(consulta);
+        if (terminos.isEmpty()) {
+            return new ResultadoBusqueda(0, pagina, tamano, List.of());
+        }
+        // El prefijo se usa aunque sea un artículo: puede ser el comienzo de otra palabra
+        String prefijo = terminos.remove(terminos.size() - 1);
+        terminos.removeIf(Tokenizador::esVacia);
+
+        candado.readLock().lock();
+        try {
+            Candidatos candidatos = terminos.isEmpty()
+                    ? porPrefijo(prefijo)
+                    : filtrarPorPrefijo(porTerminos(new LinkedHashSet<>(terminos)), prefijo);
+            return paginar(candidatos, pagina, tamano);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /** Cruce de las listas de los términos completos, empezando por la más corta. */
+    private Candidatos porTerminos(Iterable<String> terminos) {
+        List<Lista> listas = new ArrayList<>();
+        for (String termino : terminos) {
+            Lista lista = invertido.get(termino);
+            if (lista == null) {
+                return Candidatos.NINGUNO;
+            }
+            listas.add(lista);
+        }
+        listas.sort(Comparator.comparingInt(lista -> lista.vivos));
+
+        Lista primera = listas.get(0);
+        Candidatos candidatos = new Candidatos(primera.vivos);
+        float idf = idf(primera.vivos);
+        for (int i = 0; i < primera.tamano; i++) {
+            if (documentos[primera.documentos[i]] != null) {
+                candidatos.agregar(primera.documentos[i], idf * saturar(primera.pesos[i]));
+            }
+        }
+        for (int l = 1; l < listas.size() && candidatos.tamano > 0; l++) {
+            Lista lista = listas.get(l);
+            idf = idf(lista.vivos);
+            // Los candidatos y la lista están ordenados: se avanza en la lista sin volver atrás
+            int quedan = 0;
+            int posicion = 0;
+            for (int i = 0; i < candidatos.tamano && posicion < lista.tamano; i++) {
+                int documento = candidatos.documentos[i];
+                posicion = avanzar(lista.documentos, posicion, lista.tamano, documento);
+                if (posicion < lista.tamano && lista.documentos[posicion] == documento) {
+                    candidatos.documentos[quedan] = documento;
+                    candidatos.puntajes[quedan] = candidatos.puntajes[i] + idf * saturar(lista.pesos[posicion]);
+                    quedan++;
+                }
+            }
+            candidatos.tamano = quedan;
+        }
+        return candidatos;
+    }
+
+    /** Primera posición desde {@code desde} con un documento mayor o igual, saltando de a potencias de dos. */
+    private static int avanzar(int[] documentos, int desde, int hasta, int documento) {
+        int salto = 1;
+        int bajo = desde;
+        while (bajo + salto < hasta && documentos[bajo + salto] < documento) {
+            bajo += salto;
+            salto <<= 1;
+        }
+        if (documentos[bajo] >= documento) {
+            return bajo;
+        }
+        int posicion = Arrays.binarySearch(documentos, bajo + 1, Math.min(hasta, bajo + salto + 1), documento);
+        return posicion >= 0 ? posicion : -posicion - 1;
+    }
+
+    /** Se queda con los candidatos que tienen algún término que empieza con el prefijo. */
+    private Candidatos filtrarPorPrefijo(Candidatos candidatos, String prefijo) {
+        if (candidatos.tamano == 0) {
+            return candidatos;
+        }
+        List<Lista> completados = completar(prefijo);
+        long entradas = 0;
+        for (Lista lista : completados) {
+            entradas += lista.tamano;
+        }
+        int quedan = 0;
+        if (entradas <= (long) candidatos.tamano * ENTRADAS_POR_CANDIDATO) {
+            float[] mejores = mejorPorDocumento(completados, null);
+            for (int i = 0; i < candidatos.tamano; i++) {
+                float mejor = mejores[candidatos.documentos[i]];
+                if (mejor > 0) {
+                    candidatos.documentos[quedan] = candidatos.documentos[i];
+                    candidatos.puntajes[quedan] = candidatos.puntajes[i] + mejor;
+                    quedan++;
+                }
+            }
+        } else {
+            for (int i = 0; i < candidatos.tamano; i++) {
+                Documento documento = documentos[candidatos.documentos[i]];
+                float mejor = 0;
+                for (int t = 0; t < documento.terminos.length; t++) {
+                    if (documento.terminos[t].startsWith(prefijo)) {
+                        float puntaje = idf(invertido.get(documento.terminos[t]).vivos) * saturar(documento.pesos[t]);
+                        mejor = Math.max(mejor, puntaje);
+                    }
+                }
+                if (mejor > 0) {
+                    candidatos.documentos[quedan] = candidatos.documentos[i];
+                    candidatos.puntajes[quedan] = candidatos.puntajes[i] + mejor;
+                    quedan++;
+                }
+            }
+        }
+        candidatos.tamano = quedan;
+        return candidatos;
+    }
+
+    /** Unión de las listas de todos los términos que completan el prefijo; cada restaurante cuenta su mejor término. */
+    private Candidatos porPrefijo(String prefijo) {
+        List<Lista> completados = completar(prefijo);
+        if (completados.isEmpty()) {
+            return Candidatos.NINGUNO;
+        }
+        Candidatos candidatos = new Candidatos(completados.get(0).vivos);
+        float[] mejores = mejorPorDocumento(completados, candidatos);
+        // Los documentos se anotaron en el orden en que aparecieron; el puntaje final quedó en el arreglo
+        for (int i = 0; i < candidatos.tamano; i++) {
+            candidatos.puntajes[i] = mejores[candidatos.documentos[i]];
+        }
+        return candidatos;
+    }
+
+    /**
+     * Mejor puntaje de cada documento vivo entre las listas dadas, indexado
+     * por número de documento; 0 si no está en ninguna. Los puntajes son
+     * siempre positivos. Si {@code aparecidos} no es null anota ahí cada
+     * documento la primera vez que lo encuentra.
+     */
+    private float[] mejorPorDocumento(List<Lista> listas, Candidatos aparecidos) {
+        float[] mejores = new float[siguienteDocumento];
+        for (Lista lista : listas) {
+            float idf = idf(lista.vivos);
+            for (int i = 0; i < lista.tamano; i++) {
+                int documento = lista.documentos[i];
+                if (documentos[documento] == null) {
+                    continue;
+                }
+                float puntaje = idf * saturar(lista.pesos[i]);
+                if (mejores[documento] == 0 && aparecidos != null) {
+                    aparecidos.agregar(documento, 0);
+                }
+                mejores[documento] = Math.max(mejores[documento], puntaje);
+            }
+        }
+        return mejores;
+    }
+
+    private List<Lista> completar(String prefijo) {
+        List<String> terminos = new ArrayList<>();
+        prefijos.completar(prefijo, terminos);
+        List<Lista> listas = new ArrayList<>(terminos.size());
+        for (String termino : terminos) {
+            listas.add(invertido.get(termino));
+        }
+        return listas;
+    }
+
+    /**
+     * Deja en un montículo los mejores hasta el final de la página pedida,
+     * con el peor en la raíz, y los saca de peor a mejor. Así no se ordena
+     * el resto de las coincidencias.
+     */
+    private ResultadoBusqueda paginar(Candidatos candidatos, int pagina, int tamano) {
+        int total = candidatos.tamano;
+        int hasta = (int) Math.min((long) (pagina + 1) * tamano, total);
+        int desde = (int) Math.min((long) pagina * tamano, total);
+        if (desde == hasta) {
+            return new ResultadoBusqueda(total, pagina, tamano, List.of());
+        }
+        int[] montonDocumentos = new int[hasta];
+        float[] montonPuntajes = new float[hasta];
+        int enMonton = 0;
+        for (int i = 0; i < total; i++) {
+            int documento = candidatos.documentos[i];
+            float puntaje = candidatos.puntajes[i];
+            if (enMonton < hasta) {
+                montonDocumentos[enMonton] = documento;
+                montonPuntajes[enMonton] = puntaje;
+                subir(montonDocumentos, montonPuntajes, enMonton++);
+            } else if (peor(montonPuntajes[0], montonDocumentos[0], puntaje, documento)) {
+                montonDocumentos[0] = documento;
+                montonPuntajes[0] = puntaje;
+                bajar(montonDocumentos, montonPuntajes, enMonton);
+            }
+        }
+        Restaurante[] ordenados = new Restaurante[hasta];
+        while (enMonton > 0) {
+            ordenados[--enMonton] = documentos[montonDocumentos[0]].restaurante;
+            montonDocumentos[0] = montonDocumentos[enMonton];
+            montonPuntajes[0] = montonPuntajes[enMonton];
+            bajar(montonDocumentos, montonPuntajes, enMonton);
+        }
+        return new ResultadoBusqueda(total, pagina, tamano, List.of(ordenados).subList(desde, hasta));
+    }
+
+    /** Si (a) va después que (b): menos puntaje o, empatados, indexado después. */
+    private static boolean peor(float puntajeA, int documentoA, float puntajeB, int documentoB) {
+        return puntajeA < puntajeB || (puntajeA == puntajeB && documentoA > documentoB);
+    }
+
+    private static void subir(int[] documentos, float[] puntajes, int posicion) {
+        while (posicion > 0) {
+            int padre = (posicion - 1) >>> 1;
+            if (!peor(puntajes[posicion], documentos[posicion], puntajes[padre], documentos[padre])) {
+                return;
+            }
+            intercambiar(documentos, puntajes, posicion, padre);
+            posicion = padre;
+        }
+    }
+
+    private static void bajar(int[] documentos, float[] puntajes, int tamano) {
+        int posicion = 0;
+        while (true) {
+            int hijo = 2 * posicion + 1;
+            if (hijo >= tamano) {
+                return;
+            }
+            if (hijo + 1 < tamano && peor(puntajes[hijo + 1], documentos[hijo + 1], puntajes[hijo], documentos[hijo])) {
+                hijo++;
+            }
+            if (!peor(puntajes[hijo], documentos[hijo], puntajes[posicion], documentos[posicion])) {
+                return;
+            }
+            intercambiar(documentos, puntajes, posicion, hijo);
+            posicion = hijo;
+        }
+    }
+
+    private static void intercambiar(int[] documentos, float[] puntajes, int a, int b) {
+        int documento = documentos[a];
+        documentos[a] = documentos[b];
+        documentos[b] = documento;
+        float puntaje = puntajes[a];
+        puntajes[a] = puntajes[b];
+        puntajes[b] = puntaje;
+    }
+
+    /**
+     * Hasta {@code limite} términos del índice que completan el último
+     * término de {@code texto}, de los que más restaurantes tienen a los
+     * que menos.
+     */
+    public List<String> sugerir(String texto, int limite) {
+        List<String> terminos = Tokenizador.terminos(texto);
+        if (terminos.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        List<String> completados = new ArrayList<>();
+        candado.readLock().lock();
+        try {
+            prefijos.completar(terminos.get(terminos.size() - 1), completados);
+            Map<String, Integer> frecuencias = new HashMap<>(completados.size() * 2);
+            for (String termino : completados) {
+                frecuencias.put(termino, invertido.get(termino).vivos);
+            }
+            completados.sort(Comparator.comparingInt((String termino) -> frecuencias.get(termino)).reversed()
+                    .thenComparing(Comparator.naturalOrder()));
+        } finally {
+            candado.readLock().unlock();
+        }
+        return List.copyOf(completados.subList(0, Math.min(limite, completados.size())));
+    }
+
+    private float idf(int frecuencia) {
+        return (float) Math.log(1 + (vivos - frecuencia + 0.5) / (frecuencia + 0.5));
+    }
+
+    private static float saturar(float peso) {
+        return peso * (SATURACION + 1) / (peso + SATURACION);
+    }
+
+    public int getRestaurantes() {
+        candado.readLock().lock();
+        try {
+            return vivos;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /** Números de documento en uso, vivos o no: lo que mide cada arreglo por documento. */
+    int getDocumentosNumerados() {
+        candado.readLock().lock();
+        try {
+            return siguienteDocumento;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public long getRenumeraciones() {
+        candado.readLock().lock();
+        try {
+            return renumeraciones;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public int getTerminos() {
+        candado.readLock().lock();
+        try {
+            return invertido.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private static final class Documento {
+        private final Restaurante restaurante;
+        private final String[] terminos;
+        private final float[] pesos;
+
+        private Documento(Restaurante restaurante, String[] terminos, float[] pesos) {
+            this.restaurante = restaurante;
+            this.terminos = terminos;
+            this.pesos = pesos;
+        }
+    }
+
+    /**
+     * Documentos con el término, en orden creciente, y el peso del término
+     * en cada uno. Puede tener documentos ya quitados; {@code vivos} cuenta
+     * los que no.
+     */
+    private static final class Lista {
+        private int[] documentos = new int[4];
+        private float[] pesos = new float[4];
+        private int tamano;
+        private int vivos;
+
+        private void agregar(int documento, float peso) {
+            if (tamano == documentos.length) {
+                documentos = Arrays.copyOf(documentos, tamano * 2);
+                pesos = Arrays.copyOf(pesos, tamano * 2);
+            }
+            documentos[tamano] = documento;
+            pesos[tamano] = peso;
+            tamano++;
+            vivos++;
+        }
+
+        private void compactar(Documento[] indexados) {
+            int quedan = 0;
+            for (int i = 0; i < tamano; i++) {
+                if (indexados[documentos[i]] != null) {
+                    documentos[quedan] = documentos[i];
+                    pesos[quedan] = pesos[i];
+                    quedan++;
+                }
+            }
+            tamano = quedan;
+        }
+
+        /** Cambia cada documento por su número nuevo y saca los quitados, que tienen -1. */
+        private void renumerar(int[] nuevos) {
+            int quedan = 0;
+            for (int i = 0; i < tamano; i++) {
+                int nuevo = nuevos[documentos[i]];
+                if (nuevo >= 0) {
+                    documentos[quedan] = nuevo;
+                    pesos[quedan] = pesos[i];
+                    quedan++;
+                }
+            }
+            tamano = quedan;
+        }
+    }
+
+    /** Documentos que siguen en carrera con su puntaje acumulado, en orden de documento al cruzar listas. */
+    private static final class Candidatos {
+        private static final Candidatos NINGUNO = new Candidatos(0);
+
+        private int[] documentos;
+        private float[] puntajes;
+        private int tamano;
+
+        private Candidatos(int capacidad) {
+            documentos = new int[Math.max(1, capacidad)];
+            puntajes = new float[documentos.length];
+        }
+
+        private void agregar(int documento, float puntaje) {
+            if (tamano == documentos.length) {
+                documentos = Arrays.copyOf(documentos, tamano * 2);
+                puntajes = Arrays.copyOf(puntajes, tamano * 2);
+            }
+            documentos[tamano] = documento;
+            puntajes[tamano] = puntaje;
+            tamano++;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.delivery.busqueda;
+
+import com.delivery.model.Restaurante;
+
+import java.util.List;
+
+/** Una página de resultados y el total de restaurantes que coinciden. */
+public record ResultadoBusqueda(int total, int pagina, int tamano, List<Restaurante> restaurantes) {
+
+    public int getPaginas() {
+        return (total + tamano - 1) / tamano;
+    }
+}
@@ -0,0 +1,60 @@
+package com.delivery.busqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Corta un texto en términos de búsqueda: letras y dígitos seguidos, en
+ * minúsculas y sin tildes, así "Café" y "cafe" son el mismo término.
+ * Artículos y preposiciones ("de", "la", "y"...) no se indexan: están en
+ * casi todos los restaurantes y solo alargarían las listas.
+ */
+final class Tokenizador {
+    private static final Set<String> VACIAS = Set.of("a", "al", "con", "de", "del", "e", "el", "en", "la", "las",
+            "los", "o", "para", "por", "u", "un", "una", "y");
+
+    private Tokenizador() {}
+
+    static boolean esVacia(String termino) {
+        return VACIAS.contains(termino);
+    }
+
+    /** Los términos de {@code texto} sin artículos ni preposiciones. */
+    static List<String> indexables(String texto) {
+        List<String> terminos = terminos(texto);
+        terminos.removeIf(Tokenizador::esVacia);
+        return terminos;
+    }
+
+    static List<String> terminos(String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto == null) {
+            return terminos;
+        }
+        StringBuilder actual = new StringBuilder(16);
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                actual.append(normalizar(c));
+            } else if (actual.length() > 0) {
+                terminos.add(actual.toString());
+                actual.setLength(0);
+            }
+        }
+        if (actual.length() > 0) {
+            terminos.add(actual.toString());
+        }
+        return terminos;
+    }
+
+    private static char normalizar(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        // Fuera de ASCII se descompone la letra y se queda la base, sin la marca
+        char base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0);
+        return Character.toLowerCase(base);
+    }
+}
@@ -0,0 +1,121 @@
+package com.delivery.carga;
+
+import com.delivery.auth.ServicioAutenticacion;
+import com.delivery.model.Restaurante;
+import com.delivery.model.Usuario;
+import com.delivery.repository.RestauranteRepository;
+import com.delivery.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * Siembra usuarios y restaurantes sintéticos en lotes. Cada lote va en su
+ * propia transacción y se vacía el contexto de persistencia al terminarlo,
+ * así la memoria no crece con la cantidad de filas y Hibernate agrupa los
+ * inserts según hibernate.jdbc.batch_size.
+ */
+@Component
+public class GeneradorDatos {
+    // Contraseña común de los usuarios sintéticos (usuarioN / carga123)
+    public static final String CONTRASENA_SINTETICA = "carga123";
+
+    private static final String[] COCINAS = {
+        "italiana", "mexicana", "japonesa", "vegetariana", "parrilla", "china", "peruana", "árabe"
+    };
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private ServicioAutenticacion servicioAutenticacion;
+
+    private final TransactionTemplate transaccion;
+
+    @Value("${delivery.semilla.lote:1000}")
+    private int lote;
+
+    @Autowired
+    public GeneradorDatos(PlatformTransactionManager transactionManager) {
+        this.transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    public Informe sembrarUsuarios(long cantidad) {
+        // PBKDF2 por fila haría que el hash domine el tiempo; se calcula una vez y se comparte
+        String hash = servicioAutenticacion.hashear(CONTRASENA_SINTETICA);
+        long desde = usuarioRepository.count();
+        return insertar("usuarios", cantidad, i -> {
+            long n = desde + i;
+            return new Usuario("usuario" + n, hash, "Usuario " + n,
+                    "usuario" + n + "@carga.delivery.com", telefono(n));
+        });
+    }
+
+    public Informe sembrarRestaurantes(long cantidad) {
+        long desde = restauranteRepository.count();
+        return insertar("restaurantes", cantidad, i -> {
+            long n = desde + i;
+            return new Restaurante("Restaurante " + n, "Cocina " + COCINAS[(int) (n % COCINAS.length)],
+                    telefono(n), "Calle " + (n % 500 + 1) + " #" + (n % 97 + 1));
+        });
+    }
+
+    private Informe insertar(String tabla, long cantidad, LongFunction<Object> fabrica) {
+        long inicio = System.nanoTime();
+        for (long desde = 0; desde < cantidad; desde += lote) {
+            long hasta = Math.min(cantidad, desde + lote);
+            long inicioLote = desde;
+            transaccion.executeWithoutResult(estado -> {
+                for (long i = inicioLote; i < hasta; i++) {
+                    entityManager.persist(fabrica.apply(i));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        return new Informe(tabla, cantidad, System.nanoTime() - inicio);
+    }
+
+    private static String telefono(long n) {
+        return "555-" + String.format("%07d", n % 10_000_000);
+    }
+
+    /** Resultado de una siembra: cuántas filas y a qué velocidad. */
+    public static class Informe {
+        private final String tabla;
+        private final long filas;
+        private final long nanos;
+
+        Informe(String tabla, long filas, long nanos) {
+            this.tabla = tabla;
+            this.filas = filas;
+            this.nanos = nanos;
+        }
+
+        public String getTabla() { return tabla; }
+        public long getFilas() { return filas; }
+        public long getMillis() { return TimeUnit.NANOSECONDS.toMillis(nanos); }
+
+        public long getFilasPorSegundo() {
+            return nanos == 0 ? 0 : Math.round(filas / (nanos / 1e9));
+        }
+
+        @Override
+        public String toString() {
+            return filas + " " + tabla + " en " + getMillis() + " ms (" + getFilasPorSegundo() + " filas/s)";
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.delivery.carga;
+
+import com.delivery.catalogo.CatalogoCache;
+import com.delivery.ciclo.MotorCicloVida;
+import com.delivery.decorator.Extra;
+import com.delivery.decorator.Menu;
+import com.delivery.decorator.Plato;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Producto;
+import com.delivery.model.Restaurante;
+import com.delivery.observer.EstadisticasObservador;
+import com.delivery.service.PedidoService;
+import com.delivery.singleton.Estadisticas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Genera pedidos sintéticos siguiendo una curva de llegadas diaria (picos
+ * de almuerzo y cena) comprimida en la duración pedida. Cada pedido pasa
+ * por el mismo camino que uno real: registro en el almacén y avance por el
+ * motor de ciclo de vida. Solo lleva el observador de estadísticas para no
+ * llenar la consola de notificaciones.
+ */
+@Component
+public class GeneradorTrafico {
+    private static final long TICK_MS = 10;
+
+    // Peso relativo de cada hora del día en la cantidad de llegadas
+    private static final double[] CURVA_DIARIA = {
+        0.2, 0.1, 0.1, 0.1, 0.1, 0.2, 0.4, 0.7, 0.9, 0.8, 0.9, 1.6,
+        2.6, 2.4, 1.3, 0.8, 0.7, 0.9, 1.5, 2.4, 2.8, 2.2, 1.2, 0.5
+    };
+    private static final double SUMA_CURVA;
+
+    static {
+        double suma = 0;
+        for (double peso : CURVA_DIARIA) {
+            suma += peso;
+        }
+        SUMA_CURVA = suma;
+    }
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private MotorCicloVida motorCicloVida;
+
+    @Autowired
+    private CatalogoCache catalogoCache;
+
+    private final Estadisticas estadisticas = Estadisticas.getInstancia();
+
+    /**
+     * Reproduce un día de {@code pedidosPorDia} pedidos en {@code duracionMs}
+     * y bloquea hasta terminar de generarlos.
+     *
+     * @throws IllegalStateException si no hay restaurantes cargados
+     */
+    public Informe ejecutar(long pedidosPorDia, long duracionMs) throws InterruptedException {
+        List<Restaurante> restaurantes = catalogoCache.getRestaurantes();
+        if (restaurantes.isEmpty()) {
+            throw new IllegalStateException("No hay restaurantes para generar pedidos");
+        }
+
+        Informe informe = new Informe(duracionMs);
+        // Una hora simulada dura duracionMs / 24; se reparte en ticks
+        double ticksPorHora = Math.max(1.0, duracionMs / 24.0 / TICK_MS);
+        ScheduledExecutorService reloj = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "trafico");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long inicio = System.nanoTime();
+        reloj.scheduleAtFixedRate(() -> {
+            long transcurrido = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            int hora = (int) Math.min(23, transcurrido * 24 / Math.max(1, duracionMs));
+            double lambda = pedidosPorDia * CURVA_DIARIA[hora] / SUMA_CURVA / ticksPorHora;
+            int llegadas = poisson(lambda);
+            for (int i = 0; i < llegadas; i++) {
+                generarPedido(restaurantes, informe, hora);
+            }
+        }, 0, TICK_MS, TimeUnit.MILLISECONDS);
+
+        try {
+            Thread.sleep(duracionMs);
+        } finally {
+            reloj.shutdownNow();
+            reloj.awaitTermination(1, TimeUnit.SECONDS);
+            informe.transcurridoNanos = System.nanoTime() - inicio;
+        }
+        return informe;
+    }
+
+    private void generarPedido(List<Restaurante> restaurantes, Informe informe, int hora) {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        Restaurante restaurante = restaurantes.get(azar.nextInt(restaurantes.size()));
+        long n = informe.generados.sum();
+        Pedido pedido = new Pedido(new Cliente("Cliente " + n, "555-0000", "Dirección " + n), restaurante);
+        pedido.agregarObservador(new EstadisticasObservador(estadisticas));
+
+        int items = 1 + azar.nextInt(3);
+        for (int i = 0; i < items; i++) {
+            Producto producto = Plato.values()[azar.nextInt(Plato.values().length)].crear();
+            if (azar.nextBoolean()) {
+                producto = Menu.agregarExtra(producto, Extra.values()[azar.nextInt(Extra.values().length)].getId());
+            }
+            pedido.agregarItem(producto);
+        }
+
+        try {
+            pedidoService.registrar(pedido);
+        } catch (RuntimeException e) {
+            informe.fallidos.increment();
+            return;
+        }
+        informe.generados.increment();
+        informe.porHora.incrementAndGet(hora);
+        motorCicloVida.iniciar(pedido).whenComplete((p, error) -> {
+            if (error == null) {
+                informe.completados.increment();
+            } else {
+                informe.fallidos.increment();
+            }
+        });
+    }
+
+    // Knuth para tasas chicas; con tasas altas alcanza la aproximación normal
+    private static int poisson(double lambda) {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        if (lambda <= 0) {
+            return 0;
+        }
+        if (lambda > 30) {
+            return (int) Math.max(0, Math.round(lambda + Math.sqrt(lambda) * azar.nextGaussian()));
+        }
+        double limite = Math.exp(-lambda);
+        double producto = azar.nextDouble();
+        int k = 0;
+        while (producto > limite) {
+            producto *= azar.nextDouble();
+            k++;
+        }
+        return k;
+    }
+
+    /** Resultado de una corrida; los completados siguen creciendo mientras el motor avanza. */
+    public static class Informe {
+        private final long duracionMs;
+        private final LongAdder generados = new LongAdder();
+        private final LongAdder completados = new LongAdder();
+        private final LongAdder fallidos = new LongAdder();
+        private final AtomicLongArray porHora = new AtomicLongArray(24);
+        private volatile long transcurridoNanos;
+
+        Informe(long duracionMs) {
+            this.duracionMs = duracionMs;
+        }
+
+        public long getGenerados() { return generados.sum(); }
+        public long getCompletados() { return completados.sum(); }
+        public long getFallidos() { return fallidos.sum(); }
+        public long getPorHora(int hora) { return porHora.get(hora); }
+
+        public long getPedidosPorSegundo() {
+            return transcurridoNanos == 0 ? 0 : Math.round(generados.sum() / (transcurridoNanos / 1e9));
+        }
+
+        public void mostrar() {
+            System.out.println("\n🚦 Tráfico sintético (" + duracionMs + " ms por día simulado)");
+            System.out.println("Pedidos generados: " + getGenerados() + " (" + getPedidosPorSegundo() + " pedidos/s)");
+            System.out.println("Completados / fallidos hasta ahora: " + getCompletados() + " / " + getFallidos());
+            StringBuilder curva = new StringBuilder("Llegadas por hora:");
+            for (int hora = 0; hora < 24; hora++) {
+                curva.append(' ').append(porHora.get(hora));
+            }
+            System.out.println(curva);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.delivery.catalogo;
+
+import com.delivery.decorator.Extra;
+import com.delivery.decorator.Plato;
+import com.delivery.model.Restaurante;
+import com.delivery.repository.RestauranteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché de lectura del catálogo (restaurantes, productos y extras). Los
+ * lectores consultan una instantánea inmutable publicada en un campo
+ * volatile, sin bloqueos; solo la recarga está sincronizada. Una entrada
+ * vence por tiempo (TTL) o cuando cambia la {@link VersionCatalogo}.
+ */
+@Component
+public class CatalogoCache {
+    private static final List<Plato> PLATOS = List.of(Plato.values());
+    private static final List<Extra> EXTRAS = List.of(Extra.values());
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Value("${delivery.catalogo.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${delivery.catalogo.maximo-entradas:10000}")
+    private int maximoEntradas;
+
+    private volatile Instantanea instantanea;
+    // Restaurantes pedidos por id cuando no hay una instantánea vigente
+    private final Map<Long, Entrada> porId = new ConcurrentHashMap<>();
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+
+    public List<Restaurante> getRestaurantes() {
+        Instantanea actual = instantanea;
+        if (actual != null && vigente(actual.version, actual.cargadaEn)) {
+            aciertos.increment();
+            return actual.restaurantes;
+        }
+        fallos.increment();
+        return recargar().restaurantes;
+    }
+
+    public Optional<Restaurante> buscarRestaurante(Long id) {
+        Instantanea actual = instantanea;
+        if (actual != null && vigente(actual.version, actual.cargadaEn)) {
+            aciertos.increment();
+            return Optional.ofNullable(actual.porId.get(id));
+        }
+        Entrada entrada = porId.get(id);
+        if (entrada != null && vigente(entrada.version, entrada.cargadaEn)) {
+            aciertos.increment();
+            return Optional.of(entrada.restaurante);
+        }
+        fallos.increment();
+        // La versión se lee antes de consultar para no marcar como vigente un dato viejo
+        long version = VersionCatalogo.actual();
+        Optional<Restaurante> encontrado = restauranteRepository.findById(id);
+        encontrado.ifPresent(restaurante -> guardar(id, new Entrada(restaurante, version, System.currentTimeMillis())));
+        return encontrado;
+    }
+
+    public List<Plato> getProductos() {
+        return PLATOS;
+    }
+
+    public List<Extra> getExtras() {
+        return EXTRAS;
+    }
+
+    private boolean vigente(long version, long cargadaEn) {
+        return version == VersionCatalogo.actual() && System.currentTimeMillis() - cargadaEn < ttlMs;
+    }
+
+    private synchronized Instantanea recargar() {
+        Instantanea actual = instantanea;
+        if (actual != null && vigente(actual.version, actual.cargadaEn)) {
+            // Otro hilo ya recargó mientras este esperaba
+            return actual;
+        }
+        if (actual != null) {
+            desalojos.increment();
+        }
+        long version = VersionCatalogo.actual();
+        List<Restaurante> restaurantes = List.copyOf(restauranteRepository.findAll());
+        Map<Long, Restaurante> indice = new HashMap<>();
+        for (Restaurante restaurante : restaurantes) {
+            indice.put(restaurante.getId(), restaurante);
+        }
+        Instantanea nueva = new Instantanea(restaurantes, Map.copyOf(indice), version, System.currentTimeMillis());
+        instantanea = nueva;
+        porId.clear();
+        return nueva;
+    }
+
+    private void guardar(Long id, Entrada entrada) {
+        if (porId.size() >= maximoEntradas) {
+            desalojarVencidas();
+        }
+        // Si sigue lleno se sacan entradas cualesquiera hasta hacer lugar
+        Iterator<Long> claves = porId.keySet().iterator();
+        while (porId.size() >= maximoEntradas && claves.hasNext()) {
+            claves.next();
+            claves.remove();
+            desalojos.increment();
+        }
+        porId.put(id, entrada);
+    }
+
+    private void desalojarVencidas() {
+        Iterator<Entrada> entradas = porId.values().iterator();
+        while (entradas.hasNext()) {
+            Entrada entrada = entradas.next();
+            if (!vigente(entrada.version, entrada.cargadaEn)) {
+                entradas.remove();
+                desalojos.increment();
+            }
+        }
+    }
+
+    /** Descarta todo el contenido; la próxima lectura recarga. */
+    public void invalidar() {
+        VersionCatalogo.incrementar();
+    }
+
+    public long getAciertos() { return aciertos.sum(); }
+    public long getFallos() { return fallos.sum(); }
+    public long getDesalojos() { return desalojos.sum(); }
+
+    public void mostrarMetricas() {
+        System.out.println("\n📚 Caché del catálogo:");
+        System.out.println("Aciertos / fallos / desalojos: " + getAciertos() + " / " + getFallos() + " / " + getDesalojos());
+        Instantanea actual = instantanea;
+        System.out.println("Restaurantes en caché: " + (actual == null ? 0 : actual.restaurantes.size())
+                + " (versión " + VersionCatalogo.actual() + ")");
+    }
+
+    private static final class Instantanea {
+        private final List<Restaurante> restaurantes;
+        private final Map<Long, Restaurante> porId;
+        private final long version;
+        private final long cargadaEn;
+
+        private Instantanea(List<Restaurante> restaurantes, Map<Long, Restaurante> porId, long version, long cargadaEn) {
+            this.restaurantes = restaurantes;
+            this.porId = porId;
+            this.version = version;
+            this.cargadaEn = cargadaEn;
+        }
+    }
+
+    private static final class Entrada {
+        private final Restaurante restaurante;
+        private final long version;
+        private final long cargadaEn;
+
+        private Entrada(Restaurante restaurante, long version, long cargadaEn) {
+            this.restaurante = restaurante;
+            this.version = version;
+            this.cargadaEn = cargadaEn;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.delivery.catalogo;
+
+import com.delivery.busqueda.BuscadorRestaurantes;
+import com.delivery.model.Restaurante;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalida el catálogo y actualiza el índice de búsqueda cuando se escribe
+ * un restaurante. Hibernate lo crea a través de Spring; el buscador se
+ * pide recién con el primer evento porque depende del repositorio, que a
+ * su vez necesita a Hibernate ya armado.
+ *
+ * <p>Los eventos de JPA llegan con el flush, antes del commit: si la
+ * versión se incrementara ahí, un lector podría recargar entre los dos,
+ * leer el dato viejo y guardarlo como vigente con la versión nueva. Por
+ * eso los cambios se aplican recién después del commit, y se descartan si
+ * la transacción vuelve atrás.
+ */
+public class RestauranteListener {
+
+    @Autowired
+    private ObjectProvider<BuscadorRestaurantes> buscador;
+
+    @PostPersist
+    @PostUpdate
+    void restauranteGuardado(Restaurante restaurante) {
+        despuesDelCommit(() -> {
+            VersionCatalogo.incrementar();
+            if (buscador != null) {
+                buscador.ifAvailable(indice -> indice.restauranteGuardado(restaurante));
+            }
+        });
+    }
+
+    @PostRemove
+    void restauranteBorrado(Restaurante restaurante) {
+        despuesDelCommit(() -> {
+            VersionCatalogo.incrementar();
+            if (buscador != null) {
+                buscador.ifAvailable(indice -> indice.restauranteBorrado(restaurante));
+            }
+        });
+    }
+
+    private static void despuesDelCommit(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Fuera de una transacción de Spring no hay commit que esperar
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
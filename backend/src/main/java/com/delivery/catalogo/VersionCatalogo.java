@@ -0,0 +1,22 @@
+package com.delivery.catalogo;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión global del catálogo. Cada escritura de un {@code Restaurante}
+ * la incrementa y las entradas de caché cargadas con una versión anterior
+ * dejan de ser válidas.
+ */
+public final class VersionCatalogo {
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private VersionCatalogo() {}
+
+    public static long actual() {
+        return VERSION.get();
+    }
+
+    public static long incrementar() {
+        return VERSION.incrementAndGet();
+    }
+}
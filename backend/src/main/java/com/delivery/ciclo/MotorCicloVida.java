@@ -0,0 +1,182 @@
+package com.delivery.ciclo;
+
+import com.delivery.cocina.CocinaSaturadaException;
+import com.delivery.model.Pedido;
+import com.delivery.service.PedidoService;
+import com.delivery.singleton.HistogramaLatencia;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Hace avanzar los pedidos por sus estados sin bloquear ningún hilo: cada
+ * etapa es una tarea programada que, al vencer, aplica la transición y
+ * programa la siguiente. Un puñado de hilos alcanza para decenas de miles
+ * de pedidos en curso.
+ */
+@Component
+public class MotorCicloVida {
+    private final ScheduledThreadPoolExecutor planificador;
+    private final PropiedadesCicloVida propiedades;
+    private final BiConsumer<Pedido, Pedido.Estado> transicion;
+    private final Consumer<Pedido> abandono;
+
+    private final LongAdder enCurso = new LongAdder();
+    private final LongAdder transiciones = new LongAdder();
+    private final LongAdder completados = new LongAdder();
+    private final LongAdder vencidos = new LongAdder();
+    private final LongAdder conflictos = new LongAdder();
+    private final LongAdder rechazados = new LongAdder();
+    private final HistogramaLatencia desfaseMicros = new HistogramaLatencia();
+
+    @Autowired
+    public MotorCicloVida(PedidoService pedidoService, PropiedadesCicloVida propiedades) {
+        this(propiedades, pedidoService::cambiarEstado, pedidoService::abandonar);
+    }
+
+    public MotorCicloVida(PropiedadesCicloVida propiedades, BiConsumer<Pedido, Pedido.Estado> transicion) {
+        this(propiedades, transicion, pedido -> {});
+    }
+
+    /**
+     * @param abandono se llama cuando el motor deja de seguir un pedido sin
+     *                 llegar a ENTREGADO (vencido o con error), para soltar lo
+     *                 que tenga tomado
+     */
+    public MotorCicloVida(PropiedadesCicloVida propiedades, BiConsumer<Pedido, Pedido.Estado> transicion,
+                          Consumer<Pedido> abandono) {
+        this.propiedades = propiedades;
+        this.transicion = transicion;
+        this.abandono = abandono;
+        AtomicInteger contador = new AtomicInteger();
+        this.planificador = new ScheduledThreadPoolExecutor(propiedades.getHilos(), tarea -> {
+            Thread hilo = new Thread(tarea, "ciclo-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.planificador.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Empieza a hacer avanzar el pedido desde su estado actual. El futuro se
+     * completa cuando llega a ENTREGADO, o con error si supera el timeout.
+     */
+    public CompletableFuture<Pedido> iniciar(Pedido pedido) {
+        Seguimiento seguimiento = new Seguimiento(pedido);
+        enCurso.increment();
+        programar(seguimiento);
+        return seguimiento.resultado;
+    }
+
+    private void programar(Seguimiento seguimiento) {
+        Pedido pedido = seguimiento.pedido;
+        Long restauranteId = pedido.getRestaurante() != null ? pedido.getRestaurante().getId() : null;
+        long espera = propiedades.duracion(restauranteId, pedido.getEstado());
+        if (pedido.getEstado() == Pedido.Estado.PREPARANDO && pedido.getListoEstimadoEn() > 0) {
+            // La cocina ya calculó cuándo termina según su cola
+            espera = Math.max(0, pedido.getListoEstimadoEn() - System.currentTimeMillis());
+        }
+        programar(seguimiento, espera);
+    }
+
+    private void programar(Seguimiento seguimiento, long espera) {
+        seguimiento.programadoNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(espera);
+        planificador.schedule(() -> avanzar(seguimiento), espera, TimeUnit.MILLISECONDS);
+    }
+
+    private void avanzar(Seguimiento seguimiento) {
+        long ahora = System.nanoTime();
+        desfaseMicros.registrar(TimeUnit.NANOSECONDS.toMicros(ahora - seguimiento.programadoNanos));
+
+        Pedido pedido = seguimiento.pedido;
+        Pedido.Estado actual = pedido.getEstado();
+        if (actual.esFinal()) {
+            terminar(seguimiento);
+            return;
+        }
+        if (ahora - seguimiento.inicioNanos > TimeUnit.MILLISECONDS.toNanos(propiedades.getTimeoutMs())) {
+            vencidos.increment();
+            abandonar(seguimiento, new IllegalStateException("Pedido " + pedido.getId() + " vencido en " + actual));
+            return;
+        }
+
+        try {
+            transicion.accept(pedido, actual.siguiente());
+            transiciones.increment();
+        } catch (CocinaSaturadaException e) {
+            // La cocina no tiene lugar: se vuelve a intentar cuando avisa que podría tenerlo
+            rechazados.increment();
+            programar(seguimiento, e.getReintentarEnMs());
+            return;
+        } catch (IllegalStateException e) {
+            // Otro actor cambió el estado en el medio; se sigue desde el estado nuevo
+            conflictos.increment();
+        } catch (RuntimeException e) {
+            abandonar(seguimiento, e);
+            return;
+        }
+
+        if (pedido.getEstado().esFinal()) {
+            terminar(seguimiento);
+        } else {
+            programar(seguimiento);
+        }
+    }
+
+    private void abandonar(Seguimiento seguimiento, RuntimeException causa) {
+        enCurso.decrement();
+        try {
+            abandono.accept(seguimiento.pedido);
+        } finally {
+            seguimiento.resultado.completeExceptionally(causa);
+        }
+    }
+
+    private void terminar(Seguimiento seguimiento) {
+        completados.increment();
+        enCurso.decrement();
+        seguimiento.resultado.complete(seguimiento.pedido);
+    }
+
+    @PreDestroy
+    public void detener() {
+        planificador.shutdownNow();
+    }
+
+    public long getEnCurso() { return enCurso.sum(); }
+    public long getTransiciones() { return transiciones.sum(); }
+    public long getCompletados() { return completados.sum(); }
+    public long getVencidos() { return vencidos.sum(); }
+    public long getConflictos() { return conflictos.sum(); }
+    public long getRechazados() { return rechazados.sum(); }
+    public HistogramaLatencia getDesfaseMicros() { return desfaseMicros; }
+
+    public void mostrarMetricas() {
+        System.out.println("\n⏱️ Ciclo de vida de pedidos:");
+        System.out.println("En curso / completados / vencidos: " + getEnCurso()
+                + " / " + getCompletados() + " / " + getVencidos());
+        System.out.println("Transiciones aplicadas / en conflicto / rechazadas por cocina: " + getTransiciones()
+                + " / " + getConflictos() + " / " + getRechazados());
+        System.out.println("Desfase de planificación p50 / p99: " + desfaseMicros.getPercentil(50)
+                + " µs / " + desfaseMicros.getPercentil(99) + " µs");
+    }
+
+    private static final class Seguimiento {
+        private final Pedido pedido;
+        private final long inicioNanos = System.nanoTime();
+        private final CompletableFuture<Pedido> resultado = new CompletableFuture<>();
+        private volatile long programadoNanos;
+
+        private Seguimiento(Pedido pedido) {
+            this.pedido = pedido;
+        }
+    }
+}
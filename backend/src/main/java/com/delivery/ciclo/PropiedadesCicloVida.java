@@ -0,0 +1,84 @@
+package com.delivery.ciclo;
+
+import com.delivery.model.Pedido;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Duraciones de cada etapa del pedido, en milisegundos. Los valores de
+ * {@code restaurantes.<id>} reemplazan a los generales para ese restaurante.
+ */
+@Component
+@ConfigurationProperties(prefix = "delivery.ciclo")
+public class PropiedadesCicloVida {
+    private int hilos = 2;
+    private long timeoutMs = 600_000;
+    private Tiempos general = new Tiempos(1000L, 1000L, 1000L, 1000L);
+    private Map<Long, Tiempos> restaurantes = new HashMap<>();
+
+    /**
+     * Tiempo que el pedido permanece en {@code estado} antes de avanzar.
+     */
+    public long duracion(Long restauranteId, Pedido.Estado estado) {
+        Tiempos propios = restauranteId == null ? null : restaurantes.get(restauranteId);
+        Long valor = propios == null ? null : propios.para(estado);
+        return valor != null ? valor : general.para(estado);
+    }
+
+    public int getHilos() { return hilos; }
+    public void setHilos(int hilos) { this.hilos = hilos; }
+
+    public long getTimeoutMs() { return timeoutMs; }
+    public void setTimeoutMs(long timeoutMs) { this.timeoutMs = timeoutMs; }
+
+    public Tiempos getGeneral() { return general; }
+    public void setGeneral(Tiempos general) { this.general = general; }
+
+    public Map<Long, Tiempos> getRestaurantes() { return restaurantes; }
+    public void setRestaurantes(Map<Long, Tiempos> restaurantes) { this.restaurantes = restaurantes; }
+
+    public static class Tiempos {
+        // RECIBIDO -> PREPARANDO
+        private Long aceptacionMs;
+        // PREPARANDO -> LISTO
+        private Long preparacionMs;
+        // LISTO -> EN_CAMINO
+        private Long recogidaMs;
+        // EN_CAMINO -> ENTREGADO
+        private Long entregaMs;
+
+        public Tiempos() {}
+
+        public Tiempos(Long aceptacionMs, Long preparacionMs, Long recogidaMs, Long entregaMs) {
+            this.aceptacionMs = aceptacionMs;
+            this.preparacionMs = preparacionMs;
+            this.recogidaMs = recogidaMs;
+            this.entregaMs = entregaMs;
+        }
+
+        Long para(Pedido.Estado estado) {
+            switch (estado) {
+                case RECIBIDO: return aceptacionMs;
+                case PREPARANDO: return preparacionMs;
+                case LISTO: return recogidaMs;
+                case EN_CAMINO: return entregaMs;
+                default: return 0L;
+            }
+        }
+
+        public Long getAceptacionMs() { return aceptacionMs; }
+        public void setAceptacionMs(Long aceptacionMs) { this.aceptacionMs = aceptacionMs; }
+
+        public Long getPreparacionMs() { return preparacionMs; }
+        public void setPreparacionMs(Long preparacionMs) { this.preparacionMs = preparacionMs; }
+
+        public Long getRecogidaMs() { return recogidaMs; }
+        public void setRecogidaMs(Long recogidaMs) { this.recogidaMs = recogidaMs; }
+
+        public Long getEntregaMs() { return entregaMs; }
+        public void setEntregaMs(Long entregaMs) { this.entregaMs = entregaMs; }
+    }
+}
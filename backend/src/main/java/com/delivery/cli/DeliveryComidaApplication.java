@@ -1,38 +1,127 @@
 package com.delivery.cli;
 
+import com.delivery.analitica.AnaliticaPedidos;
+import com.delivery.auth.ResultadoLogin;
+import com.delivery.arranque.PistasNativas;
+import com.delivery.auth.ServicioAutenticacion;
+import com.delivery.auth.Sesion;
+import com.delivery.bitacora.BitacoraPedidos;
+import com.delivery.busqueda.BuscadorRestaurantes;
+import com.delivery.busqueda.ResultadoBusqueda;
+import com.delivery.carga.GeneradorDatos;
+import com.delivery.carga.GeneradorTrafico;
+import com.delivery.catalogo.CatalogoCache;
+import com.delivery.ciclo.MotorCicloVida;
+import com.delivery.cocina.CocinaSaturadaException;
+import com.delivery.cocina.GestorCocinas;
 import com.delivery.decorator.*;
+import com.delivery.difusion.CentralDifusion;
+import com.delivery.estimacion.EstimadorEntrega;
+import com.delivery.idempotencia.ServicioIdempotencia;
+import com.delivery.ingesta.FormatoIngesta;
+import com.delivery.ingesta.IngestaPedidos;
+import com.delivery.ingesta.ResultadoIngesta;
+import com.delivery.metricas.MetricasPedidos;
 import com.delivery.model.*;
 import com.delivery.observer.*;
-import com.delivery.repository.RestauranteRepository;
-import com.delivery.repository.UsuarioRepository;
+import com.delivery.persistencia.AjustesPersistencia;
+import com.delivery.precios.MotorPrecios;
+import com.delivery.reparto.MotorDespacho;
+import com.delivery.service.PedidoService;
+import com.delivery.sesion.ContextoSesion;
+import com.delivery.sesion.GestorSesiones;
 import com.delivery.singleton.Estadisticas;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
-
+import org.springframework.shell.standard.ShellOption;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = "com.delivery")
 @EnableJpaRepositories("com.delivery.repository")
 @EntityScan("com.delivery.model")
+@ImportRuntimeHints(PistasNativas.class)
 @ShellComponent
 public class DeliveryComidaApplication implements CommandLineRunner {
+    // Hasta esta cantidad se listan todos los restaurantes al crear un pedido; con más se busca
+    private static final int MAXIMO_LISTADO = 20;
 
     private Scanner scanner = new Scanner(System.in);
     private Estadisticas estadisticas = Estadisticas.getInstancia();
-    private Usuario usuarioActual = null;
+    // La consola es un cliente más: solo guarda el token de su sesión
+    private String tokenConsola = null;
+
+    @Autowired
+    private ServicioAutenticacion servicioAutenticacion;
+
+    @Autowired
+    private CatalogoCache catalogoCache;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private MotorCicloVida motorCicloVida;
+
+    @Autowired
+    private GeneradorDatos generadorDatos;
+
+    @Autowired
+    private GeneradorTrafico generadorTrafico;
+
+    @Autowired
+    private GestorSesiones gestorSesiones;
+
+    @Autowired
+    private MotorDespacho motorDespacho;
+
+    @Autowired
+    private GestorCocinas gestorCocinas;
+
+    @Autowired
+    private MotorPrecios motorPrecios;
+
+    @Autowired
+    private IngestaPedidos ingestaPedidos;
+
+    @Autowired
+    private CentralDifusion centralDifusion;
+
+    @Autowired
+    private AjustesPersistencia ajustesPersistencia;
 
     @Autowired
-    private UsuarioRepository usuarioRepository;
+    private BitacoraPedidos bitacoraPedidos;
 
     @Autowired
-    private RestauranteRepository restauranteRepository;
+    private MetricasPedidos metricasPedidos;
+
+    @Autowired
+    private AnaliticaPedidos analiticaPedidos;
+
+    @Autowired
+    private BuscadorRestaurantes buscadorRestaurantes;
+
+    @Autowired
+    private ServicioIdempotencia servicioIdempotencia;
+
+    @Autowired
+    private EstimadorEntrega estimadorEntrega;
 
     public static void main(String[] args) {
         SpringApplication.run(DeliveryComidaApplication.class, args);
@@ -41,22 +130,22 @@ public class DeliveryComidaApplication implements CommandLineRunner {
     @Override
     public void run(String... args) throws Exception {
         System.out.println("🍕 Sistema de Delivery de Comida - MVP");
+        System.out.println("⏱️ Arranque en " + ManagementFactory.getRuntimeMXBean().getUptime() + " ms");
         System.out.println("Escribe 'help' para ver los comandos disponibles");
         System.out.println("Primero debes hacer login con el comando 'login'");
     }
 
     @ShellMethod("Crear un nuevo pedido")
     public void crearPedido() {
-        if (usuarioActual == null) {
+        Optional<ContextoSesion> contexto = gestorSesiones.buscar(tokenConsola);
+        if (contexto.isEmpty()) {
+            tokenConsola = null;
             System.out.println("❌ Debes hacer login primero. Usa el comando 'login'");
             return;
         }
 
         System.out.println("\n📝 Creando nuevo pedido...");
 
-        // Usar datos del usuario logueado
-        Cliente cliente = new Cliente(usuarioActual.getNombre(), usuarioActual.getTelefono(), "Dirección por defecto");
-
         // Seleccionar restaurante
         Restaurante restauranteSeleccionado = seleccionarRestaurante();
         if (restauranteSeleccionado == null) {
@@ -64,48 +153,62 @@ public class DeliveryComidaApplication implements CommandLineRunner {
             return;
         }
 
-        // Crear pedido con restaurante
-        Pedido pedido = new Pedido(cliente, restauranteSeleccionado);
+        // El pedido en armado queda en el contexto de la sesión, no en la consola
+        contexto.get().cancelarPedido();
+        gestorSesiones.iniciarPedido(contexto.get(), restauranteSeleccionado, "Dirección por defecto");
 
-        // Agregar observadores
-        pedido.agregarObservador(new ClienteObservador(cliente.getNombre()));
-        pedido.agregarObservador(new RestauranteObservador());
-        pedido.agregarObservador(new RepartidorObservador());
-
-        System.out.println("✅ Pedido creado para " + cliente.getNombre());
+        System.out.println("✅ Pedido creado para " + contexto.get().getSesion().getNombre());
 
         // Agregar productos
-        agregarProductosAlPedido(pedido);
+        agregarProductosAlPedido(contexto.get());
 
         // Confirmar pedido
-        String confirmacion = pedido.confirmar();
-        System.out.println("\n" + confirmacion);
+        Pedido pedido;
+        try {
+            pedido = gestorSesiones.confirmarPedido(contexto.get());
+        } catch (IllegalStateException e) {
+            System.out.println("❌ " + e.getMessage() + ". Pedido cancelado.");
+            return;
+        }
+        try {
+            pedidoService.cambiarEstado(pedido, Pedido.Estado.PREPARANDO);
+            System.out.println("\nPedido confirmado. " + pedido.verResumen());
+            long minutos = Math.max(0, pedido.getListoEstimadoEn() - System.currentTimeMillis()) / 60_000;
+            System.out.println("⏳ Listo en aproximadamente " + minutos + " min");
+        } catch (CocinaSaturadaException e) {
+            // Queda RECIBIDO; el ciclo de vida vuelve a intentar entrar a la cocina
+            System.out.println("\n⚠️ La cocina está saturada, el pedido queda en espera. " + pedido.verResumen());
+        }
         System.out.println("🏪 Restaurante: " + restauranteSeleccionado.getNombre());
 
         // Simular cambios de estado
         simularCambioEstados(pedido);
     }
 
-    private void agregarProductosAlPedido(Pedido pedido) {
+    private void agregarProductosAlPedido(ContextoSesion contexto) {
         boolean continuar = true;
 
         while (continuar) {
+            List<Plato> platos = catalogoCache.getProductos();
+            int opcionResumen = platos.size() + 1;
+            Long restauranteId = restauranteId(contexto);
             System.out.println("\n🍔 Menú de productos:");
-            System.out.println("1. Hamburguesa ($8.00)");
-            System.out.println("2. Pizza ($12.00)");
-            System.out.println("3. Ensalada ($6.00)");
-            System.out.println("4. Ver resumen y continuar");
-            System.out.print("Selecciona un producto (1-4): ");
+            for (Plato plato : platos) {
+                System.out.println(plato.getId() + ". " + plato.getNombre()
+                        + " ($" + Dinero.formatear(motorPrecios.precioPlato(restauranteId, plato)) + ")");
+            }
+            System.out.println(opcionResumen + ". Ver resumen y continuar");
+            System.out.print("Selecciona un producto (1-" + opcionResumen + "): ");
 
-            int opcion = Integer.parseInt(scanner.nextLine());
+            int opcion = leerOpcion();
 
-            if (opcion >= 1 && opcion <= 3) {
+            if (Menu.esProductoValido(opcion)) {
                 Producto productoBase = crearProductoBase(opcion);
-                Producto productoPersonalizado = personalizarProducto(productoBase);
-                pedido.agregarItem(productoPersonalizado);
+                Producto productoPersonalizado = personalizarProducto(productoBase, restauranteId);
+                gestorSesiones.agregarItem(contexto, productoPersonalizado);
 
                 System.out.println("✅ Producto agregado: " + productoPersonalizado.getDescripcion());
-            } else if (opcion == 4) {
+            } else if (opcion == opcionResumen) {
                 continuar = false;
             } else {
                 System.out.println("❌ Opción inválida");
@@ -114,33 +217,45 @@ public class DeliveryComidaApplication implements CommandLineRunner {
     }
 
     private Producto crearProductoBase(int opcion) {
-        switch (opcion) {
-            case 1: return new ProductoBase("Hamburguesa", 8.00);
-            case 2: return new ProductoBase("Pizza", 12.00);
-            case 3: return new ProductoBase("Ensalada", 6.00);
-            default: return new ProductoBase("Producto", 0.00);
+        return Menu.crearProductoBase(opcion);
+    }
+
+    // Una entrada que no es número cuenta como opción inválida
+    private int leerOpcion() {
+        try {
+            return Integer.parseInt(scanner.nextLine().trim());
+        } catch (NumberFormatException e) {
+            return -1;
         }
     }
 
-    private Producto personalizarProducto(Producto producto) {
+    // Los precios que se muestran son los del restaurante del pedido en armado
+    private Long restauranteId(ContextoSesion contexto) {
+        return contexto.getBorrador()
+                .map(Pedido::getRestaurante)
+                .map(Restaurante::getId)
+                .orElse(null);
+    }
+
+    private Producto personalizarProducto(Producto producto, Long restauranteId) {
+        List<Extra> extras = catalogoCache.getExtras();
+        int opcionSinExtra = extras.size() + 1;
         System.out.println("\n🍅 Personalización:");
-        System.out.println("1. Extra Queso (+$2.50)");
-        System.out.println("2. Extra Carne (+$4.00)");
-        System.out.println("3. Extra Vegetales (+$1.50)");
-        System.out.println("4. Extra Salsa (+$1.00)");
-        System.out.println("5. Sin personalización");
-        System.out.print("Selecciona personalización (1-5): ");
-
-        int opcion = Integer.parseInt(scanner.nextLine());
+        for (Extra extra : extras) {
+            String nombre = extra.getNombre();
+            System.out.println(extra.getId() + ". " + Character.toUpperCase(nombre.charAt(0)) + nombre.substring(1)
+                    + " (+$" + Dinero.formatear(motorPrecios.precioExtra(restauranteId, extra)) + ")");
+        }
+        System.out.println(opcionSinExtra + ". Sin personalización");
+        System.out.print("Selecciona personalización (1-" + opcionSinExtra + "): ");
+
+        int opcion = leerOpcion();
         Producto productoPersonalizado = producto;
 
-        switch (opcion) {
-            case 1: productoPersonalizado = new ExtraQueso(producto); break;
-            case 2: productoPersonalizado = new ExtraCarne(producto); break;
-            case 3: productoPersonalizado = new ExtraVegetales(producto); break;
-            case 4: productoPersonalizado = new ExtraSalsa(producto); break;
-            case 5: break;
-            default: System.out.println("❌ Opción inválida, sin personalización");
+        if (Menu.esExtraValido(opcion)) {
+            productoPersonalizado = Menu.agregarExtra(producto, opcion);
+        } else if (opcion != opcionSinExtra) {
+            System.out.println("❌ Opción inválida, sin personalización");
         }
 
         return productoPersonalizado;
@@ -148,13 +263,26 @@ public class DeliveryComidaApplication implements CommandLineRunner {
 
     private Restaurante seleccionarRestaurante() {
         System.out.println("\n🏪 Selecciona un restaurante:");
-        var restaurantes = restauranteRepository.findAll();
+        int cantidad = buscadorRestaurantes.getRestaurantes();
 
-        if (restaurantes.isEmpty()) {
+        if (cantidad == 0) {
             System.out.println("❌ No hay restaurantes disponibles");
             return null;
         }
 
+        List<Restaurante> restaurantes;
+        if (cantidad <= MAXIMO_LISTADO) {
+            restaurantes = catalogoCache.getRestaurantes();
+        } else {
+            // Con muchos restaurantes no se listan todos: se busca y se elige entre los mejores resultados
+            System.out.print("Buscar restaurante (nombre, cocina o dirección): ");
+            restaurantes = buscadorRestaurantes.buscar(scanner.nextLine(), 0, MAXIMO_LISTADO).restaurantes();
+            if (restaurantes.isEmpty()) {
+                System.out.println("❌ Ningún restaurante coincide con la búsqueda");
+                return null;
+            }
+        }
+
         for (int i = 0; i < restaurantes.size(); i++) {
             System.out.println((i + 1) + ". " + restaurantes.get(i).getNombre() + " - " + restaurantes.get(i).getDescripcion());
         }
@@ -173,39 +301,157 @@ public class DeliveryComidaApplication implements CommandLineRunner {
     }
 
     private void simularCambioEstados(Pedido pedido) {
-        System.out.println("\n🔄 Simulando cambios de estado...");
+        System.out.println("\n🔄 El pedido avanzará de estado automáticamente...");
 
-        try {
-            Thread.sleep(1000);
-            pedido.cambiarEstado(Pedido.Estado.PREPARANDO);
+        // El servicio registra el pedido entregado en estadísticas
+        motorCicloVida.iniciar(pedido).whenComplete((completado, error) -> {
+            if (error == null) {
+                System.out.println("\n✅ Pedido completado y registrado en estadísticas!");
+            } else {
+                System.out.println("\n❌ El pedido no pudo completarse: " + error.getMessage());
+            }
+        });
+    }
 
-            Thread.sleep(1000);
-            pedido.cambiarEstado(Pedido.Estado.LISTO);
+    @ShellMethod("Mostrar estadísticas del sistema")
+    public void estadisticas() {
+        estadisticas.mostrarEstadisticas();
+    }
 
-            Thread.sleep(1000);
-            pedido.cambiarEstado(Pedido.Estado.EN_CAMINO);
+    @ShellMethod("Mostrar métricas del despacho de notificaciones")
+    public void metricasNotificaciones() {
+        DespachadorEventos.getPredeterminado().mostrarMetricas();
+    }
 
-            Thread.sleep(1000);
-            pedido.cambiarEstado(Pedido.Estado.ENTREGADO);
+    @ShellMethod("Mostrar aciertos y fallos de la caché del catálogo")
+    public void metricasCatalogo() {
+        catalogoCache.mostrarMetricas();
+    }
 
-            // Registrar en estadísticas
-            estadisticas.registrarPedidoCompletado(pedido);
-            System.out.println("\n✅ Pedido completado y registrado en estadísticas!");
+    @ShellMethod("Mostrar métricas del ciclo de vida de pedidos")
+    public void metricasCiclo() {
+        motorCicloVida.mostrarMetricas();
+    }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    @ShellMethod("Sembrar usuarios y restaurantes sintéticos en lotes")
+    public void sembrarDatos(@ShellOption(defaultValue = "100000") long usuarios,
+                             @ShellOption(defaultValue = "1000") long restaurantes) {
+        System.out.println("🌱 " + generadorDatos.sembrarRestaurantes(restaurantes));
+        System.out.println("🌱 " + generadorDatos.sembrarUsuarios(usuarios));
+    }
+
+    @ShellMethod("Mostrar el pool de conexiones y los aciertos de la caché de segundo nivel")
+    public void metricasPersistencia() {
+        ajustesPersistencia.mostrarMetricas();
+    }
+
+    @ShellMethod("Buscar restaurantes por nombre, descripción o dirección; el último término vale como prefijo")
+    public void buscarRestaurantes(String consulta, @ShellOption(defaultValue = "1") int pagina,
+                                   @ShellOption(defaultValue = "10") int tamano) {
+        ResultadoBusqueda resultado = buscadorRestaurantes.buscar(consulta, Math.max(0, pagina - 1), Math.max(1, tamano));
+        StringBuilder texto = new StringBuilder(256);
+        texto.append("🔎 ").append(resultado.total()).append(" restaurantes, página ").append(resultado.pagina() + 1)
+             .append(" de ").append(Math.max(1, resultado.getPaginas()));
+        for (Restaurante restaurante : resultado.restaurantes()) {
+            texto.append("\n  ").append(restaurante.getId()).append(". ").append(restaurante.getNombre())
+                 .append(" - ").append(restaurante.getDescripcion()).append(" (").append(restaurante.getDireccion()).append(')');
+        }
+        List<String> sugerencias = buscadorRestaurantes.sugerir(consulta, 5);
+        if (!sugerencias.isEmpty()) {
+            texto.append("\nTérminos que completan la búsqueda: ").append(String.join(", ", sugerencias));
         }
+        System.out.println(texto);
     }
 
-    @ShellMethod("Mostrar estadísticas del sistema")
-    public void estadisticas() {
-        estadisticas.mostrarEstadisticas();
+    @ShellMethod("Mostrar restaurantes y términos indexados y la latencia de las búsquedas")
+    public void metricasBusqueda() {
+        buscadorRestaurantes.mostrarMetricas();
+    }
+
+    @ShellMethod("Ver claves de idempotencia recordadas, reintentos atendidos y claves reusadas con otra solicitud")
+    public void metricasIdempotencia() {
+        servicioIdempotencia.mostrarMetricas();
+    }
+
+    @ShellMethod("Ver observaciones del estimador de entrega, tiempos generales de cocina y reparto y latencia de las estimaciones")
+    public void metricasEstimacion() {
+        estimadorEntrega.mostrarMetricas();
+    }
+
+    @ShellMethod("Ver ventas por restaurante y hora, extras más pedidos y tiempos de preparación del historial")
+    public void analitica(@ShellOption(defaultValue = "30") int dias,
+                          @ShellOption(defaultValue = "10") int limite) {
+        analiticaPedidos.mostrarInforme(dias, limite);
+    }
+
+    @ShellMethod("Generar pedidos sintéticos con una curva de llegadas diaria")
+    public void generarTrafico(@ShellOption(defaultValue = "20000") long pedidosPorDia,
+                               @ShellOption(defaultValue = "24000") long duracionMs) throws InterruptedException {
+        generadorTrafico.ejecutar(pedidosPorDia, duracionMs).mostrar();
+    }
+
+    @ShellMethod("Mostrar repartidores en viaje, lotes y latencia de asignación")
+    public void metricasReparto() {
+        motorDespacho.mostrarMetricas();
+    }
+
+    @ShellMethod("Mostrar pedidos admitidos, retrasados y rechazados por las cocinas")
+    public void metricasCocinas() {
+        gestorCocinas.mostrarMetricas();
+    }
+
+    @ShellMethod("Mostrar eventos escritos y sincronizados en la bitácora de pedidos")
+    public void metricasBitacora() {
+        bitacoraPedidos.mostrarMetricas();
+    }
+
+    @ShellMethod("Mostrar cuánto pasan los pedidos en cada estado y los restaurantes más lentos en preparar")
+    public void metricasPedidos() {
+        metricasPedidos.mostrarMetricas();
+    }
+
+    @ShellMethod("Mostrar la versión de la tabla de precios, las promociones activas y los pedidos cotizados")
+    public void metricasPrecios() {
+        motorPrecios.mostrarMetricas();
+    }
+
+    @ShellMethod("Recargar precios y promociones desde la base")
+    public void recargarPrecios() {
+        System.out.println("🏷️ Tabla de precios versión " + motorPrecios.recargar().getVersion());
+    }
+
+    @ShellMethod("Importar pedidos desde un archivo NDJSON o binario")
+    public void importarPedidos(String archivo, @ShellOption(defaultValue = "ndjson") String formato) throws IOException {
+        ResultadoIngesta resultado;
+        try (InputStream entrada = new BufferedInputStream(Files.newInputStream(Path.of(archivo)))) {
+            resultado = ingestaPedidos.importar(entrada, FormatoIngesta.porNombre(formato));
+        }
+        System.out.println("📥 Pedidos aceptados / rechazados: " + resultado.aceptados() + " / " + resultado.rechazados()
+                + " en " + resultado.duracionNanos() / 1_000_000 + " ms (" + resultado.pedidosPorSegundo() + " pedidos/s)");
+        resultado.errores().stream().limit(10).forEach(error ->
+                System.out.println("❌ Registro " + error.registro() + ": " + error.mensaje()));
+    }
+
+    @ShellMethod("Mostrar pedidos aceptados y rechazados por la ingesta masiva")
+    public void metricasIngesta() {
+        ingestaPedidos.mostrarMetricas();
+    }
+
+    @ShellMethod("Mostrar suscripciones, avisos entregados y latencia de la difusión de estados por SSE")
+    public void metricasDifusion() {
+        centralDifusion.mostrarMetricas();
+    }
+
+    @ShellMethod("Mostrar contextos de sesión activos y desalojados")
+    public void metricasSesiones() {
+        gestorSesiones.mostrarMetricas();
     }
 
     @ShellMethod("Iniciar sesión en el sistema")
     public void login() {
-        if (usuarioActual != null) {
-            System.out.println("❌ Ya hay un usuario logueado: " + usuarioActual.getNombre());
+        Optional<ContextoSesion> contexto = gestorSesiones.buscar(tokenConsola);
+        if (contexto.isPresent()) {
+            System.out.println("❌ Ya hay un usuario logueado: " + contexto.get().getSesion().getNombre());
             return;
         }
 
@@ -216,26 +462,29 @@ public class DeliveryComidaApplication implements CommandLineRunner {
         System.out.print("Contraseña: ");
         String contrasena = scanner.nextLine();
 
-        Optional<Usuario> usuarioOpt = usuarioRepository.findByNombreUsuario(nombreUsuario);
-
-        if (usuarioOpt.isPresent()) {
-            Usuario usuario = usuarioOpt.get();
-            if (usuario.getContrasena().equals(contrasena)) {
-                usuarioActual = usuario;
-                System.out.println("✅ ¡Bienvenido " + usuario.getNombre() + "!");
-            } else {
-                System.out.println("❌ Contraseña incorrecta");
-            }
-        } else {
-            System.out.println("❌ Usuario no encontrado");
+        ResultadoLogin resultado = servicioAutenticacion.iniciarSesion(nombreUsuario, contrasena).join();
+
+        switch (resultado.getEstado()) {
+            case EXITO:
+                Sesion sesion = resultado.getSesion();
+                tokenConsola = gestorSesiones.abrir(sesion).getToken();
+                System.out.println("✅ ¡Bienvenido " + sesion.getNombre() + "!");
+                break;
+            case BLOQUEADO:
+                System.out.println("❌ Demasiados intentos fallidos. Intenta más tarde");
+                break;
+            default:
+                System.out.println("❌ Usuario o contraseña incorrectos");
         }
     }
 
     @ShellMethod("Cerrar sesión")
     public void logout() {
-        if (usuarioActual != null) {
-            System.out.println("👋 ¡Hasta luego " + usuarioActual.getNombre() + "!");
-            usuarioActual = null;
+        Optional<ContextoSesion> contexto = gestorSesiones.buscar(tokenConsola);
+        if (contexto.isPresent()) {
+            System.out.println("👋 ¡Hasta luego " + contexto.get().getSesion().getNombre() + "!");
+            gestorSesiones.cerrar(tokenConsola);
+            tokenConsola = null;
         } else {
             System.out.println("❌ No hay usuario logueado");
         }
@@ -243,8 +492,10 @@ public class DeliveryComidaApplication implements CommandLineRunner {
 
     @ShellMethod("Ver usuario actual")
     public void usuarioActual() {
-        if (usuarioActual != null) {
-            System.out.println("👤 Usuario actual: " + usuarioActual.getNombre() + " (" + usuarioActual.getNombreUsuario() + ")");
+        Optional<ContextoSesion> contexto = gestorSesiones.buscar(tokenConsola);
+        if (contexto.isPresent()) {
+            Sesion sesion = contexto.get().getSesion();
+            System.out.println("👤 Usuario actual: " + sesion.getNombre() + " (" + sesion.getNombreUsuario() + ")");
         } else {
             System.out.println("❌ No hay usuario logueado");
         }
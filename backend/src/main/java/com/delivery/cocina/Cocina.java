@@ -0,0 +1,156 @@
+package com.delivery.cocina;
+
+import com.delivery.model.Pedido;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Cocina de un restaurante, modelada como un calendario: cada puesto sabe
+ * a qué hora queda libre, así al admitir un pedido se conoce de inmediato
+ * cuándo empieza y cuándo estará listo. Cada cocina tiene su propio
+ * bloqueo; cocinas distintas nunca compiten entre sí.
+ */
+public class Cocina {
+    private final Long restauranteId;
+    private final int puestos;
+    private final int capacidadCola;
+    private final long abandonoMs;
+    private final long[] puestoLibreEn;
+    // Hora de listo de cada pedido admitido que todavía no terminó
+    private final PriorityQueue<Long> pendientes = new PriorityQueue<>();
+    // Quién ocupa cada lugar, por identidad: liberar dos veces el mismo pedido no libera el lugar de otro
+    private final Map<Pedido, Long> ocupantes = new IdentityHashMap<>();
+
+    private long admitidos;
+    private long retrasados;
+    private long rechazados;
+    private long abandonados;
+
+    Cocina(Long restauranteId, int puestos, int capacidadCola, long abandonoMs) {
+        this.restauranteId = restauranteId;
+        this.puestos = Math.max(1, puestos);
+        this.capacidadCola = Math.max(0, capacidadCola);
+        this.abandonoMs = abandonoMs;
+        this.puestoLibreEn = new long[this.puestos];
+    }
+
+    /**
+     * Reserva un puesto para el pedido y devuelve la hora estimada de listo.
+     * Un lugar queda libre cuando su pedido sale de preparación y se llama a
+     * {@link #liberar}; la hora estimada sirve para decidir cuánto esperar.
+     * Solo si pasa {@code abandonoMs} de esa hora sin que nadie lo libere se
+     * da el pedido por abandonado y se recupera su lugar.
+     *
+     * @throws CocinaSaturadaException si no hay lugar ni se espera que se libere dentro de {@code esperaMaximaMs}
+     */
+    synchronized long admitir(Pedido pedido, long ahora, long preparacionMs, long esperaMaximaMs) {
+        recuperarAbandonados(ahora);
+        int limite = puestos + capacidadCola;
+        if (pendientes.size() >= limite) {
+            // Hay lugar cuando terminan los pedidos que sobran del límite
+            long seLibera = kesimo(pendientes.size() - limite + 1);
+            if (seLibera <= ahora) {
+                // La cocina va atrasada: se vuelve a probar cuando podría haber salido otro pedido
+                rechazados++;
+                throw new CocinaSaturadaException("Cocina del restaurante " + restauranteId + " saturada",
+                        Math.max(Math.max(1, preparacionMs), esperaMaximaMs));
+            }
+            if (seLibera - ahora > esperaMaximaMs) {
+                rechazados++;
+                throw new CocinaSaturadaException("Cocina del restaurante " + restauranteId + " saturada",
+                        seLibera - ahora);
+            }
+            retrasados++;
+        }
+        int puesto = primerLibre();
+        long listo = Math.max(ahora, puestoLibreEn[puesto]) + preparacionMs;
+        puestoLibreEn[puesto] = listo;
+        reservar(pedido, listo);
+        admitidos++;
+        return listo;
+    }
+
+    /** Reserva el puesto que se libera primero hasta {@code listo}, sin mirar el límite. */
+    synchronized void ocupar(Pedido pedido, long listo) {
+        int puesto = primerLibre();
+        puestoLibreEn[puesto] = Math.max(puestoLibreEn[puesto], listo);
+        reservar(pedido, listo);
+    }
+
+    /** Libera el lugar del pedido, si todavía lo ocupa. */
+    synchronized void liberar(Pedido pedido) {
+        Long listo = ocupantes.remove(pedido);
+        if (listo != null) {
+            pendientes.remove(listo);
+        }
+    }
+
+    /** Cuándo estaría listo un pedido nuevo, sin reservar nada. */
+    synchronized long estimarListo(long ahora, long preparacionMs) {
+        long primerLibre = Long.MAX_VALUE;
+        for (long libre : puestoLibreEn) {
+            primerLibre = Math.min(primerLibre, libre);
+        }
+        return Math.max(ahora, primerLibre) + preparacionMs;
+    }
+
+    synchronized int getProfundidad() {
+        return pendientes.size();
+    }
+
+    private void reservar(Pedido pedido, long listo) {
+        Long anterior = ocupantes.put(pedido, listo);
+        if (anterior != null) {
+            pendientes.remove(anterior);
+        }
+        pendientes.add(listo);
+    }
+
+    // Casi siempre el primero pendiente no venció y alcanza con mirarlo
+    private void recuperarAbandonados(long ahora) {
+        if (pendientes.isEmpty() || ahora - pendientes.peek() < abandonoMs) {
+            return;
+        }
+        Iterator<Long> horas = ocupantes.values().iterator();
+        while (horas.hasNext()) {
+            long listo = horas.next();
+            if (ahora - listo >= abandonoMs) {
+                horas.remove();
+                pendientes.remove(listo);
+                abandonados++;
+            }
+        }
+    }
+
+    private int primerLibre() {
+        int puesto = 0;
+        for (int i = 1; i < puestos; i++) {
+            if (puestoLibreEn[i] < puestoLibreEn[puesto]) {
+                puesto = i;
+            }
+        }
+        return puesto;
+    }
+
+    // La cola es chica (puestos + capacidad), ordenar una copia alcanza
+    private long kesimo(int k) {
+        if (k == 1) {
+            return pendientes.peek();
+        }
+        Long[] horas = pendientes.toArray(new Long[0]);
+        Arrays.sort(horas);
+        return horas[k - 1];
+    }
+
+    public Long getRestauranteId() { return restauranteId; }
+    public int getPuestos() { return puestos; }
+    public int getCapacidadCola() { return capacidadCola; }
+    public synchronized long getAdmitidos() { return admitidos; }
+    public synchronized long getRetrasados() { return retrasados; }
+    public synchronized long getRechazados() { return rechazados; }
+    public synchronized long getAbandonados() { return abandonados; }
+}
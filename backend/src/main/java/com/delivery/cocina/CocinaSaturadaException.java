@@ -0,0 +1,26 @@
+package com.delivery.cocina;
+
+/**
+ * La cocina no tiene lugar para otro pedido. Extiende
+ * IllegalStateException para que quien ya trata las transiciones
+ * inválidas (por ejemplo, el motor de ciclo de vida, que reintenta) la
+ * maneje sin cambios.
+ */
+public class CocinaSaturadaException extends IllegalStateException {
+    private final long reintentarEnMs;
+
+    public CocinaSaturadaException(String mensaje, long reintentarEnMs) {
+        super(mensaje);
+        this.reintentarEnMs = reintentarEnMs;
+    }
+
+    // Es un rechazo esperado bajo carga, no un error: sin traza es mucho más barata
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    public long getReintentarEnMs() {
+        return reintentarEnMs;
+    }
+}
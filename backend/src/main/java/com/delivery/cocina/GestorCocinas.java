@@ -0,0 +1,124 @@
+package com.delivery.cocina;
+
+import com.delivery.ciclo.PropiedadesCicloVida;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Control de admisión de pedidos por restaurante. Un pedido entra en
+ * preparación solo si su cocina tiene lugar; al admitirlo se le asigna la
+ * hora estimada de listo según la profundidad de la cola. El mapa de
+ * cocinas es concurrente y cada cocina se bloquea por separado, así no hay
+ * un bloqueo global.
+ */
+@Component
+public class GestorCocinas {
+    private final PropiedadesCocina propiedades;
+    private final PropiedadesCicloVida tiempos;
+    private final Map<Long, Cocina> cocinas = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GestorCocinas(PropiedadesCocina propiedades, PropiedadesCicloVida tiempos) {
+        this.propiedades = propiedades;
+        this.tiempos = tiempos;
+    }
+
+    /**
+     * Reserva lugar en la cocina del restaurante del pedido y le fija la hora
+     * estimada de listo. Los pedidos sin restaurante no pasan por cocina.
+     *
+     * @throws CocinaSaturadaException si la cocina no tiene lugar
+     */
+    public void admitir(Pedido pedido) {
+        Long restauranteId = restauranteId(pedido);
+        long ahora = System.currentTimeMillis();
+        long preparacion = tiempos.duracion(restauranteId, Pedido.Estado.PREPARANDO);
+        if (restauranteId == null) {
+            pedido.setListoEstimadoEn(ahora + preparacion);
+            return;
+        }
+        long listo = cocina(restauranteId).admitir(pedido, ahora, preparacion, propiedades.getEsperaMaximaMs());
+        pedido.setListoEstimadoEn(listo);
+    }
+
+    /**
+     * Vuelve a ocupar el lugar de un pedido que ya estaba en preparación
+     * antes de reiniciar, aunque la cocina esté llena: ya se había aceptado.
+     * Queda listo cuando le tocaba según su entrada a preparación, o ahora
+     * si esa hora ya pasó.
+     */
+    public void readmitir(Pedido pedido) {
+        Long restauranteId = restauranteId(pedido);
+        long preparacion = tiempos.duracion(restauranteId, Pedido.Estado.PREPARANDO);
+        long listo = Math.max(System.currentTimeMillis(), pedido.getEntradaEn(Pedido.Estado.PREPARANDO) + preparacion);
+        if (restauranteId != null) {
+            cocina(restauranteId).ocupar(pedido, listo);
+        }
+        pedido.setListoEstimadoEn(listo);
+    }
+
+    /**
+     * El pedido salió de preparación o se dejó de seguir; su lugar en la cola
+     * queda libre. Liberar un pedido que no ocupa lugar no hace nada.
+     */
+    public void liberar(Pedido pedido) {
+        Long restauranteId = restauranteId(pedido);
+        Cocina cocina = restauranteId == null ? null : cocinas.get(restauranteId);
+        if (cocina != null) {
+            cocina.liberar(pedido);
+        }
+    }
+
+    public long estimarListo(Long restauranteId) {
+        long ahora = System.currentTimeMillis();
+        return cocina(restauranteId).estimarListo(ahora, tiempos.duracion(restauranteId, Pedido.Estado.PREPARANDO));
+    }
+
+    public Cocina cocina(Long restauranteId) {
+        return cocinas.computeIfAbsent(restauranteId, id ->
+                new Cocina(id, propiedades.puestos(id), propiedades.capacidadCola(id), propiedades.getAbandonoMs()));
+    }
+
+    public List<Cocina> getCocinas() {
+        return List.copyOf(cocinas.values());
+    }
+
+    public int getProfundidad(Long restauranteId) {
+        return cocina(restauranteId).getProfundidad();
+    }
+
+    public void mostrarMetricas() {
+        long admitidos = 0;
+        long retrasados = 0;
+        long rechazados = 0;
+        long abandonados = 0;
+        for (Cocina cocina : cocinas.values()) {
+            admitidos += cocina.getAdmitidos();
+            retrasados += cocina.getRetrasados();
+            rechazados += cocina.getRechazados();
+            abandonados += cocina.getAbandonados();
+        }
+        System.out.println("\n👨‍🍳 Cocinas:");
+        System.out.println("Cocinas activas: " + cocinas.size());
+        System.out.println("Admitidos / retrasados / rechazados / abandonados: " + admitidos + " / " + retrasados
+                + " / " + rechazados + " / " + abandonados);
+        cocinas.values().stream()
+                .sorted(Comparator.comparingInt(Cocina::getProfundidad).reversed())
+                .limit(5)
+                .forEach(cocina -> System.out.println("🍳 Restaurante " + cocina.getRestauranteId() + ": "
+                        + cocina.getProfundidad() + " en cola de " + (cocina.getPuestos() + cocina.getCapacidadCola())
+                        + " (" + cocina.getPuestos() + " puestos)"));
+    }
+
+    private static Long restauranteId(Pedido pedido) {
+        Restaurante restaurante = pedido.getRestaurante();
+        return restaurante == null ? null : restaurante.getId();
+    }
+}
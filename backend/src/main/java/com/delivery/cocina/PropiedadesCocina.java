@@ -0,0 +1,60 @@
+package com.delivery.cocina;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Capacidad de las cocinas. {@code puestos} son los pedidos que se preparan
+ * a la vez y {@code capacidadCola} los que pueden esperar detrás; los
+ * valores de {@code restaurantes.<id>} reemplazan a los generales.
+ */
+@Component
+@ConfigurationProperties(prefix = "delivery.cocina")
+public class PropiedadesCocina {
+    private int puestos = 4;
+    private int capacidadCola = 20;
+    // Un pedido que no entra se acepta igual si se libera lugar dentro de este plazo
+    private long esperaMaximaMs = 0;
+    // Un lugar que nadie liberó pasado este plazo desde su hora de listo se da por abandonado
+    private long abandonoMs = 600_000;
+    private Map<Long, Capacidad> restaurantes = new HashMap<>();
+
+    public int puestos(Long restauranteId) {
+        Capacidad propia = restauranteId == null ? null : restaurantes.get(restauranteId);
+        return propia != null && propia.puestos != null ? propia.puestos : puestos;
+    }
+
+    public int capacidadCola(Long restauranteId) {
+        Capacidad propia = restauranteId == null ? null : restaurantes.get(restauranteId);
+        return propia != null && propia.capacidadCola != null ? propia.capacidadCola : capacidadCola;
+    }
+
+    public int getPuestos() { return puestos; }
+    public void setPuestos(int puestos) { this.puestos = puestos; }
+
+    public int getCapacidadCola() { return capacidadCola; }
+    public void setCapacidadCola(int capacidadCola) { this.capacidadCola = capacidadCola; }
+
+    public long getEsperaMaximaMs() { return esperaMaximaMs; }
+    public void setEsperaMaximaMs(long esperaMaximaMs) { this.esperaMaximaMs = esperaMaximaMs; }
+
+    public long getAbandonoMs() { return abandonoMs; }
+    public void setAbandonoMs(long abandonoMs) { this.abandonoMs = abandonoMs; }
+
+    public Map<Long, Capacidad> getRestaurantes() { return restaurantes; }
+    public void setRestaurantes(Map<Long, Capacidad> restaurantes) { this.restaurantes = restaurantes; }
+
+    public static class Capacidad {
+        private Integer puestos;
+        private Integer capacidadCola;
+
+        public Integer getPuestos() { return puestos; }
+        public void setPuestos(Integer puestos) { this.puestos = puestos; }
+
+        public Integer getCapacidadCola() { return capacidadCola; }
+        public void setCapacidadCola(Integer capacidadCola) { this.capacidadCola = capacidadCola; }
+    }
+}
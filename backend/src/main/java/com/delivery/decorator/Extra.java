@@ -0,0 +1,41 @@
+package com.delivery.decorator;
+
+/**
+ * Extras disponibles para personalizar un producto. El id coincide con la
+ * opción del menú de la consola y con el id que usa el frontend.
+ */
+public enum Extra {
+    QUESO(1, "extra queso", 250),
+    CARNE(2, "extra carne", 400),
+    VEGETALES(3, "extra vegetales", 150),
+    SALSA(4, "extra salsa", 100);
+
+    private static final Extra[] VALORES = values();
+
+    private final int id;
+    private final String nombre;
+    private final long precioCentavos;
+
+    Extra(int id, String nombre, long precioCentavos) {
+        this.id = id;
+        this.nombre = nombre;
+        this.precioCentavos = precioCentavos;
+    }
+
+    public static Extra porId(int id) {
+        for (Extra extra : VALORES) {
+            if (extra.id == id) {
+                return extra;
+            }
+        }
+        return null;
+    }
+
+    static Extra porOrdinal(int ordinal) {
+        return VALORES[ordinal];
+    }
+
+    public int getId() { return id; }
+    public String getNombre() { return nombre; }
+    public long getPrecioCentavos() { return precioCentavos; }
+}
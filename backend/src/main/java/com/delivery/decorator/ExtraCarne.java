@@ -4,16 +4,16 @@ import com.delivery.model.Producto;
 
 public class ExtraCarne extends ProductoDecorator {
     public ExtraCarne(Producto productoDecorado) {
-        super(productoDecorado, "extra carne", 4.00);
+        super(productoDecorado, Extra.CARNE);
     }
 
     @Override
-    public double getPrecio() {
-        return productoDecorado.getPrecio() + 4.00;
+    public long getPrecioCentavos() {
+        return Math.addExact(productoDecorado.getPrecioCentavos(), extra.getPrecioCentavos());
     }
 
     @Override
     public String getDescripcion() {
         return productoDecorado.getDescripcion() + " + extra carne";
     }
-}
\ No newline at end of file
+}
@@ -4,16 +4,16 @@ import com.delivery.model.Producto;
 
 public class ExtraQueso extends ProductoDecorator {
     public ExtraQueso(Producto productoDecorado) {
-        super(productoDecorado, "extra queso", 2.50);
+        super(productoDecorado, Extra.QUESO);
     }
 
     @Override
-    public double getPrecio() {
-        return productoDecorado.getPrecio() + 2.50;
+    public long getPrecioCentavos() {
+        return Math.addExact(productoDecorado.getPrecioCentavos(), extra.getPrecioCentavos());
     }
 
     @Override
     public String getDescripcion() {
         return productoDecorado.getDescripcion() + " + extra queso";
     }
-}
\ No newline at end of file
+}
@@ -4,16 +4,16 @@ import com.delivery.model.Producto;
 
 public class ExtraSalsa extends ProductoDecorator {
     public ExtraSalsa(Producto productoDecorado) {
-        super(productoDecorado, "extra salsa", 1.00);
+        super(productoDecorado, Extra.SALSA);
     }
 
     @Override
-    public double getPrecio() {
-        return productoDecorado.getPrecio() + 1.00;
+    public long getPrecioCentavos() {
+        return Math.addExact(productoDecorado.getPrecioCentavos(), extra.getPrecioCentavos());
     }
 
     @Override
     public String getDescripcion() {
         return productoDecorado.getDescripcion() + " + extra salsa";
     }
-}
\ No newline at end of file
+}
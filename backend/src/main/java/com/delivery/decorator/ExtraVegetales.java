@@ -4,16 +4,16 @@ import com.delivery.model.Producto;
 
 public class ExtraVegetales extends ProductoDecorator {
     public ExtraVegetales(Producto productoDecorado) {
-        super(productoDecorado, "extra vegetales", 1.50);
+        super(productoDecorado, Extra.VEGETALES);
     }
 
     @Override
-    public double getPrecio() {
-        return productoDecorado.getPrecio() + 1.50;
+    public long getPrecioCentavos() {
+        return Math.addExact(productoDecorado.getPrecioCentavos(), extra.getPrecioCentavos());
     }
 
     @Override
     public String getDescripcion() {
         return productoDecorado.getDescripcion() + " + extra vegetales";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package com.delivery.decorator;
+
+import com.delivery.model.Producto;
+
+/**
+ * Construye productos a partir de los ids de {@link Plato} y {@link Extra},
+ * que coinciden con las opciones del menú de la consola y con los ids que
+ * usa el frontend.
+ */
+public final class Menu {
+    public static final int HAMBURGUESA = 1;
+    public static final int PIZZA = 2;
+    public static final int ENSALADA = 3;
+
+    public static final int EXTRA_QUESO = 1;
+    public static final int EXTRA_CARNE = 2;
+    public static final int EXTRA_VEGETALES = 3;
+    public static final int EXTRA_SALSA = 4;
+
+    private Menu() {}
+
+    public static boolean esProductoValido(int productoId) {
+        return Plato.porId(productoId) != null;
+    }
+
+    public static boolean esExtraValido(int extraId) {
+        return Extra.porId(extraId) != null;
+    }
+
+    public static Producto crearProductoBase(int productoId) {
+        Plato plato = Plato.porId(productoId);
+        return plato != null ? plato.crear() : new ProductoBase("Producto", 0);
+    }
+
+    public static Producto agregarExtra(Producto producto, int extraId) {
+        switch (extraId) {
+            case EXTRA_QUESO: return new ExtraQueso(producto);
+            case EXTRA_CARNE: return new ExtraCarne(producto);
+            case EXTRA_VEGETALES: return new ExtraVegetales(producto);
+            case EXTRA_SALSA: return new ExtraSalsa(producto);
+            default: return producto;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.delivery.decorator;
+
+/**
+ * Productos base del menú. El id coincide con la opción del menú de la
+ * consola y con el id que usa el frontend.
+ */
+public enum Plato {
+    HAMBURGUESA(1, "Hamburguesa", 800),
+    PIZZA(2, "Pizza", 1200),
+    ENSALADA(3, "Ensalada", 600);
+
+    private final int id;
+    private final String nombre;
+    private final long precioCentavos;
+
+    Plato(int id, String nombre, long precioCentavos) {
+        this.id = id;
+        this.nombre = nombre;
+        this.precioCentavos = precioCentavos;
+    }
+
+    public static Plato porId(int id) {
+        for (Plato plato : values()) {
+            if (plato.id == id) {
+                return plato;
+            }
+        }
+        return null;
+    }
+
+    public ProductoBase crear() {
+        return new ProductoBase(nombre, precioCentavos, this);
+    }
+
+    public int getId() { return id; }
+    public String getNombre() { return nombre; }
+    public long getPrecioCentavos() { return precioCentavos; }
+}
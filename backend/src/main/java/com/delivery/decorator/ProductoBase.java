@@ -3,17 +3,32 @@ package com.delivery.decorator;
 import com.delivery.model.Producto;
 
 public class ProductoBase extends Producto {
-    public ProductoBase(String nombre, double precioBase) {
-        super(nombre, precioBase);
+    // null para productos que no salen del menú, como los rehechos desde la bitácora
+    private final Plato plato;
+
+    public ProductoBase(String nombre, long precioBaseCentavos) {
+        this(nombre, precioBaseCentavos, null);
+    }
+
+    ProductoBase(String nombre, long precioBaseCentavos, Plato plato) {
+        super(nombre, precioBaseCentavos);
+        this.plato = plato;
     }
 
     @Override
-    public double getPrecio() {
-        return precioBase;
+    public long getPrecioCentavos() {
+        return precioBaseCentavos;
     }
 
     @Override
     public String getDescripcion() {
         return nombre;
     }
-}
\ No newline at end of file
+
+    @Override
+    public Producto conPrecio(long precioCentavos) {
+        return precioCentavos == precioBaseCentavos ? this : new ProductoBase(nombre, precioCentavos, plato);
+    }
+
+    public Plato getPlato() { return plato; }
+}
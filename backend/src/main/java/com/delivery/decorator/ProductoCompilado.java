@@ -0,0 +1,144 @@
+package com.delivery.decorator;
+
+import com.delivery.model.Producto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Producto decorado ya aplanado: el producto base, los extras como arreglo
+ * de bytes y el precio total precalculado en centavos. A diferencia de la
+ * cadena de decoradores, consultar el precio no recorre nada y la
+ * descripción se arma una sola vez y se comparte entre productos iguales.
+ */
+public final class ProductoCompilado extends Producto {
+    private static final int MAXIMO_DESCRIPCIONES = 10_000;
+    private static final Map<ClaveDescripcion, String> DESCRIPCIONES = new ConcurrentHashMap<>();
+
+    private final Producto base;
+    private final byte[] extras;
+    private final long precioCentavos;
+    private volatile String descripcion;
+
+    private ProductoCompilado(String nombre, long precioBaseCentavos, Producto base, byte[] extras, long precioCentavos) {
+        super(nombre, precioBaseCentavos);
+        this.base = base;
+        this.extras = extras;
+        this.precioCentavos = precioCentavos;
+    }
+
+    /**
+     * Recorre la cadena una única vez y junta los extras en el orden en que
+     * se aplicaron.
+     */
+    static ProductoCompilado de(ProductoDecorator decorador) {
+        List<Extra> encontrados = new ArrayList<>();
+        Producto actual = decorador;
+        while (actual instanceof ProductoDecorator) {
+            ProductoDecorator capa = (ProductoDecorator) actual;
+            encontrados.add(capa.getExtra());
+            actual = capa.getProductoDecorado();
+        }
+
+        Producto base = actual;
+        byte[] previos = new byte[0];
+        if (actual instanceof ProductoCompilado) {
+            base = ((ProductoCompilado) actual).base;
+            previos = ((ProductoCompilado) actual).extras;
+        }
+
+        byte[] extras = Arrays.copyOf(previos, previos.length + encontrados.size());
+        long precio = base.getPrecioCentavos();
+        for (byte ordinal : previos) {
+            precio = Math.addExact(precio, Extra.porOrdinal(ordinal).getPrecioCentavos());
+        }
+        for (int i = 0; i < encontrados.size(); i++) {
+            Extra extra = encontrados.get(encontrados.size() - 1 - i);
+            extras[previos.length + i] = (byte) extra.ordinal();
+            precio = Math.addExact(precio, extra.getPrecioCentavos());
+        }
+        return new ProductoCompilado(decorador.getNombre(), decorador.getPrecioBaseCentavos(), base, extras, precio);
+    }
+
+    @Override
+    public long getPrecioCentavos() {
+        return precioCentavos;
+    }
+
+    @Override
+    public String getDescripcion() {
+        String resultado = descripcion;
+        if (resultado == null) {
+            resultado = describir();
+            descripcion = resultado;
+        }
+        return resultado;
+    }
+
+    private String describir() {
+        ClaveDescripcion clave = new ClaveDescripcion(base.getDescripcion(), extras);
+        String compartida = DESCRIPCIONES.get(clave);
+        if (compartida != null) {
+            return compartida;
+        }
+        StringBuilder texto = new StringBuilder(clave.base);
+        for (byte ordinal : extras) {
+            texto.append(" + ").append(Extra.porOrdinal(ordinal).getNombre());
+        }
+        String nueva = texto.toString();
+        // Acotado para que combinaciones raras no hagan crecer el mapa sin fin
+        if (DESCRIPCIONES.size() < MAXIMO_DESCRIPCIONES) {
+            String previa = DESCRIPCIONES.putIfAbsent(clave, nueva);
+            return previa != null ? previa : nueva;
+        }
+        return nueva;
+    }
+
+    @Override
+    public Producto compilar() {
+        return this;
+    }
+
+    @Override
+    public Producto conPrecio(long precioCentavos) {
+        if (precioCentavos == this.precioCentavos) {
+            return this;
+        }
+        ProductoCompilado copia = new ProductoCompilado(nombre, precioBaseCentavos, base, extras, precioCentavos);
+        copia.descripcion = descripcion;
+        return copia;
+    }
+
+    public Producto getBase() { return base; }
+    public int getCantidadExtras() { return extras.length; }
+    public Extra getExtra(int indice) { return Extra.porOrdinal(extras[indice]); }
+
+    private static final class ClaveDescripcion {
+        private final String base;
+        private final byte[] extras;
+        private final int hash;
+
+        private ClaveDescripcion(String base, byte[] extras) {
+            this.base = base;
+            this.extras = extras;
+            this.hash = 31 * base.hashCode() + Arrays.hashCode(extras);
+        }
+
+        @Override
+        public boolean equals(Object otro) {
+            if (!(otro instanceof ClaveDescripcion)) {
+                return false;
+            }
+            ClaveDescripcion clave = (ClaveDescripcion) otro;
+            return base.equals(clave.base) && Arrays.equals(extras, clave.extras);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
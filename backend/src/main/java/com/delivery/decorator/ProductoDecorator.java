@@ -4,16 +4,34 @@ import com.delivery.model.Producto;
 
 public abstract class ProductoDecorator extends Producto {
     protected Producto productoDecorado;
+    protected final Extra extra;
 
-    public ProductoDecorator(Producto productoDecorado, String nombreExtra, double precioExtra) {
-        super(productoDecorado.getNombre() + " con " + nombreExtra,
-              productoDecorado.getPrecioBase() + precioExtra);
+    public ProductoDecorator(Producto productoDecorado, Extra extra) {
+        super(productoDecorado.getNombre() + " con " + extra.getNombre(),
+              Math.addExact(productoDecorado.getPrecioBaseCentavos(), extra.getPrecioCentavos()));
         this.productoDecorado = productoDecorado;
+        this.extra = extra;
     }
 
     @Override
-    public abstract double getPrecio();
+    public abstract long getPrecioCentavos();
 
     @Override
     public abstract String getDescripcion();
-}
\ No newline at end of file
+
+    /**
+     * Colapsa toda la cadena de decoradores en un {@link ProductoCompilado}.
+     */
+    @Override
+    public Producto compilar() {
+        return ProductoCompilado.de(this);
+    }
+
+    @Override
+    public Producto conPrecio(long precioCentavos) {
+        return compilar().conPrecio(precioCentavos);
+    }
+
+    public Producto getProductoDecorado() { return productoDecorado; }
+    public Extra getExtra() { return extra; }
+}
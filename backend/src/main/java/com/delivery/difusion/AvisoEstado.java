@@ -0,0 +1,64 @@
+package com.delivery.difusion;
+
+import com.delivery.api.EstadoApi;
+import com.delivery.model.Dinero;
+import com.delivery.model.Pedido;
+
+/**
+ * Cambio de estado de un pedido tal como se envía a los suscriptores. El
+ * evento SSE se arma una sola vez y lo comparten todas las conexiones que
+ * lo reciben.
+ */
+public final class AvisoEstado {
+    private final long secuencia;
+    private final long pedidoId;
+    private final Long restauranteId;
+    private final Pedido.Estado estado;
+    private final long totalCentavos;
+    private final long marca;
+    private final long creadoNanos;
+    private volatile String texto;
+
+    AvisoEstado(long secuencia, long pedidoId, Long restauranteId, Pedido.Estado estado, long totalCentavos, long marca) {
+        this.secuencia = secuencia;
+        this.pedidoId = pedidoId;
+        this.restauranteId = restauranteId;
+        this.estado = estado;
+        this.totalCentavos = totalCentavos;
+        this.marca = marca;
+        this.creadoNanos = System.nanoTime();
+    }
+
+    /**
+     * Evento SSE completo, con la secuencia como {@code id} y los datos en
+     * JSON con los nombres de estado de la API.
+     */
+    public String getTexto() {
+        String actual = texto;
+        if (actual == null) {
+            // Si dos hilos lo arman a la vez los dos llegan al mismo texto
+            actual = escribir(new StringBuilder(160)).toString();
+            texto = actual;
+        }
+        return actual;
+    }
+
+    private StringBuilder escribir(StringBuilder destino) {
+        destino.append("id: ").append(secuencia)
+               .append("\nevent: status\ndata: {\"orderId\":").append(pedidoId)
+               .append(",\"restaurantId\":").append(restauranteId)
+               .append(",\"status\":\"").append(EstadoApi.aApi(estado))
+               .append("\",\"total\":");
+        Dinero.escribir(destino, totalCentavos);
+        return destino.append(",\"timestamp\":").append(marca).append("}\n\n");
+    }
+
+    // Getters
+    public long getSecuencia() { return secuencia; }
+    public long getPedidoId() { return pedidoId; }
+    public Long getRestauranteId() { return restauranteId; }
+    public Pedido.Estado getEstado() { return estado; }
+    public long getTotalCentavos() { return totalCentavos; }
+    public long getMarca() { return marca; }
+    public long getCreadoNanos() { return creadoNanos; }
+}
@@ -0,0 +1,25 @@
+package com.delivery.difusion;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Conexión de un suscriptor. La central nunca llama a un mismo canal desde
+ * dos hilos a la vez, así una implementación no necesita sincronizar.
+ */
+public interface Canal {
+    /**
+     * Entrega los avisos en orden. Puede bloquear mientras el cliente no
+     * lee; una IOException cierra la suscripción.
+     */
+    void enviar(List<AvisoEstado> avisos) throws IOException;
+
+    /** Escribe algo sin avisos, para mantener viva la conexión y notar si el cliente se fue. */
+    void latido() throws IOException;
+
+    /**
+     * Cierra la conexión. {@code motivo} es null si la cerró el cliente o
+     * la suscripción se canceló; si no, explica por qué se descartó.
+     */
+    void cerrar(String motivo);
+}
@@ -0,0 +1,266 @@
+package com.delivery.difusion;
+
+import com.delivery.model.Pedido;
+import com.delivery.singleton.HistogramaLatencia;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reparte los cambios de estado de los pedidos entre los suscriptores
+ * conectados: los de un pedido, los de un restaurante y los que siguen
+ * todos los pedidos. Publicar no bloquea nunca: el aviso se arma una vez,
+ * se deja en la cola de cada suscriptor interesado y un grupo chico de
+ * hilos lo escribe en cada conexión. Las escrituras a un cliente que no
+ * lee bloquean, así los clientes cuya última escritura fue lenta usan un
+ * grupo de hilos aparte y no demoran a los demás. Un vigía manda latidos a
+ * las conexiones quietas y descarta las que tienen una escritura trabada.
+ */
+@Component
+public class CentralDifusion {
+    // Cuántas veces cabe el latido en el intervalo de revisión del vigía
+    private static final int REVISIONES_POR_LATIDO = 4;
+
+    // 0 = dos por procesador
+    @Value("${delivery.difusion.hilos:0}")
+    private int hilos;
+
+    @Value("${delivery.difusion.maximo-suscripciones:50000}")
+    private int maximoSuscripciones;
+
+    @Value("${delivery.difusion.maximo-pendientes:256}")
+    private int maximoPendientes;
+
+    @Value("${delivery.difusion.maximo-bloqueo-ms:5000}")
+    private long maximoBloqueoMs;
+
+    @Value("${delivery.difusion.latido-ms:15000}")
+    private long latidoMs;
+
+    // Una escritura más larga que esto pasa la suscripción a los hilos de clientes lentos
+    @Value("${delivery.difusion.umbral-lento-ms:10}")
+    private long umbralLentoMs;
+
+    private ExecutorService escritores;
+    private ExecutorService escritoresLentos;
+    private ScheduledExecutorService vigia;
+
+    // Copy-on-write: se publica mucho más de lo que se suscribe, y recorrer un arreglo es lo más barato
+    private final Map<Long, List<Suscripcion>> porPedido = new ConcurrentHashMap<>();
+    private final Map<Long, List<Suscripcion>> porRestaurante = new ConcurrentHashMap<>();
+    private final List<Suscripcion> generales = new CopyOnWriteArrayList<>();
+    private final Set<Suscripcion> todas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger activas = new AtomicInteger();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final AtomicLong ids = new AtomicLong();
+
+    private final LongAdder publicados = new LongAdder();
+    private final LongAdder encolados = new LongAdder();
+    private final LongAdder entregados = new LongAdder();
+    private final LongAdder coalescidos = new LongAdder();
+    private final LongAdder descartadosLentos = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private final HistogramaLatencia latenciaMicros = new HistogramaLatencia();
+
+    @PostConstruct
+    void iniciar() {
+        if (hilos <= 0) {
+            hilos = 2 * Runtime.getRuntime().availableProcessors();
+        }
+        escritores = Executors.newFixedThreadPool(hilos, fabrica("difusion-"));
+        escritoresLentos = Executors.newFixedThreadPool(hilos, fabrica("difusion-lenta-"));
+        vigia = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "difusion-vigia");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long intervalo = Math.max(100, Math.min(latidoMs, maximoBloqueoMs) / REVISIONES_POR_LATIDO);
+        vigia.scheduleWithFixedDelay(this::revisar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory fabrica(String prefijo) {
+        AtomicInteger contador = new AtomicInteger();
+        return tarea -> {
+            Thread hilo = new Thread(tarea, prefijo + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+
+    @PreDestroy
+    void detener() {
+        vigia.shutdownNow();
+        for (Suscripcion suscripcion : todas) {
+            cancelar(suscripcion);
+        }
+        escritores.shutdown();
+        escritoresLentos.shutdown();
+    }
+
+    /**
+     * Suscribe el canal a un pedido, a los pedidos de un restaurante o, si
+     * los dos son null, a todos. Si se indican los dos manda el pedido.
+     *
+     * @throws IllegalStateException si ya se alcanzó el máximo de suscripciones
+     */
+    public Suscripcion suscribir(Long pedidoId, Long restauranteId, Canal canal) {
+        if (activas.incrementAndGet() > maximoSuscripciones) {
+            activas.decrementAndGet();
+            rechazadas.increment();
+            throw new IllegalStateException("Se alcanzó el máximo de " + maximoSuscripciones + " suscripciones");
+        }
+        Long porRestauranteId = pedidoId == null ? restauranteId : null;
+        Suscripcion suscripcion = new Suscripcion(ids.incrementAndGet(), pedidoId, porRestauranteId, canal, this);
+        todas.add(suscripcion);
+        if (pedidoId != null) {
+            agregar(porPedido, pedidoId, suscripcion);
+        } else if (porRestauranteId != null) {
+            agregar(porRestaurante, porRestauranteId, suscripcion);
+        } else {
+            generales.add(suscripcion);
+        }
+        return suscripcion;
+    }
+
+    /** Quita la suscripción y cierra su canal sin motivo, como cuando el cliente se va. */
+    public void cancelar(Suscripcion suscripcion) {
+        descartar(suscripcion, null);
+    }
+
+    void descartar(Suscripcion suscripcion, String motivo) {
+        if (!suscripcion.cerrar(motivo)) {
+            return;
+        }
+        if (todas.remove(suscripcion)) {
+            activas.decrementAndGet();
+        }
+        if (suscripcion.getPedidoId() != null) {
+            quitar(porPedido, suscripcion.getPedidoId(), suscripcion);
+        } else if (suscripcion.getRestauranteId() != null) {
+            quitar(porRestaurante, suscripcion.getRestauranteId(), suscripcion);
+        } else {
+            generales.remove(suscripcion);
+        }
+        if (motivo != null) {
+            descartadosLentos.increment();
+        }
+    }
+
+    private static void agregar(Map<Long, List<Suscripcion>> indice, Long clave, Suscripcion suscripcion) {
+        indice.compute(clave, (id, suscripciones) -> {
+            List<Suscripcion> lista = suscripciones != null ? suscripciones : new CopyOnWriteArrayList<>();
+            lista.add(suscripcion);
+            return lista;
+        });
+    }
+
+    private static void quitar(Map<Long, List<Suscripcion>> indice, Long clave, Suscripcion suscripcion) {
+        // Agregar y quitar pasan por compute, así un conjunto vacío se borra sin perder una suscripción que llega a la vez
+        indice.computeIfPresent(clave, (id, suscripciones) -> {
+            suscripciones.remove(suscripcion);
+            return suscripciones.isEmpty() ? null : suscripciones;
+        });
+    }
+
+    /**
+     * Publica el estado del pedido a sus suscriptores. Sin suscriptores
+     * interesados no arma nada.
+     */
+    public void publicar(Pedido pedido, Pedido.Estado estado) {
+        Long pedidoId = pedido.getId();
+        if (pedidoId == null || activas.get() == 0) {
+            return;
+        }
+        Long restauranteId = pedido.getRestaurante() != null ? pedido.getRestaurante().getId() : null;
+        List<Suscripcion> delPedido = porPedido.get(pedidoId);
+        List<Suscripcion> delRestaurante = restauranteId != null ? porRestaurante.get(restauranteId) : null;
+        if (delPedido == null && delRestaurante == null && generales.isEmpty()) {
+            return;
+        }
+        AvisoEstado aviso = new AvisoEstado(secuencia.incrementAndGet(), pedidoId, restauranteId, estado,
+                pedido.getTotalCentavos(), System.currentTimeMillis());
+        publicados.increment();
+        repartir(delPedido, aviso);
+        repartir(delRestaurante, aviso);
+        repartir(generales, aviso);
+    }
+
+    private void repartir(List<Suscripcion> suscripciones, AvisoEstado aviso) {
+        if (suscripciones == null) {
+            return;
+        }
+        int cantidad = 0;
+        for (Suscripcion suscripcion : suscripciones) {
+            suscripcion.aceptar(aviso);
+            cantidad++;
+        }
+        encolados.add(cantidad);
+    }
+
+    private void revisar() {
+        long ahora = System.nanoTime();
+        long latidoNanos = TimeUnit.MILLISECONDS.toNanos(latidoMs);
+        for (Suscripcion suscripcion : todas) {
+            suscripcion.revisar(ahora, latidoNanos);
+        }
+    }
+
+    void ejecutar(Runnable tarea, boolean lenta) {
+        (lenta ? escritoresLentos : escritores).execute(tarea);
+    }
+
+    void registrarEntregados(List<AvisoEstado> avisos, long ahora) {
+        if (avisos.isEmpty()) {
+            return;
+        }
+        entregados.add(avisos.size());
+        for (AvisoEstado aviso : avisos) {
+            latenciaMicros.registrar(TimeUnit.NANOSECONDS.toMicros(ahora - aviso.getCreadoNanos()));
+        }
+    }
+
+    void registrarCoalescidos(int cantidad) {
+        if (cantidad > 0) {
+            coalescidos.add(cantidad);
+        }
+    }
+
+    long getUmbralLentoNanos() { return TimeUnit.MILLISECONDS.toNanos(umbralLentoMs); }
+    long getMaximoBloqueoNanos() { return TimeUnit.MILLISECONDS.toNanos(maximoBloqueoMs); }
+    int getMaximoPendientes() { return maximoPendientes; }
+
+    public int getSuscripciones() { return activas.get(); }
+    public long getPublicados() { return publicados.sum(); }
+    public long getEncolados() { return encolados.sum(); }
+    public long getEntregados() { return entregados.sum(); }
+    public long getCoalescidos() { return coalescidos.sum(); }
+    public long getDescartadosLentos() { return descartadosLentos.sum(); }
+    public long getRechazadas() { return rechazadas.sum(); }
+    public HistogramaLatencia getLatenciaMicros() { return latenciaMicros; }
+
+    public void mostrarMetricas() {
+        System.out.println("\n📡 Difusión de estados:");
+        System.out.println("Suscripciones: " + getSuscripciones() + " (máximo " + maximoSuscripciones
+                + ", rechazadas " + getRechazadas() + "), hilos: " + hilos);
+        System.out.println("Avisos publicados / encolados / entregados / coalescidos: " + getPublicados()
+                + " / " + getEncolados() + " / " + getEntregados() + " / " + getCoalescidos());
+        System.out.println("Suscriptores lentos descartados: " + getDescartadosLentos());
+        System.out.println("Latencia de entrega p50 / p99: " + latenciaMicros.getPercentil(50)
+                + " µs / " + latenciaMicros.getPercentil(99) + " µs");
+    }
+}
@@ -0,0 +1,215 @@
+package com.delivery.difusion;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Un suscriptor de la central: los avisos que esperan ser enviados, uno
+ * por pedido, y el canal por el que salen. Como mucho una tarea escribe en
+ * el canal a la vez; si un pedido cambia de nuevo antes de que se envíe su
+ * aviso anterior, solo se envía el último. Los avisos se juntan en una
+ * lista y se coalescen al escribir, no al llegar: casi siempre hay uno
+ * solo y agregarlo es lo único que paga el hilo que publica. Un suscriptor que acumula
+ * demasiados pedidos sin enviar o que tiene una escritura trabada se
+ * descarta, así un cliente lento no frena a los demás. Mientras su última
+ * escritura haya sido lenta, la suscripción escribe con los hilos para
+ * clientes lentos y no ocupa los de los rápidos.
+ */
+public final class Suscripcion {
+    private final long id;
+    private final Long pedidoId;
+    private final Long restauranteId;
+    private final Canal canal;
+    private final CentralDifusion central;
+
+    // Avisos que llegaron desde la última escritura; se protege con el monitor de la suscripción
+    private ArrayList<AvisoEstado> entrantes = new ArrayList<>();
+    // Solo la toca la tarea que escribe; se intercambia con entrantes
+    private ArrayList<AvisoEstado> salientes = new ArrayList<>();
+    private final AtomicBoolean programada = new AtomicBoolean(false);
+
+    private volatile boolean cerrada;
+    private volatile String motivoCierre;
+    private volatile boolean latidoPendiente;
+    // 0 si no hay una escritura en curso
+    private volatile long enviandoDesde;
+    private volatile long ultimoEnvio;
+    private volatile boolean lenta;
+    // Solo lo toca la tarea que escribe
+    private boolean canalCerrado;
+
+    Suscripcion(long id, Long pedidoId, Long restauranteId, Canal canal, CentralDifusion central) {
+        this.id = id;
+        this.pedidoId = pedidoId;
+        this.restauranteId = restauranteId;
+        this.canal = canal;
+        this.central = central;
+        this.ultimoEnvio = System.nanoTime();
+    }
+
+    void aceptar(AvisoEstado aviso) {
+        if (cerrada) {
+            return;
+        }
+        long enviando = enviandoDesde;
+        if (enviando != 0 && aviso.getCreadoNanos() - enviando > central.getMaximoBloqueoNanos()) {
+            central.descartar(this, "Cliente lento: una escritura lleva más de "
+                    + central.getMaximoBloqueoNanos() / 1_000_000 + " ms");
+            return;
+        }
+        boolean desbordada = false;
+        synchronized (this) {
+            entrantes.add(aviso);
+            if (entrantes.size() > central.getMaximoPendientes()) {
+                // Antes de descartar se prueba quedarse con el último aviso de cada pedido
+                central.registrarCoalescidos(coalescer(entrantes));
+                desbordada = entrantes.size() > central.getMaximoPendientes();
+            }
+        }
+        if (desbordada) {
+            central.descartar(this, "Cliente lento: más de " + central.getMaximoPendientes() + " pedidos sin enviar");
+            return;
+        }
+        programar();
+    }
+
+    /** Lo llama el vigía de la central: latido si la conexión estuvo quieta, descarte si está trabada. */
+    void revisar(long ahora, long latidoNanos) {
+        if (cerrada) {
+            return;
+        }
+        long enviando = enviandoDesde;
+        if (enviando != 0) {
+            if (ahora - enviando > central.getMaximoBloqueoNanos()) {
+                central.descartar(this, "Cliente lento: una escritura lleva más de "
+                        + central.getMaximoBloqueoNanos() / 1_000_000 + " ms");
+            }
+            return;
+        }
+        if (ahora - ultimoEnvio > latidoNanos) {
+            latidoPendiente = true;
+            programar();
+        }
+    }
+
+    /**
+     * Marca la suscripción como cerrada. El canal lo cierra la tarea que
+     * escribe, porque una escritura trabada puede estar reteniéndolo.
+     */
+    boolean cerrar(String motivo) {
+        if (cerrada) {
+            return false;
+        }
+        synchronized (this) {
+            if (cerrada) {
+                return false;
+            }
+            motivoCierre = motivo;
+            cerrada = true;
+        }
+        programar();
+        return true;
+    }
+
+    private void programar() {
+        if (programada.compareAndSet(false, true)) {
+            central.ejecutar(this::drenar, lenta);
+        }
+    }
+
+    private void drenar() {
+        try {
+            if (cerrada) {
+                cerrarCanal();
+                return;
+            }
+            synchronized (this) {
+                ArrayList<AvisoEstado> llegados = entrantes;
+                entrantes = salientes;
+                salientes = llegados;
+            }
+            if (salientes.size() > 1) {
+                central.registrarCoalescidos(coalescer(salientes));
+            }
+            boolean latido = latidoPendiente;
+            latidoPendiente = false;
+            if (salientes.isEmpty() && !latido) {
+                return;
+            }
+            long inicio = System.nanoTime();
+            enviandoDesde = inicio;
+            try {
+                if (salientes.isEmpty()) {
+                    canal.latido();
+                } else {
+                    canal.enviar(salientes);
+                }
+            } finally {
+                enviandoDesde = 0;
+            }
+            ultimoEnvio = System.nanoTime();
+            lenta = ultimoEnvio - inicio > central.getUmbralLentoNanos();
+            central.registrarEntregados(salientes, ultimoEnvio);
+        } catch (IOException | RuntimeException e) {
+            // El cliente se fue o la conexión falló
+            central.descartar(this, null);
+            cerrarCanal();
+        } finally {
+            salientes.clear();
+            programada.set(false);
+            // Si llegó algo mientras se escribía, se vuelve a programar
+            if (cerrada ? !canalCerrado : latidoPendiente || getPendientes() > 0) {
+                programar();
+            }
+        }
+    }
+
+    /**
+     * Deja el último aviso de cada pedido, en el orden en que llegaron esos
+     * últimos avisos. Los de un mismo pedido llegan de a uno y en orden, así
+     * el último siempre es el más nuevo.
+     *
+     * @return cuántos avisos se quitaron
+     */
+    private static int coalescer(ArrayList<AvisoEstado> avisos) {
+        int antes = avisos.size();
+        Set<Long> vistos = new HashSet<>(antes * 2);
+        int destino = antes;
+        // De atrás hacia adelante, corriendo los que quedan hacia el final
+        for (int i = antes - 1; i >= 0; i--) {
+            AvisoEstado aviso = avisos.get(i);
+            if (vistos.add(aviso.getPedidoId())) {
+                avisos.set(--destino, aviso);
+            }
+        }
+        if (destino > 0) {
+            avisos.subList(0, destino).clear();
+        }
+        return destino;
+    }
+
+    private void cerrarCanal() {
+        if (!canalCerrado) {
+            canalCerrado = true;
+            synchronized (this) {
+                entrantes.clear();
+            }
+            canal.cerrar(motivoCierre);
+        }
+    }
+
+    public long getId() { return id; }
+    public Long getPedidoId() { return pedidoId; }
+    public Long getRestauranteId() { return restauranteId; }
+    public boolean isCerrada() { return cerrada; }
+    public boolean isLenta() { return lenta; }
+
+    public synchronized int getPendientes() {
+        return entrantes.size();
+    }
+}
@@ -0,0 +1,180 @@
+package com.delivery.estimacion;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Distribución de duraciones aprendida en línea, donde cada observación
+ * pesa la mitad cada {@code vidaMediaMs}: lo reciente manda y un cambio de
+ * ritmo (una cocina que se atrasa, lluvia) se nota en pocas horas. Guarda
+ * pesos en cubetas geométricas de 10 ms a unas 11 horas con un 10% de
+ * ancho cada una, así que los cuantiles tienen ese error como mucho y
+ * ocupan un arreglo fijo sin importar cuántas observaciones lleguen.
+ *
+ * <p>El decaimiento es hacia adelante: en vez de achicar todos los pesos
+ * con el paso del tiempo, cada observación nueva entra con un peso que
+ * crece con su hora. Los cuantiles solo dependen de los pesos relativos,
+ * así que registrar es sumar en una cubeta; cada tanto se reescala todo
+ * para que los pesos no desborden.
+ *
+ * <p>Las lecturas son optimistas y no bloquean a quien registra; si un
+ * registro se cruza con una lectura, la lectura se repite con el lock.
+ */
+public class BosquejoDecaido {
+    private static final double MINIMO_MS = 10;
+    private static final double CRECIMIENTO = 1.1;
+    private static final double LOG_CRECIMIENTO = Math.log(CRECIMIENTO);
+    private static final int CUBETAS = 160;
+    // Límite inferior de cada cubeta; la primera arranca en 0 y la última llega hasta LIMITES[CUBETAS]
+    private static final double[] LIMITES = new double[CUBETAS + 1];
+    // Con e^40 de diferencia los pesos viejos ya no cuentan y todavía no hay desborde
+    private static final double EXPONENTE_MAXIMO = 40;
+
+    static {
+        for (int i = 1; i <= CUBETAS; i++) {
+            LIMITES[i] = MINIMO_MS * Math.pow(CRECIMIENTO, i);
+        }
+    }
+
+    private final double tau;
+    private final double[] pesos = new double[CUBETAS];
+    private final StampedLock lock = new StampedLock();
+    private double total;
+    private double sumaValores;
+    private long base;
+
+    public BosquejoDecaido(long vidaMediaMs) {
+        this.tau = vidaMediaMs / Math.log(2);
+    }
+
+    public void registrar(long duracionMs, long ahora) {
+        long sello = lock.writeLock();
+        try {
+            if (total == 0) {
+                base = ahora;
+            }
+            double exponente = (ahora - base) / tau;
+            if (exponente > EXPONENTE_MAXIMO) {
+                double factor = Math.exp(-exponente);
+                for (int i = 0; i < CUBETAS; i++) {
+                    pesos[i] *= factor;
+                }
+                total *= factor;
+                sumaValores *= factor;
+                base = ahora;
+                exponente = 0;
+            }
+            double peso = Math.exp(exponente);
+            pesos[cubeta(duracionMs)] += peso;
+            total += peso;
+            sumaValores += peso * duracionMs;
+        } finally {
+            lock.unlockWrite(sello);
+        }
+    }
+
+    /** Cuántas observaciones de ahora equivalen a todo lo registrado; una de hace una vida media cuenta 0,5. */
+    public double getPeso(long ahora) {
+        long sello = lock.tryOptimisticRead();
+        double total = this.total;
+        long base = this.base;
+        if (!lock.validate(sello)) {
+            sello = lock.readLock();
+            try {
+                total = this.total;
+                base = this.base;
+            } finally {
+                lock.unlockRead(sello);
+            }
+        }
+        return total == 0 ? 0 : total * Math.exp(-(ahora - base) / tau);
+    }
+
+    /** Media ponderada de las duraciones, en ms; 0 sin observaciones. */
+    public double getMedia() {
+        long sello = lock.readLock();
+        try {
+            return total == 0 ? 0 : sumaValores / total;
+        } finally {
+            lock.unlockRead(sello);
+        }
+    }
+
+    /**
+     * Mediana y percentil 90 de lo que falta, en ms, para algo que ya lleva
+     * {@code transcurrido}: solo cuentan las duraciones mayores a eso. Si
+     * ya pasó todas las observadas, lo que falta es 0.
+     *
+     * @param restantes recibe la mediana en [0] y el percentil 90 en [1]
+     * @return false si no hay observaciones
+     */
+    public boolean restantes(long transcurrido, long[] restantes) {
+        long sello = lock.tryOptimisticRead();
+        boolean hay = calcular(transcurrido, restantes);
+        if (!lock.validate(sello)) {
+            sello = lock.readLock();
+            try {
+                hay = calcular(transcurrido, restantes);
+            } finally {
+                lock.unlockRead(sello);
+            }
+        }
+        return hay;
+    }
+
+    // Puede correr con un registro a la mitad: no falla con datos inconsistentes y el resultado se descarta
+    private boolean calcular(long transcurrido, long[] restantes) {
+        double total = this.total;
+        if (!(total > 0)) {
+            return false;
+        }
+        int desde = cubeta(transcurrido);
+        double inicio = Math.max(LIMITES[desde], Math.min(transcurrido, LIMITES[desde + 1]));
+        double acumulado = 0;
+        for (int i = 0; i < desde; i++) {
+            acumulado += pesos[i];
+        }
+        // Parte de la cubeta de transcurrido que ya quedó atrás, suponiendo el peso parejo dentro de la cubeta
+        double fraccion = (inicio - LIMITES[desde]) / (LIMITES[desde + 1] - LIMITES[desde]);
+        acumulado += pesos[desde] * fraccion;
+        double resto = total - acumulado;
+        if (!(resto > total * 1e-9)) {
+            restantes[0] = 0;
+            restantes[1] = 0;
+            return true;
+        }
+        double objetivo50 = acumulado + 0.5 * resto;
+        double objetivo90 = acumulado + 0.9 * resto;
+        boolean falta50 = true;
+        restantes[1] = Math.max(0, Math.round(LIMITES[CUBETAS] - transcurrido));
+        for (int i = desde; i < CUBETAS; i++) {
+            double desdeValor = i == desde ? inicio : LIMITES[i];
+            double peso = i == desde ? pesos[i] * (1 - fraccion) : pesos[i];
+            double siguiente = acumulado + peso;
+            if (falta50 && siguiente >= objetivo50) {
+                restantes[0] = valor(desdeValor, LIMITES[i + 1], objetivo50 - acumulado, peso, transcurrido);
+                falta50 = false;
+            }
+            if (siguiente >= objetivo90) {
+                restantes[1] = valor(desdeValor, LIMITES[i + 1], objetivo90 - acumulado, peso, transcurrido);
+                break;
+            }
+            acumulado = siguiente;
+        }
+        if (falta50) {
+            restantes[0] = restantes[1];
+        }
+        return true;
+    }
+
+    private static long valor(double desde, double hasta, double faltante, double peso, long transcurrido) {
+        double valor = peso > 0 ? desde + (hasta - desde) * Math.min(1, faltante / peso) : desde;
+        return Math.max(0, Math.round(valor - transcurrido));
+    }
+
+    private static int cubeta(long duracionMs) {
+        if (duracionMs < LIMITES[1]) {
+            return 0;
+        }
+        return Math.min(CUBETAS - 1, (int) (Math.log(duracionMs / MINIMO_MS) / LOG_CRECIMIENTO));
+    }
+}
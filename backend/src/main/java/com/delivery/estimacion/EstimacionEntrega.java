@@ -0,0 +1,7 @@
+package com.delivery.estimacion;
+
+/**
+ * Hora estimada de entrega de un pedido, en ms desde la época: la mediana
+ * y una hora que se cumple nueve de cada diez veces.
+ */
+public record EstimacionEntrega(long medianaEn, long p90En) {}
@@ -0,0 +1,254 @@
+package com.delivery.estimacion;
+
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import com.delivery.reparto.Geocodificador;
+import com.delivery.reparto.Punto;
+import com.delivery.singleton.HistogramaLatencia;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estima cuándo llega cada pedido con lo que tardaron los anteriores,
+ * aprendido en línea con cada cambio de estado: la cocina de cada
+ * restaurante (de la creación a listo) en un {@link BosquejoDecaido}, y el
+ * reparto (de listo a entregado) como una {@link RectaDecaida} sobre la
+ * distancia del restaurante al destino, corregida por zona de destino con
+ * un bosquejo de cuánto se aparta cada zona de la recta. Un restaurante o
+ * una zona sin suficientes observaciones recientes usa el modelo general.
+ *
+ * <p>Lo que falta de cada tramo se calcula sabiendo cuánto lleva ya el
+ * pedido en él, así la estimación se corrige en cada transición. El
+ * percentil 90 del total suma las medianas y combina los márgenes como
+ * si los tramos fueran independientes (la raíz de la suma de los
+ * cuadrados), que es exacto para distribuciones normales.
+ */
+@Component
+public class EstimadorEntrega {
+    // Los bosquejos de reparto guardan real / recta en milésimos: 1000 es justo lo que da la recta
+    private static final double ESCALA = 1000;
+    private static final double MINIMO_PREDICHO_MS = 100;
+
+    private final boolean habilitada;
+    private final long vidaMediaMs;
+    private final double zonaKm;
+    private final int columnas;
+    private final double minimoObservaciones;
+    private final int maximoRestaurantes;
+
+    private final Map<Long, BosquejoDecaido> cocinas = new ConcurrentHashMap<>();
+    private final BosquejoDecaido cocinaGeneral;
+    private final BosquejoDecaido[] zonas;
+    private final BosquejoDecaido repartoGeneral;
+    private final RectaDecaida recta;
+
+    private final LongAdder observacionesCocina = new LongAdder();
+    private final LongAdder observacionesReparto = new LongAdder();
+    private final LongAdder estimaciones = new LongAdder();
+    private final LongAdder sinDatos = new LongAdder();
+    private final HistogramaLatencia latenciaNanos = new HistogramaLatencia();
+
+    @Autowired
+    public EstimadorEntrega(PropiedadesEstimacion propiedades) {
+        this.habilitada = propiedades.isHabilitada();
+        this.vidaMediaMs = propiedades.getVidaMediaMs();
+        this.zonaKm = propiedades.getZonaKm();
+        this.columnas = Math.max(1, (int) Math.ceil(Geocodificador.LADO_CIUDAD_KM / zonaKm));
+        this.minimoObservaciones = propiedades.getMinimoObservaciones();
+        this.maximoRestaurantes = propiedades.getMaximoRestaurantes();
+        this.cocinaGeneral = new BosquejoDecaido(vidaMediaMs);
+        this.repartoGeneral = new BosquejoDecaido(vidaMediaMs);
+        this.recta = new RectaDecaida(vidaMediaMs);
+        this.zonas = new BosquejoDecaido[columnas * columnas];
+        for (int i = 0; i < zonas.length; i++) {
+            zonas[i] = new BosquejoDecaido(vidaMediaMs);
+        }
+    }
+
+    /**
+     * Aprende del cambio y vuelve a estimar la entrega del pedido. Se llama
+     * después de aplicar el cambio, cuando el pedido ya tiene la hora de
+     * entrada a {@code nuevo}.
+     */
+    public void transicion(Pedido pedido, Pedido.Estado anterior, Pedido.Estado nuevo) {
+        aprender(pedido, anterior, nuevo);
+        actualizar(pedido);
+    }
+
+    /** Registra el tramo que terminó con el cambio, si terminó alguno. */
+    public void aprender(Pedido pedido, Pedido.Estado anterior, Pedido.Estado nuevo) {
+        if (!habilitada || anterior == nuevo) {
+            return;
+        }
+        if (nuevo == Pedido.Estado.LISTO) {
+            long listo = pedido.getEntradaEn(Pedido.Estado.LISTO);
+            long cocina = listo - pedido.getCreadoEn();
+            if (cocina >= 0) {
+                BosquejoDecaido propio = cocina(pedido.getRestaurante(), true);
+                if (propio != null) {
+                    propio.registrar(cocina, listo);
+                }
+                cocinaGeneral.registrar(cocina, listo);
+                observacionesCocina.increment();
+            }
+        } else if (nuevo == Pedido.Estado.ENTREGADO) {
+            long listo = pedido.getEntradaEn(Pedido.Estado.LISTO);
+            long entregado = pedido.getEntradaEn(Pedido.Estado.ENTREGADO);
+            if (listo > 0 && entregado >= listo) {
+                long reparto = entregado - listo;
+                double km = distancia(pedido);
+                RectaDecaida.Coeficientes coeficientes = recta.getCoeficientes();
+                // La primera observación solo arma la recta: todavía no hay de qué apartarse
+                if (coeficientes != null) {
+                    long relacion = Math.round(reparto * ESCALA / predicho(coeficientes, km));
+                    zonas[zona(pedido)].registrar(relacion, entregado);
+                    repartoGeneral.registrar(relacion, entregado);
+                }
+                if (!Double.isNaN(km)) {
+                    recta.registrar(km, reparto, entregado);
+                }
+                observacionesReparto.increment();
+            }
+        }
+    }
+
+    /** Estima la entrega con el estado actual del pedido y la deja en él para la API. */
+    public void actualizar(Pedido pedido) {
+        if (!habilitada) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        EstimacionEntrega estimacion = estimar(pedido, pedido.getEstado(), System.currentTimeMillis());
+        latenciaNanos.registrar(System.nanoTime() - inicio);
+        estimaciones.increment();
+        if (estimacion == null) {
+            sinDatos.increment();
+            pedido.setEntregaEstimada(0, 0);
+        } else {
+            pedido.setEntregaEstimada(estimacion.medianaEn(), estimacion.p90En());
+        }
+    }
+
+    /**
+     * Hora estimada de entrega de un pedido en {@code estado} a la hora
+     * {@code ahora}.
+     *
+     * @return null si el pedido ya se entregó, si la estimación está
+     *         deshabilitada o si todavía no hay observaciones
+     */
+    public EstimacionEntrega estimar(Pedido pedido, Pedido.Estado estado, long ahora) {
+        if (!habilitada || estado.esFinal()) {
+            return null;
+        }
+        long[] cocina = new long[2];
+        boolean antesDeListo = estado.ordinal() < Pedido.Estado.LISTO.ordinal();
+        if (antesDeListo && !elegir(cocina(pedido.getRestaurante(), false), cocinaGeneral, ahora)
+                .restantes(Math.max(0, ahora - pedido.getCreadoEn()), cocina)) {
+            return null;
+        }
+        RectaDecaida.Coeficientes coeficientes = recta.getCoeficientes();
+        if (coeficientes == null) {
+            return null;
+        }
+        double predicho = predicho(coeficientes, distancia(pedido));
+        long[] reparto = new long[2];
+        long listo = pedido.getEntradaEn(Pedido.Estado.LISTO);
+        long enReparto = antesDeListo || listo == 0 ? 0 : Math.max(0, ahora - listo);
+        BosquejoDecaido zona = elegir(zonas[zona(pedido)], repartoGeneral, ahora);
+        if (!zona.restantes(Math.round(enReparto * ESCALA / predicho), reparto)) {
+            return null;
+        }
+        reparto[0] = Math.round(reparto[0] * predicho / ESCALA);
+        reparto[1] = Math.round(reparto[1] * predicho / ESCALA);
+        long mediana = cocina[0] + reparto[0];
+        double margenCocina = cocina[1] - cocina[0];
+        double margenReparto = reparto[1] - reparto[0];
+        long margen = Math.round(Math.sqrt(margenCocina * margenCocina + margenReparto * margenReparto));
+        return new EstimacionEntrega(ahora + mediana, ahora + mediana + margen);
+    }
+
+    // Sin restaurante no hay distancia: vale la de un pedido promedio
+    private static double predicho(RectaDecaida.Coeficientes coeficientes, double km) {
+        return Math.max(MINIMO_PREDICHO_MS, coeficientes.valor(Double.isNaN(km) ? coeficientes.mediaX() : km));
+    }
+
+    /** Km del restaurante al destino, o NaN si el pedido no tiene restaurante. */
+    private static double distancia(Pedido pedido) {
+        Restaurante restaurante = pedido.getRestaurante();
+        if (restaurante == null) {
+            return Double.NaN;
+        }
+        return Geocodificador.ubicar(restaurante.getDireccion())
+                .distancia(Geocodificador.ubicar(pedido.getCliente().getDireccion()));
+    }
+
+    private BosquejoDecaido elegir(BosquejoDecaido propio, BosquejoDecaido general, long ahora) {
+        return propio != null && propio.getPeso(ahora) >= minimoObservaciones ? propio : general;
+    }
+
+    private BosquejoDecaido cocina(Restaurante restaurante, boolean crear) {
+        Long id = restaurante == null ? null : restaurante.getId();
+        if (id == null) {
+            return null;
+        }
+        BosquejoDecaido bosquejo = cocinas.get(id);
+        if (bosquejo != null || !crear || cocinas.size() >= maximoRestaurantes) {
+            return bosquejo;
+        }
+        return cocinas.computeIfAbsent(id, clave -> new BosquejoDecaido(vidaMediaMs));
+    }
+
+    private int zona(Pedido pedido) {
+        Punto destino = Geocodificador.ubicar(pedido.getCliente().getDireccion());
+        int x = Math.min(columnas - 1, (int) (destino.x() / zonaKm));
+        int y = Math.min(columnas - 1, (int) (destino.y() / zonaKm));
+        return x * columnas + y;
+    }
+
+    public void mostrarMetricas() {
+        System.out.println("\n⏱️ Estimación de entrega:");
+        if (!habilitada) {
+            System.out.println("Deshabilitada (delivery.estimacion.habilitada)");
+            return;
+        }
+        long ahora = System.currentTimeMillis();
+        int zonasConDatos = 0;
+        for (BosquejoDecaido zona : zonas) {
+            if (zona.getPeso(ahora) >= minimoObservaciones) {
+                zonasConDatos++;
+            }
+        }
+        int cocinasConDatos = 0;
+        for (BosquejoDecaido cocina : cocinas.values()) {
+            if (cocina.getPeso(ahora) >= minimoObservaciones) {
+                cocinasConDatos++;
+            }
+        }
+        System.out.println("Observaciones de cocina / reparto: " + observacionesCocina.sum() + " / "
+                + observacionesReparto.sum() + ", vida media de " + vidaMediaMs / 1000 + " s");
+        System.out.println("Restaurantes con modelo propio: " + cocinasConDatos + " de " + cocinas.size()
+                + ", zonas de " + zonaKm + " km con modelo propio: " + zonasConDatos + " de " + zonas.length);
+        RectaDecaida.Coeficientes coeficientes = recta.getCoeficientes();
+        System.out.println("Cocina general (mediana / p90 / media): " + resumen(cocinaGeneral) + ", reparto: "
+                + (coeficientes == null ? "sin datos" : segundos(Math.round(coeficientes.ordenada())) + " + "
+                + segundos(Math.round(coeficientes.pendiente())) + " por km"));
+        System.out.println("Estimaciones: " + estimaciones.sum() + " (" + sinDatos.sum() + " sin datos todavía), p50 / p99: "
+                + latenciaNanos.getPercentil(50) + " / " + latenciaNanos.getPercentil(99) + " ns");
+    }
+
+    private static String resumen(BosquejoDecaido bosquejo) {
+        long[] restantes = new long[2];
+        if (!bosquejo.restantes(0, restantes)) {
+            return "sin datos";
+        }
+        return segundos(restantes[0]) + " / " + segundos(restantes[1]) + " / " + segundos(Math.round(bosquejo.getMedia()));
+    }
+
+    private static String segundos(long ms) {
+        return String.format("%.1f s", ms / 1000.0);
+    }
+}
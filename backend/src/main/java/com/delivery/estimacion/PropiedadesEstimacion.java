@@ -0,0 +1,36 @@
+package com.delivery.estimacion;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estimación de la hora de entrega de los pedidos.
+ */
+@Component
+@ConfigurationProperties(prefix = "delivery.estimacion")
+public class PropiedadesEstimacion {
+    private boolean habilitada = true;
+    // Cada cuánto pierde la mitad de su peso una observación
+    private long vidaMediaMs = 3_600_000;
+    // Lado de las zonas de entrega en que se divide la ciudad
+    private double zonaKm = 2.0;
+    // Peso reciente que necesita un restaurante o una zona para usar su propio modelo en vez del general
+    private double minimoObservaciones = 5;
+    // Restaurantes con modelo propio; el resto usa el general
+    private int maximoRestaurantes = 10_000;
+
+    public boolean isHabilitada() { return habilitada; }
+    public void setHabilitada(boolean habilitada) { this.habilitada = habilitada; }
+
+    public long getVidaMediaMs() { return vidaMediaMs; }
+    public void setVidaMediaMs(long vidaMediaMs) { this.vidaMediaMs = vidaMediaMs; }
+
+    public double getZonaKm() { return zonaKm; }
+    public void setZonaKm(double zonaKm) { this.zonaKm = zonaKm; }
+
+    public double getMinimoObservaciones() { return minimoObservaciones; }
+    public void setMinimoObservaciones(double minimoObservaciones) { this.minimoObservaciones = minimoObservaciones; }
+
+    public int getMaximoRestaurantes() { return maximoRestaurantes; }
+    public void setMaximoRestaurantes(int maximoRestaurantes) { this.maximoRestaurantes = maximoRestaurantes; }
+}
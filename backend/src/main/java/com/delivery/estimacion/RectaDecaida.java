@@ -0,0 +1,67 @@
+package com.delivery.estimacion;
+
+/**
+ * Recta de mínimos cuadrados {@code y = a + b·x} ajustada en línea, con el
+ * mismo decaimiento hacia adelante que {@link BosquejoDecaido}. Se usa
+ * para el reparto, que depende sobre todo de la distancia: un tiempo fijo
+ * de retiro más un tanto por kilómetro. Los coeficientes se recalculan al
+ * registrar y se publican juntos, así que leerlos no bloquea.
+ */
+public class RectaDecaida {
+    private static final double EXPONENTE_MAXIMO = 40;
+
+    private final double tau;
+    private double sumaPesos;
+    private double sumaX;
+    private double sumaY;
+    private double sumaXX;
+    private double sumaXY;
+    private long base;
+    private volatile Coeficientes coeficientes;
+
+    public RectaDecaida(long vidaMediaMs) {
+        this.tau = vidaMediaMs / Math.log(2);
+    }
+
+    public synchronized void registrar(double x, double y, long ahora) {
+        if (sumaPesos == 0) {
+            base = ahora;
+        }
+        double exponente = (ahora - base) / tau;
+        if (exponente > EXPONENTE_MAXIMO) {
+            double factor = Math.exp(-exponente);
+            sumaPesos *= factor;
+            sumaX *= factor;
+            sumaY *= factor;
+            sumaXX *= factor;
+            sumaXY *= factor;
+            base = ahora;
+            exponente = 0;
+        }
+        double peso = Math.exp(exponente);
+        sumaPesos += peso;
+        sumaX += peso * x;
+        sumaY += peso * y;
+        sumaXX += peso * x * x;
+        sumaXY += peso * x * y;
+
+        double mediaX = sumaX / sumaPesos;
+        double mediaY = sumaY / sumaPesos;
+        double varianza = sumaXX / sumaPesos - mediaX * mediaX;
+        // Con todas las x casi iguales la pendiente no se puede estimar: queda la media
+        double pendiente = varianza > 1e-9 ? (sumaXY / sumaPesos - mediaX * mediaY) / varianza : 0;
+        coeficientes = new Coeficientes(mediaY - pendiente * mediaX, pendiente, mediaX);
+    }
+
+    /** null sin observaciones. */
+    public Coeficientes getCoeficientes() {
+        return coeficientes;
+    }
+
+    public record Coeficientes(double ordenada, double pendiente, double mediaX) {
+
+        public double valor(double x) {
+            return ordenada + pendiente * x;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.delivery.idempotencia;
+
+/**
+ * Llegó una clave de idempotencia ya usada, dentro de la ventana, con una
+ * solicitud distinta de la original. No es un reintento sino un error del
+ * cliente, así que no se le devuelve el resultado guardado.
+ */
+public class ClaveReutilizadaException extends RuntimeException {
+
+    public ClaveReutilizadaException(String clave) {
+        super("La clave de idempotencia ya se usó con otra solicitud: " + clave);
+    }
+}
@@ -0,0 +1,115 @@
+package com.delivery.idempotencia;
+
+import com.delivery.model.Pedido;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Claves de idempotencia de la API ({@code Idempotency-Key}) para crear
+ * pedidos, confirmar el pedido en armado y cambiar estados: un cliente
+ * que reintenta porque no le llegó la respuesta recibe el resultado de la
+ * primera vez en lugar de crear otro pedido.
+ *
+ * <p>Con {@code delivery.idempotencia.persistir} la clave de los pedidos
+ * creados se guarda en su fila junto con la huella de la solicitud, y al
+ * arrancar se vuelven a cargar las que siguen dentro de la ventana: un
+ * reintento después de un reinicio tampoco duplica, y la misma clave con
+ * otra solicitud se sigue rechazando. Los cambios de estado solo se
+ * recuerdan en memoria.
+ */
+@Component
+@DependsOn("entityManagerFactory") // la tabla de pedidos la crea o valida Hibernate
+public class ServicioIdempotencia {
+    private static final String SQL_CLAVES =
+            "SELECT clave_idempotencia, id, creado_en, huella_idempotencia FROM pedidos WHERE clave_idempotencia IS NOT NULL AND creado_en >= ? "
+            + "ORDER BY creado_en";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${delivery.idempotencia.ventana-ms:86400000}")
+    private long ventanaMs;
+
+    @Value("${delivery.idempotencia.maximo:100000}")
+    private int maximo;
+
+    @Value("${delivery.idempotencia.persistir:false}")
+    private boolean persistir;
+
+    private VentanaDeduplicacion<Object> ventana;
+    private int cargadas;
+
+    @PostConstruct
+    void iniciar() {
+        ventana = new VentanaDeduplicacion<>(ventanaMs, maximo);
+        if (persistir) {
+            jdbcTemplate.query(SQL_CLAVES, fila -> {
+                ventana.recordar(fila.getString(1), fila.getLong(2), fila.getLong(3), fila.getString(4));
+                cargadas++;
+            }, System.currentTimeMillis() - ventanaMs);
+        }
+    }
+
+    /**
+     * @param clave ya con su alcance (operación y, si corresponde, usuario o pedido)
+     * @see VentanaDeduplicacion#ejecutar
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T ejecutar(String clave, Object huella, Supplier<T> operacion) {
+        // Cada alcance guarda siempre el mismo tipo, así que el resultado vuelve con el tipo con que se guardó
+        return (T) ventana.ejecutar(clave, huella, (Supplier<Object>) operacion);
+    }
+
+    /**
+     * SHA-256 en hexadecimal del JSON de la solicitud. A diferencia de
+     * {@code hashCode}, dos solicitudes distintas no comparten huella en
+     * la práctica, y la misma solicitud da la misma huella en cualquier
+     * arranque, así se puede guardar con la clave.
+     */
+    public String huella(Object solicitud) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(objectMapper.writeValueAsBytes(solicitud)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la solicitud", e);
+        }
+    }
+
+    /**
+     * Deja la clave y la huella en el pedido para que se escriban con él,
+     * si está activada la persistencia.
+     *
+     * @param huella la de {@link #huella}, o null si la clave no compara solicitudes
+     */
+    public void asociar(Pedido pedido, String clave, String huella) {
+        if (persistir) {
+            pedido.setClaveIdempotencia(clave);
+            pedido.setHuellaIdempotencia(huella);
+        }
+    }
+
+    public void mostrarMetricas() {
+        System.out.println("\n🔁 Idempotencia:");
+        System.out.println("Claves recordadas: " + ventana.getTamano() + " / " + ventana.getMaximo()
+                + ", ventana de " + ventana.getVentanaMs() / 1000 + " s"
+                + (persistir ? ", " + cargadas + " cargadas de la base al arrancar" : ", solo en memoria"));
+        System.out.println("Ejecutadas / reintentos con resultado guardado / reintentos que esperaron: "
+                + ventana.getEjecuciones() + " / " + ventana.getAciertos() + " / " + ventana.getEsperas());
+        System.out.println("Claves reusadas con otra solicitud / desalojadas: " + ventana.getConflictos() + " / "
+                + ventana.getDesalojos());
+    }
+}
@@ -0,0 +1,208 @@
+package com.delivery.idempotencia;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Recuerda el resultado de cada operación por su clave durante una
+ * ventana de tiempo, para que un reintento devuelva lo mismo que la
+ * primera vez en lugar de repetirla. La primera llamada con una clave
+ * ejecuta la operación fuera de cualquier lock; las que llegan mientras
+ * tanto con la misma clave esperan ese resultado y las posteriores lo
+ * leen del mapa en O(1).
+ *
+ * <p>Si la operación falla la clave se olvida, así el reintento vuelve a
+ * ejecutarla. Las entradas salen por orden de llegada cuando vence su
+ * ventana o cuando hay más que el máximo; la limpieza la hace quien
+ * inserta, de a un hilo por vez. Para lo vencido nadie espera a quien
+ * está limpiando; pasado el máximo sí, así el mapa no crece más rápido de
+ * lo que se limpia.
+ */
+public class VentanaDeduplicacion<T> {
+    private final long ventanaMs;
+    private final int maximo;
+    private final LongSupplier reloj;
+    private final Map<String, Entrada<T>> entradas = new ConcurrentHashMap<>();
+    // Orden de llegada para desalojar; puede tener entradas que ya no están en el mapa, se saltean
+    private final Queue<Entrada<T>> orden = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger tamano = new AtomicInteger();
+    private final ReentrantLock limpieza = new ReentrantLock();
+
+    private final LongAdder ejecuciones = new LongAdder();
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder esperas = new LongAdder();
+    private final LongAdder conflictos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+
+    public VentanaDeduplicacion(long ventanaMs, int maximo) {
+        this(ventanaMs, maximo, System::currentTimeMillis);
+    }
+
+    public VentanaDeduplicacion(long ventanaMs, int maximo, LongSupplier reloj) {
+        if (ventanaMs <= 0 || maximo <= 0) {
+            throw new IllegalArgumentException("La ventana y el máximo tienen que ser positivos");
+        }
+        this.ventanaMs = ventanaMs;
+        this.maximo = maximo;
+        this.reloj = reloj;
+    }
+
+    /**
+     * Ejecuta la operación la primera vez que llega la clave y devuelve el
+     * mismo resultado, o la misma excepción si todavía está en curso, a
+     * las que lleguen después dentro de la ventana.
+     *
+     * @param huella identifica la solicitud; null no se compara
+     * @throws ClaveReutilizadaException si la clave se usó con otra huella
+     */
+    public T ejecutar(String clave, Object huella, Supplier<T> operacion) {
+        while (true) {
+            long ahora = reloj.getAsLong();
+            Entrada<T> existente = entradas.get(clave);
+            if (existente == null) {
+                Entrada<T> nueva = new Entrada<>(clave, huella, ahora);
+                if (entradas.putIfAbsent(clave, nueva) == null) {
+                    tamano.incrementAndGet();
+                    orden.add(nueva);
+                    desalojar(ahora);
+                    return correr(nueva, operacion);
+                }
+            } else if (!existente.vencida(ahora, ventanaMs) || !existente.resultado.isDone()) {
+                return reutilizar(existente, huella);
+            } else {
+                // Vencida: la clave vale como nueva y ocupa el mismo lugar en el mapa
+                Entrada<T> nueva = new Entrada<>(clave, huella, ahora);
+                if (entradas.replace(clave, existente, nueva)) {
+                    orden.add(nueva);
+                    return correr(nueva, operacion);
+                }
+            }
+            // Otro hilo insertó o reemplazó la clave entre medio: se vuelve a mirar
+        }
+    }
+
+    /**
+     * Carga un resultado ya conocido, por ejemplo leído de la base al
+     * arrancar. No pisa uno que ya esté.
+     *
+     * @param huella la de la solicitud original; null no se compara
+     */
+    public void recordar(String clave, T valor, long creada, Object huella) {
+        long ahora = reloj.getAsLong();
+        if (ahora - creada >= ventanaMs) {
+            return;
+        }
+        Entrada<T> entrada = new Entrada<>(clave, huella, creada);
+        entrada.resultado.complete(valor);
+        if (entradas.putIfAbsent(clave, entrada) == null) {
+            tamano.incrementAndGet();
+            orden.add(entrada);
+            desalojar(ahora);
+        }
+    }
+
+    private T correr(Entrada<T> entrada, Supplier<T> operacion) {
+        ejecuciones.increment();
+        T valor;
+        try {
+            valor = operacion.get();
+        } catch (RuntimeException | Error e) {
+            if (entradas.remove(entrada.clave, entrada)) {
+                tamano.decrementAndGet();
+            }
+            entrada.resultado.completeExceptionally(e);
+            throw e;
+        }
+        entrada.resultado.complete(valor);
+        return valor;
+    }
+
+    private T reutilizar(Entrada<T> entrada, Object huella) {
+        if (entrada.huella != null && huella != null && !entrada.huella.equals(huella)) {
+            conflictos.increment();
+            throw new ClaveReutilizadaException(entrada.clave);
+        }
+        if (entrada.resultado.isDone()) {
+            aciertos.increment();
+        } else {
+            esperas.increment();
+        }
+        try {
+            return entrada.resultado.join();
+        } catch (CompletionException e) {
+            // La misma excepción que recibió quien ejecutó, no envuelta
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private void desalojar(long ahora) {
+        Entrada<T> primera = orden.peek();
+        boolean lleno = tamano.get() > maximo;
+        if (!lleno && (primera == null || !primera.vencida(ahora, ventanaMs))) {
+            return;
+        }
+        // Pasado el máximo se espera el turno: si no, los hilos que insertan sin pausa pasan de largo
+        // mientras uno limpia y el mapa crece sin tope. Para lo vencido alcanza con lo que haga el otro
+        if (lleno) {
+            limpieza.lock();
+        } else if (!limpieza.tryLock()) {
+            return;
+        }
+        try {
+            while ((primera = orden.peek()) != null) {
+                boolean vigente = entradas.get(primera.clave) == primera;
+                if (vigente && tamano.get() <= maximo && !primera.vencida(ahora, ventanaMs)) {
+                    break;
+                }
+                orden.poll();
+                if (vigente && entradas.remove(primera.clave, primera)) {
+                    tamano.decrementAndGet();
+                    desalojos.increment();
+                }
+            }
+        } finally {
+            limpieza.unlock();
+        }
+    }
+
+    public int getTamano() { return tamano.get(); }
+    public int getMaximo() { return maximo; }
+    public long getVentanaMs() { return ventanaMs; }
+    public long getEjecuciones() { return ejecuciones.sum(); }
+    public long getAciertos() { return aciertos.sum(); }
+    public long getEsperas() { return esperas.sum(); }
+    public long getConflictos() { return conflictos.sum(); }
+    public long getDesalojos() { return desalojos.sum(); }
+
+    private static final class Entrada<T> {
+        private final String clave;
+        private final Object huella;
+        private final long creada;
+        private final CompletableFuture<T> resultado = new CompletableFuture<>();
+
+        private Entrada(String clave, Object huella, long creada) {
+            this.clave = clave;
+            this.huella = huella;
+            this.creada = creada;
+        }
+
+        private boolean vencida(long ahora, long ventanaMs) {
+            return ahora - creada >= ventanaMs;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.delivery.ingesta;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formatos aceptados por la ingesta. Cada uno sabe dónde termina un
+ * registro, así el hilo lector corta la entrada en bloques sin
+ * decodificarla, y cómo decodificar un registro ya cortado.
+ *
+ * <p>Formato binario, todo big-endian: largo del resto del registro (int),
+ * id de restaurante (long, 0 si no tiene), nombre, teléfono y dirección
+ * del cliente (short con el largo, -1 si falta, y los bytes UTF-8),
+ * cantidad de items (byte) y por cada item el id del plato, la cantidad y
+ * la cantidad de extras (un byte cada uno) seguidos de los ids de extra.
+ */
+public enum FormatoIngesta {
+    NDJSON("application/x-ndjson") {
+        @Override
+        int finDeRegistro(byte[] datos, int desde, int hasta) {
+            for (int i = desde; i < hasta; i++) {
+                if (datos[i] == '\n') {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        int finDeEntrada(byte[] datos, int desde, int hasta) {
+            // La última línea puede venir sin salto final
+            return hasta;
+        }
+
+        @Override
+        SolicitudIngesta leer(ObjectReader json, byte[] datos, int desde, int hasta) throws IOException {
+            return json.readValue(datos, desde, hasta - desde);
+        }
+
+        @Override
+        boolean vacio(byte[] datos, int desde, int hasta) {
+            for (int i = desde; i < hasta; i++) {
+                if (datos[i] != ' ' && datos[i] != '\t' && datos[i] != '\r' && datos[i] != '\n') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    },
+
+    BINARIO("application/octet-stream") {
+        @Override
+        int finDeRegistro(byte[] datos, int desde, int hasta) {
+            if (hasta - desde < 4) {
+                return -1;
+            }
+            int largo = ByteBuffer.wrap(datos, desde, 4).getInt();
+            if (largo <= 0) {
+                // Sin un largo válido no hay forma de encontrar el registro siguiente
+                throw new IllegalArgumentException("Largo de registro inválido: " + largo);
+            }
+            long fin = (long) desde + 4 + largo;
+            return fin <= hasta ? (int) fin : -1;
+        }
+
+        @Override
+        int finDeEntrada(byte[] datos, int desde, int hasta) {
+            throw new IllegalArgumentException("Registro binario cortado al final de la entrada");
+        }
+
+        @Override
+        SolicitudIngesta leer(ObjectReader json, byte[] datos, int desde, int hasta) {
+            ByteBuffer buffer = ByteBuffer.wrap(datos, desde + 4, hasta - desde - 4);
+            long restauranteId = buffer.getLong();
+            SolicitudIngesta.ClienteIngesta cliente = new SolicitudIngesta.ClienteIngesta(
+                    leerTexto(buffer), leerTexto(buffer), leerTexto(buffer));
+            int cantidadItems = Byte.toUnsignedInt(buffer.get());
+            List<SolicitudIngesta.ItemIngesta> items = new ArrayList<>(cantidadItems);
+            for (int i = 0; i < cantidadItems; i++) {
+                int productoId = Byte.toUnsignedInt(buffer.get());
+                int cantidad = Byte.toUnsignedInt(buffer.get());
+                int cantidadExtras = Byte.toUnsignedInt(buffer.get());
+                List<Integer> extras = new ArrayList<>(cantidadExtras);
+                for (int j = 0; j < cantidadExtras; j++) {
+                    extras.add(Byte.toUnsignedInt(buffer.get()));
+                }
+                items.add(new SolicitudIngesta.ItemIngesta(productoId, extras, cantidad));
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Sobran " + buffer.remaining() + " bytes al final del registro");
+            }
+            return new SolicitudIngesta(cliente, restauranteId == 0 ? null : restauranteId, null, items);
+        }
+
+        @Override
+        boolean vacio(byte[] datos, int desde, int hasta) {
+            return false;
+        }
+    };
+
+    private final String tipoContenido;
+
+    FormatoIngesta(String tipoContenido) {
+        this.tipoContenido = tipoContenido;
+    }
+
+    /**
+     * Posición siguiente al registro que empieza en {@code desde}, o -1 si
+     * el registro no termina antes de {@code hasta}.
+     *
+     * @throws IllegalArgumentException si la entrada está dañada y no se
+     *         puede seguir cortando
+     */
+    abstract int finDeRegistro(byte[] datos, int desde, int hasta);
+
+    /** Qué hacer con los bytes que quedan sin cortar cuando se terminó la entrada. */
+    abstract int finDeEntrada(byte[] datos, int desde, int hasta);
+
+    /**
+     * @throws IOException o IllegalArgumentException si el registro no se
+     *         puede decodificar; solo se rechaza ese registro
+     */
+    abstract SolicitudIngesta leer(ObjectReader json, byte[] datos, int desde, int hasta) throws IOException;
+
+    /** Registros que se saltean sin contarlos como error, como las líneas en blanco. */
+    abstract boolean vacio(byte[] datos, int desde, int hasta);
+
+    public String getTipoContenido() { return tipoContenido; }
+
+    public static FormatoIngesta porNombre(String nombre) {
+        for (FormatoIngesta formato : values()) {
+            if (formato.name().equalsIgnoreCase(nombre) || formato.tipoContenido.equalsIgnoreCase(nombre)) {
+                return formato;
+            }
+        }
+        throw new IllegalArgumentException("Formato desconocido: " + nombre);
+    }
+
+    /** Escribe la solicitud en formato binario. */
+    public static void escribirBinario(DataOutputStream salida, SolicitudIngesta solicitud) throws IOException {
+        if (solicitud.items().size() > 255) {
+            throw new IllegalArgumentException("El formato binario admite hasta 255 items por pedido");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(largoBinario(solicitud));
+        buffer.putInt(buffer.capacity() - 4);
+        buffer.putLong(solicitud.restaurantId() == null ? 0 : solicitud.restaurantId());
+        SolicitudIngesta.ClienteIngesta cliente = solicitud.customer();
+        escribirTexto(buffer, cliente == null ? null : cliente.name());
+        escribirTexto(buffer, cliente == null ? null : cliente.phone());
+        escribirTexto(buffer, solicitud.deliveryAddress() != null || cliente == null
+                ? solicitud.deliveryAddress() : cliente.address());
+        buffer.put((byte) solicitud.items().size());
+        for (SolicitudIngesta.ItemIngesta item : solicitud.items()) {
+            List<Integer> extras = item.extraIds() == null ? List.of() : item.extraIds();
+            buffer.put((byte) item.productId());
+            buffer.put((byte) (item.quantity() == null ? 1 : item.quantity()));
+            buffer.put((byte) extras.size());
+            for (Integer extra : extras) {
+                buffer.put(extra.byteValue());
+            }
+        }
+        salida.write(buffer.array());
+    }
+
+    private static int largoBinario(SolicitudIngesta solicitud) {
+        SolicitudIngesta.ClienteIngesta cliente = solicitud.customer();
+        int largo = 4 + 8 + 1 + 3 * 2;
+        if (cliente != null) {
+            largo += largoTexto(cliente.name()) + largoTexto(cliente.phone())
+                    + largoTexto(solicitud.deliveryAddress() != null ? solicitud.deliveryAddress() : cliente.address());
+        }
+        for (SolicitudIngesta.ItemIngesta item : solicitud.items()) {
+            largo += 3 + (item.extraIds() == null ? 0 : item.extraIds().size());
+        }
+        return largo;
+    }
+
+    private static int largoTexto(String texto) {
+        return texto == null ? 0 : texto.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static void escribirTexto(ByteBuffer buffer, String texto) {
+        if (texto == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Texto de " + bytes.length + " bytes, el máximo es " + Short.MAX_VALUE);
+        }
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String leerTexto(ByteBuffer buffer) {
+        int largo = buffer.getShort();
+        if (largo < 0) {
+            return null;
+        }
+        String texto = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), largo, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + largo);
+        return texto;
+    }
+}
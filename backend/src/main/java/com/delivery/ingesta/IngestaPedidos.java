@@ -0,0 +1,278 @@
+package com.delivery.ingesta;
+
+import com.delivery.catalogo.CatalogoCache;
+import com.delivery.decorator.Menu;
+import com.delivery.ingesta.LectorBloques.Bloque;
+import com.delivery.ingesta.ResultadoIngesta.ErrorIngesta;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Producto;
+import com.delivery.model.Restaurante;
+import com.delivery.service.PedidoService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Carga masiva de pedidos para integraciones. La entrada pasa por tres
+ * etapas encadenadas: el hilo que importa la corta en bloques de registros,
+ * un grupo de hilos decodifica, valida y arma cada bloque en paralelo, y el
+ * mismo hilo que importa registra los pedidos de cada bloque en orden, de a
+ * un lote por bloque. Un registro inválido se informa con su número y no
+ * detiene la carga.
+ */
+@Component
+public class IngestaPedidos {
+    // Los mismos límites valen para los pedidos que llegan por la API de a uno
+    public static final int MAXIMO_CANTIDAD = 99;
+    public static final int MAXIMO_ITEMS = 200;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private CatalogoCache catalogoCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 0 = uno por procesador
+    @Value("${delivery.ingesta.hilos:0}")
+    private int hilos;
+
+    @Value("${delivery.ingesta.tamano-bloque-kb:256}")
+    private int tamanoBloqueKb;
+
+    @Value("${delivery.ingesta.maximo-errores:1000}")
+    private int maximoErrores;
+
+    private ExecutorService trabajadores;
+    private ObjectReader json;
+
+    private final LongAdder ingestas = new LongAdder();
+    private final LongAdder aceptados = new LongAdder();
+    private final LongAdder rechazados = new LongAdder();
+    private volatile ResultadoIngesta ultima;
+
+    @PostConstruct
+    void iniciar() {
+        if (hilos <= 0) {
+            hilos = Runtime.getRuntime().availableProcessors();
+        }
+        AtomicInteger contador = new AtomicInteger();
+        trabajadores = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "ingesta-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        json = objectMapper.readerFor(SolicitudIngesta.class);
+    }
+
+    @PreDestroy
+    void detener() {
+        trabajadores.shutdownNow();
+    }
+
+    /** Importa y registra los pedidos de la entrada. */
+    public ResultadoIngesta importar(InputStream entrada, FormatoIngesta formato) throws IOException {
+        return importar(entrada, formato, pedidoService::registrarLote);
+    }
+
+    /**
+     * Importa los pedidos de la entrada y entrega cada lote válido a
+     * {@code destino}, siempre desde el hilo que llama y en el orden de la
+     * entrada. Mientras se registra un lote, los siguientes ya se están
+     * validando; a lo sumo hay dos bloques por hilo en vuelo.
+     */
+    public ResultadoIngesta importar(InputStream entrada, FormatoIngesta formato, Consumer<List<Pedido>> destino)
+            throws IOException {
+        long inicio = System.nanoTime();
+        LectorBloques lector = new LectorBloques(entrada, formato, tamanoBloqueKb * 1024);
+        Deque<CompletableFuture<Lote>> enVuelo = new ArrayDeque<>();
+        Acumulado acumulado = new Acumulado();
+        Bloque bloque;
+        while ((bloque = lector.siguiente()) != null) {
+            Bloque actual = bloque;
+            enVuelo.addLast(CompletableFuture.supplyAsync(() -> procesar(formato, actual), trabajadores));
+            if (enVuelo.size() >= 2 * hilos) {
+                acumulado.guardar(enVuelo.pollFirst().join(), destino);
+            }
+        }
+        while (!enVuelo.isEmpty()) {
+            acumulado.guardar(enVuelo.pollFirst().join(), destino);
+        }
+        if (lector.getError() != null) {
+            acumulado.rechazar(lector.getError());
+        }
+
+        ResultadoIngesta resultado = new ResultadoIngesta(acumulado.aceptados, acumulado.rechazados,
+                List.copyOf(acumulado.errores), System.nanoTime() - inicio);
+        ingestas.increment();
+        aceptados.add(resultado.aceptados());
+        rechazados.add(resultado.rechazados());
+        ultima = resultado;
+        return resultado;
+    }
+
+    private Lote procesar(FormatoIngesta formato, Bloque bloque) {
+        Lote lote = new Lote(bloque.cantidad());
+        byte[] datos = bloque.datos();
+        int[] limites = bloque.limites();
+        for (int i = 0; i < bloque.cantidad(); i++) {
+            if (formato.vacio(datos, limites[i], limites[i + 1])) {
+                continue;
+            }
+            try {
+                lote.pedidos.add(armar(formato.leer(json, datos, limites[i], limites[i + 1])));
+            } catch (IOException | RuntimeException e) {
+                lote.rechazados++;
+                if (lote.errores.size() < maximoErrores) {
+                    lote.errores.add(new ErrorIngesta(bloque.primerNumero() + i, mensaje(e)));
+                }
+            }
+        }
+        return lote;
+    }
+
+    /**
+     * Valida la solicitud y arma el pedido con los productos decorados del
+     * menú. El precio final lo fija el motor de precios al registrarlo.
+     *
+     * @throws IllegalArgumentException si la solicitud no es válida
+     */
+    Pedido armar(SolicitudIngesta solicitud) {
+        SolicitudIngesta.ClienteIngesta datosCliente = solicitud.customer();
+        if (datosCliente == null || datosCliente.name() == null || datosCliente.name().isBlank()) {
+            throw new IllegalArgumentException("Falta el cliente");
+        }
+        String direccion = solicitud.deliveryAddress() != null ? solicitud.deliveryAddress() : datosCliente.address();
+        if (direccion == null || direccion.isBlank()) {
+            throw new IllegalArgumentException("Falta la dirección de entrega");
+        }
+        List<SolicitudIngesta.ItemIngesta> items = solicitud.items();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("El pedido no tiene items");
+        }
+        Restaurante restaurante = null;
+        if (solicitud.restaurantId() != null) {
+            restaurante = catalogoCache.buscarRestaurante(solicitud.restaurantId())
+                    .orElseThrow(() -> new IllegalArgumentException("Restaurante no encontrado: " + solicitud.restaurantId()));
+        }
+
+        // Se valida todo antes de armar, así un pedido inválido no crea productos
+        int total = 0;
+        for (SolicitudIngesta.ItemIngesta item : items) {
+            if (!Menu.esProductoValido(item.productId())) {
+                throw new IllegalArgumentException("Producto inválido: " + item.productId());
+            }
+            if (item.extraIds() != null) {
+                for (Integer extraId : item.extraIds()) {
+                    if (extraId == null || !Menu.esExtraValido(extraId)) {
+                        throw new IllegalArgumentException("Extra inválido: " + extraId);
+                    }
+                }
+            }
+            int cantidad = item.quantity() == null ? 1 : item.quantity();
+            if (cantidad < 1 || cantidad > MAXIMO_CANTIDAD) {
+                throw new IllegalArgumentException("Cantidad inválida: " + cantidad);
+            }
+            total += cantidad;
+        }
+        if (total > MAXIMO_ITEMS) {
+            throw new IllegalArgumentException("El pedido tiene " + total + " items, el máximo es " + MAXIMO_ITEMS);
+        }
+
+        Cliente cliente = new Cliente(datosCliente.name(), datosCliente.phone(), direccion);
+        Pedido pedido = pedidoService.nuevoPedido(cliente, restaurante);
+        for (SolicitudIngesta.ItemIngesta item : items) {
+            Producto producto = Menu.crearProductoBase(item.productId());
+            if (item.extraIds() != null) {
+                for (Integer extraId : item.extraIds()) {
+                    producto = Menu.agregarExtra(producto, extraId);
+                }
+            }
+            int cantidad = item.quantity() == null ? 1 : item.quantity();
+            for (int i = 0; i < cantidad; i++) {
+                pedido.agregarItem(producto);
+            }
+        }
+        return pedido;
+    }
+
+    private static String mensaje(Exception e) {
+        if (e instanceof JsonProcessingException) {
+            return "JSON inválido: " + ((JsonProcessingException) e).getOriginalMessage();
+        }
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    public long getIngestas() { return ingestas.sum(); }
+    public long getAceptados() { return aceptados.sum(); }
+    public long getRechazados() { return rechazados.sum(); }
+
+    public void mostrarMetricas() {
+        System.out.println("\n📥 Ingesta de pedidos:");
+        System.out.println("Ingestas: " + getIngestas() + ", hilos: " + hilos + ", bloque: " + tamanoBloqueKb + " KB");
+        System.out.println("Pedidos aceptados / rechazados: " + getAceptados() + " / " + getRechazados());
+        ResultadoIngesta resultado = ultima;
+        if (resultado != null) {
+            System.out.println("Última: " + resultado.aceptados() + " pedidos en "
+                    + resultado.duracionNanos() / 1_000_000 + " ms (" + resultado.pedidosPorSegundo() + " pedidos/s)");
+        }
+    }
+
+    private static final class Lote {
+        private final List<Pedido> pedidos;
+        private final List<ErrorIngesta> errores = new ArrayList<>();
+        private int rechazados;
+
+        private Lote(int capacidad) {
+            this.pedidos = new ArrayList<>(capacidad);
+        }
+    }
+
+    // Solo lo toca el hilo que importa
+    private final class Acumulado {
+        private final List<ErrorIngesta> errores = new ArrayList<>();
+        private long aceptados;
+        private long rechazados;
+
+        private void guardar(Lote lote, Consumer<List<Pedido>> destino) {
+            if (!lote.pedidos.isEmpty()) {
+                destino.accept(lote.pedidos);
+            }
+            aceptados += lote.pedidos.size();
+            rechazados += lote.rechazados;
+            for (ErrorIngesta error : lote.errores) {
+                if (errores.size() < maximoErrores) {
+                    errores.add(error);
+                }
+            }
+        }
+
+        private void rechazar(ErrorIngesta error) {
+            rechazados++;
+            if (errores.size() < maximoErrores) {
+                errores.add(error);
+            }
+        }
+    }
+}
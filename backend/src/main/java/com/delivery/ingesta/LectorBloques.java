@@ -0,0 +1,112 @@
+package com.delivery.ingesta;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Corta la entrada en bloques de registros completos sin decodificarlos.
+ * Lo que queda de un registro al final de un bloque pasa al principio del
+ * siguiente; un registro más grande que el bloque lo agranda, hasta
+ * {@link #MAXIMO_BLOQUE}.
+ */
+final class LectorBloques {
+    static final int MAXIMO_BLOQUE = 16 * 1024 * 1024;
+
+    private final InputStream entrada;
+    private final FormatoIngesta formato;
+    private final int tamanoBloque;
+
+    private byte[] arrastre = new byte[0];
+    private long siguienteNumero = 1;
+    private boolean terminado;
+    private ResultadoIngesta.ErrorIngesta error;
+
+    LectorBloques(InputStream entrada, FormatoIngesta formato, int tamanoBloque) {
+        this.entrada = entrada;
+        this.formato = formato;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    /**
+     * @return el próximo bloque, o null si no hay más registros
+     */
+    Bloque siguiente() throws IOException {
+        int capacidad = tamanoBloque;
+        while (!terminado) {
+            byte[] datos = Arrays.copyOf(arrastre, Math.max(capacidad, arrastre.length));
+            int lleno = arrastre.length;
+            boolean finEntrada = false;
+            while (lleno < datos.length) {
+                int leidos = entrada.read(datos, lleno, datos.length - lleno);
+                if (leidos < 0) {
+                    finEntrada = true;
+                    break;
+                }
+                lleno += leidos;
+            }
+
+            int[] limites = new int[64];
+            int cantidad = 0;
+            int posicion = 0;
+            try {
+                int fin;
+                while ((fin = formato.finDeRegistro(datos, posicion, lleno)) >= 0) {
+                    limites = agregar(limites, cantidad++, posicion);
+                    posicion = fin;
+                }
+                if (finEntrada && posicion < lleno) {
+                    fin = formato.finDeEntrada(datos, posicion, lleno);
+                    limites = agregar(limites, cantidad++, posicion);
+                    posicion = fin;
+                }
+            } catch (IllegalArgumentException e) {
+                // Entrada dañada: se entregan los registros ya cortados y no se sigue leyendo
+                error = new ResultadoIngesta.ErrorIngesta(siguienteNumero + cantidad, e.getMessage());
+                finEntrada = true;
+            }
+
+            if (cantidad == 0 && !finEntrada) {
+                // Un solo registro no entra en el bloque
+                if (capacidad >= MAXIMO_BLOQUE) {
+                    error = new ResultadoIngesta.ErrorIngesta(siguienteNumero,
+                            "Registro de más de " + MAXIMO_BLOQUE + " bytes");
+                    terminado = true;
+                    return null;
+                }
+                arrastre = Arrays.copyOf(datos, lleno);
+                capacidad *= 2;
+                continue;
+            }
+            arrastre = finEntrada ? new byte[0] : Arrays.copyOfRange(datos, posicion, lleno);
+            terminado = finEntrada;
+            if (cantidad == 0) {
+                return null;
+            }
+            limites = agregar(limites, cantidad, posicion);
+            Bloque bloque = new Bloque(datos, limites, cantidad, siguienteNumero);
+            siguienteNumero += cantidad;
+            return bloque;
+        }
+        return null;
+    }
+
+    /** Error que cortó la lectura antes del final, o null si se leyó todo. */
+    ResultadoIngesta.ErrorIngesta getError() {
+        return error;
+    }
+
+    private static int[] agregar(int[] limites, int indice, int valor) {
+        if (indice == limites.length) {
+            limites = Arrays.copyOf(limites, limites.length * 2);
+        }
+        limites[indice] = valor;
+        return limites;
+    }
+
+    /**
+     * Registros del bloque: el registro {@code i} va de {@code limites[i]}
+     * a {@code limites[i + 1]}.
+     */
+    record Bloque(byte[] datos, int[] limites, int cantidad, long primerNumero) {}
+}
@@ -0,0 +1,17 @@
+package com.delivery.ingesta;
+
+import java.util.List;
+
+/**
+ * Resumen de una ingesta. Los errores se guardan hasta un máximo, en el
+ * orden de la entrada; {@code rechazados} cuenta todos.
+ */
+public record ResultadoIngesta(long aceptados, long rechazados, List<ErrorIngesta> errores, long duracionNanos) {
+
+    /** {@code registro} es el número de línea en NDJSON o el número de registro en binario, desde 1. */
+    public record ErrorIngesta(long registro, String mensaje) {}
+
+    public long pedidosPorSegundo() {
+        return duracionNanos == 0 ? 0 : Math.round(aceptados / (duracionNanos / 1e9));
+    }
+}
@@ -0,0 +1,16 @@
+package com.delivery.ingesta;
+
+import java.util.List;
+
+/**
+ * Un pedido tal como llega en la ingesta, antes de validarlo. Los nombres
+ * de los campos son los mismos que en {@code POST /api/orders}, así una
+ * línea NDJSON es el mismo JSON que se manda para crear un pedido suelto.
+ */
+public record SolicitudIngesta(ClienteIngesta customer, Long restaurantId, String deliveryAddress,
+                               List<ItemIngesta> items) {
+
+    public record ClienteIngesta(String name, String phone, String address) {}
+
+    public record ItemIngesta(int productId, List<Integer> extraIds, Integer quantity) {}
+}
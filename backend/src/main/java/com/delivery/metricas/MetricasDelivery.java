@@ -0,0 +1,84 @@
+package com.delivery.metricas;
+
+import com.delivery.auth.ServicioAutenticacion;
+import com.delivery.difusion.CentralDifusion;
+import com.delivery.model.Pedido;
+import com.delivery.observer.DespachadorEventos;
+import com.delivery.observer.MetricasDespacho;
+import com.delivery.service.AlmacenPedidos;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publica en Micrometer los contadores que los componentes ya llevan con
+ * LongAdder (intentos de login, notificaciones a observadores, pedidos por
+ * estado). Micrometer los lee al consultarlos, así el camino caliente sigue
+ * siendo un increment() sin pasar por el registro. Las llamadas a los
+ * repositorios las mide Spring Boot como {@code spring.data.repository.invocations}.
+ */
+@Component
+public class MetricasDelivery implements MeterBinder {
+
+    @Autowired
+    private ServicioAutenticacion servicioAutenticacion;
+
+    @Autowired
+    private AlmacenPedidos almacenPedidos;
+
+    @Autowired
+    private CentralDifusion centralDifusion;
+
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        contador(registro, "delivery.login.intentos", "resultado", "exito",
+                servicioAutenticacion, ServicioAutenticacion::getExitos);
+        contador(registro, "delivery.login.intentos", "resultado", "fallo",
+                servicioAutenticacion, ServicioAutenticacion::getFallos);
+        contador(registro, "delivery.login.intentos", "resultado", "bloqueado",
+                servicioAutenticacion, ServicioAutenticacion::getBloqueos);
+        Gauge.builder("delivery.sesiones.activas", servicioAutenticacion, ServicioAutenticacion::getSesionesActivas)
+                .register(registro);
+
+        MetricasDespacho notificaciones = DespachadorEventos.getPredeterminado().getMetricas();
+        contador(registro, "delivery.observador.notificaciones", "resultado", "encolada",
+                notificaciones, MetricasDespacho::getEncolados);
+        contador(registro, "delivery.observador.notificaciones", "resultado", "entregada",
+                notificaciones, MetricasDespacho::getDespachados);
+        contador(registro, "delivery.observador.notificaciones", "resultado", "descartada",
+                notificaciones, MetricasDespacho::getDescartados);
+        contador(registro, "delivery.observador.notificaciones", "resultado", "coalescida",
+                notificaciones, MetricasDespacho::getCoalescidos);
+        contador(registro, "delivery.observador.notificaciones", "resultado", "error",
+                notificaciones, MetricasDespacho::getErrores);
+        Gauge.builder("delivery.observador.profundidad", notificaciones, MetricasDespacho::getProfundidad)
+                .description("Notificaciones encoladas sin entregar")
+                .register(registro);
+
+        Gauge.builder("delivery.difusion.suscripciones", centralDifusion, CentralDifusion::getSuscripciones)
+                .description("Conexiones SSE suscriptas a cambios de estado")
+                .register(registro);
+        contador(registro, "delivery.difusion.avisos", "resultado", "entregado",
+                centralDifusion, CentralDifusion::getEntregados);
+        contador(registro, "delivery.difusion.avisos", "resultado", "coalescido",
+                centralDifusion, CentralDifusion::getCoalescidos);
+        contador(registro, "delivery.difusion.descartados", "motivo", "lento",
+                centralDifusion, CentralDifusion::getDescartadosLentos);
+
+        for (Pedido.Estado estado : Pedido.Estado.values()) {
+            Gauge.builder("delivery.pedidos.activos", almacenPedidos, almacen -> almacen.contarPorEstado(estado))
+                    .tag("estado", estado.name())
+                    .register(registro);
+        }
+    }
+
+    private static <T> void contador(MeterRegistry registro, String nombre, String etiqueta, String valor,
+                                     T origen, ToDoubleFunction<T> lectura) {
+        FunctionCounter.builder(nombre, origen, lectura).tag(etiqueta, valor).register(registro);
+    }
+}
@@ -0,0 +1,143 @@
+package com.delivery.metricas;
+
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo que pasa cada pedido en cada estado, por restaurante. Se graba en
+ * histogramas HDR propios y Micrometer los lee al consultarlos: un
+ * {@code FunctionTimer} con cantidad y total, y un gauge por percentil
+ * ({@code delivery.pedido.tiempo.estado.percentile}, etiqueta {@code phi}).
+ * Un Timer de Micrometer con percentiles cuesta varias veces más por
+ * registro. Los histogramas de un restaurante se crean la primera vez que
+ * aparece; después registrar es buscar en un mapa y grabar, sin asignar.
+ */
+@Component
+public class MetricasPedidos {
+    public static final String TIEMPO_EN_ESTADO = "delivery.pedido.tiempo.estado";
+    private static final String OTROS = "otros";
+    private static final Pedido.Estado[] ESTADOS = Pedido.Estado.values();
+    private static final double[] PERCENTILES = { 0.5, 0.95, 0.99 };
+
+    // null si las métricas están deshabilitadas
+    private final MeterRegistry registro;
+    private final int maximoRestaurantes;
+    private final Map<Long, TiempoEstado[]> porRestaurante = new ConcurrentHashMap<>();
+    private final TiempoEstado[] otros;
+
+    @Autowired
+    public MetricasPedidos(MeterRegistry registro, PropiedadesMetricas propiedades) {
+        this(propiedades.isHabilitadas() ? registro : null, propiedades.getMaximoRestaurantes());
+    }
+
+    public MetricasPedidos(MeterRegistry registro, int maximoRestaurantes) {
+        this.registro = registro;
+        this.maximoRestaurantes = maximoRestaurantes;
+        this.otros = registro == null ? null : crearTiempos(OTROS);
+    }
+
+    /**
+     * Registra cuánto estuvo el pedido en {@code anterior}. Se llama después
+     * de aplicar el cambio, cuando el pedido ya tiene la hora de entrada a
+     * {@code nuevo}.
+     */
+    public void transicion(Pedido pedido, Pedido.Estado anterior, Pedido.Estado nuevo) {
+        if (registro == null || anterior == nuevo) {
+            return;
+        }
+        long duracion = pedido.getDuracionEn(anterior);
+        if (duracion >= 0) {
+            tiempos(pedido.getRestaurante())[anterior.ordinal()].registrar(duracion);
+        }
+    }
+
+    private TiempoEstado[] tiempos(Restaurante restaurante) {
+        Long id = restaurante == null ? null : restaurante.getId();
+        if (id == null) {
+            return otros;
+        }
+        TiempoEstado[] tiempos = porRestaurante.get(id);
+        if (tiempos != null) {
+            return tiempos;
+        }
+        // Cada restaurante suma varias series por estado: se acota la cardinalidad
+        if (porRestaurante.size() >= maximoRestaurantes) {
+            return otros;
+        }
+        return porRestaurante.computeIfAbsent(id, clave -> crearTiempos(clave.toString()));
+    }
+
+    private TiempoEstado[] crearTiempos(String restaurante) {
+        // ENTREGADO es final: nunca se sale de él
+        TiempoEstado[] tiempos = new TiempoEstado[ESTADOS.length - 1];
+        for (int i = 0; i < tiempos.length; i++) {
+            TiempoEstado tiempo = new TiempoEstado();
+            String estado = ESTADOS[i].name();
+            FunctionTimer.builder(TIEMPO_EN_ESTADO, tiempo, TiempoEstado::cantidad, TiempoEstado::totalMs,
+                            TimeUnit.MILLISECONDS)
+                    .description("Tiempo que pasa un pedido en cada estado")
+                    .tags("estado", estado, "restaurante", restaurante)
+                    .register(registro);
+            for (double percentil : PERCENTILES) {
+                Gauge.builder(TIEMPO_EN_ESTADO + ".percentile", tiempo, t -> t.percentilMs(percentil * 100))
+                        .tags("estado", estado, "restaurante", restaurante, "phi", String.valueOf(percentil))
+                        .baseUnit("milliseconds")
+                        .register(registro);
+            }
+            tiempos[i] = tiempo;
+        }
+        return tiempos;
+    }
+
+    public boolean isHabilitadas() {
+        return registro != null;
+    }
+
+    public void mostrarMetricas() {
+        System.out.println("\n⏱️ Tiempo por estado:");
+        if (registro == null) {
+            System.out.println("Deshabilitadas");
+            return;
+        }
+        for (int i = 0; i < ESTADOS.length - 1; i++) {
+            long cantidad = 0;
+            double totalMs = 0;
+            for (TiempoEstado[] tiempos : porRestaurante.values()) {
+                cantidad += tiempos[i].cantidad();
+                totalMs += tiempos[i].totalMs();
+            }
+            cantidad += otros[i].cantidad();
+            totalMs += otros[i].totalMs();
+            System.out.println(ESTADOS[i] + ": " + cantidad + " pedidos, promedio "
+                    + (cantidad == 0 ? 0 : Math.round(totalMs / cantidad)) + " ms");
+        }
+        int preparando = Pedido.Estado.PREPARANDO.ordinal();
+        porRestaurante.entrySet().stream()
+                .filter(entrada -> entrada.getValue()[preparando].cantidad() > 0)
+                .sorted(Comparator.comparingDouble((Map.Entry<Long, TiempoEstado[]> entrada) ->
+                        entrada.getValue()[preparando].promedioMs()).reversed())
+                .limit(5)
+                .forEach(entrada -> System.out.println("🍳 Restaurante " + entrada.getKey() + " en PREPARANDO: "
+                        + percentiles(entrada.getValue()[preparando])));
+    }
+
+    private static String percentiles(TiempoEstado tiempo) {
+        StringBuilder texto = new StringBuilder();
+        texto.append(tiempo.cantidad()).append(" pedidos");
+        for (double percentil : PERCENTILES) {
+            texto.append(", p").append(Math.round(percentil * 100)).append(' ')
+                    .append(tiempo.percentilMs(percentil * 100)).append(" ms");
+        }
+        return texto.toString();
+    }
+}
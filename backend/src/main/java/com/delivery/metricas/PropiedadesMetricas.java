@@ -0,0 +1,21 @@
+package com.delivery.metricas;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas de tiempos por estado de los pedidos.
+ */
+@Component
+@ConfigurationProperties(prefix = "delivery.metricas")
+public class PropiedadesMetricas {
+    private boolean habilitadas = true;
+    // Restaurantes con timers propios; el resto comparte la etiqueta "otros"
+    private int maximoRestaurantes = 100;
+
+    public boolean isHabilitadas() { return habilitadas; }
+    public void setHabilitadas(boolean habilitadas) { this.habilitadas = habilitadas; }
+
+    public int getMaximoRestaurantes() { return maximoRestaurantes; }
+    public void setMaximoRestaurantes(int maximoRestaurantes) { this.maximoRestaurantes = maximoRestaurantes; }
+}
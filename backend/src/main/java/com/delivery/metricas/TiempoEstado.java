@@ -0,0 +1,51 @@
+package com.delivery.metricas;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histograma HDR del tiempo en un estado para un restaurante. Registrar es
+ * sin bloqueos ni asignaciones; al consultar se vuelca lo grabado desde la
+ * última consulta en un histograma acumulado.
+ */
+class TiempoEstado {
+    // 2 dígitos significativos: error menor al 1%
+    private static final int DIGITOS = 2;
+    // Rango fijo: sin redimensionar, grabar es un incremento atómico menos
+    private static final long MAXIMO_MS = TimeUnit.DAYS.toMillis(1);
+
+    private final Recorder grabador = new Recorder(1, MAXIMO_MS, DIGITOS);
+    private final Histogram acumulado = new Histogram(1, MAXIMO_MS, DIGITOS);
+    private Histogram intervalo;
+
+    void registrar(long duracionMs) {
+        grabador.recordValue(Math.min(duracionMs, MAXIMO_MS));
+    }
+
+    synchronized long cantidad() {
+        return volcar().getTotalCount();
+    }
+
+    synchronized double totalMs() {
+        Histogram histograma = volcar();
+        return histograma.getMean() * histograma.getTotalCount();
+    }
+
+    synchronized double promedioMs() {
+        return volcar().getMean();
+    }
+
+    /** @param percentil entre 0 y 100 */
+    synchronized long percentilMs(double percentil) {
+        return volcar().getValueAtPercentile(percentil);
+    }
+
+    private Histogram volcar() {
+        // Se recicla el histograma del intervalo anterior para no asignar en cada consulta
+        intervalo = grabador.getIntervalHistogram(intervalo);
+        acumulado.add(intervalo);
+        return acumulado;
+    }
+}
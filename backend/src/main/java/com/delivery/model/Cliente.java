@@ -1,10 +1,19 @@
 package com.delivery.model;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+@Embeddable
 public class Cliente {
+    @Column(name = "cliente_nombre")
     private String nombre;
+    @Column(name = "cliente_telefono")
     private String telefono;
+    @Column(name = "cliente_direccion")
     private String direccion;
 
+    protected Cliente() {}
+
     public Cliente(String nombre, String telefono, String direccion) {
         this.nombre = nombre;
         this.telefono = telefono;
@@ -21,4 +30,4 @@ public class Cliente {
         return String.format("Cliente: %s, Tel: %s, Dir: %s",
                            nombre, telefono, direccion);
     }
-}
\ No newline at end of file
+}
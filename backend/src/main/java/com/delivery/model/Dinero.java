@@ -0,0 +1,56 @@
+package com.delivery.model;
+
+/**
+ * Operaciones sobre montos representados como {@code long} de centavos.
+ * Los montos nunca se guardan como double; solo se convierten al mostrarlos
+ * o al exponerlos en la API.
+ */
+public final class Dinero {
+    private Dinero() {}
+
+    /** Convierte un monto decimal (por ejemplo 2.50) redondeando al centavo. */
+    public static long centavos(double monto) {
+        return Math.round(monto * 100);
+    }
+
+    public static double aDecimal(long centavos) {
+        return centavos / 100.0;
+    }
+
+    /**
+     * Agrega el monto con dos decimales y punto ("1234.50") trabajando solo
+     * con enteros: no pasa por double, no depende del locale y no crea
+     * objetos más allá de lo que crezca el destino.
+     */
+    public static StringBuilder escribir(StringBuilder destino, long centavos) {
+        long enteros = centavos / 100;
+        int resto = (int) Math.abs(centavos % 100);
+        if (centavos < 0 && enteros == 0) {
+            // -0.50: el signo no lo aporta la parte entera
+            destino.append('-');
+        }
+        destino.append(enteros).append('.');
+        if (resto < 10) {
+            destino.append('0');
+        }
+        return destino.append(resto);
+    }
+
+    public static String formatear(long centavos) {
+        return escribir(new StringBuilder(24), centavos).toString();
+    }
+
+    /**
+     * @throws ArithmeticException si el resultado no entra en un long
+     */
+    public static long sumar(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * @throws ArithmeticException si el resultado no entra en un long
+     */
+    public static long restar(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+}
@@ -0,0 +1,25 @@
+package com.delivery.model;
+
+import jakarta.persistence.Embeddable;
+
+/**
+ * Copia persistible de un {@link Producto} ya personalizado: guarda la
+ * descripción y el precio final, no la cadena de decoradores.
+ */
+@Embeddable
+public class ItemPedido {
+    private String descripcion;
+    private long precioCentavos;
+
+    protected ItemPedido() {}
+
+    public ItemPedido(String descripcion, long precioCentavos) {
+        this.descripcion = descripcion;
+        this.precioCentavos = precioCentavos;
+    }
+
+    // Getters
+    public String getDescripcion() { return descripcion; }
+    public long getPrecioCentavos() { return precioCentavos; }
+    public double getPrecio() { return Dinero.aDecimal(precioCentavos); }
+}
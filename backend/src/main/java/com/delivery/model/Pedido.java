@@ -1,65 +1,257 @@
 package com.delivery.model;
 
 import com.delivery.observer.Sujeto;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.util.ArrayList;
 import java.util.List;
 
+@Entity
+@Table(name = "pedidos")
 public class Pedido extends Sujeto {
     public enum Estado {
-        RECIBIDO, PREPARANDO, LISTO, EN_CAMINO, ENTREGADO
+        RECIBIDO, PREPARANDO, LISTO, EN_CAMINO, ENTREGADO;
+
+        private static final Estado[] TODOS = values();
+
+        public boolean esFinal() {
+            return this == ENTREGADO;
+        }
+
+        public Estado siguiente() {
+            return esFinal() ? this : TODOS[ordinal() + 1];
+        }
+
+        /** Solo se avanza de a un estado, o se repite el actual. */
+        public boolean puedeAvanzarA(Estado destino) {
+            return destino == this || destino.ordinal() == ordinal() + 1;
+        }
     }
 
+    // Lo asigna el almacén de pedidos al registrar el pedido
+    @Id
+    private Long id;
+
+    @Embedded
     private Cliente cliente;
+
+    @ManyToOne
+    @JoinColumn(name = "restaurante_id")
     private Restaurante restaurante;
+
+    @Transient
     private List<Producto> items;
+
+    @ElementCollection
+    @CollectionTable(name = "pedido_items", joinColumns = @JoinColumn(name = "pedido_id"))
+    @OrderColumn(name = "posicion")
+    private List<ItemPedido> lineas;
+
+    @Enumerated(EnumType.STRING)
     private Estado estado;
-    private double total;
+    // Total a cobrar, ya con el descuento de las promociones
+    private long totalCentavos;
+    private long descuentoCentavos;
+    private long creadoEn;
+    // Clave de idempotencia con que lo creó la API, si se guardan; null si no vino o no se guardan
+    private String claveIdempotencia;
+    // Huella de la solicitud que trajo esa clave, para reconocer un reuso después de un reinicio
+    private String huellaIdempotencia;
+    // Lo fija la cocina al admitir el pedido; 0 si todavía no pasó por cocina
+    @Transient
+    private volatile long listoEstimadoEn;
+    // Los fija el estimador de entrega en cada cambio: mediana y percentil 90; 0 si no hay estimación
+    @Transient
+    private volatile long entregaEstimadaEn;
+    @Transient
+    private volatile long entregaEstimadaP90En;
+    // Momento en que entró a cada estado, por ordinal; 0 si no pasó por él
+    @Transient
+    private final long[] entradas = new long[Estado.TODOS.length];
+
+    protected Pedido() {
+        this.items = new ArrayList<>();
+        this.lineas = new ArrayList<>();
+    }
 
     public Pedido(Cliente cliente, Restaurante restaurante) {
+        this(cliente, restaurante, System.currentTimeMillis());
+    }
+
+    /** Para rehacer un pedido con su hora de creación original. */
+    public Pedido(Cliente cliente, Restaurante restaurante, long creadoEn) {
         this.cliente = cliente;
         this.restaurante = restaurante;
         this.items = new ArrayList<>();
+        this.lineas = new ArrayList<>();
         this.estado = Estado.RECIBIDO;
-        this.total = 0.0;
+        this.totalCentavos = 0;
+        this.creadoEn = creadoEn;
+        this.entradas[Estado.RECIBIDO.ordinal()] = creadoEn;
     }
 
+    /**
+     * Agrega el item y actualiza el total sin recorrer los items anteriores.
+     *
+     * @throws ArithmeticException si el total desborda
+     */
     public void agregarItem(Producto item) {
-        items.add(item);
-        calcularTotal();
+        // Se guarda la forma aplanada para no recorrer decoradores en cada consulta
+        Producto compilado = item.compilar();
+        long precio = compilado.getPrecioCentavos();
+        long nuevoTotal = Dinero.sumar(totalCentavos, precio);
+        items.add(compilado);
+        lineas.add(new ItemPedido(compilado.getDescripcion(), precio));
+        totalCentavos = nuevoTotal;
     }
 
+    /**
+     * Quita el item y resta su precio del total sin recorrer los demás. El
+     * descuento se había calculado con los items de antes y puede ya no
+     * valer, así que se anula; al registrar el pedido se vuelve a cotizar.
+     */
+    public void quitarItem(int indice) {
+        // Sin descuento el total es el subtotal menos el item
+        long nuevoTotal = Dinero.restar(Dinero.sumar(totalCentavos, descuentoCentavos),
+                items.get(indice).getPrecioCentavos());
+        items.remove(indice);
+        lineas.remove(indice);
+        totalCentavos = nuevoTotal;
+        descuentoCentavos = 0;
+    }
+
+    /**
+     * Recalcula el total desde cero. El total ya se mantiene al agregar y
+     * quitar items, así que solo hace falta para verificarlo.
+     */
     public void calcularTotal() {
-        this.total = items.stream()
-                         .mapToDouble(Producto::getPrecio)
-                         .sum();
+        long suma = 0;
+        for (Producto item : items) {
+            suma = Dinero.sumar(suma, item.getPrecioCentavos());
+        }
+        this.totalCentavos = Dinero.restar(suma, descuentoCentavos);
+    }
+
+    /**
+     * Reemplaza el precio de cada item, en el mismo orden, y fija el
+     * descuento total del pedido.
+     *
+     * @throws IllegalArgumentException si la cantidad de precios no coincide
+     */
+    public void aplicarPrecios(long[] precios, long descuento) {
+        if (precios.length != items.size()) {
+            throw new IllegalArgumentException("Se esperaban " + items.size() + " precios y llegaron " + precios.length);
+        }
+        long suma = 0;
+        for (int i = 0; i < precios.length; i++) {
+            Producto item = items.get(i);
+            if (item.getPrecioCentavos() != precios[i]) {
+                Producto nuevo = item.conPrecio(precios[i]);
+                items.set(i, nuevo);
+                lineas.set(i, new ItemPedido(nuevo.getDescripcion(), precios[i]));
+            }
+            suma = Dinero.sumar(suma, precios[i]);
+        }
+        this.descuentoCentavos = descuento;
+        this.totalCentavos = Dinero.restar(suma, descuento);
+    }
+
+    /** Descuento de un pedido rehecho desde la bitácora, con los items ya cargados. */
+    public void aplicarDescuento(long descuento) {
+        this.totalCentavos = Dinero.restar(Dinero.sumar(totalCentavos, descuentoCentavos), descuento);
+        this.descuentoCentavos = descuento;
     }
 
     public String verResumen() {
-        StringBuilder resumen = new StringBuilder();
-        resumen.append(String.format("Pedido para %s:\n", cliente.getNombre()));
+        return escribirResumen(new StringBuilder(48 + 32 * items.size())).toString();
+    }
+
+    /**
+     * Agrega el resumen al final de {@code destino}, que se puede reutilizar
+     * entre pedidos para no crear un buffer por resumen.
+     */
+    public StringBuilder escribirResumen(StringBuilder destino) {
+        destino.append("Pedido para ").append(cliente.getNombre()).append(":\n");
         for (Producto item : items) {
-            resumen.append(String.format("- %s: $%.2f\n",
-                                       item.getDescripcion(),
-                                       item.getPrecio()));
+            destino.append("- ").append(item.getDescripcion()).append(": $");
+            Dinero.escribir(destino, item.getPrecioCentavos()).append('\n');
+        }
+        if (descuentoCentavos > 0) {
+            destino.append("Descuento: -$");
+            Dinero.escribir(destino, descuentoCentavos).append('\n');
         }
-        resumen.append(String.format("Total: $%.2f", total));
-        return resumen.toString();
+        destino.append("Total: $");
+        return Dinero.escribir(destino, totalCentavos);
     }
 
-    public String confirmar() {
-        cambiarEstado(Estado.PREPARANDO);
-        return "Pedido confirmado. " + verResumen();
+    public void cambiarEstado(Estado nuevoEstado) {
+        cambiarEstado(nuevoEstado, System.currentTimeMillis());
     }
 
-    public void cambiarEstado(Estado nuevoEstado) {
+    /**
+     * Cambia el estado registrando {@code marca} como la hora de entrada.
+     * Repetir el estado actual no reinicia su hora.
+     */
+    public void cambiarEstado(Estado nuevoEstado, long marca) {
+        if (nuevoEstado != estado || entradas[nuevoEstado.ordinal()] == 0) {
+            entradas[nuevoEstado.ordinal()] = marca;
+        }
         this.estado = nuevoEstado;
         notificarObservadores();
     }
 
+    /** Hora (ms) en que el pedido entró al estado, o 0 si no pasó por él. */
+    public long getEntradaEn(Estado estado) {
+        return entradas[estado.ordinal()];
+    }
+
+    /**
+     * Cuánto estuvo el pedido en el estado, en ms, o -1 si todavía no pasó
+     * por él o no salió.
+     */
+    public long getDuracionEn(Estado estado) {
+        if (estado.esFinal()) {
+            return -1;
+        }
+        long entrada = entradas[estado.ordinal()];
+        long salida = entradas[estado.ordinal() + 1];
+        return entrada == 0 || salida == 0 ? -1 : salida - entrada;
+    }
+
     // Getters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
     public Cliente getCliente() { return cliente; }
     public Restaurante getRestaurante() { return restaurante; }
     public List<Producto> getItems() { return items; }
+    public List<ItemPedido> getLineas() { return lineas; }
     public Estado getEstado() { return estado; }
-    public double getTotal() { return total; }
-}
\ No newline at end of file
+    public long getTotalCentavos() { return totalCentavos; }
+    public double getTotal() { return Dinero.aDecimal(totalCentavos); }
+    public long getDescuentoCentavos() { return descuentoCentavos; }
+    public long getSubtotalCentavos() { return Dinero.sumar(totalCentavos, descuentoCentavos); }
+    public long getCreadoEn() { return creadoEn; }
+    public String getClaveIdempotencia() { return claveIdempotencia; }
+    public void setClaveIdempotencia(String claveIdempotencia) { this.claveIdempotencia = claveIdempotencia; }
+    public String getHuellaIdempotencia() { return huellaIdempotencia; }
+    public void setHuellaIdempotencia(String huellaIdempotencia) { this.huellaIdempotencia = huellaIdempotencia; }
+    public long getListoEstimadoEn() { return listoEstimadoEn; }
+    public void setListoEstimadoEn(long listoEstimadoEn) { this.listoEstimadoEn = listoEstimadoEn; }
+    public long getEntregaEstimadaEn() { return entregaEstimadaEn; }
+    public long getEntregaEstimadaP90En() { return entregaEstimadaP90En; }
+
+    public void setEntregaEstimada(long medianaEn, long p90En) {
+        this.entregaEstimadaEn = medianaEn;
+        this.entregaEstimadaP90En = p90En;
+    }
+}
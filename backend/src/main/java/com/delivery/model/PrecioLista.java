@@ -0,0 +1,52 @@
+package com.delivery.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Precio de un plato o de un extra. Sin restaurante es el precio general;
+ * con restaurante reemplaza al general solo en ese restaurante.
+ */
+@Entity
+@Table(name = "precios", uniqueConstraints = @UniqueConstraint(
+        name = "ux_precios_producto", columnNames = { "restauranteId", "tipo", "codigo" }))
+public class PrecioLista {
+    public enum Tipo { PLATO, EXTRA }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "precios_seq")
+    @SequenceGenerator(name = "precios_seq", sequenceName = "precios_seq", allocationSize = 50)
+    private Long id;
+
+    private Long restauranteId;
+    @Enumerated(EnumType.STRING)
+    private Tipo tipo;
+    // Id del plato o del extra, el mismo que usan la consola y el frontend
+    private int codigo;
+    private long precioCentavos;
+
+    protected PrecioLista() {}
+
+    public PrecioLista(Long restauranteId, Tipo tipo, int codigo, long precioCentavos) {
+        this.restauranteId = restauranteId;
+        this.tipo = tipo;
+        this.codigo = codigo;
+        this.precioCentavos = precioCentavos;
+    }
+
+    // Getters y Setters
+    public Long getId() { return id; }
+    public Long getRestauranteId() { return restauranteId; }
+    public Tipo getTipo() { return tipo; }
+    public int getCodigo() { return codigo; }
+
+    public long getPrecioCentavos() { return precioCentavos; }
+    public void setPrecioCentavos(long precioCentavos) { this.precioCentavos = precioCentavos; }
+}
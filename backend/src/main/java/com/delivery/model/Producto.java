@@ -2,17 +2,37 @@ package com.delivery.model;
 
 public abstract class Producto {
     protected String nombre;
-    protected double precioBase;
+    protected long precioBaseCentavos;
 
-    public Producto(String nombre, double precioBase) {
+    public Producto(String nombre, long precioBaseCentavos) {
         this.nombre = nombre;
-        this.precioBase = precioBase;
+        this.precioBaseCentavos = precioBaseCentavos;
     }
 
-    public abstract double getPrecio();
+    public abstract long getPrecioCentavos();
     public abstract String getDescripcion();
 
+    public double getPrecio() {
+        return Dinero.aDecimal(getPrecioCentavos());
+    }
+
+    /**
+     * Forma definitiva del producto para guardar en un pedido. Por defecto
+     * es el mismo producto; los decoradores la reemplazan por una versión
+     * aplanada con el precio ya calculado.
+     */
+    public Producto compilar() {
+        return this;
+    }
+
+    /**
+     * Copia del producto ya compilado con otro precio final, para cuando el
+     * motor de precios reemplaza el precio de lista.
+     */
+    public abstract Producto conPrecio(long precioCentavos);
+
     // Getters
     public String getNombre() { return nombre; }
-    public double getPrecioBase() { return precioBase; }
-}
\ No newline at end of file
+    public long getPrecioBaseCentavos() { return precioBaseCentavos; }
+    public double getPrecioBase() { return Dinero.aDecimal(precioBaseCentavos); }
+}
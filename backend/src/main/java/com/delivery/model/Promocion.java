@@ -0,0 +1,83 @@
+package com.delivery.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Regla de descuento sobre un pedido. Sin restaurante vale para todos.
+ *
+ * <ul>
+ *   <li>COMBO: por cada vez que el pedido trae todos los {@code platos}
+ *   juntos se descuentan {@code descuentoCentavos}.</li>
+ *   <li>HORA_FELIZ: entre {@code desdeMinuto} y {@code hastaMinuto} del día
+ *   (hora local, puede cruzar la medianoche; si son iguales, todo el día) se descuenta
+ *   {@code porcentaje} del precio de los {@code platos}, o de todos si no
+ *   se indican.</li>
+ * </ul>
+ */
+@Entity
+@Table(name = "promociones")
+public class Promocion {
+    public enum Tipo { COMBO, HORA_FELIZ }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "promociones_seq")
+    @SequenceGenerator(name = "promociones_seq", sequenceName = "promociones_seq", allocationSize = 50)
+    private Long id;
+
+    private String nombre;
+    @Enumerated(EnumType.STRING)
+    private Tipo tipo;
+    private Long restauranteId;
+    // Ids de plato separados por coma, por ejemplo "1,3"
+    private String platos;
+    private long descuentoCentavos;
+    private int porcentaje;
+    private int desdeMinuto;
+    private int hastaMinuto;
+    private boolean activa = true;
+
+    protected Promocion() {}
+
+    public static Promocion combo(String nombre, Long restauranteId, String platos, long descuentoCentavos) {
+        Promocion promocion = new Promocion(nombre, Tipo.COMBO, restauranteId, platos);
+        promocion.descuentoCentavos = descuentoCentavos;
+        return promocion;
+    }
+
+    public static Promocion horaFeliz(String nombre, Long restauranteId, String platos,
+                                      int porcentaje, int desdeMinuto, int hastaMinuto) {
+        Promocion promocion = new Promocion(nombre, Tipo.HORA_FELIZ, restauranteId, platos);
+        promocion.porcentaje = porcentaje;
+        promocion.desdeMinuto = desdeMinuto;
+        promocion.hastaMinuto = hastaMinuto;
+        return promocion;
+    }
+
+    private Promocion(String nombre, Tipo tipo, Long restauranteId, String platos) {
+        this.nombre = nombre;
+        this.tipo = tipo;
+        this.restauranteId = restauranteId;
+        this.platos = platos;
+    }
+
+    // Getters y Setters
+    public Long getId() { return id; }
+    public String getNombre() { return nombre; }
+    public Tipo getTipo() { return tipo; }
+    public Long getRestauranteId() { return restauranteId; }
+    public String getPlatos() { return platos; }
+    public long getDescuentoCentavos() { return descuentoCentavos; }
+    public int getPorcentaje() { return porcentaje; }
+    public int getDesdeMinuto() { return desdeMinuto; }
+    public int getHastaMinuto() { return hastaMinuto; }
+
+    public boolean isActiva() { return activa; }
+    public void setActiva(boolean activa) { this.activa = activa; }
+}
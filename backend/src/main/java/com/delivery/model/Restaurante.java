@@ -1,16 +1,31 @@
 package com.delivery.model;
 
+import com.delivery.catalogo.RestauranteListener;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// Proyección del listado; como consulta con nombre Hibernate la interpreta una sola vez
+@NamedQuery(name = "Restaurante.listarResumenes",
+        query = "select new com.delivery.repository.RestauranteResumen(r.id, r.nombre, r.descripcion) from Restaurante r order by r.id")
 @Table(name = "restaurantes")
+@EntityListeners(RestauranteListener.class)
 public class Restaurante {
+    // Secuencia en lugar de IDENTITY para que Hibernate pueda agrupar inserts en lotes
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "restaurantes_seq")
+    @SequenceGenerator(name = "restaurantes_seq", sequenceName = "restaurantes_seq", allocationSize = 50)
     private Long id;
 
     private String nombre;
@@ -1,29 +1,44 @@
 package com.delivery.model;
 
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "usuarios")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// Consultas con nombre en lugar de @Query: Spring Data vuelve a analizar el texto de un @Query en cada llamada
+@NamedQuery(name = "Usuario.findByNombreUsuario", query = "select u from Usuario u where u.nombreUsuario = ?1")
+@Table(name = "usuarios", indexes = @Index(name = "ux_usuarios_nombre_usuario", columnList = "nombreUsuario", unique = true))
 public class Usuario {
+    // Secuencia en lugar de IDENTITY para que Hibernate pueda agrupar inserts en lotes
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_seq")
+    @SequenceGenerator(name = "usuarios_seq", sequenceName = "usuarios_seq", allocationSize = 50)
     private Long id;
 
+    @Column(nullable = false, unique = true)
     private String nombreUsuario;
-    private String contrasena;
+    // Hash PBKDF2 con sal, nunca la contraseña en claro
+    private String contrasenaHash;
     private String nombre;
     private String email;
     private String telefono;
 
     public Usuario() {}
 
-    public Usuario(String nombreUsuario, String contrasena, String nombre, String email, String telefono) {
+    public Usuario(String nombreUsuario, String contrasenaHash, String nombre, String email, String telefono) {
         this.nombreUsuario = nombreUsuario;
-        this.contrasena = contrasena;
+        this.contrasenaHash = contrasenaHash;
         this.nombre = nombre;
         this.email = email;
         this.telefono = telefono;
@@ -36,8 +51,8 @@ public class Usuario {
     public String getNombreUsuario() { return nombreUsuario; }
     public void setNombreUsuario(String nombreUsuario) { this.nombreUsuario = nombreUsuario; }
 
-    public String getContrasena() { return contrasena; }
-    public void setContrasena(String contrasena) { this.contrasena = contrasena; }
+    public String getContrasenaHash() { return contrasenaHash; }
+    public void setContrasenaHash(String contrasenaHash) { this.contrasenaHash = contrasenaHash; }
 
     public String getNombre() { return nombre; }
     public void setNombre(String nombre) { this.nombre = nombre; }
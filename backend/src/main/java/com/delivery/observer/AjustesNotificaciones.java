@@ -0,0 +1,29 @@
+package com.delivery.observer;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aplica {@code delivery.notificaciones.*} al arrancar al despachador
+ * predeterminado, el que usan todos los pedidos.
+ */
+@Component
+public class AjustesNotificaciones {
+
+    // 0 = uno por procesador, con un mínimo de dos
+    @Value("${delivery.notificaciones.hilos:0}")
+    private int hilos;
+
+    @Value("${delivery.notificaciones.capacidad:256}")
+    private int capacidad;
+
+    @Value("${delivery.notificaciones.politica:BLOQUEAR}")
+    private PoliticaContrapresion politica;
+
+    @PostConstruct
+    public void aplicar() {
+        DespachadorEventos.getPredeterminado().configurar(
+                hilos > 0 ? hilos : DespachadorEventos.hilosPredeterminados(), capacidad, politica);
+    }
+}
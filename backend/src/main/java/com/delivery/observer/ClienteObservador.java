@@ -1,18 +1,62 @@
 package com.delivery.observer;
 
+import com.delivery.estimacion.EstimacionEntrega;
+import com.delivery.estimacion.EstimadorEntrega;
+import com.delivery.model.Dinero;
 import com.delivery.model.Pedido;
 
 public class ClienteObservador implements Observador {
-    private String nombre;
+    private final String nombre;
+    private final SalidaAsincrona salida;
+    // null si la notificación no lleva hora de entrega
+    private final EstimadorEntrega estimador;
 
     public ClienteObservador(String nombre) {
+        this(nombre, SalidaAsincrona.getPredeterminada(), null);
+    }
+
+    public ClienteObservador(String nombre, SalidaAsincrona salida) {
+        this(nombre, salida, null);
+    }
+
+    public ClienteObservador(String nombre, EstimadorEntrega estimador) {
+        this(nombre, SalidaAsincrona.getPredeterminada(), estimador);
+    }
+
+    public ClienteObservador(String nombre, SalidaAsincrona salida, EstimadorEntrega estimador) {
         this.nombre = nombre;
+        this.salida = salida;
+        this.estimador = estimador;
     }
 
     @Override
     public void actualizar(Pedido pedido) {
-        System.out.println("🔔 Notificación para " + nombre + ":");
-        System.out.println("Su pedido cambió al estado: " + pedido.getEstado());
-        System.out.println("Total del pedido: $" + String.format("%.2f", pedido.getTotal()));
+        actualizar(pedido, pedido.getEstado());
+    }
+
+    @Override
+    public void actualizar(Pedido pedido, Pedido.Estado estado) {
+        StringBuilder mensaje = SalidaAsincrona.buffer();
+        mensaje.append("🔔 Notificación para ").append(nombre).append(":\n")
+               .append("Su pedido cambió al estado: ").append(estado).append('\n')
+               .append("Total del pedido: $");
+        Dinero.escribir(mensaje, pedido.getTotalCentavos());
+        // Se estima con el estado de esta notificación, que puede ser anterior al actual si el despacho se atrasó
+        long ahora = System.currentTimeMillis();
+        EstimacionEntrega estimacion = estimador == null ? null : estimador.estimar(pedido, estado, ahora);
+        if (estimacion != null) {
+            mensaje.append("\nEntrega estimada en ");
+            escribirDuracion(mensaje, estimacion.medianaEn() - ahora).append(" (a más tardar en ");
+            escribirDuracion(mensaje, estimacion.p90En() - ahora).append(')');
+        }
+        salida.escribir(mensaje);
+    }
+
+    private static StringBuilder escribirDuracion(StringBuilder destino, long ms) {
+        long segundos = Math.max(0, (ms + 500) / 1000);
+        if (segundos < 120) {
+            return destino.append(segundos).append(" s");
+        }
+        return destino.append((segundos + 30) / 60).append(" min");
     }
-}
\ No newline at end of file
+}
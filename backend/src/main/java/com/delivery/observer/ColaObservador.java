@@ -0,0 +1,121 @@
+package com.delivery.observer;
+
+import com.delivery.model.Pedido;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cola acotada de un tipo de observador, compartida por todos los pedidos
+ * de un despachador: la capacidad es lo que puede acumular ese tipo de
+ * observador en total, no por pedido. Como mucho una tarea la drena a la
+ * vez, así cada observador recibe los eventos en el mismo orden en que se
+ * notificaron y un cliente nunca ve EN_CAMINO antes que LISTO. Un tipo de
+ * observador lento llena su propia cola sin frenar a los demás.
+ */
+class ColaObservador {
+    private static final int LOTE_MAXIMO = 64;
+
+    private final DespachadorEventos despachador;
+    private final PoliticaContrapresion politica;
+    private final BlockingQueue<Entrega> entregas;
+    // Solo para COALESCER_ULTIMO: último evento pendiente de cada observador de cada pedido
+    private final Map<Entrega, EventoPedido> ultimoPorPedido;
+    private final AtomicBoolean programada = new AtomicBoolean(false);
+
+    ColaObservador(DespachadorEventos despachador, int capacidad, PoliticaContrapresion politica) {
+        this.despachador = despachador;
+        this.politica = politica;
+        this.entregas = new ArrayBlockingQueue<>(capacidad);
+        this.ultimoPorPedido = politica == PoliticaContrapresion.COALESCER_ULTIMO ? new ConcurrentHashMap<>() : null;
+    }
+
+    void encolar(Observador observador, EventoPedido evento) throws InterruptedException {
+        MetricasDespacho metricas = despachador.getMetricas();
+        switch (politica) {
+            case BLOQUEAR:
+                entregas.put(new Entrega(observador, evento.getPedido(), evento));
+                metricas.registrarEncolado();
+                break;
+            case DESCARTAR_ANTIGUO:
+                Entrega entrega = new Entrega(observador, evento.getPedido(), evento);
+                while (!entregas.offer(entrega)) {
+                    if (entregas.poll() != null) {
+                        metricas.registrarDescartado();
+                    }
+                }
+                metricas.registrarEncolado();
+                break;
+            case COALESCER_ULTIMO:
+                // El evento queda en el mapa: la cola solo dice a quién y de qué pedido le toca
+                Entrega clave = new Entrega(observador, evento.getPedido(), null);
+                if (ultimoPorPedido.put(clave, evento) == null) {
+                    entregas.put(clave);
+                    metricas.registrarEncolado();
+                } else {
+                    metricas.registrarCoalescido();
+                }
+                break;
+        }
+        programar();
+    }
+
+    private void programar() {
+        if (programada.compareAndSet(false, true)) {
+            despachador.ejecutar(this::drenar);
+        }
+    }
+
+    private void drenar() {
+        try {
+            for (int i = 0; i < LOTE_MAXIMO; i++) {
+                Entrega entrega = entregas.poll();
+                if (entrega == null) {
+                    break;
+                }
+                EventoPedido evento = politica == PoliticaContrapresion.COALESCER_ULTIMO
+                        ? ultimoPorPedido.remove(entrega) : entrega.evento();
+                entregar(entrega.observador(), evento);
+            }
+        } finally {
+            programada.set(false);
+            // Si llegaron eventos mientras se drenaba, se vuelve a programar
+            if (!entregas.isEmpty()) {
+                programar();
+            }
+        }
+    }
+
+    private void entregar(Observador observador, EventoPedido evento) {
+        MetricasDespacho metricas = despachador.getMetricas();
+        try {
+            observador.actualizar(evento.getPedido(), evento.getEstado());
+        } catch (RuntimeException e) {
+            metricas.registrarError();
+            System.err.println("❌ Error notificando al observador: " + e.getMessage());
+        } finally {
+            metricas.registrarDespachado(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - evento.getCreadoNanos()));
+        }
+    }
+
+    /**
+     * Un evento para un observador. Con COALESCER_ULTIMO el evento es null y
+     * vive en {@code ultimoPorPedido}; dos entregas son la misma si son para
+     * el mismo observador y el mismo pedido, por identidad.
+     */
+    private record Entrega(Observador observador, Pedido pedido, EventoPedido evento) {
+        @Override
+        public boolean equals(Object otro) {
+            return otro instanceof Entrega entrega && entrega.observador == observador && entrega.pedido == pedido;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(observador) + System.identityHashCode(pedido);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.delivery.observer;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta las notificaciones de los observadores fuera del hilo que cambia
+ * el estado del pedido. Cada tipo de observador tiene una cola acotada
+ * ({@link ColaObservador}) compartida por todos los pedidos, así la
+ * capacidad y la política de contrapresión actúan sobre lo que se acumula
+ * en total. El ejecutor también es acotado: solo recibe la tarea que drena
+ * cada cola, como mucho una por tipo de observador.
+ */
+public class DespachadorEventos {
+    private static final int CAPACIDAD_PREDETERMINADA = 256;
+    // Tareas de vaciado en espera: una por tipo de observador, con mucho margen
+    private static final int TAREAS_MAXIMAS = 1024;
+
+    private final ThreadPoolExecutor ejecutor;
+    private volatile int capacidadPorObservador;
+    private volatile PoliticaContrapresion politica;
+    private volatile Map<Class<?>, ColaObservador> colas = new ConcurrentHashMap<>();
+    private final MetricasDespacho metricas = new MetricasDespacho();
+
+    public DespachadorEventos(int hilos, int capacidadPorObservador, PoliticaContrapresion politica) {
+        this.ejecutor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(TAREAS_MAXIMAS), new HilosNotificacion(), new DrenarEnOrigen());
+        this.capacidadPorObservador = capacidadPorObservador;
+        this.politica = politica;
+    }
+
+    private static class Holder {
+        private static final DespachadorEventos PREDETERMINADO = new DespachadorEventos(
+                hilosPredeterminados(),
+                CAPACIDAD_PREDETERMINADA,
+                PoliticaContrapresion.BLOQUEAR);
+    }
+
+    public static DespachadorEventos getPredeterminado() {
+        return Holder.PREDETERMINADO;
+    }
+
+    static int hilosPredeterminados() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Cambia hilos, capacidad y política. Se llama al arrancar, antes de que
+     * se notifique nada; si ya había colas, terminan de vaciarse con lo que
+     * tenían y los eventos nuevos van a colas con la configuración nueva.
+     */
+    public synchronized void configurar(int hilos, int capacidadPorObservador, PoliticaContrapresion politica) {
+        if (hilos > ejecutor.getMaximumPoolSize()) {
+            ejecutor.setMaximumPoolSize(hilos);
+            ejecutor.setCorePoolSize(hilos);
+        } else {
+            ejecutor.setCorePoolSize(hilos);
+            ejecutor.setMaximumPoolSize(hilos);
+        }
+        this.capacidadPorObservador = capacidadPorObservador;
+        this.politica = politica;
+        this.colas = new ConcurrentHashMap<>();
+    }
+
+    void notificar(Observador observador, EventoPedido evento) throws InterruptedException {
+        colas.computeIfAbsent(observador.getClass(),
+                tipo -> new ColaObservador(this, capacidadPorObservador, politica)).encolar(observador, evento);
+    }
+
+    void ejecutar(Runnable tarea) {
+        ejecutor.execute(tarea);
+    }
+
+    public void detener() {
+        ejecutor.shutdown();
+    }
+
+    public int getHilos() { return ejecutor.getMaximumPoolSize(); }
+    public int getCapacidadPorObservador() { return capacidadPorObservador; }
+    public PoliticaContrapresion getPolitica() { return politica; }
+    public MetricasDespacho getMetricas() { return metricas; }
+
+    public void mostrarMetricas() {
+        System.out.println("\n📨 Métricas de notificaciones:");
+        System.out.println("Política / hilos / capacidad por tipo de observador: " + politica + " / " + getHilos()
+                + " / " + capacidadPorObservador);
+        System.out.println("Encoladas / entregadas: " + metricas.getEncolados() + " / " + metricas.getDespachados());
+        System.out.println("Descartadas / coalescidas / con error: " + metricas.getDescartados()
+                + " / " + metricas.getCoalescidos() + " / " + metricas.getErrores());
+        System.out.println("Profundidad actual / máxima: " + metricas.getProfundidad()
+                + " / " + metricas.getProfundidadMaxima());
+        System.out.println("Vaciados en el hilo que notifica (ejecutor lleno): " + metricas.getDrenadosEnOrigen());
+        System.out.println("Latencia de entrega p50 / p99: " + metricas.getLatenciaMicros().getPercentil(50)
+                + " µs / " + metricas.getLatenciaMicros().getPercentil(99) + " µs");
+        SalidaAsincrona salida = SalidaAsincrona.getPredeterminada();
+        System.out.println("Salida de consola, mensajes / lotes / pendientes: " + salida.getEscritos()
+                + " / " + salida.getLotes() + " / " + salida.getPendientes());
+    }
+
+    /**
+     * Si el ejecutor no acepta el vaciado de una cola, lo hace el hilo que
+     * notifica: es contrapresión, y los eventos no quedan sin nadie que los
+     * entregue. Apagado el despachador, el vaciado se descarta.
+     */
+    private class DrenarEnOrigen implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable tarea, ThreadPoolExecutor ejecutor) {
+            if (!ejecutor.isShutdown()) {
+                metricas.registrarDrenadoEnOrigen();
+                tarea.run();
+            }
+        }
+    }
+
+    private static class HilosNotificacion implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable tarea) {
+            Thread hilo = new Thread(tarea, "notificaciones-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        }
+    }
+}
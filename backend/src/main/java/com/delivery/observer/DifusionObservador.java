@@ -0,0 +1,26 @@
+package com.delivery.observer;
+
+import com.delivery.difusion.CentralDifusion;
+import com.delivery.model.Pedido;
+
+/**
+ * Lleva los cambios de estado del pedido a los clientes conectados por
+ * SSE a través de la {@link CentralDifusion}.
+ */
+public class DifusionObservador implements Observador {
+    private final CentralDifusion central;
+
+    public DifusionObservador(CentralDifusion central) {
+        this.central = central;
+    }
+
+    @Override
+    public void actualizar(Pedido pedido) {
+        actualizar(pedido, pedido.getEstado());
+    }
+
+    @Override
+    public void actualizar(Pedido pedido, Pedido.Estado estado) {
+        central.publicar(pedido, estado);
+    }
+}
@@ -0,0 +1,22 @@
+package com.delivery.observer;
+
+import com.delivery.model.Pedido;
+import com.delivery.singleton.Estadisticas;
+
+public class EstadisticasObservador implements Observador {
+    private final Estadisticas estadisticas;
+
+    public EstadisticasObservador(Estadisticas estadisticas) {
+        this.estadisticas = estadisticas;
+    }
+
+    @Override
+    public void actualizar(Pedido pedido) {
+        actualizar(pedido, pedido.getEstado());
+    }
+
+    @Override
+    public void actualizar(Pedido pedido, Pedido.Estado estado) {
+        estadisticas.registrarCambioEstado(estado);
+    }
+}
@@ -0,0 +1,23 @@
+package com.delivery.observer;
+
+import com.delivery.model.Pedido;
+
+/**
+ * Cambio de estado de un pedido tal como estaba al momento de notificar.
+ */
+public class EventoPedido {
+    private final Pedido pedido;
+    private final Pedido.Estado estado;
+    private final long creadoNanos;
+
+    public EventoPedido(Pedido pedido, Pedido.Estado estado) {
+        this.pedido = pedido;
+        this.estado = estado;
+        this.creadoNanos = System.nanoTime();
+    }
+
+    // Getters
+    public Pedido getPedido() { return pedido; }
+    public Pedido.Estado getEstado() { return estado; }
+    public long getCreadoNanos() { return creadoNanos; }
+}
@@ -0,0 +1,61 @@
+package com.delivery.observer;
+
+import com.delivery.singleton.HistogramaLatencia;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores del despacho de notificaciones: profundidad de las colas y
+ * latencia (en microsegundos) entre la notificación y la entrega.
+ */
+public class MetricasDespacho {
+    private final LongAdder encolados = new LongAdder();
+    private final LongAdder despachados = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder coalescidos = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    private final LongAdder drenadosEnOrigen = new LongAdder();
+    private final AtomicLong profundidadMaxima = new AtomicLong();
+    private final HistogramaLatencia latenciaMicros = new HistogramaLatencia();
+
+    void registrarEncolado() {
+        encolados.increment();
+        profundidadMaxima.accumulateAndGet(getProfundidad(), Math::max);
+    }
+
+    void registrarDespachado(long micros) {
+        despachados.increment();
+        latenciaMicros.registrar(micros);
+    }
+
+    void registrarDescartado() {
+        descartados.increment();
+    }
+
+    void registrarCoalescido() {
+        coalescidos.increment();
+    }
+
+    void registrarError() {
+        errores.increment();
+    }
+
+    void registrarDrenadoEnOrigen() {
+        drenadosEnOrigen.increment();
+    }
+
+    /** Eventos encolados que aún no se entregaron ni descartaron. */
+    public long getProfundidad() {
+        return Math.max(0, encolados.sum() - despachados.sum() - descartados.sum());
+    }
+
+    public long getProfundidadMaxima() { return profundidadMaxima.get(); }
+    public long getEncolados() { return encolados.sum(); }
+    public long getDespachados() { return despachados.sum(); }
+    public long getDescartados() { return descartados.sum(); }
+    public long getCoalescidos() { return coalescidos.sum(); }
+    public long getErrores() { return errores.sum(); }
+    public long getDrenadosEnOrigen() { return drenadosEnOrigen.sum(); }
+    public HistogramaLatencia getLatenciaMicros() { return latenciaMicros; }
+}
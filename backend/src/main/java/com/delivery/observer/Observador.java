@@ -4,4 +4,12 @@ import com.delivery.model.Pedido;
 
 public interface Observador {
     void actualizar(Pedido pedido);
-}
\ No newline at end of file
+
+    /**
+     * Variante usada por el despacho asíncrono: recibe el estado que tenía
+     * el pedido al notificar, que puede ser anterior al actual.
+     */
+    default void actualizar(Pedido pedido, Pedido.Estado estado) {
+        actualizar(pedido);
+    }
+}
@@ -0,0 +1,13 @@
+package com.delivery.observer;
+
+/**
+ * Qué hacer cuando la cola de un observador está llena.
+ */
+public enum PoliticaContrapresion {
+    /** El hilo que notifica espera a que haya espacio. */
+    BLOQUEAR,
+    /** Se descarta el evento más antiguo de la cola. */
+    DESCARTAR_ANTIGUO,
+    /** Cada pedido conserva solo su último estado pendiente. */
+    COALESCER_ULTIMO
+}
@@ -1,18 +1,41 @@
 package com.delivery.observer;
 
 import com.delivery.model.Pedido;
+import com.delivery.reparto.MotorDespacho;
 
 public class RepartidorObservador implements Observador {
+    private final MotorDespacho motorDespacho;
+    private final SalidaAsincrona salida;
+
+    public RepartidorObservador(MotorDespacho motorDespacho) {
+        this(motorDespacho, SalidaAsincrona.getPredeterminada());
+    }
+
+    public RepartidorObservador(MotorDespacho motorDespacho, SalidaAsincrona salida) {
+        this.motorDespacho = motorDespacho;
+        this.salida = salida;
+    }
+
     @Override
     public void actualizar(Pedido pedido) {
-        if (pedido.getEstado() == Pedido.Estado.LISTO ||
-            pedido.getEstado() == Pedido.Estado.EN_CAMINO ||
-            pedido.getEstado() == Pedido.Estado.ENTREGADO) {
+        actualizar(pedido, pedido.getEstado());
+    }
+
+    @Override
+    public void actualizar(Pedido pedido, Pedido.Estado estado) {
+        if (estado == Pedido.Estado.LISTO) {
+            motorDespacho.pedidoListo(pedido);
+        }
+        if (estado == Pedido.Estado.LISTO ||
+            estado == Pedido.Estado.EN_CAMINO ||
+            estado == Pedido.Estado.ENTREGADO) {
 
-            System.out.println("🚚 Notificación al Repartidor:");
-            System.out.println("Estado del pedido: " + pedido.getEstado());
-            System.out.println("Dirección de entrega: " + pedido.getCliente().getDireccion());
-            System.out.println("Teléfono del cliente: " + pedido.getCliente().getTelefono());
+            StringBuilder mensaje = SalidaAsincrona.buffer();
+            mensaje.append("🚚 Notificación al Repartidor:\n")
+                   .append("Estado del pedido: ").append(estado).append('\n')
+                   .append("Dirección de entrega: ").append(pedido.getCliente().getDireccion()).append('\n')
+                   .append("Teléfono del cliente: ").append(pedido.getCliente().getTelefono());
+            salida.escribir(mensaje);
         }
     }
-}
\ No newline at end of file
+}
@@ -3,11 +3,28 @@ package com.delivery.observer;
 import com.delivery.model.Pedido;
 
 public class RestauranteObservador implements Observador {
+    private final SalidaAsincrona salida;
+
+    public RestauranteObservador() {
+        this(SalidaAsincrona.getPredeterminada());
+    }
+
+    public RestauranteObservador(SalidaAsincrona salida) {
+        this.salida = salida;
+    }
+
     @Override
     public void actualizar(Pedido pedido) {
-        System.out.println("🍽️ Notificación al Restaurante:");
-        System.out.println("Nuevo pedido o cambio de estado: " + pedido.getEstado());
-        System.out.println("Cliente: " + pedido.getCliente().getNombre());
-        System.out.println("Items: " + pedido.getItems().size());
+        actualizar(pedido, pedido.getEstado());
+    }
+
+    @Override
+    public void actualizar(Pedido pedido, Pedido.Estado estado) {
+        StringBuilder mensaje = SalidaAsincrona.buffer();
+        mensaje.append("🍽️ Notificación al Restaurante:\n")
+               .append("Nuevo pedido o cambio de estado: ").append(estado).append('\n')
+               .append("Cliente: ").append(pedido.getCliente().getNombre()).append('\n')
+               .append("Items: ").append(pedido.getItems().size());
+        salida.escribir(mensaje);
     }
-}
\ No newline at end of file
+}
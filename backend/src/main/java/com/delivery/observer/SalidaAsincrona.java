@@ -0,0 +1,117 @@
+package com.delivery.observer;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Salida de texto con un único hilo escritor. Los observadores arman el
+ * mensaje en un buffer propio del hilo y lo encolan; el escritor junta lo
+ * que haya en la cola y lo imprime con una sola llamada, así los hilos de
+ * notificación no se turnan por el bloqueo de {@code System.out} en cada
+ * línea. Si la cola se llena, quien escribe espera.
+ */
+public class SalidaAsincrona {
+    private static final int CAPACIDAD_PREDETERMINADA = 16_384;
+    private static final int LOTE_MAXIMO = 1024;
+    private static final ThreadLocal<StringBuilder> BUFFERS = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final PrintStream destino;
+    private final BlockingQueue<String> mensajes;
+    private final Thread escritor;
+    private volatile boolean activa = true;
+
+    private final LongAdder escritos = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+
+    public SalidaAsincrona(PrintStream destino, int capacidad) {
+        this.destino = destino;
+        this.mensajes = new ArrayBlockingQueue<>(capacidad);
+        this.escritor = new Thread(this::escribirLotes, "salida-consola");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    private static class Holder {
+        private static final SalidaAsincrona PREDETERMINADA = crearPredeterminada();
+
+        private static SalidaAsincrona crearPredeterminada() {
+            SalidaAsincrona salida = new SalidaAsincrona(System.out, CAPACIDAD_PREDETERMINADA);
+            // Lo que quede en la cola se imprime antes de terminar
+            Runtime.getRuntime().addShutdownHook(new Thread(salida::detener, "salida-consola-cierre"));
+            return salida;
+        }
+    }
+
+    public static SalidaAsincrona getPredeterminada() {
+        return Holder.PREDETERMINADA;
+    }
+
+    /**
+     * Buffer vacío del hilo actual para armar un mensaje. Vale hasta la
+     * próxima llamada desde el mismo hilo.
+     */
+    public static StringBuilder buffer() {
+        StringBuilder buffer = BUFFERS.get();
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    /** Encola el mensaje; se imprime seguido de un salto de línea. */
+    public void escribir(CharSequence mensaje) {
+        try {
+            mensajes.put(mensaje.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void escribirLotes() {
+        List<String> lote = new ArrayList<>(LOTE_MAXIMO);
+        StringBuilder texto = new StringBuilder(8192);
+        while (activa || !mensajes.isEmpty()) {
+            try {
+                String primero = mensajes.poll(100, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+            } catch (InterruptedException e) {
+                // detener() interrumpe para no esperar el poll; se vacía la cola y se sale
+            }
+            mensajes.drainTo(lote, LOTE_MAXIMO - lote.size());
+            for (String mensaje : lote) {
+                texto.append(mensaje).append(System.lineSeparator());
+            }
+            destino.print(texto);
+            destino.flush();
+            escritos.add(lote.size());
+            lotes.increment();
+            lote.clear();
+            texto.setLength(0);
+            // Si creció por un lote enorme, no se queda con toda esa memoria
+            if (texto.capacity() > 1 << 20) {
+                texto = new StringBuilder(8192);
+            }
+        }
+    }
+
+    /** Imprime lo pendiente y termina el hilo escritor. */
+    public void detener() {
+        activa = false;
+        escritor.interrupt();
+        try {
+            escritor.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getEscritos() { return escritos.sum(); }
+    public long getLotes() { return lotes.sum(); }
+    public int getPendientes() { return mensajes.size(); }
+}
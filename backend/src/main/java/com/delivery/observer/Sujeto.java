@@ -1,10 +1,14 @@
 package com.delivery.observer;
 
-import java.util.ArrayList;
+import com.delivery.model.Pedido;
+
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public abstract class Sujeto {
-    protected List<Observador> observadores = new ArrayList<>();
+    // Copy-on-write: agregar o quitar observadores mientras se notifica es seguro
+    private final List<Observador> observadores = new CopyOnWriteArrayList<>();
+    private DespachadorEventos despachador = DespachadorEventos.getPredeterminado();
 
     public void agregarObservador(Observador observador) {
         observadores.add(observador);
@@ -15,8 +19,19 @@ public abstract class Sujeto {
     }
 
     public void notificarObservadores() {
-        for (Observador observador : observadores) {
-            observador.actualizar((com.delivery.model.Pedido) this);
+        Pedido pedido = (Pedido) this;
+        EventoPedido evento = new EventoPedido(pedido, pedido.getEstado());
+        try {
+            for (Observador observador : observadores) {
+                despachador.notificar(observador, evento);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
-}
\ No newline at end of file
+
+    /** Cambia el despachador que reciben las notificaciones a partir de ahora. */
+    public void setDespachador(DespachadorEventos despachador) {
+        this.despachador = despachador;
+    }
+}
@@ -0,0 +1,84 @@
+package com.delivery.persistencia;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.persistence.SharedCacheMode;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Activa la caché de segundo nivel y de consultas de Hibernate cuando
+ * {@code delivery.persistencia.cache.habilitada} es true (lo hace el perfil
+ * {@code produccion}). Solo se cachean las entidades marcadas con
+ * {@code @Cache} y las consultas con la pista {@code org.hibernate.cacheable}.
+ */
+@Component
+public class AjustesPersistencia implements HibernatePropertiesCustomizer {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${delivery.persistencia.cache.habilitada:false}")
+    private boolean cacheHabilitada;
+
+    @Value("${delivery.persistencia.cache.maximo-entradas:10000}")
+    private int maximoEntradas;
+
+    // null mientras la caché esté apagada
+    private RegionesEnMemoria regiones;
+
+    @Override
+    public void customize(Map<String, Object> propiedades) {
+        if (!cacheHabilitada) {
+            return;
+        }
+        regiones = new RegionesEnMemoria(maximoEntradas);
+        propiedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+        propiedades.put(AvailableSettings.USE_QUERY_CACHE, true);
+        // Leer antes de escribir: un listado completo no vuelve a guardar lo que ya está en la caché
+        propiedades.put(AvailableSettings.USE_MINIMAL_PUTS, true);
+        propiedades.put(AvailableSettings.CACHE_REGION_FACTORY, regiones);
+        propiedades.put(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE);
+    }
+
+    public boolean isCacheHabilitada() { return regiones != null; }
+    public RegionesEnMemoria getRegiones() { return regiones; }
+
+    /** Pool de conexiones: nombre, máximo, conexiones en uso y libres e hilos esperando una. */
+    public String describirPool() {
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            return dataSource.getClass().getSimpleName();
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        String base = hikari.getPoolName() + " (máximo " + hikari.getMaximumPoolSize()
+                + ", mínimo libres " + hikari.getMinimumIdle() + ", autocommit " + hikari.isAutoCommit() + ")";
+        if (pool == null) {
+            return base;
+        }
+        return base + ": en uso / libres / esperando: " + pool.getActiveConnections() + " / "
+                + pool.getIdleConnections() + " / " + pool.getThreadsAwaitingConnection();
+    }
+
+    public void mostrarMetricas() {
+        System.out.println("\n🗄️ Persistencia:");
+        System.out.println("Pool: " + describirPool());
+        if (regiones == null) {
+            System.out.println("Caché de segundo nivel: apagada (se activa con el perfil produccion)");
+            return;
+        }
+        long aciertos = regiones.getAciertos();
+        long fallos = regiones.getFallos();
+        long total = aciertos + fallos;
+        System.out.println("Caché de segundo nivel: aciertos / fallos / colocaciones / desalojos: " + aciertos
+                + " / " + fallos + " / " + regiones.getColocaciones() + " / " + regiones.getDesalojos()
+                + (total == 0 ? "" : String.format(" (%.1f%% aciertos)", 100.0 * aciertos / total)));
+        System.out.println("Entradas por región (máximo " + regiones.getMaximoEntradas() + "):");
+        regiones.getTamanos().forEach((region, tamano) -> System.out.println("  " + region + ": " + tamano));
+    }
+}
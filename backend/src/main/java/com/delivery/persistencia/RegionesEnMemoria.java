@@ -0,0 +1,156 @@
+package com.delivery.persistencia;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.internal.SimpleCacheKeysFactory;
+import org.hibernate.cache.spi.CacheKeysFactory;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Regiones de la caché de segundo nivel de Hibernate guardadas en mapas
+ * concurrentes del proceso. Cada región tiene un máximo de entradas; al
+ * llenarse se sacan entradas cualesquiera, como en la caché del catálogo.
+ * La región de marcas de tiempo de las tablas no tiene máximo: tiene una
+ * entrada por tabla y perder una haría pasar por vigente una consulta
+ * cacheada vieja.
+ */
+public class RegionesEnMemoria extends RegionFactoryTemplate {
+    private final int maximoEntradas;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder colocaciones = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+    private final Map<String, Almacen> regiones = new ConcurrentHashMap<>();
+
+    public RegionesEnMemoria(int maximoEntradas) {
+        this.maximoEntradas = maximoEntradas;
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        for (Almacen almacen : regiones.values()) {
+            almacen.release();
+        }
+        regiones.clear();
+    }
+
+    @Override
+    protected CacheKeysFactory getImplicitCacheKeysFactory() {
+        // Cada entidad tiene su propia región, así alcanza con el id como clave
+        return SimpleCacheKeysFactory.INSTANCE;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return registrar(regionConfig.getRegionName(), new Almacen(maximoEntradas, true));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return registrar(regionName, new Almacen(maximoEntradas, true));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return registrar(regionName, new Almacen(0, false));
+    }
+
+    private Almacen registrar(String region, Almacen almacen) {
+        regiones.put(region, almacen);
+        return almacen;
+    }
+
+    public long getAciertos() { return aciertos.sum(); }
+    public long getFallos() { return fallos.sum(); }
+    public long getColocaciones() { return colocaciones.sum(); }
+    public long getDesalojos() { return desalojos.sum(); }
+    public int getMaximoEntradas() { return maximoEntradas; }
+
+    /** Entradas por región, para las métricas. */
+    public Map<String, Integer> getTamanos() {
+        Map<String, Integer> tamanos = new TreeMap<>();
+        regiones.forEach((region, almacen) -> tamanos.put(region, almacen.datos.size()));
+        return tamanos;
+    }
+
+    private final class Almacen implements DomainDataStorageAccess {
+        private final Map<Object, Object> datos = new ConcurrentHashMap<>();
+        // 0 = sin máximo
+        private final int maximo;
+        // Las marcas de tiempo se leen en cada consulta cacheada y no cuentan como aciertos
+        private final boolean contar;
+
+        private Almacen(int maximo, boolean contar) {
+            this.maximo = maximo;
+            this.contar = contar;
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            Object valor = datos.get(key);
+            if (contar) {
+                (valor != null ? aciertos : fallos).increment();
+            }
+            return valor;
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            if (maximo > 0 && datos.size() >= maximo && !datos.containsKey(key)) {
+                hacerLugar();
+            }
+            datos.put(key, value);
+            if (contar) {
+                colocaciones.increment();
+            }
+        }
+
+        private void hacerLugar() {
+            Iterator<Object> claves = datos.keySet().iterator();
+            while (datos.size() >= maximo && claves.hasNext()) {
+                claves.next();
+                claves.remove();
+                desalojos.increment();
+            }
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return datos.containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            datos.clear();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            datos.remove(key);
+        }
+
+        @Override
+        public void release() {
+            datos.clear();
+        }
+    }
+}
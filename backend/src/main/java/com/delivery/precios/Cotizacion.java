@@ -0,0 +1,15 @@
+package com.delivery.precios;
+
+import java.util.List;
+
+/**
+ * Resultado de cotizar un pedido: el precio de cada item en el orden del
+ * pedido, el subtotal, el descuento de las promociones y sus nombres.
+ */
+public record Cotizacion(long version, long[] precios, long subtotalCentavos, long descuentoCentavos,
+                         List<String> promociones) {
+
+    public long totalCentavos() {
+        return subtotalCentavos - descuentoCentavos;
+    }
+}
@@ -0,0 +1,134 @@
+package com.delivery.precios;
+
+import com.delivery.decorator.Extra;
+import com.delivery.decorator.Plato;
+import com.delivery.model.Pedido;
+import com.delivery.repository.PrecioListaRepository;
+import com.delivery.repository.PromocionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cotiza pedidos con la {@link TablaPrecios} vigente, publicada en un campo
+ * volatile: los que cotizan leen la referencia una vez y trabajan con esa
+ * tabla completa aunque otra la reemplace a mitad de camino. Recargar lee
+ * precios y promociones de la base, compila una tabla nueva y la publica;
+ * se hace al cambiar algo desde la API y cada
+ * {@code delivery.precios.recarga-ms} por si la base cambió por otro lado.
+ */
+@Component
+public class MotorPrecios {
+
+    @Autowired
+    private PrecioListaRepository precioListaRepository;
+
+    @Autowired
+    private PromocionRepository promocionRepository;
+
+    @Value("${delivery.precios.recarga-ms:60000}")
+    private long recargaMs;
+
+    @Value("${delivery.precios.zona:}")
+    private String zona;
+
+    private volatile TablaPrecios tabla;
+    private ZoneId zonaId;
+    private ScheduledExecutorService recarga;
+
+    private final LongAdder cotizados = new LongAdder();
+    private final LongAdder conDescuento = new LongAdder();
+    private final LongAdder recargas = new LongAdder();
+    private final LongAdder fallosRecarga = new LongAdder();
+
+    @PostConstruct
+    void iniciar() {
+        zonaId = zona == null || zona.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zona);
+        // Hasta la primera recarga rigen los precios del menú
+        tabla = TablaPrecios.base(zonaId);
+        recarga = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "precios-recarga");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        recarga.scheduleWithFixedDelay(this::recargarPeriodicamente, recargaMs, recargaMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        recarga.shutdownNow();
+    }
+
+    /**
+     * Compila y publica una tabla nueva con lo que hay en la base. Si falla,
+     * la tabla anterior sigue vigente.
+     */
+    public synchronized TablaPrecios recargar() {
+        TablaPrecios nueva = TablaPrecios.compilar(tabla.getVersion() + 1,
+                precioListaRepository.findAll(), promocionRepository.findAll(), zonaId);
+        tabla = nueva;
+        recargas.increment();
+        return nueva;
+    }
+
+    private void recargarPeriodicamente() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            // Se reintenta en la próxima pasada
+            fallosRecarga.increment();
+        }
+    }
+
+    public Cotizacion cotizar(Pedido pedido) {
+        return tabla.cotizar(pedido, System.currentTimeMillis());
+    }
+
+    /**
+     * Fija en el pedido los precios y el descuento vigentes. Se aplica al
+     * registrarlo, así el precio cobrado es el de ese momento y no el que
+     * tenía el producto cuando se agregó al borrador.
+     */
+    public Cotizacion aplicar(Pedido pedido) {
+        Cotizacion cotizacion = cotizar(pedido);
+        pedido.aplicarPrecios(cotizacion.precios(), cotizacion.descuentoCentavos());
+        cotizados.increment();
+        if (cotizacion.descuentoCentavos() > 0) {
+            conDescuento.increment();
+        }
+        return cotizacion;
+    }
+
+    public long precioPlato(Long restauranteId, Plato plato) {
+        return tabla.precioPlato(restauranteId, plato);
+    }
+
+    public long precioExtra(Long restauranteId, Extra extra) {
+        return tabla.precioExtra(restauranteId, extra);
+    }
+
+    public TablaPrecios getTabla() { return tabla; }
+    public ZoneId getZona() { return zonaId; }
+    public long getCotizados() { return cotizados.sum(); }
+    public long getConDescuento() { return conDescuento.sum(); }
+    public long getRecargas() { return recargas.sum(); }
+    public long getFallosRecarga() { return fallosRecarga.sum(); }
+
+    public void mostrarMetricas() {
+        TablaPrecios actual = tabla;
+        System.out.println("\n🏷️ Motor de precios:");
+        System.out.println("Versión de la tabla: " + actual.getVersion() + ", precios: " + actual.getCantidadPrecios()
+                + ", promociones activas: " + actual.getCantidadPromociones()
+                + ", restaurantes con precios propios: " + actual.getRestaurantesPropios());
+        System.out.println("Pedidos cotizados / con descuento: " + getCotizados() + " / " + getConDescuento());
+        System.out.println("Recargas / fallidas: " + getRecargas() + " / " + getFallosRecarga());
+    }
+}
@@ -0,0 +1,328 @@
+package com.delivery.precios;
+
+import com.delivery.decorator.Extra;
+import com.delivery.decorator.Plato;
+import com.delivery.decorator.ProductoBase;
+import com.delivery.decorator.ProductoCompilado;
+import com.delivery.model.Dinero;
+import com.delivery.model.Pedido;
+import com.delivery.model.PrecioLista;
+import com.delivery.model.Producto;
+import com.delivery.model.Promocion;
+import com.delivery.model.Restaurante;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precios y promociones ya compilados, inmutables. Cada restaurante tiene
+ * sus precios en arreglos indexados por plato y extra y sus promociones
+ * como reglas sobre la cantidad y el subtotal de cada plato, así cotizar
+ * un pedido es una sola pasada por los items sin consultar la base ni
+ * crear mapas. Una tabla nueva se compila aparte y reemplaza a la anterior
+ * de una vez, sin que los lectores se bloqueen.
+ */
+public final class TablaPrecios {
+    private static final Plato[] PLATOS = Plato.values();
+    private static final Extra[] EXTRAS = Extra.values();
+    private static final int MINUTOS_DIA = 24 * 60;
+
+    private final long version;
+    private final int desplazamientoMinutos;
+    private final PreciosRestaurante general;
+    private final Map<Long, PreciosRestaurante> porRestaurante;
+    private final int cantidadPrecios;
+    private final int cantidadPromociones;
+
+    private TablaPrecios(long version, int desplazamientoMinutos, PreciosRestaurante general,
+                         Map<Long, PreciosRestaurante> porRestaurante, int cantidadPrecios, int cantidadPromociones) {
+        this.version = version;
+        this.desplazamientoMinutos = desplazamientoMinutos;
+        this.general = general;
+        this.porRestaurante = porRestaurante;
+        this.cantidadPrecios = cantidadPrecios;
+        this.cantidadPromociones = cantidadPromociones;
+    }
+
+    /** Tabla con los precios del menú y sin promociones. */
+    public static TablaPrecios base(ZoneId zona) {
+        return compilar(0, List.of(), List.of(), zona);
+    }
+
+    /**
+     * Compila las filas de la base. Los platos y extras sin fila conservan
+     * el precio del menú; las promociones inactivas o sin platos válidos se
+     * descartan. El desplazamiento horario se toma al compilar.
+     */
+    public static TablaPrecios compilar(long version, List<PrecioLista> precios, List<Promocion> promociones, ZoneId zona) {
+        long[] platos = new long[PLATOS.length];
+        long[] extras = new long[EXTRAS.length];
+        for (Plato plato : PLATOS) {
+            platos[plato.ordinal()] = plato.getPrecioCentavos();
+        }
+        for (Extra extra : EXTRAS) {
+            extras[extra.ordinal()] = extra.getPrecioCentavos();
+        }
+
+        // Primero los precios generales, que son la base de los de cada restaurante
+        for (PrecioLista precio : precios) {
+            if (precio.getRestauranteId() == null) {
+                fijar(platos, extras, precio);
+            }
+        }
+        List<Regla> reglasGenerales = new ArrayList<>();
+        for (Promocion promocion : promociones) {
+            if (promocion.getRestauranteId() == null) {
+                agregarRegla(reglasGenerales, promocion);
+            }
+        }
+        PreciosRestaurante general = new PreciosRestaurante(platos, extras, reglasGenerales.toArray(new Regla[0]));
+
+        Set<Long> restaurantes = new HashSet<>();
+        precios.stream().map(PrecioLista::getRestauranteId).forEach(restaurantes::add);
+        promociones.stream().map(Promocion::getRestauranteId).forEach(restaurantes::add);
+        restaurantes.remove(null);
+
+        Map<Long, PreciosRestaurante> porRestaurante = new HashMap<>();
+        for (Long restauranteId : restaurantes) {
+            long[] propiosPlatos = platos.clone();
+            long[] propiosExtras = extras.clone();
+            for (PrecioLista precio : precios) {
+                if (restauranteId.equals(precio.getRestauranteId())) {
+                    fijar(propiosPlatos, propiosExtras, precio);
+                }
+            }
+            List<Regla> reglas = new ArrayList<>(reglasGenerales);
+            for (Promocion promocion : promociones) {
+                if (restauranteId.equals(promocion.getRestauranteId())) {
+                    agregarRegla(reglas, promocion);
+                }
+            }
+            porRestaurante.put(restauranteId, new PreciosRestaurante(propiosPlatos, propiosExtras, reglas.toArray(new Regla[0])));
+        }
+
+        int desplazamiento = zona.getRules().getOffset(Instant.now()).getTotalSeconds() / 60;
+        int activas = (int) promociones.stream().filter(Promocion::isActiva).count();
+        return new TablaPrecios(version, desplazamiento, general, Map.copyOf(porRestaurante), precios.size(), activas);
+    }
+
+    /**
+     * Precio de cada item según el restaurante del pedido y descuento de
+     * las promociones vigentes en {@code ahora}. Los items que no salen del
+     * menú conservan su precio y no participan de las promociones.
+     */
+    public Cotizacion cotizar(Pedido pedido, long ahora) {
+        PreciosRestaurante tabla = de(pedido.getRestaurante());
+        List<Producto> items = pedido.getItems();
+        long[] precios = new long[items.size()];
+        int[] cantidades = new int[PLATOS.length];
+        long[] subtotales = new long[PLATOS.length];
+        long subtotal = 0;
+        for (int i = 0; i < precios.length; i++) {
+            Producto item = items.get(i);
+            Plato plato = null;
+            long precio;
+            if (item instanceof ProductoCompilado compilado && compilado.getBase() instanceof ProductoBase base
+                    && base.getPlato() != null) {
+                plato = base.getPlato();
+                precio = tabla.platos[plato.ordinal()];
+                for (int j = 0; j < compilado.getCantidadExtras(); j++) {
+                    precio = Dinero.sumar(precio, tabla.extras[compilado.getExtra(j).ordinal()]);
+                }
+            } else if (item instanceof ProductoBase base && base.getPlato() != null) {
+                plato = base.getPlato();
+                precio = tabla.platos[plato.ordinal()];
+            } else {
+                precio = item.getPrecioCentavos();
+            }
+            if (plato != null) {
+                cantidades[plato.ordinal()]++;
+                subtotales[plato.ordinal()] = Dinero.sumar(subtotales[plato.ordinal()], precio);
+            }
+            precios[i] = precio;
+            subtotal = Dinero.sumar(subtotal, precio);
+        }
+
+        Regla[] reglas = tabla.reglas;
+        if (reglas.length == 0) {
+            return new Cotizacion(version, precios, subtotal, 0, List.of());
+        }
+        int minuto = Math.floorMod(Math.floorDiv(ahora, 60_000L) + desplazamientoMinutos, MINUTOS_DIA);
+        long descuento = 0;
+        List<String> aplicadas = null;
+        for (Regla regla : reglas) {
+            long parcial = regla.descuento(cantidades, subtotales, minuto);
+            if (parcial > 0) {
+                descuento = Dinero.sumar(descuento, parcial);
+                if (aplicadas == null) {
+                    aplicadas = new ArrayList<>(2);
+                }
+                aplicadas.add(regla.nombre);
+            }
+        }
+        // Las promociones nunca dejan el pedido en negativo
+        descuento = Math.min(descuento, Math.max(0, subtotal));
+        return new Cotizacion(version, precios, subtotal, descuento, aplicadas == null ? List.of() : aplicadas);
+    }
+
+    public long precioPlato(Long restauranteId, Plato plato) {
+        return de(restauranteId).platos[plato.ordinal()];
+    }
+
+    public long precioExtra(Long restauranteId, Extra extra) {
+        return de(restauranteId).extras[extra.ordinal()];
+    }
+
+    public long getVersion() { return version; }
+    public int getCantidadPrecios() { return cantidadPrecios; }
+    public int getCantidadPromociones() { return cantidadPromociones; }
+    public int getRestaurantesPropios() { return porRestaurante.size(); }
+
+    private PreciosRestaurante de(Restaurante restaurante) {
+        return restaurante == null ? general : de(restaurante.getId());
+    }
+
+    private PreciosRestaurante de(Long restauranteId) {
+        if (restauranteId == null) {
+            return general;
+        }
+        PreciosRestaurante propios = porRestaurante.get(restauranteId);
+        return propios != null ? propios : general;
+    }
+
+    private static void fijar(long[] platos, long[] extras, PrecioLista precio) {
+        if (precio.getTipo() == PrecioLista.Tipo.PLATO) {
+            Plato plato = Plato.porId(precio.getCodigo());
+            if (plato != null) {
+                platos[plato.ordinal()] = precio.getPrecioCentavos();
+            }
+        } else {
+            Extra extra = Extra.porId(precio.getCodigo());
+            if (extra != null) {
+                extras[extra.ordinal()] = precio.getPrecioCentavos();
+            }
+        }
+    }
+
+    private static void agregarRegla(List<Regla> reglas, Promocion promocion) {
+        if (!promocion.isActiva()) {
+            return;
+        }
+        int[] requeridos = new int[PLATOS.length];
+        boolean alguno = false;
+        if (promocion.getPlatos() != null) {
+            for (String parte : promocion.getPlatos().split(",")) {
+                Plato plato = parte.isBlank() ? null : Plato.porId(Integer.parseInt(parte.trim()));
+                if (plato != null) {
+                    requeridos[plato.ordinal()]++;
+                    alguno = true;
+                }
+            }
+        }
+        switch (promocion.getTipo()) {
+            case COMBO:
+                if (alguno && promocion.getDescuentoCentavos() > 0) {
+                    reglas.add(new Combo(promocion.getNombre(), requeridos, promocion.getDescuentoCentavos()));
+                }
+                break;
+            case HORA_FELIZ:
+                if (!alguno) {
+                    // Sin platos indicados vale para todo el menú
+                    Arrays.fill(requeridos, 1);
+                }
+                if (promocion.getPorcentaje() > 0) {
+                    reglas.add(new HoraFeliz(promocion.getNombre(), requeridos, Math.min(100, promocion.getPorcentaje()),
+                            Math.floorMod(promocion.getDesdeMinuto(), MINUTOS_DIA),
+                            Math.floorMod(promocion.getHastaMinuto(), MINUTOS_DIA)));
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static final class PreciosRestaurante {
+        private final long[] platos;
+        private final long[] extras;
+        private final Regla[] reglas;
+
+        private PreciosRestaurante(long[] platos, long[] extras, Regla[] reglas) {
+            this.platos = platos;
+            this.extras = extras;
+            this.reglas = reglas;
+        }
+    }
+
+    private abstract static class Regla {
+        final String nombre;
+
+        Regla(String nombre) {
+            this.nombre = nombre;
+        }
+
+        abstract long descuento(int[] cantidades, long[] subtotales, int minuto);
+    }
+
+    /** Descuento fijo por cada juego completo de los platos del combo. */
+    private static final class Combo extends Regla {
+        private final int[] requeridos;
+        private final long monto;
+
+        Combo(String nombre, int[] requeridos, long monto) {
+            super(nombre);
+            this.requeridos = requeridos;
+            this.monto = monto;
+        }
+
+        @Override
+        long descuento(int[] cantidades, long[] subtotales, int minuto) {
+            int juegos = Integer.MAX_VALUE;
+            for (int i = 0; i < requeridos.length; i++) {
+                if (requeridos[i] > 0) {
+                    juegos = Math.min(juegos, cantidades[i] / requeridos[i]);
+                }
+            }
+            return juegos == 0 ? 0 : Math.multiplyExact(monto, (long) juegos);
+        }
+    }
+
+    /** Porcentaje sobre los platos incluidos dentro de la franja horaria. */
+    private static final class HoraFeliz extends Regla {
+        private final int[] incluidos;
+        private final int porcentaje;
+        private final int desde;
+        private final int hasta;
+
+        HoraFeliz(String nombre, int[] incluidos, int porcentaje, int desde, int hasta) {
+            super(nombre);
+            this.incluidos = incluidos;
+            this.porcentaje = porcentaje;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        long descuento(int[] cantidades, long[] subtotales, int minuto) {
+            // Si desde > hasta la franja cruza la medianoche; si son iguales dura todo el día
+            boolean vigente = desde == hasta
+                    || (desde < hasta ? minuto >= desde && minuto < hasta : minuto >= desde || minuto < hasta);
+            if (!vigente) {
+                return 0;
+            }
+            long base = 0;
+            for (int i = 0; i < incluidos.length; i++) {
+                if (incluidos[i] > 0) {
+                    base = Dinero.sumar(base, subtotales[i]);
+                }
+            }
+            return Math.multiplyExact(base, (long) porcentaje) / 100;
+        }
+    }
+}
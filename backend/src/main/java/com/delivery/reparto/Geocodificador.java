@@ -0,0 +1,28 @@
+package com.delivery.reparto;
+
+/**
+ * Ubica una dirección en el plano de la ciudad. Todavía no hay un servicio
+ * de geocodificación, así que la posición sale de un hash estable de la
+ * dirección: la misma dirección cae siempre en el mismo punto y las
+ * distintas quedan repartidas de forma pareja.
+ */
+public final class Geocodificador {
+    public static final double LADO_CIUDAD_KM = 20.0;
+
+    private Geocodificador() {}
+
+    public static Punto ubicar(String direccion) {
+        long h = mezclar(direccion == null ? 0 : direccion.hashCode());
+        // 26 bits por coordenada dan resolución de centímetros en 20 km
+        double x = ((h >>> 38) & 0x3FFFFFF) / (double) (1 << 26) * LADO_CIUDAD_KM;
+        double y = ((h >>> 12) & 0x3FFFFFF) / (double) (1 << 26) * LADO_CIUDAD_KM;
+        return new Punto(x, y);
+    }
+
+    // Finalizador de SplitMix64, para que direcciones parecidas no queden juntas
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
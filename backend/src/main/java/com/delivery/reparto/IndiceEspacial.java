@@ -0,0 +1,84 @@
+package com.delivery.reparto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grilla uniforme de repartidores libres. Buscar el más cercano recorre
+ * anillos de celdas alrededor del punto y corta apenas el anillo siguiente
+ * ya no puede tener a nadie más cerca, así el costo depende de la densidad
+ * de repartidores y no de su cantidad total. No es seguro entre hilos: lo
+ * usa solo el hilo del motor de despacho.
+ */
+class IndiceEspacial {
+    private final double celdaKm;
+    private final int columnas;
+    private final List<List<Repartidor>> celdas;
+    private int tamano;
+
+    IndiceEspacial(double ladoKm, double celdaKm) {
+        this.celdaKm = celdaKm;
+        this.columnas = Math.max(1, (int) Math.ceil(ladoKm / celdaKm));
+        this.celdas = new ArrayList<>(columnas * columnas);
+        for (int i = 0; i < columnas * columnas; i++) {
+            celdas.add(new ArrayList<>(4));
+        }
+    }
+
+    void agregar(Repartidor repartidor) {
+        celdas.get(celda(repartidor.getPosicion())).add(repartidor);
+        tamano++;
+    }
+
+    void quitar(Repartidor repartidor) {
+        if (celdas.get(celda(repartidor.getPosicion())).remove(repartidor)) {
+            tamano--;
+        }
+    }
+
+    /** El repartidor libre más cercano al punto, o null si no hay ninguno. */
+    Repartidor masCercano(Punto punto) {
+        if (tamano == 0) {
+            return null;
+        }
+        int cx = indice(punto.x());
+        int cy = indice(punto.y());
+        Repartidor mejor = null;
+        double mejorDistancia = Double.MAX_VALUE;
+        for (int anillo = 0; anillo < columnas; anillo++) {
+            for (int x = cx - anillo; x <= cx + anillo; x++) {
+                for (int y = cy - anillo; y <= cy + anillo; y++) {
+                    // Solo el borde del anillo; el interior ya se revisó
+                    boolean borde = x == cx - anillo || x == cx + anillo || y == cy - anillo || y == cy + anillo;
+                    if (!borde || x < 0 || y < 0 || x >= columnas || y >= columnas) {
+                        continue;
+                    }
+                    for (Repartidor repartidor : celdas.get(x * columnas + y)) {
+                        double distancia = repartidor.getPosicion().distancia(punto);
+                        if (distancia < mejorDistancia) {
+                            mejorDistancia = distancia;
+                            mejor = repartidor;
+                        }
+                    }
+                }
+            }
+            // Todo lo que está más allá de este anillo queda al menos a anillo * celdaKm
+            if (mejor != null && mejorDistancia <= anillo * celdaKm) {
+                break;
+            }
+        }
+        return mejor;
+    }
+
+    int getTamano() {
+        return tamano;
+    }
+
+    private int celda(Punto punto) {
+        return indice(punto.x()) * columnas + indice(punto.y());
+    }
+
+    private int indice(double coordenada) {
+        return Math.min(columnas - 1, Math.max(0, (int) (coordenada / celdaKm)));
+    }
+}
@@ -0,0 +1,258 @@
+package com.delivery.reparto;
+
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import com.delivery.singleton.HistogramaLatencia;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asigna repartidores a los pedidos que quedan LISTO. Los pedidos del mismo
+ * restaurante con destinos cercanos se juntan en un lote durante a lo sumo
+ * {@code ventanaLoteMs} y salen en un solo viaje con el repartidor libre
+ * más cercano al restaurante. Todo el estado lo toca un único hilo, así no
+ * hacen falta bloqueos: los demás hilos solo le encolan tareas.
+ */
+@Component
+public class MotorDespacho {
+    private final PropiedadesReparto propiedades;
+    private final ScheduledThreadPoolExecutor despachador;
+    private final IndiceEspacial libres;
+    private final List<Repartidor> flota = new ArrayList<>();
+
+    // Estado del hilo de despacho
+    private final Map<Object, Lote> abiertos = new HashMap<>();
+    private final Deque<Lote> sinRepartidor = new ArrayDeque<>();
+    // Ids ya recibidos y sin entregar, por si llega dos veces el mismo LISTO
+    private final Set<Long> pendientes = new HashSet<>();
+
+    // Pedidos en viaje, para consultar quién los lleva
+    private final Map<Long, Repartidor> asignaciones = new ConcurrentHashMap<>();
+
+    private final LongAdder recibidos = new LongAdder();
+    private final LongAdder asignados = new LongAdder();
+    private final LongAdder viajes = new LongAdder();
+    private final LongAdder distanciaMetros = new LongAdder();
+    private final HistogramaLatencia latenciaMicros = new HistogramaLatencia();
+    private volatile int enEspera;
+
+    @Autowired
+    public MotorDespacho(PropiedadesReparto propiedades) {
+        this.propiedades = propiedades;
+        this.despachador = new ScheduledThreadPoolExecutor(1, tarea -> {
+            Thread hilo = new Thread(tarea, "despacho");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.despachador.setRemoveOnCancelPolicy(true);
+        this.libres = new IndiceEspacial(Geocodificador.LADO_CIUDAD_KM, propiedades.getCeldaKm());
+        for (int i = 1; i <= propiedades.getRepartidores(); i++) {
+            Repartidor repartidor = new Repartidor(i, "Repartidor " + i, Geocodificador.ubicar("base-repartidor-" + i));
+            flota.add(repartidor);
+            libres.agregar(repartidor);
+        }
+    }
+
+    /**
+     * Recibe un pedido listo para retirar. Se puede llamar desde cualquier
+     * hilo; la asignación ocurre después en el hilo de despacho.
+     */
+    public void pedidoListo(Pedido pedido) {
+        Orden orden = new Orden(pedido, System.nanoTime());
+        recibidos.increment();
+        despachador.execute(() -> encolar(orden));
+    }
+
+    private void encolar(Orden orden) {
+        Long id = orden.pedido.getId();
+        if (id != null && !pendientes.add(id)) {
+            return;
+        }
+        Restaurante restaurante = orden.pedido.getRestaurante();
+        if (restaurante == null) {
+            // Sin restaurante no hay con qué agrupar: sale solo desde la dirección del cliente
+            Lote lote = new Lote(orden, orden.destino);
+            lote.ordenes.add(orden);
+            asignar(lote);
+            return;
+        }
+        Object clave = restaurante.getId() != null ? restaurante.getId() : restaurante.getDireccion();
+        Lote lote = abiertos.get(clave);
+        if (lote != null && lote.primerDestino().distancia(orden.destino) > propiedades.getRadioLoteKm()) {
+            // Queda lejos del lote abierto: ese sale ya y este empieza uno nuevo
+            cerrar(lote);
+            lote = null;
+        }
+        if (lote == null) {
+            lote = new Lote(clave, Geocodificador.ubicar(restaurante.getDireccion()));
+            abiertos.put(clave, lote);
+            Lote nuevo = lote;
+            lote.cierre = despachador.schedule(() -> cerrar(nuevo), propiedades.getVentanaLoteMs(), TimeUnit.MILLISECONDS);
+        }
+        lote.ordenes.add(orden);
+        if (lote.ordenes.size() >= propiedades.getMaximoPorViaje()) {
+            cerrar(lote);
+        }
+    }
+
+    private void cerrar(Lote lote) {
+        if (abiertos.get(lote.clave) != lote) {
+            return;
+        }
+        abiertos.remove(lote.clave);
+        if (lote.cierre != null) {
+            lote.cierre.cancel(false);
+        }
+        asignar(lote);
+    }
+
+    private void asignar(Lote lote) {
+        Repartidor repartidor = libres.masCercano(lote.origen);
+        if (repartidor == null) {
+            sinRepartidor.addLast(lote);
+            enEspera = sinRepartidor.size();
+            return;
+        }
+        salir(repartidor, lote);
+    }
+
+    private void salir(Repartidor repartidor, Lote lote) {
+        libres.quitar(repartidor);
+        repartidor.salir();
+
+        long ahora = System.nanoTime();
+        for (Orden orden : lote.ordenes) {
+            latenciaMicros.registrar(TimeUnit.NANOSECONDS.toMicros(ahora - orden.llegadaNanos));
+            if (orden.pedido.getId() != null) {
+                asignaciones.put(orden.pedido.getId(), repartidor);
+            }
+        }
+
+        // Ruta: retirar en el restaurante y entregar siempre al destino más cercano
+        double distancia = repartidor.getPosicion().distancia(lote.origen);
+        Punto actual = lote.origen;
+        List<Orden> porEntregar = new ArrayList<>(lote.ordenes);
+        while (!porEntregar.isEmpty()) {
+            int masCercana = 0;
+            for (int i = 1; i < porEntregar.size(); i++) {
+                if (porEntregar.get(i).destino.distancia(actual) < porEntregar.get(masCercana).destino.distancia(actual)) {
+                    masCercana = i;
+                }
+            }
+            Orden siguiente = porEntregar.remove(masCercana);
+            distancia += actual.distancia(siguiente.destino);
+            actual = siguiente.destino;
+        }
+
+        asignados.add(lote.ordenes.size());
+        viajes.increment();
+        distanciaMetros.add(Math.round(distancia * 1000));
+
+        Punto fin = actual;
+        long duracion = Math.round(distancia * propiedades.getMsPorKm());
+        despachador.schedule(() -> volver(repartidor, lote, fin), duracion, TimeUnit.MILLISECONDS);
+    }
+
+    private void volver(Repartidor repartidor, Lote lote, Punto fin) {
+        for (Orden orden : lote.ordenes) {
+            if (orden.pedido.getId() != null) {
+                asignaciones.remove(orden.pedido.getId(), repartidor);
+                pendientes.remove(orden.pedido.getId());
+            }
+        }
+        repartidor.volver(fin);
+        Lote esperando = sinRepartidor.pollFirst();
+        enEspera = sinRepartidor.size();
+        if (esperando != null) {
+            salir(repartidor, esperando);
+        } else {
+            libres.agregar(repartidor);
+        }
+    }
+
+    public Optional<Repartidor> getRepartidorAsignado(Long pedidoId) {
+        return Optional.ofNullable(asignaciones.get(pedidoId));
+    }
+
+    public List<Repartidor> getFlota() {
+        return Collections.unmodifiableList(flota);
+    }
+
+    @PreDestroy
+    public void detener() {
+        despachador.shutdownNow();
+    }
+
+    public long getRecibidos() { return recibidos.sum(); }
+    public long getAsignados() { return asignados.sum(); }
+    public long getViajes() { return viajes.sum(); }
+    public int getEnEspera() { return enEspera; }
+    public HistogramaLatencia getLatenciaMicros() { return latenciaMicros; }
+
+    public double getDistanciaPromedioKm() {
+        long cantidad = viajes.sum();
+        return cantidad == 0 ? 0.0 : distanciaMetros.sum() / 1000.0 / cantidad;
+    }
+
+    public double getPedidosPorViaje() {
+        long cantidad = viajes.sum();
+        return cantidad == 0 ? 0.0 : (double) asignados.sum() / cantidad;
+    }
+
+    public void mostrarMetricas() {
+        long enViaje = flota.stream().filter(repartidor -> !repartidor.isLibre()).count();
+        System.out.println("\n🛵 Despacho de repartidores:");
+        System.out.println("Repartidores en viaje / total: " + enViaje + " / " + flota.size());
+        System.out.println("Pedidos recibidos / asignados: " + getRecibidos() + " / " + getAsignados()
+                + ", lotes esperando repartidor: " + getEnEspera());
+        System.out.println("Viajes: " + getViajes() + ", pedidos por viaje: " + String.format("%.2f", getPedidosPorViaje())
+                + ", distancia promedio: " + String.format("%.2f", getDistanciaPromedioKm()) + " km");
+        System.out.println("Latencia de asignación p50 / p99: " + latenciaMicros.getPercentil(50)
+                + " µs / " + latenciaMicros.getPercentil(99) + " µs");
+    }
+
+    private static final class Orden {
+        private final Pedido pedido;
+        private final Punto destino;
+        private final long llegadaNanos;
+
+        private Orden(Pedido pedido, long llegadaNanos) {
+            this.pedido = pedido;
+            this.destino = Geocodificador.ubicar(pedido.getCliente().getDireccion());
+            this.llegadaNanos = llegadaNanos;
+        }
+    }
+
+    private static final class Lote {
+        private final Object clave;
+        private final Punto origen;
+        private final List<Orden> ordenes = new ArrayList<>(4);
+        private ScheduledFuture<?> cierre;
+
+        private Lote(Object clave, Punto origen) {
+            this.clave = clave;
+            this.origen = origen;
+        }
+
+        private Punto primerDestino() {
+            return ordenes.get(0).destino;
+        }
+    }
+}
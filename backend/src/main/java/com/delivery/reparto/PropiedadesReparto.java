@@ -0,0 +1,39 @@
+package com.delivery.reparto;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parámetros del motor de despacho. {@code ventanaLoteMs} es el presupuesto
+ * de espera: un pedido listo nunca aguarda más que eso a que se sumen otros
+ * al mismo viaje antes de buscar repartidor.
+ */
+@Component
+@ConfigurationProperties(prefix = "delivery.reparto")
+public class PropiedadesReparto {
+    private int repartidores = 50;
+    private double celdaKm = 1.0;
+    private long ventanaLoteMs = 200;
+    private double radioLoteKm = 1.5;
+    private int maximoPorViaje = 3;
+    // Duración real de cada km recorrido, para liberar al repartidor al terminar
+    private long msPorKm = 200;
+
+    public int getRepartidores() { return repartidores; }
+    public void setRepartidores(int repartidores) { this.repartidores = repartidores; }
+
+    public double getCeldaKm() { return celdaKm; }
+    public void setCeldaKm(double celdaKm) { this.celdaKm = celdaKm; }
+
+    public long getVentanaLoteMs() { return ventanaLoteMs; }
+    public void setVentanaLoteMs(long ventanaLoteMs) { this.ventanaLoteMs = ventanaLoteMs; }
+
+    public double getRadioLoteKm() { return radioLoteKm; }
+    public void setRadioLoteKm(double radioLoteKm) { this.radioLoteKm = radioLoteKm; }
+
+    public int getMaximoPorViaje() { return maximoPorViaje; }
+    public void setMaximoPorViaje(int maximoPorViaje) { this.maximoPorViaje = maximoPorViaje; }
+
+    public long getMsPorKm() { return msPorKm; }
+    public void setMsPorKm(long msPorKm) { this.msPorKm = msPorKm; }
+}
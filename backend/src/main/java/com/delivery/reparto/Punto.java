@@ -0,0 +1,14 @@
+package com.delivery.reparto;
+
+/**
+ * Posición en el plano de la ciudad, en kilómetros desde la esquina
+ * suroeste.
+ */
+public record Punto(double x, double y) {
+
+    public double distancia(Punto otro) {
+        double dx = x - otro.x;
+        double dy = y - otro.y;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
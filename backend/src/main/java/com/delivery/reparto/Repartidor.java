@@ -0,0 +1,35 @@
+package com.delivery.reparto;
+
+/**
+ * Repartidor de la flota. Solo lo modifica el hilo del motor de despacho;
+ * los campos son volatile para poder leerlos desde las métricas.
+ */
+public class Repartidor {
+    private final int id;
+    private final String nombre;
+    private volatile Punto posicion;
+    private volatile boolean libre = true;
+    private volatile long viajes;
+
+    public Repartidor(int id, String nombre, Punto posicion) {
+        this.id = id;
+        this.nombre = nombre;
+        this.posicion = posicion;
+    }
+
+    void salir() {
+        libre = false;
+        viajes++;
+    }
+
+    void volver(Punto destino) {
+        posicion = destino;
+        libre = true;
+    }
+
+    public int getId() { return id; }
+    public String getNombre() { return nombre; }
+    public Punto getPosicion() { return posicion; }
+    public boolean isLibre() { return libre; }
+    public long getViajes() { return viajes; }
+}
@@ -0,0 +1,17 @@
+package com.delivery.repository;
+
+import com.delivery.model.Pedido;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PedidoRepository extends JpaRepository<Pedido, Long> {
+
+    // Con el restaurante y las líneas en la misma consulta: la respuesta los recorre ya cerrada la transacción
+    // (open-in-view apagado), y lo que no está en el grafo Hibernate lo trae perezoso
+    @EntityGraph(attributePaths = { "restaurante", "lineas" })
+    Optional<Pedido> findConLineasById(Long id);
+}
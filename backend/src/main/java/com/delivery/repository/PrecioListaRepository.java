@@ -0,0 +1,12 @@
+package com.delivery.repository;
+
+import com.delivery.model.PrecioLista;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PrecioListaRepository extends JpaRepository<PrecioLista, Long> {
+    Optional<PrecioLista> findByRestauranteIdAndTipoAndCodigo(Long restauranteId, PrecioLista.Tipo tipo, int codigo);
+}
@@ -0,0 +1,9 @@
+package com.delivery.repository;
+
+import com.delivery.model.Promocion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PromocionRepository extends JpaRepository<Promocion, Long> {
+}
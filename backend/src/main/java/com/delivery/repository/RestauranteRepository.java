@@ -1,9 +1,24 @@
 package com.delivery.repository;
 
 import com.delivery.model.Restaurante;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Repository
+@Transactional(readOnly = true)
 public interface RestauranteRepository extends JpaRepository<Restaurante, Long> {
-}
\ No newline at end of file
+
+    // Un listado completo lee de la caché de segundo nivel pero no la llena: la llenan las lecturas por id
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "GET"))
+    List<Restaurante> findAll();
+
+    // Consulta con nombre Restaurante.listarResumenes
+    List<RestauranteResumen> listarResumenes();
+}
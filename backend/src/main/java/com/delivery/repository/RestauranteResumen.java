@@ -0,0 +1,8 @@
+package com.delivery.repository;
+
+/**
+ * Lo que muestra un listado de restaurantes. Se lee con una proyección, sin
+ * armar entidades ni guardarlas en el contexto de persistencia.
+ */
+public record RestauranteResumen(Long id, String nombre, String descripcion) {
+}
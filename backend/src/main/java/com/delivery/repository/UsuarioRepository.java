@@ -1,12 +1,20 @@
 package com.delivery.repository;
 
 import com.delivery.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+    // Usa la consulta con nombre Usuario.findByNombreUsuario: Hibernate la interpreta una sola vez.
+    // Cacheada solo si la caché de consultas está activa; se invalida con cualquier escritura en usuarios
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Usuario> findByNombreUsuario(String nombreUsuario);
-}
\ No newline at end of file
+}
@@ -0,0 +1,394 @@
+package com.delivery.service;
+
+import com.delivery.bitacora.BitacoraPedidos;
+import com.delivery.model.ItemPedido;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import com.delivery.repository.PedidoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Almacén en memoria de los pedidos activos, indexado por id, restaurante y
+ * estado. Las lecturas nunca van a la base de datos mientras el pedido está
+ * activo; los cambios se escriben en H2 en lotes desde un hilo aparte
+ * (write-behind). Los pedidos entregados salen de memoria una vez
+ * persistidos y a partir de ahí se leen del repositorio.
+ */
+@Component
+public class AlmacenPedidos {
+    private static final String SQL_PEDIDO =
+            "MERGE INTO pedidos (id, cliente_nombre, cliente_telefono, cliente_direccion, "
+            + "restaurante_id, estado, total_centavos, descuento_centavos, creado_en) KEY (id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Aparte del MERGE y solo con la primera escritura: un pedido rehecho desde la bitácora no trae la clave y no la borra
+    private static final String SQL_CLAVE = "UPDATE pedidos SET clave_idempotencia = ?, huella_idempotencia = ? WHERE id = ?";
+    // MERGE: un pedido rehecho desde la bitácora puede tener sus ítems ya escritos en una base en archivo
+    private static final String SQL_ITEM =
+            "MERGE INTO pedido_items (pedido_id, posicion, descripcion, precio_centavos) KEY (pedido_id, posicion) "
+            + "VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BitacoraPedidos bitacoraPedidos;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${delivery.pedidos.lote-escritura:500}")
+    private int loteEscritura;
+
+    @Value("${delivery.pedidos.intervalo-escritura-ms:200}")
+    private long intervaloEscrituraMs;
+
+    @Value("${delivery.pedidos.reintentos-escritura:5}")
+    private int reintentosEscritura;
+
+    private final AtomicLong secuencia = new AtomicLong();
+    // Lo abre RecuperacionPedidos: hasta que reserva los ids de la bitácora un pedido nuevo podría repetir uno
+    private final CountDownLatch recuperado = new CountDownLatch(1);
+    private final Map<Long, Pedido> porId = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> porRestaurante = new ConcurrentHashMap<>();
+    private final Map<Pedido.Estado, Set<Long>> porEstado = new EnumMap<>(Pedido.Estado.class);
+
+    // Pedidos con cambios pendientes de escribir y pedidos que ya tienen fila
+    private final Set<Long> pendientes = ConcurrentHashMap.newKeySet();
+    private final Set<Long> persistidos = ConcurrentHashMap.newKeySet();
+    // Pasadas seguidas en que falló la escritura de cada pedido; se usa bajo el bloqueo de escribirPendientes
+    private final Map<Long, Integer> fallos = new HashMap<>();
+
+    private ScheduledExecutorService escritor;
+    private TransactionTemplate transaccion;
+
+    public AlmacenPedidos() {
+        for (Pedido.Estado estado : Pedido.Estado.values()) {
+            porEstado.put(estado, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @PostConstruct
+    void iniciar() {
+        Long maximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM pedidos", Long.class);
+        secuencia.set(maximo == null ? 0 : maximo);
+        transaccion = new TransactionTemplate(transactionManager);
+        escritor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "pedidos-escritura");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        escritor.scheduleWithFixedDelay(this::escribirPendientes,
+                intervaloEscrituraMs, intervaloEscrituraMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        escritor.shutdown();
+        escribirPendientes();
+    }
+
+    public Pedido registrar(Pedido pedido) {
+        esperarRecuperacion();
+        long id = secuencia.incrementAndGet();
+        pedido.setId(id);
+        // Antes de publicarlo, así ningún cambio de estado llega a la bitácora antes que la creación
+        bitacoraPedidos.pedidoCreado(pedido);
+        indexar(pedido);
+        return pedido;
+    }
+
+    /** Registra varios pedidos con ids consecutivos. */
+    public void registrarLote(List<Pedido> pedidos) {
+        esperarRecuperacion();
+        long primero = secuencia.getAndAdd(pedidos.size()) + 1;
+        for (int i = 0; i < pedidos.size(); i++) {
+            Pedido pedido = pedidos.get(i);
+            pedido.setId(primero + i);
+            bitacoraPedidos.pedidoCreado(pedido);
+        }
+        for (Pedido pedido : pedidos) {
+            indexar(pedido);
+        }
+    }
+
+    /**
+     * Vuelve a poner en memoria un pedido rehecho desde la bitácora, con su
+     * id original y sin registrarlo de nuevo en ella.
+     */
+    public void restaurar(Pedido pedido) {
+        reservarHasta(pedido.getId());
+        bitacoraPedidos.pedidoRecuperado(pedido);
+        indexar(pedido);
+    }
+
+    /**
+     * La bitácora ya se reprodujo y sus ids están reservados: desde ahora se
+     * registran pedidos nuevos. La API atiende desde antes, así que hasta
+     * entonces {@link #registrar} y {@link #registrarLote} esperan.
+     */
+    public void recuperacionTerminada() {
+        recuperado.countDown();
+    }
+
+    private void esperarRecuperacion() {
+        try {
+            recuperado.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando la recuperación de la bitácora", e);
+        }
+    }
+
+    /** Los próximos ids empiezan después de {@code id}. */
+    public void reservarHasta(long id) {
+        secuencia.accumulateAndGet(id, Math::max);
+    }
+
+    private void indexar(Pedido pedido) {
+        Long id = pedido.getId();
+        porId.put(id, pedido);
+        Restaurante restaurante = pedido.getRestaurante();
+        if (restaurante != null && restaurante.getId() != null) {
+            porRestaurante.computeIfAbsent(restaurante.getId(), r -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        porEstado.get(pedido.getEstado()).add(id);
+        pendientes.add(id);
+    }
+
+    /**
+     * Cambia el estado del pedido y mueve su entrada en el índice por estado.
+     *
+     * @return el estado que tenía el pedido antes del cambio
+     * @throws IllegalStateException si la transición no es válida
+     */
+    public Pedido.Estado cambiarEstado(Pedido pedido, Pedido.Estado nuevoEstado) {
+        Pedido.Estado actual;
+        synchronized (pedido) {
+            actual = pedido.getEstado();
+            if (!actual.puedeAvanzarA(nuevoEstado)) {
+                throw new IllegalStateException("Transición inválida: " + actual + " -> " + nuevoEstado);
+            }
+            // Dentro del bloqueo, para que la bitácora tenga los cambios en el mismo orden que el pedido
+            long ahora = System.currentTimeMillis();
+            bitacoraPedidos.estadoCambiado(pedido, nuevoEstado, ahora);
+            pedido.cambiarEstado(nuevoEstado, ahora);
+            reindexar(pedido.getId(), nuevoEstado);
+        }
+        pendientes.add(pedido.getId());
+        return actual;
+    }
+
+    private void reindexar(Long id, Pedido.Estado estado) {
+        for (Map.Entry<Pedido.Estado, Set<Long>> entrada : porEstado.entrySet()) {
+            if (entrada.getKey() == estado) {
+                entrada.getValue().add(id);
+            } else {
+                entrada.getValue().remove(id);
+            }
+        }
+    }
+
+    public Optional<Pedido> buscarActivo(Long id) {
+        return Optional.ofNullable(porId.get(id));
+    }
+
+    public Optional<Pedido> buscar(Long id) {
+        Pedido activo = porId.get(id);
+        return activo != null ? Optional.of(activo) : pedidoRepository.findConLineasById(id);
+    }
+
+    public List<Pedido> getActivos() {
+        return new ArrayList<>(porId.values());
+    }
+
+    public List<Pedido> getPorRestaurante(Long restauranteId) {
+        return resolver(porRestaurante.getOrDefault(restauranteId, Collections.emptySet()));
+    }
+
+    public List<Pedido> getPorEstado(Pedido.Estado estado) {
+        return resolver(porEstado.get(estado));
+    }
+
+    public int contarPorEstado(Pedido.Estado estado) {
+        return porEstado.get(estado).size();
+    }
+
+    private List<Pedido> resolver(Collection<Long> ids) {
+        List<Pedido> pedidos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Pedido pedido = porId.get(id);
+            if (pedido != null) {
+                pedidos.add(pedido);
+            }
+        }
+        return pedidos;
+    }
+
+    /**
+     * Escribe en lotes los pedidos con cambios. Los ítems solo se insertan
+     * la primera vez, después solo se actualiza la fila del pedido. Si el
+     * lote falla se reintenta cada pedido por separado, así una fila mala
+     * no traba al resto; un pedido que falla {@code reintentos-escritura}
+     * pasadas seguidas se deja de reintentar hasta su próximo cambio.
+     */
+    synchronized void escribirPendientes() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        List<Escritura> lote = new ArrayList<>();
+        Iterator<Long> iterador = pendientes.iterator();
+        while (iterador.hasNext() && lote.size() < loteEscritura) {
+            Long id = iterador.next();
+            iterador.remove();
+            Pedido pedido = porId.get(id);
+            if (pedido == null) {
+                continue;
+            }
+            synchronized (pedido) {
+                List<Object[]> filasItem = Collections.emptyList();
+                Object[] filaClave = null;
+                if (persistidos.add(id)) {
+                    List<ItemPedido> lineas = pedido.getLineas();
+                    filasItem = new ArrayList<>(lineas.size());
+                    for (int i = 0; i < lineas.size(); i++) {
+                        filasItem.add(new Object[] { id, i, lineas.get(i).getDescripcion(), lineas.get(i).getPrecioCentavos() });
+                    }
+                    if (pedido.getClaveIdempotencia() != null) {
+                        filaClave = new Object[] { pedido.getClaveIdempotencia(), pedido.getHuellaIdempotencia(), id };
+                    }
+                }
+                lote.add(new Escritura(pedido, filaPedido(pedido), filasItem, filaClave,
+                        pedido.getEstado() == Pedido.Estado.ENTREGADO));
+            }
+        }
+
+        List<Escritura> escritas;
+        try {
+            escribir(lote);
+            escritas = lote;
+        } catch (RuntimeException e) {
+            System.err.println("❌ Error escribiendo un lote de " + lote.size() + " pedidos, se escriben de a uno: "
+                    + e.getMessage());
+            escritas = new ArrayList<>(lote.size());
+            for (Escritura escritura : lote) {
+                try {
+                    escribir(List.of(escritura));
+                    escritas.add(escritura);
+                } catch (RuntimeException error) {
+                    reintentar(escritura, error);
+                }
+            }
+        }
+
+        for (Escritura escritura : escritas) {
+            fallos.remove(escritura.pedido().getId());
+            if (escritura.entregado()) {
+                desalojar(escritura.pedido());
+            }
+        }
+    }
+
+    private void escribir(List<Escritura> lote) {
+        List<Object[]> filasPedido = new ArrayList<>(lote.size());
+        List<Object[]> filasItem = new ArrayList<>();
+        List<Object[]> filasClave = new ArrayList<>();
+        for (Escritura escritura : lote) {
+            filasPedido.add(escritura.filaPedido());
+            filasItem.addAll(escritura.filasItem());
+            if (escritura.filaClave() != null) {
+                filasClave.add(escritura.filaClave());
+            }
+        }
+        transaccion.executeWithoutResult(estado -> {
+            jdbcTemplate.batchUpdate(SQL_PEDIDO, filasPedido);
+            if (!filasItem.isEmpty()) {
+                jdbcTemplate.batchUpdate(SQL_ITEM, filasItem);
+            }
+            if (!filasClave.isEmpty()) {
+                jdbcTemplate.batchUpdate(SQL_CLAVE, filasClave);
+            }
+        });
+    }
+
+    private void reintentar(Escritura escritura, RuntimeException error) {
+        Long id = escritura.pedido().getId();
+        // Los ítems y la clave no llegaron: van de nuevo con la próxima escritura del pedido
+        if (!escritura.filasItem().isEmpty() || escritura.filaClave() != null) {
+            persistidos.remove(id);
+        }
+        int seguidos = fallos.merge(id, 1, Integer::sum);
+        if (seguidos >= reintentosEscritura) {
+            fallos.remove(id);
+            System.err.println("❌ El pedido " + id + " falló " + seguidos
+                    + " veces al escribirse, se reintenta con su próximo cambio: " + error.getMessage());
+            return;
+        }
+        pendientes.add(id);
+    }
+
+    /** Lo que se escribe de un pedido en una pasada, tomado bajo su bloqueo. */
+    private record Escritura(Pedido pedido, Object[] filaPedido, List<Object[]> filasItem, Object[] filaClave,
+                             boolean entregado) {
+    }
+
+    private Object[] filaPedido(Pedido pedido) {
+        Restaurante restaurante = pedido.getRestaurante();
+        return new Object[] {
+            pedido.getId(),
+            pedido.getCliente().getNombre(),
+            pedido.getCliente().getTelefono(),
+            pedido.getCliente().getDireccion(),
+            restaurante != null ? restaurante.getId() : null,
+            pedido.getEstado().name(),
+            pedido.getTotalCentavos(),
+            pedido.getDescuentoCentavos(),
+            pedido.getCreadoEn()
+        };
+    }
+
+    private void desalojar(Pedido pedido) {
+        Long id = pedido.getId();
+        // Si volvió a cambiar mientras se escribía, se queda hasta la próxima pasada
+        if (pendientes.contains(id)) {
+            return;
+        }
+        porId.remove(id);
+        persistidos.remove(id);
+        porEstado.get(Pedido.Estado.ENTREGADO).remove(id);
+        bitacoraPedidos.pedidoAsentado(pedido);
+        Restaurante restaurante = pedido.getRestaurante();
+        if (restaurante != null && restaurante.getId() != null) {
+            Set<Long> ids = porRestaurante.get(restaurante.getId());
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+    }
+}
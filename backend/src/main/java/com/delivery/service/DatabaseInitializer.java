@@ -1,14 +1,31 @@
 package com.delivery.service;
 
+import com.delivery.auth.ServicioAutenticacion;
+import com.delivery.carga.GeneradorDatos;
+import com.delivery.decorator.Extra;
+import com.delivery.decorator.Plato;
+import com.delivery.model.PrecioLista;
+import com.delivery.model.Promocion;
 import com.delivery.model.Restaurante;
 import com.delivery.model.Usuario;
+import com.delivery.precios.MotorPrecios;
+import com.delivery.repository.PrecioListaRepository;
+import com.delivery.repository.PromocionRepository;
 import com.delivery.repository.RestauranteRepository;
 import com.delivery.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
+// Antes que el runner de la consola, que bloquea o ejecuta comandos apenas arranca
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class DatabaseInitializer implements CommandLineRunner {
 
     @Autowired
@@ -17,22 +34,69 @@ public class DatabaseInitializer implements CommandLineRunner {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private ServicioAutenticacion servicioAutenticacion;
+
+    @Autowired
+    private GeneradorDatos generadorDatos;
+
+    @Autowired
+    private PrecioListaRepository precioListaRepository;
+
+    @Autowired
+    private PromocionRepository promocionRepository;
+
+    @Autowired
+    private MotorPrecios motorPrecios;
+
+    // Filas sintéticas a sembrar además de los datos de demostración
+    @Value("${delivery.semilla.usuarios:0}")
+    private long usuariosSinteticos;
+
+    @Value("${delivery.semilla.restaurantes:0}")
+    private long restaurantesSinteticos;
+
     @Override
     public void run(String... args) throws Exception {
         // Inicializar restaurantes
         if (restauranteRepository.count() == 0) {
-            restauranteRepository.save(new Restaurante("Pizza Palace", "Pizzas artesanales", "555-0101", "Calle Principal 123"));
-            restauranteRepository.save(new Restaurante("Burger King", "Hamburguesas gourmet", "555-0102", "Avenida Central 456"));
-            restauranteRepository.save(new Restaurante("Green Salad", "Ensaladas frescas", "555-0103", "Plaza Verde 789"));
+            restauranteRepository.saveAll(List.of(
+                new Restaurante("Pizza Palace", "Pizzas artesanales", "555-0101", "Calle Principal 123"),
+                new Restaurante("Burger King", "Hamburguesas gourmet", "555-0102", "Avenida Central 456"),
+                new Restaurante("Green Salad", "Ensaladas frescas", "555-0103", "Plaza Verde 789")));
             System.out.println("🍕 Restaurantes inicializados en la base de datos");
         }
 
         // Inicializar usuarios de prueba
         if (usuarioRepository.count() == 0) {
-            usuarioRepository.save(new Usuario("admin", "admin123", "Administrador", "admin@delivery.com", "555-0000"));
-            usuarioRepository.save(new Usuario("juan", "juan123", "Juan Pérez", "juan@email.com", "555-1111"));
-            usuarioRepository.save(new Usuario("maria", "maria123", "María García", "maria@email.com", "555-2222"));
+            usuarioRepository.saveAll(List.of(
+                new Usuario("admin", servicioAutenticacion.hashear("admin123"), "Administrador", "admin@delivery.com", "555-0000"),
+                new Usuario("juan", servicioAutenticacion.hashear("juan123"), "Juan Pérez", "juan@email.com", "555-1111"),
+                new Usuario("maria", servicioAutenticacion.hashear("maria123"), "María García", "maria@email.com", "555-2222")));
             System.out.println("👤 Usuarios de prueba inicializados en la base de datos");
         }
+
+        // Lista de precios general con los precios del menú y un combo de ejemplo
+        if (precioListaRepository.count() == 0) {
+            List<PrecioLista> precios = new ArrayList<>();
+            for (Plato plato : Plato.values()) {
+                precios.add(new PrecioLista(null, PrecioLista.Tipo.PLATO, plato.getId(), plato.getPrecioCentavos()));
+            }
+            for (Extra extra : Extra.values()) {
+                precios.add(new PrecioLista(null, PrecioLista.Tipo.EXTRA, extra.getId(), extra.getPrecioCentavos()));
+            }
+            precioListaRepository.saveAll(precios);
+            promocionRepository.save(Promocion.combo("Combo hamburguesa + ensalada", null,
+                    Plato.HAMBURGUESA.getId() + "," + Plato.ENSALADA.getId(), 150));
+            System.out.println("🏷️ Precios y promociones inicializados en la base de datos");
+        }
+        motorPrecios.recargar();
+
+        if (restaurantesSinteticos > 0) {
+            System.out.println("🌱 Sembrados " + generadorDatos.sembrarRestaurantes(restaurantesSinteticos));
+        }
+        if (usuariosSinteticos > 0) {
+            System.out.println("🌱 Sembrados " + generadorDatos.sembrarUsuarios(usuariosSinteticos));
+        }
     }
 }
\ No newline at end of file
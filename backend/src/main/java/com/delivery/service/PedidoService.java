@@ -0,0 +1,165 @@
+package com.delivery.service;
+
+import com.delivery.analitica.AnaliticaPedidos;
+import com.delivery.cocina.CocinaSaturadaException;
+import com.delivery.cocina.GestorCocinas;
+import com.delivery.difusion.CentralDifusion;
+import com.delivery.estimacion.EstimadorEntrega;
+import com.delivery.metricas.MetricasPedidos;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import com.delivery.observer.ClienteObservador;
+import com.delivery.observer.DifusionObservador;
+import com.delivery.observer.EstadisticasObservador;
+import com.delivery.observer.RepartidorObservador;
+import com.delivery.observer.RestauranteObservador;
+import com.delivery.precios.MotorPrecios;
+import com.delivery.reparto.MotorDespacho;
+import com.delivery.singleton.Estadisticas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Punto común para crear pedidos y cambiar su estado, usado tanto por la
+ * consola como por la API REST.
+ */
+@Service
+public class PedidoService {
+
+    @Autowired
+    private AlmacenPedidos almacenPedidos;
+
+    @Autowired
+    private MotorDespacho motorDespacho;
+
+    @Autowired
+    private GestorCocinas gestorCocinas;
+
+    @Autowired
+    private MetricasPedidos metricasPedidos;
+
+    @Autowired
+    private MotorPrecios motorPrecios;
+
+    @Autowired
+    private CentralDifusion centralDifusion;
+
+    @Autowired
+    private AnaliticaPedidos analiticaPedidos;
+
+    @Autowired
+    private EstimadorEntrega estimadorEntrega;
+
+    private final Estadisticas estadisticas = Estadisticas.getInstancia();
+
+    public Pedido nuevoPedido(Cliente cliente, Restaurante restaurante) {
+        Pedido pedido = new Pedido(cliente, restaurante);
+        observar(pedido);
+        return pedido;
+    }
+
+    /**
+     * Devuelve al almacén un pedido rehecho desde la bitácora, con los
+     * mismos observadores que tendría un pedido nuevo. Si estaba en
+     * preparación vuelve a ocupar su lugar en la cocina.
+     */
+    public void restaurar(Pedido pedido) {
+        observar(pedido);
+        if (pedido.getEstado() == Pedido.Estado.PREPARANDO) {
+            gestorCocinas.readmitir(pedido);
+        }
+        estimadorEntrega.actualizar(pedido);
+        almacenPedidos.restaurar(pedido);
+    }
+
+    private void observar(Pedido pedido) {
+        pedido.agregarObservador(new ClienteObservador(pedido.getCliente().getNombre(), estimadorEntrega));
+        pedido.agregarObservador(new RestauranteObservador());
+        pedido.agregarObservador(new RepartidorObservador(motorDespacho));
+        pedido.agregarObservador(new EstadisticasObservador(estadisticas));
+        pedido.agregarObservador(new DifusionObservador(centralDifusion));
+    }
+
+    /**
+     * Fija los precios y promociones vigentes y registra el pedido. Desde
+     * acá el precio ya no cambia aunque se recargue la tabla.
+     */
+    public Pedido registrar(Pedido pedido) {
+        motorPrecios.aplicar(pedido);
+        estimadorEntrega.actualizar(pedido);
+        almacenPedidos.registrar(pedido);
+        // Registrar no notifica a los observadores; los suscriptores del restaurante se enteran acá del pedido nuevo
+        centralDifusion.publicar(pedido, pedido.getEstado());
+        return pedido;
+    }
+
+    /** Como {@link #registrar}, pero reserva los ids de todo el lote de una vez. */
+    public void registrarLote(List<Pedido> pedidos) {
+        for (Pedido pedido : pedidos) {
+            motorPrecios.aplicar(pedido);
+            estimadorEntrega.actualizar(pedido);
+        }
+        almacenPedidos.registrarLote(pedidos);
+        for (Pedido pedido : pedidos) {
+            centralDifusion.publicar(pedido, pedido.getEstado());
+        }
+    }
+
+    /**
+     * Pasar de RECIBIDO a PREPARANDO requiere lugar en la cocina del
+     * restaurante. La admisión y el cambio van bajo el bloqueo del pedido,
+     * el mismo que toma el almacén: dos pedidos simultáneos de pasar a
+     * PREPARANDO reservan un solo lugar.
+     *
+     * @throws CocinaSaturadaException si la cocina no tiene lugar
+     * @throws IllegalStateException si la transición no es válida
+     */
+    public void cambiarEstado(Pedido pedido, Pedido.Estado nuevoEstado) {
+        Pedido.Estado anterior;
+        synchronized (pedido) {
+            boolean admitido = false;
+            if (nuevoEstado == Pedido.Estado.PREPARANDO && pedido.getEstado() == Pedido.Estado.RECIBIDO) {
+                gestorCocinas.admitir(pedido);
+                admitido = true;
+            }
+            try {
+                anterior = almacenPedidos.cambiarEstado(pedido, nuevoEstado);
+            } catch (IllegalStateException e) {
+                if (admitido) {
+                    gestorCocinas.liberar(pedido);
+                }
+                throw e;
+            }
+        }
+        metricasPedidos.transicion(pedido, anterior, nuevoEstado);
+        estimadorEntrega.transicion(pedido, anterior, nuevoEstado);
+        if (nuevoEstado == Pedido.Estado.LISTO && anterior == Pedido.Estado.PREPARANDO) {
+            gestorCocinas.liberar(pedido);
+        }
+        if (nuevoEstado == Pedido.Estado.ENTREGADO && anterior != Pedido.Estado.ENTREGADO) {
+            estadisticas.registrarPedidoCompletado(pedido);
+            analiticaPedidos.registrar(pedido);
+        }
+    }
+
+    /**
+     * Nadie va a seguir haciendo avanzar el pedido (el motor de ciclo de vida
+     * lo dio por vencido o falló): si ocupaba lugar en la cocina, lo suelta
+     * para que no quede tomado hasta que se lo dé por abandonado.
+     */
+    public void abandonar(Pedido pedido) {
+        gestorCocinas.liberar(pedido);
+    }
+
+    public Optional<Pedido> buscar(Long id) {
+        return almacenPedidos.buscar(id);
+    }
+
+    public Optional<Pedido> buscarActivo(Long id) {
+        return almacenPedidos.buscarActivo(id);
+    }
+}
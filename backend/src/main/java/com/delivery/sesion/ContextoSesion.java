@@ -0,0 +1,74 @@
+package com.delivery.sesion;
+
+import com.delivery.auth.Sesion;
+import com.delivery.model.Pedido;
+import com.delivery.model.Producto;
+
+import java.util.Optional;
+
+/**
+ * Estado de trabajo de un usuario: su sesión autenticada y el pedido que
+ * está armando. Cada usuario tiene el suyo, así varios pueden armar pedidos
+ * a la vez sin compartir nada; los métodos se sincronizan por si un mismo
+ * usuario manda dos solicitudes juntas.
+ */
+public class ContextoSesion {
+    private final Sesion sesion;
+    private Pedido borrador;
+    private volatile long ultimoUso;
+
+    ContextoSesion(Sesion sesion) {
+        this.sesion = sesion;
+        this.ultimoUso = System.currentTimeMillis();
+    }
+
+    /**
+     * @throws IllegalStateException si ya hay un pedido en armado
+     */
+    public synchronized void iniciarPedido(Pedido pedido) {
+        if (borrador != null) {
+            throw new IllegalStateException("Ya hay un pedido en armado");
+        }
+        borrador = pedido;
+    }
+
+    /**
+     * @throws IllegalStateException si no hay un pedido en armado
+     */
+    public synchronized void agregarItem(Producto producto) {
+        if (borrador == null) {
+            throw new IllegalStateException("No hay un pedido en armado");
+        }
+        borrador.agregarItem(producto);
+    }
+
+    public synchronized Optional<Pedido> getBorrador() {
+        return Optional.ofNullable(borrador);
+    }
+
+    /**
+     * Entrega el pedido en armado y deja el contexto libre para otro.
+     *
+     * @throws IllegalStateException si no hay pedido o no tiene items
+     */
+    public synchronized Pedido tomarBorrador() {
+        if (borrador == null || borrador.getItems().isEmpty()) {
+            throw new IllegalStateException("No hay un pedido con items para confirmar");
+        }
+        Pedido pedido = borrador;
+        borrador = null;
+        return pedido;
+    }
+
+    public synchronized void cancelarPedido() {
+        borrador = null;
+    }
+
+    void tocar() {
+        ultimoUso = System.currentTimeMillis();
+    }
+
+    public Sesion getSesion() { return sesion; }
+    public String getToken() { return sesion.getToken(); }
+    public long getUltimoUso() { return ultimoUso; }
+}
@@ -0,0 +1,216 @@
+package com.delivery.sesion;
+
+import com.delivery.auth.ServicioAutenticacion;
+import com.delivery.auth.Sesion;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Producto;
+import com.delivery.model.Restaurante;
+import com.delivery.service.PedidoService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contextos de sesión por token, compartidos por la consola y la API. Un
+ * contexto inactivo más de {@code delivery.sesiones.inactividad-ms} se
+ * descarta junto con su pedido en armado; si la sesión de autenticación
+ * sigue vigente, el contexto se vuelve a crear vacío en el próximo uso.
+ *
+ * <p>Pasado el máximo de contextos se desaloja con segunda oportunidad:
+ * los contextos esperan en orden de llegada, y al sacar uno que se usó
+ * desde que entró a la cola vuelve al final en vez de salir. Así sale uno
+ * de los menos usados sin recorrer todos.
+ */
+@Component
+public class GestorSesiones {
+
+    @Autowired
+    private ServicioAutenticacion servicioAutenticacion;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Value("${delivery.sesiones.inactividad-ms:900000}")
+    private long inactividadMs;
+
+    @Value("${delivery.sesiones.maximo:100000}")
+    private int maximo;
+
+    private final Map<String, ContextoSesion> contextos = new ConcurrentHashMap<>();
+    // Orden para desalojar; puede tener contextos que ya no están en el mapa, se saltean
+    private final Queue<Turno> orden = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock desalojo = new ReentrantLock();
+    private ScheduledExecutorService limpieza;
+
+    private final LongAdder abiertos = new LongAdder();
+    private final LongAdder desalojados = new LongAdder();
+
+    @PostConstruct
+    void iniciar() {
+        limpieza = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "sesiones-limpieza");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long periodo = Math.max(1000, inactividadMs / 4);
+        limpieza.scheduleWithFixedDelay(this::desalojarInactivos, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        limpieza.shutdownNow();
+    }
+
+    /**
+     * Devuelve el contexto del token, o uno nuevo si no tiene. Dos pedidos
+     * que llegan a la vez con un token nuevo comparten el mismo contexto y
+     * no se pisan el pedido en armado.
+     */
+    public ContextoSesion abrir(Sesion sesion) {
+        ContextoSesion[] nuevo = new ContextoSesion[1];
+        ContextoSesion contexto = contextos.computeIfAbsent(sesion.getToken(), token -> {
+            nuevo[0] = new ContextoSesion(sesion);
+            return nuevo[0];
+        });
+        if (nuevo[0] != null) {
+            abiertos.increment();
+            orden.add(new Turno(contexto));
+            if (contextos.size() > maximo) {
+                desalojarSobrantes();
+            }
+        }
+        return contexto;
+    }
+
+    /**
+     * Busca el contexto del token. Si no hay pero la sesión de autenticación
+     * es válida (por ejemplo, un login hecho desde la API), se crea uno.
+     */
+    public Optional<ContextoSesion> buscar(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        ContextoSesion contexto = contextos.get(token);
+        if (contexto != null && vencido(contexto, System.currentTimeMillis())) {
+            desalojar(contexto);
+            contexto = null;
+        }
+        if (contexto == null) {
+            return servicioAutenticacion.validar(token).map(this::abrir);
+        }
+        contexto.tocar();
+        return Optional.of(contexto);
+    }
+
+    public void cerrar(String token) {
+        if (token != null) {
+            contextos.remove(token);
+            servicioAutenticacion.cerrarSesion(token);
+        }
+    }
+
+    // Operaciones de armado de pedidos
+
+    /**
+     * @throws IllegalStateException si ya hay un pedido en armado
+     */
+    public Pedido iniciarPedido(ContextoSesion contexto, Restaurante restaurante, String direccion) {
+        Sesion sesion = contexto.getSesion();
+        Cliente cliente = new Cliente(sesion.getNombre(), sesion.getTelefono(), direccion);
+        Pedido pedido = pedidoService.nuevoPedido(cliente, restaurante);
+        contexto.iniciarPedido(pedido);
+        return pedido;
+    }
+
+    /**
+     * Registra el pedido en armado y libera el contexto.
+     *
+     * @throws IllegalStateException si no hay pedido o no tiene items
+     */
+    public Pedido confirmarPedido(ContextoSesion contexto) {
+        return pedidoService.registrar(contexto.tomarBorrador());
+    }
+
+    public void agregarItem(ContextoSesion contexto, Producto producto) {
+        contexto.agregarItem(producto);
+    }
+
+    private void desalojarSobrantes() {
+        desalojo.lock();
+        try {
+            // Cada contexto vuelve a la cola como mucho una vez por cada uso, así que esto termina
+            Turno turno;
+            while (contextos.size() > maximo && (turno = orden.poll()) != null) {
+                ContextoSesion contexto = turno.contexto;
+                if (contextos.get(contexto.getToken()) != contexto) {
+                    continue;
+                }
+                if (contexto.getUltimoUso() > turno.usadoAlEntrar) {
+                    orden.add(new Turno(contexto));
+                } else {
+                    desalojar(contexto);
+                }
+            }
+        } finally {
+            desalojo.unlock();
+        }
+    }
+
+    private void desalojarInactivos() {
+        long ahora = System.currentTimeMillis();
+        for (ContextoSesion contexto : contextos.values()) {
+            if (vencido(contexto, ahora)) {
+                desalojar(contexto);
+            }
+        }
+        // Los turnos de contextos cerrados o vencidos solo se saltean al desalojar; acá se limpian
+        orden.removeIf(turno -> contextos.get(turno.contexto.getToken()) != turno.contexto);
+    }
+
+    private boolean vencido(ContextoSesion contexto, long ahora) {
+        return ahora - contexto.getUltimoUso() >= inactividadMs;
+    }
+
+    private void desalojar(ContextoSesion contexto) {
+        // remove(clave, valor) para no borrar un contexto nuevo con el mismo token
+        if (contextos.remove(contexto.getToken(), contexto)) {
+            desalojados.increment();
+        }
+    }
+
+    public int getActivos() { return contextos.size(); }
+    public long getAbiertos() { return abiertos.sum(); }
+    public long getDesalojados() { return desalojados.sum(); }
+
+    public void mostrarMetricas() {
+        System.out.println("\n🧑‍🤝‍🧑 Sesiones:");
+        System.out.println("Contextos activos: " + getActivos());
+        System.out.println("Abiertos / desalojados por inactividad: " + getAbiertos() + " / " + getDesalojados());
+        System.out.println("Sesiones de autenticación activas / desalojadas por el máximo: "
+                + servicioAutenticacion.getSesionesActivas() + " / " + servicioAutenticacion.getSesionesDesalojadas());
+    }
+
+    private static final class Turno {
+        private final ContextoSesion contexto;
+        private final long usadoAlEntrar;
+
+        private Turno(ContextoSesion contexto) {
+            this.contexto = contexto;
+            this.usadoAlEntrar = contexto.getUltimoUso();
+        }
+    }
+}
@@ -1,52 +1,177 @@
 package com.delivery.singleton;
 
+import com.delivery.model.Dinero;
 import com.delivery.model.Pedido;
-import java.util.ArrayList;
-import java.util.List;
+import com.delivery.model.Restaurante;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estadísticas globales del sistema. Solo guarda contadores agregados, nunca
+ * los pedidos, y todos los registros son seguros entre hilos.
+ */
 public class Estadisticas {
-    private static Estadisticas instancia;
-    private List<Pedido> pedidosCompletados;
-    private double ingresosTotales;
+    private final LongAdder totalPedidos = new LongAdder();
+    private final LongAdder ingresosTotalesCentavos = new LongAdder();
+
+    private final VentanaDeslizante ultimoMinuto = new VentanaDeslizante(60, TimeUnit.SECONDS.toMillis(1));
+    private final VentanaDeslizante ultimaHora = new VentanaDeslizante(60, TimeUnit.MINUTES.toMillis(1));
+    private final VentanaDeslizante ultimoDia = new VentanaDeslizante(24, TimeUnit.HOURS.toMillis(1));
+
+    private final Map<Long, ResumenRestaurante> porRestaurante = new ConcurrentHashMap<>();
+    private final Map<Pedido.Estado, LongAdder> porEstado = new EnumMap<>(Pedido.Estado.class);
+    private final HistogramaLatencia latenciaEntrega = new HistogramaLatencia();
 
     private Estadisticas() {
-        this.pedidosCompletados = new ArrayList<>();
-        this.ingresosTotales = 0.0;
+        // El mapa por estado se llena una sola vez y luego solo se lee
+        for (Pedido.Estado estado : Pedido.Estado.values()) {
+            porEstado.put(estado, new LongAdder());
+        }
+    }
+
+    private static class Holder {
+        private static final Estadisticas INSTANCIA = new Estadisticas();
     }
 
     public static Estadisticas getInstancia() {
-        if (instancia == null) {
-            instancia = new Estadisticas();
-        }
-        return instancia;
+        return Holder.INSTANCIA;
     }
 
     public void registrarPedidoCompletado(Pedido pedido) {
-        if (pedido.getEstado() == Pedido.Estado.ENTREGADO) {
-            pedidosCompletados.add(pedido);
-            ingresosTotales += pedido.getTotal();
+        registrarPedidoCompletado(pedido, System.currentTimeMillis());
+    }
+
+    /** Registra una entrega ocurrida en {@code ahora}; al reproducir la bitácora es la hora original. */
+    public void registrarPedidoCompletado(Pedido pedido, long ahora) {
+        if (pedido.getEstado() != Pedido.Estado.ENTREGADO) {
+            return;
         }
+        long total = pedido.getTotalCentavos();
+
+        totalPedidos.increment();
+        ingresosTotalesCentavos.add(total);
+
+        ultimoMinuto.registrar(ahora, total);
+        ultimaHora.registrar(ahora, total);
+        ultimoDia.registrar(ahora, total);
+
+        Restaurante restaurante = pedido.getRestaurante();
+        if (restaurante != null && restaurante.getId() != null) {
+            porRestaurante
+                .computeIfAbsent(restaurante.getId(), id -> new ResumenRestaurante(restaurante.getNombre()))
+                .registrar(total);
+        }
+
+        latenciaEntrega.registrar(ahora - pedido.getCreadoEn());
+    }
+
+    public void registrarCambioEstado(Pedido.Estado estado) {
+        porEstado.get(estado).increment();
     }
 
     public int getTotalPedidos() {
-        return pedidosCompletados.size();
+        return (int) totalPedidos.sum();
+    }
+
+    public long getIngresosTotalesCentavos() {
+        return ingresosTotalesCentavos.sum();
     }
 
     public double getIngresosTotales() {
-        return ingresosTotales;
+        return Dinero.aDecimal(getIngresosTotalesCentavos());
     }
 
     public double getPromedioPorPedido() {
-        if (pedidosCompletados.isEmpty()) {
+        long pedidos = totalPedidos.sum();
+        if (pedidos == 0) {
             return 0.0;
         }
-        return ingresosTotales / pedidosCompletados.size();
+        return Dinero.aDecimal(ingresosTotalesCentavos.sum()) / pedidos;
+    }
+
+    // Consultas por ventana de tiempo
+
+    public long getPedidosUltimoMinuto() {
+        return ultimoMinuto.getPedidos(System.currentTimeMillis());
+    }
+
+    public long getPedidosUltimaHora() {
+        return ultimaHora.getPedidos(System.currentTimeMillis());
+    }
+
+    public long getPedidosUltimoDia() {
+        return ultimoDia.getPedidos(System.currentTimeMillis());
+    }
+
+    public double getIngresosUltimoMinuto() {
+        return Dinero.aDecimal(ultimoMinuto.getIngresosCentavos(System.currentTimeMillis()));
+    }
+
+    public double getIngresosUltimaHora() {
+        return Dinero.aDecimal(ultimaHora.getIngresosCentavos(System.currentTimeMillis()));
+    }
+
+    public double getIngresosUltimoDia() {
+        return Dinero.aDecimal(ultimoDia.getIngresosCentavos(System.currentTimeMillis()));
+    }
+
+    // Desgloses
+
+    public Map<Long, ResumenRestaurante> getPorRestaurante() {
+        return Map.copyOf(porRestaurante);
+    }
+
+    public long getCambiosDeEstado(Pedido.Estado estado) {
+        return porEstado.get(estado).sum();
+    }
+
+    public HistogramaLatencia getLatenciaEntrega() {
+        return latenciaEntrega;
     }
 
     public void mostrarEstadisticas() {
-        System.out.println("\n📊 Estadísticas del Sistema:");
-        System.out.println("Total de pedidos completados: " + getTotalPedidos());
-        System.out.println("Ingresos totales: $" + String.format("%.2f", getIngresosTotales()));
-        System.out.println("Promedio por pedido: $" + String.format("%.2f", getPromedioPorPedido()));
+        long pedidos = totalPedidos.sum();
+        long ingresos = ingresosTotalesCentavos.sum();
+        // Todo el bloque se imprime de una vez, sin intercalarse con otros hilos
+        StringBuilder texto = new StringBuilder(512);
+        texto.append("\n📊 Estadísticas del Sistema:\n")
+             .append("Total de pedidos completados: ").append(pedidos).append('\n')
+             .append("Ingresos totales: $");
+        Dinero.escribir(texto, ingresos).append('\n').append("Promedio por pedido: $");
+        Dinero.escribir(texto, pedidos == 0 ? 0 : Math.round((double) ingresos / pedidos)).append('\n')
+             .append("Pedidos último minuto / hora / día: ").append(getPedidosUltimoMinuto())
+             .append(" / ").append(getPedidosUltimaHora()).append(" / ").append(getPedidosUltimoDia()).append('\n')
+             .append("Tiempo de entrega p50 / p99: ").append(latenciaEntrega.getPercentil(50)).append(" ms / ")
+             .append(latenciaEntrega.getPercentil(99)).append(" ms");
+        for (ResumenRestaurante resumen : porRestaurante.values()) {
+            texto.append("\n🏪 ").append(resumen.getNombre()).append(": ").append(resumen.getPedidos())
+                 .append(" pedidos, $");
+            Dinero.escribir(texto, resumen.getIngresosCentavos());
+        }
+        System.out.println(texto);
+    }
+
+    public static class ResumenRestaurante {
+        private final String nombre;
+        private final LongAdder pedidos = new LongAdder();
+        private final LongAdder ingresosCentavos = new LongAdder();
+
+        ResumenRestaurante(String nombre) {
+            this.nombre = nombre;
+        }
+
+        void registrar(long montoCentavos) {
+            pedidos.increment();
+            ingresosCentavos.add(montoCentavos);
+        }
+
+        public String getNombre() { return nombre; }
+        public long getPedidos() { return pedidos.sum(); }
+        public long getIngresosCentavos() { return ingresosCentavos.sum(); }
+        public double getIngresos() { return Dinero.aDecimal(ingresosCentavos.sum()); }
     }
-}
\ No newline at end of file
+}
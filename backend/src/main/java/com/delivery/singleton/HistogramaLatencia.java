@@ -0,0 +1,54 @@
+package com.delivery.singleton;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias con cubetas en potencias de dos, en la unidad que
+ * use quien registra (ms, µs...). Ocupa un arreglo fijo y admite registros
+ * concurrentes sin bloqueo.
+ */
+public class HistogramaLatencia {
+    private static final int CUBETAS = 64;
+
+    private final AtomicLongArray conteos = new AtomicLongArray(CUBETAS);
+
+    public void registrar(long latencia) {
+        conteos.incrementAndGet(indice(Math.max(0, latencia)));
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            total += conteos.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Devuelve el límite superior de la cubeta que contiene el
+     * percentil indicado, entre 0 y 100.
+     */
+    public long getPercentil(double percentil) {
+        long total = getTotal();
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = (long) Math.ceil(total * (percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += conteos.get(i);
+            if (acumulado >= Math.max(1, objetivo)) {
+                return limiteSuperior(i);
+            }
+        }
+        return limiteSuperior(CUBETAS - 1);
+    }
+
+    private static int indice(long valor) {
+        return valor == 0 ? 0 : 64 - Long.numberOfLeadingZeros(valor);
+    }
+
+    private static long limiteSuperior(int indice) {
+        return indice == 0 ? 0 : (indice >= 63 ? Long.MAX_VALUE : (1L << indice) - 1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.delivery.singleton;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ventana de tiempo deslizante de tamaño fijo, formada por un anillo de
+ * cubetas. Cada cubeta acumula los pedidos e ingresos de un intervalo y se
+ * recicla cuando el anillo da la vuelta, por lo que la memoria no crece.
+ * Una cubeta solo avanza a un periodo más nuevo: una muestra que llega
+ * tarde, de un periodo que su cubeta ya dejó atrás, se descarta en vez de
+ * borrar lo acumulado del periodo nuevo.
+ */
+public class VentanaDeslizante {
+    private final long anchoCubetaMs;
+    private final Cubeta[] cubetas;
+
+    public VentanaDeslizante(int numeroCubetas, long anchoCubetaMs) {
+        this.anchoCubetaMs = anchoCubetaMs;
+        this.cubetas = new Cubeta[numeroCubetas];
+        for (int i = 0; i < numeroCubetas; i++) {
+            cubetas[i] = new Cubeta();
+        }
+    }
+
+    public void registrar(long ahoraMs, long montoCentavos) {
+        long periodo = ahoraMs / anchoCubetaMs;
+        Cubeta cubeta = cubetas[(int) (periodo % cubetas.length)];
+        if (cubeta.periodo != periodo && !cubeta.avanzar(periodo)) {
+            return;
+        }
+        cubeta.pedidos.increment();
+        cubeta.ingresos.add(montoCentavos);
+    }
+
+    public long getPedidos(long ahoraMs) {
+        long periodoActual = ahoraMs / anchoCubetaMs;
+        long total = 0;
+        for (Cubeta cubeta : cubetas) {
+            if (vigente(cubeta, periodoActual)) {
+                total += cubeta.pedidos.sum();
+            }
+        }
+        return total;
+    }
+
+    public long getIngresosCentavos(long ahoraMs) {
+        long periodoActual = ahoraMs / anchoCubetaMs;
+        long total = 0;
+        for (Cubeta cubeta : cubetas) {
+            if (vigente(cubeta, periodoActual)) {
+                total += cubeta.ingresos.sum();
+            }
+        }
+        return total;
+    }
+
+    private boolean vigente(Cubeta cubeta, long periodoActual) {
+        long periodo = cubeta.periodo;
+        return periodo <= periodoActual && periodo > periodoActual - cubetas.length;
+    }
+
+    private static final class Cubeta {
+        private volatile long periodo = -1;
+        private final LongAdder pedidos = new LongAdder();
+        private final LongAdder ingresos = new LongAdder();
+
+        /**
+         * Solo se sincroniza al cambiar de periodo, no en cada registro.
+         *
+         * @return false si la cubeta ya está en un periodo más nuevo
+         */
+        private synchronized boolean avanzar(long nuevoPeriodo) {
+            if (periodo < nuevoPeriodo) {
+                pedidos.reset();
+                ingresos.reset();
+                periodo = nuevoPeriodo;
+            }
+            return periodo == nuevoPeriodo;
+        }
+    }
+}
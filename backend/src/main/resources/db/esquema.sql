@@ -0,0 +1,80 @@
+-- Esquema de las entidades para el perfil rapido, que valida en vez de generar.
+-- Se corre en cada arranque: todo lleva IF NOT EXISTS para servir también con una base en archivo.
+-- Al cambiar una entidad hay que cambiar esto; si no coinciden, la validación de Hibernate no deja arrancar.
+
+create sequence if not exists precios_seq start with 1 increment by 50;
+create sequence if not exists promociones_seq start with 1 increment by 50;
+create sequence if not exists restaurantes_seq start with 1 increment by 50;
+create sequence if not exists usuarios_seq start with 1 increment by 50;
+
+create table if not exists restaurantes (
+    id bigint not null,
+    descripcion varchar(255),
+    direccion varchar(255),
+    nombre varchar(255),
+    telefono varchar(255),
+    primary key (id)
+);
+
+create table if not exists usuarios (
+    id bigint not null,
+    contrasena_hash varchar(255),
+    email varchar(255),
+    nombre varchar(255),
+    nombre_usuario varchar(255) not null unique,
+    telefono varchar(255),
+    primary key (id)
+);
+
+create table if not exists pedidos (
+    creado_en bigint not null,
+    descuento_centavos bigint not null,
+    id bigint not null,
+    restaurante_id bigint,
+    total_centavos bigint not null,
+    cliente_direccion varchar(255),
+    cliente_nombre varchar(255),
+    cliente_telefono varchar(255),
+    clave_idempotencia varchar(255),
+    huella_idempotencia varchar(255),
+    estado varchar(255) check (estado in ('RECIBIDO','PREPARANDO','LISTO','EN_CAMINO','ENTREGADO')),
+    primary key (id),
+    constraint fk_pedidos_restaurante foreign key (restaurante_id) references restaurantes
+);
+
+-- Bases en archivo creadas antes de las claves de idempotencia
+alter table pedidos add column if not exists clave_idempotencia varchar(255);
+alter table pedidos add column if not exists huella_idempotencia varchar(255);
+
+create table if not exists pedido_items (
+    posicion integer not null,
+    pedido_id bigint not null,
+    precio_centavos bigint not null,
+    descripcion varchar(255),
+    primary key (posicion, pedido_id),
+    constraint fk_pedido_items_pedido foreign key (pedido_id) references pedidos
+);
+
+create table if not exists precios (
+    codigo integer not null,
+    id bigint not null,
+    precio_centavos bigint not null,
+    restaurante_id bigint,
+    tipo varchar(255) check (tipo in ('PLATO','EXTRA')),
+    primary key (id),
+    constraint ux_precios_producto unique (restaurante_id, tipo, codigo)
+);
+
+create table if not exists promociones (
+    activa boolean not null,
+    desde_minuto integer not null,
+    hasta_minuto integer not null,
+    porcentaje integer not null,
+    descuento_centavos bigint not null,
+    id bigint not null,
+    restaurante_id bigint,
+    nombre varchar(255),
+    platos varchar(255),
+    tipo varchar(255) check (tipo in ('COMBO','HORA_FELIZ')),
+    primary key (id)
+);
@@ -0,0 +1,143 @@
+package com.delivery.analitica;
+
+import com.delivery.decorator.Extra;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistorialColumnarTest {
+    private static final ZoneId ZONA = ZoneId.of("America/Argentina/Buenos_Aires");
+    private static final int PEDIDOS = 200_000;
+    private static final int RESTAURANTES = 50;
+    private static final int DIAS = 30;
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void crearPool() {
+        pool = AnaliticaPedidos.crearPool(4);
+    }
+
+    @AfterEach
+    void cerrarPool() {
+        pool.shutdown();
+    }
+
+    /**
+     * Con bloques chicos, para que haya muchos y la última semana corte uno
+     * por el medio, cada consulta tiene que dar lo mismo que sumar fila por
+     * fila lo cargado, sobre todo el historial y sobre la última semana.
+     */
+    @Test
+    void lasConsultasSumanLoMismoQueLoCargado() {
+        HistorialColumnar historial = new HistorialColumnar(4096, PEDIDOS, ZONA, pool);
+        long hasta = TimeUnit.SECONDS.toMillis(1_750_000_000L);
+        long desde = hasta - TimeUnit.DAYS.toMillis(DIAS);
+        long semana = hasta - TimeUnit.DAYS.toMillis(7);
+        Fila[] filas = cargar(historial, desde, hasta);
+        assertEquals(PEDIDOS, historial.getPedidos());
+        assertEquals(RESTAURANTES, historial.getRestaurantes());
+
+        for (long inicio : new long[] {Long.MIN_VALUE, semana}) {
+            Map<String, long[]> ventas = new HashMap<>();
+            long[] extras = new long[Extra.values().length];
+            Map<Long, long[]> tiempos = new HashMap<>();
+            for (Fila fila : filas) {
+                if (fila.entregadoEn < inicio) {
+                    continue;
+                }
+                int hora = Instant.ofEpochMilli(fila.entregadoEn).atZone(ZONA).getHour();
+                long[] venta = ventas.computeIfAbsent(fila.restauranteId + "@" + hora, clave -> new long[3]);
+                venta[0]++;
+                venta[1] += fila.items;
+                venta[2] += fila.total;
+                for (int e = 0; e < extras.length; e++) {
+                    if ((fila.extras & (1 << e)) != 0) {
+                        extras[e]++;
+                    }
+                }
+                long[] tiempo = tiempos.computeIfAbsent(fila.restauranteId, id -> new long[4]);
+                if (fila.preparacionMs >= 0) {
+                    tiempo[0]++;
+                    tiempo[1] += fila.preparacionMs;
+                }
+                tiempo[2]++;
+                tiempo[3] += fila.entregaMs;
+            }
+
+            List<VentaPorHora> agrupadas = historial.ventasPorRestauranteYHora(inicio, Long.MAX_VALUE);
+            assertEquals(ventas.size(), agrupadas.size());
+            for (VentaPorHora venta : agrupadas) {
+                long[] esperada = ventas.get(venta.restauranteId() + "@" + venta.hora());
+                assertEquals(esperada[0], venta.pedidos());
+                assertEquals(esperada[1], venta.items());
+                assertEquals(esperada[2], venta.ingresosCentavos());
+            }
+
+            List<UsoExtra> usos = historial.extrasPopulares(inicio, Long.MAX_VALUE);
+            for (UsoExtra uso : usos) {
+                assertEquals(extras[uso.extra().ordinal()], uso.pedidos(), uso.extra().getNombre());
+            }
+            for (int i = 1; i < usos.size(); i++) {
+                assertTrue(usos.get(i - 1).pedidos() >= usos.get(i).pedidos());
+            }
+
+            List<TiemposRestaurante> porRestaurante = historial.tiemposPorRestaurante(inicio, Long.MAX_VALUE);
+            assertEquals(tiempos.size(), porRestaurante.size());
+            for (TiemposRestaurante tiempo : porRestaurante) {
+                long[] esperado = tiempos.get(tiempo.restauranteId());
+                assertEquals(esperado[2], tiempo.pedidos());
+                assertEquals((double) esperado[1] / esperado[0], tiempo.preparacionMs(), 1e-6);
+                assertEquals((double) esperado[3] / esperado[2], tiempo.entregaMs(), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void alLlegarAlMaximoDescartaLosBloquesMasViejos() {
+        HistorialColumnar historial = new HistorialColumnar(100, 1_000, ZoneOffset.UTC, pool);
+        for (int i = 0; i < 1_050; i++) {
+            historial.agregar(1 + i % 3, TimeUnit.MINUTES.toMillis(i), 1000, 2000, 100, 1, 0);
+        }
+        assertEquals(10, historial.getBloques());
+        assertEquals(100, historial.getDescartados());
+        assertEquals(950, historial.getPedidos());
+        long contados = historial.ventasPorRestauranteYHora(Long.MIN_VALUE, Long.MAX_VALUE).stream()
+                .mapToLong(VentaPorHora::pedidos).sum();
+        assertEquals(950, contados);
+    }
+
+    private static Fila[] cargar(HistorialColumnar historial, long desde, long hasta) {
+        SplittableRandom azar = new SplittableRandom(42);
+        double paso = (double) (hasta - desde) / PEDIDOS;
+        Fila[] filas = new Fila[PEDIDOS];
+        for (int i = 0; i < PEDIDOS; i++) {
+            // En orden de entrega, con precisión de segundos como guarda el historial
+            long entregadoEn = (desde + (long) (i * paso)) / 1000 * 1000;
+            int preparacionMs = azar.nextInt(10) == 0 ? -1 : 300_000 + azar.nextInt(2_100_000);
+            Fila fila = new Fila(1 + azar.nextInt(RESTAURANTES), entregadoEn, preparacionMs,
+                    600_000 + azar.nextInt(2_400_000), 800 + azar.nextInt(5200), 1 + azar.nextInt(6),
+                    azar.nextInt(1 << Extra.values().length));
+            historial.agregar(fila.restauranteId, fila.entregadoEn, fila.preparacionMs, fila.entregaMs, fila.total,
+                    fila.items, fila.extras);
+            filas[i] = fila;
+        }
+        return filas;
+    }
+
+    private record Fila(long restauranteId, long entregadoEn, int preparacionMs, int entregaMs, long total, int items,
+                        int extras) {}
+}
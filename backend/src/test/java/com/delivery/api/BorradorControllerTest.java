@@ -0,0 +1,64 @@
+package com.delivery.api;
+
+import com.delivery.auth.Sesion;
+import com.delivery.cli.DeliveryComidaApplication;
+import com.delivery.sesion.GestorSesiones;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Agregar ítems al pedido en armado tiene los mismos límites que la
+ * ingesta masiva: la cantidad de cada línea y el total del pedido,
+ * contando lo que el borrador ya tiene.
+ */
+@SpringBootTest(classes = DeliveryComidaApplication.class, properties = "spring.jpa.open-in-view=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BorradorControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GestorSesiones gestorSesiones;
+
+    @Test
+    void unaCantidadFueraDeLimitesSeRechaza() throws Exception {
+        String token = UUID.randomUUID().toString();
+        gestorSesiones.abrir(new Sesion(token, 1L, "prueba", "Prueba", "prueba@delivery.com", "555-0000"));
+        mockMvc.perform(post("/api/session/order")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isCreated());
+
+        for (int cantidad : new int[] { 2_000_000_000, 100, 0, -1 }) {
+            agregar(token, cantidad).andExpect(status().isBadRequest());
+        }
+        agregar(token, 99).andExpect(status().isOk());
+        agregar(token, 99).andExpect(status().isOk()).andExpect(jsonPath("$.items", hasSize(198)));
+        // 198 + 3 pasa el máximo de 200 por pedido
+        agregar(token, 3).andExpect(status().isBadRequest());
+    }
+
+    private ResultActions agregar(String token, int cantidad) throws Exception {
+        return mockMvc.perform(post("/api/session/order/items")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"productId\": 1, \"extraIds\": [], \"quantity\": " + cantidad + "}"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.delivery.api;
+
+import com.delivery.cli.DeliveryComidaApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Con open-in-view apagado, como en los perfiles produccion y rapido, un
+ * pedido que ya salió de memoria se lee de la base y la respuesta tiene
+ * que poder recorrer sus líneas fuera de la transacción. Las cantidades
+ * tienen los mismos límites que la ingesta masiva.
+ */
+@SpringBootTest(classes = DeliveryComidaApplication.class, properties = "spring.jpa.open-in-view=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PedidoControllerTest {
+    // Lejos de los ids que asigna el almacén, así el pedido no está en memoria
+    private static final long ID = 1L << 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void unPedidoEntregadoSeLeeDeLaBaseConSusLineas() throws Exception {
+        long restauranteId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM restaurantes", Long.class);
+        jdbcTemplate.update("INSERT INTO pedidos (id, cliente_nombre, cliente_telefono, cliente_direccion, restaurante_id, "
+                + "estado, total_centavos, descuento_centavos, creado_en) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                ID, "Prueba", "555-0000", "Calle 1", restauranteId, "ENTREGADO", 2150, 0, System.currentTimeMillis());
+        jdbcTemplate.update("INSERT INTO pedido_items (pedido_id, posicion, descripcion, precio_centavos) VALUES (?, ?, ?, ?)",
+                ID, 0, "Pizza", 1200);
+        jdbcTemplate.update("INSERT INTO pedido_items (pedido_id, posicion, descripcion, precio_centavos) VALUES (?, ?, ?, ?)",
+                ID, 1, "Hamburguesa", 950);
+
+        mockMvc.perform(get("/api/orders/{id}", ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)));
+    }
+
+    @Test
+    void unaCantidadFueraDeLimitesSeRechaza() throws Exception {
+        for (int cantidad : new int[] { 2_000_000_000, 100, 0, -1 }) {
+            crear("[" + linea(cantidad) + "]").andExpect(status().isBadRequest());
+        }
+        // 67 * 3 = 201, una más que el máximo por pedido
+        crear("[" + linea(67) + ", " + linea(67) + ", " + linea(67) + "]").andExpect(status().isBadRequest());
+
+        crear("[" + linea(99) + ", " + linea(99) + "]")
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.items", hasSize(198)));
+    }
+
+    private ResultActions crear(String items) throws Exception {
+        long restauranteId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM restaurantes", Long.class);
+        return mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"customer": {"name": "Prueba", "phone": "555-0000", "address": "Calle 1"},
+                         "restaurantId": %d,
+                         "items": %s}
+                        """.formatted(restauranteId, items)));
+    }
+
+    private static String linea(int cantidad) {
+        return "{\"productId\": 1, \"extraIds\": [], \"quantity\": " + cantidad + "}";
+    }
+}
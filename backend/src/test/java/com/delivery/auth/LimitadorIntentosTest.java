@@ -0,0 +1,52 @@
+package com.delivery.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimitadorIntentosTest {
+
+    @Test
+    void losIntentosEnCursoCuentanHastaQueTerminan() {
+        LimitadorIntentos limitador = new LimitadorIntentos(3, 60_000, 100);
+        assertTrue(limitador.reservar("ana"));
+        assertTrue(limitador.reservar("ana"));
+        assertTrue(limitador.reservar("ana"));
+        assertFalse(limitador.reservar("ana"));
+
+        // Uno termina sin decidir nada: su lugar vuelve a estar libre
+        limitador.liberar("ana");
+        assertTrue(limitador.reservar("ana"));
+        for (int i = 0; i < 3; i++) {
+            limitador.registrarFallo("ana");
+        }
+        assertTrue(limitador.bloqueado("ana"));
+        assertFalse(limitador.reservar("ana"));
+        assertTrue(limitador.reservar("beto"));
+    }
+
+    @Test
+    void noGuardaMasUsuariosQueElMaximoYVenceConLaVentana() {
+        AtomicLong reloj = new AtomicLong();
+        LimitadorIntentos limitador = new LimitadorIntentos(5, 1000, 100, reloj::get);
+        for (int i = 0; i < 10_000; i++) {
+            limitador.reservar("usuario-" + i);
+            limitador.registrarFallo("usuario-" + i);
+            assertTrue(limitador.getUsuarios() <= 100);
+        }
+        // Los más nuevos siguen contando: al último le quedan cuatro intentos
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limitador.reservar("usuario-9999"));
+            limitador.registrarFallo("usuario-9999");
+        }
+        assertFalse(limitador.reservar("usuario-9999"));
+
+        reloj.addAndGet(1000);
+        limitador.reservar("otro");
+        assertEquals(1, limitador.getUsuarios());
+    }
+}
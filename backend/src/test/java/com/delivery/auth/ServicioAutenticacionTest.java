@@ -0,0 +1,68 @@
+package com.delivery.auth;
+
+import com.delivery.cli.DeliveryComidaApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Muchos intentos con la contraseña equivocada llegan a la vez para el
+ * mismo usuario. Solo el máximo de intentos llega a calcular el hash;
+ * el resto se bloquea de entrada, aunque ninguno haya terminado todavía.
+ */
+@SpringBootTest(classes = DeliveryComidaApplication.class)
+@ActiveProfiles("test")
+class ServicioAutenticacionTest {
+    private static final int INTENTOS = 20;
+
+    @Autowired
+    private ServicioAutenticacion servicio;
+
+    @Value("${delivery.auth.intentos.maximo:5}")
+    private int maximoFallos;
+
+    @Test
+    void losIntentosSimultaneosNoPasanDelMaximo() throws Exception {
+        String usuario = "prueba-" + UUID.randomUUID();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(INTENTOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<CompletableFuture<ResultadoLogin>> resultados = new ArrayList<>();
+        for (int i = 0; i < INTENTOS; i++) {
+            resultados.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return servicio.iniciarSesion(usuario, "equivocada").join();
+            }, ejecutor));
+        }
+        largada.countDown();
+        Map<ResultadoLogin.Estado, LongAdder> cantidades = new ConcurrentHashMap<>();
+        for (CompletableFuture<ResultadoLogin> resultado : resultados) {
+            ResultadoLogin login = resultado.get(1, TimeUnit.MINUTES);
+            cantidades.computeIfAbsent(login.getEstado(), estado -> new LongAdder()).increment();
+        }
+        ejecutor.shutdown();
+
+        assertEquals(maximoFallos, cantidades.get(ResultadoLogin.Estado.CREDENCIALES_INVALIDAS).sum(), cantidades.toString());
+        assertEquals(INTENTOS - maximoFallos, cantidades.get(ResultadoLogin.Estado.BLOQUEADO).sum(), cantidades.toString());
+        assertEquals(ResultadoLogin.Estado.BLOQUEADO, servicio.iniciarSesion(usuario, "equivocada").join().getEstado());
+    }
+}
@@ -0,0 +1,61 @@
+package com.delivery.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SesionesActivasTest {
+    private static final int MAXIMO = 100;
+
+    @Test
+    void pasadoElMaximoSalenLasQueNoSeUsaron() throws InterruptedException {
+        SesionesActivas sesiones = new SesionesActivas(MAXIMO, 60_000);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < MAXIMO; i++) {
+            tokens.add(agregar(sesiones, i));
+        }
+        // El último uso tiene resolución de milisegundos
+        Thread.sleep(5);
+        List<String> usadas = tokens.subList(0, 10);
+        for (String token : usadas) {
+            assertTrue(sesiones.validar(token).isPresent());
+        }
+
+        for (int i = MAXIMO; i < MAXIMO + 10; i++) {
+            agregar(sesiones, i);
+        }
+
+        assertEquals(MAXIMO, sesiones.getActivas());
+        assertEquals(10, sesiones.getDesalojadas());
+        for (String token : usadas) {
+            assertTrue(sesiones.validar(token).isPresent(), "salió una sesión usada: " + token);
+        }
+        for (String token : tokens.subList(10, 20)) {
+            assertTrue(sesiones.validar(token).isEmpty(), "sigue una sesión sin usar: " + token);
+        }
+    }
+
+    /**
+     * Sesiones que se cierran sin llegar al máximo dejan su turno en la
+     * cola; la cola no puede crecer con ellas sin límite.
+     */
+    @Test
+    void losTurnosDeSesionesCerradasNoSeAcumulan() {
+        SesionesActivas sesiones = new SesionesActivas(MAXIMO, 60_000);
+        for (int i = 0; i < 100_000; i++) {
+            sesiones.quitar(agregar(sesiones, i));
+            assertTrue(sesiones.getTurnos() <= 2 * MAXIMO + 1, "turnos: " + sesiones.getTurnos());
+        }
+        assertEquals(0, sesiones.getActivas());
+    }
+
+    private static String agregar(SesionesActivas sesiones, int numero) {
+        Sesion sesion = new Sesion("token-" + numero, (long) numero, "usuario-" + numero, "Usuario", null, null);
+        sesiones.agregar(sesion);
+        return sesion.getToken();
+    }
+}
@@ -0,0 +1,193 @@
+package com.delivery.bitacora;
+
+import com.delivery.decorator.ProductoBase;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitacoraTest {
+    // Creación, 3 items y 4 cambios de estado hasta ENTREGADO
+    private static final int EVENTOS_POR_PEDIDO = 8;
+    private static final int RESTAURANTES = 100;
+
+    @TempDir
+    Path directorio;
+
+    /**
+     * Varios hilos escriben pedidos completos en segmentos chicos, para que
+     * se cambie de segmento muchas veces. Al reproducir tienen que estar
+     * todos los eventos y no debe quedar ningún pedido activo.
+     */
+    @Test
+    void reproduceTodoLoEscritoDesdeVariosHilos() throws Exception {
+        int pedidos = 20_000;
+        Restaurante[] restaurantes = restaurantes();
+        BitacoraPedidos bitacora = new BitacoraPedidos(directorio, 1024 * 1024, 5);
+        AtomicLong siguienteId = new AtomicLong();
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < 4; h++) {
+            hilos.add(new Thread(() -> escribir(bitacora, restaurantes, siguienteId, pedidos)));
+        }
+        hilos.forEach(Thread::start);
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        bitacora.sincronizar().get(10, TimeUnit.SECONDS);
+        Bitacora diario = bitacora.getBitacora();
+        assertEquals((long) pedidos * EVENTOS_POR_PEDIDO, diario.getEscritos());
+        assertEquals(diario.getEscritos(), diario.getSincronizados());
+        bitacora.cerrar();
+        try (Stream<Path> segmentos = Files.list(directorio)) {
+            assertTrue(segmentos.count() > 1, "los pedidos ocupan más de un segmento");
+        }
+
+        ReconstruccionPedidos reconstruccion = new ReconstruccionPedidos(id -> restaurantes[(int) (id - 1)], null);
+        Bitacora.leer(directorio, reconstruccion);
+        assertEquals((long) pedidos * EVENTOS_POR_PEDIDO, reconstruccion.getEventos());
+        assertEquals(pedidos, reconstruccion.getEntregados());
+        assertEquals(pedidos, reconstruccion.getMaximoId());
+        assertTrue(reconstruccion.getActivos().isEmpty());
+    }
+
+    /**
+     * Esperar la sincronización cuando el hilo de fsync ya bajó todo a
+     * disco y no se agrega nada más tiene que terminar igual.
+     */
+    @Test
+    void sincronizarSinEscriturasNuevasNoSeQuedaEsperando() throws Exception {
+        try (Bitacora bitacora = new Bitacora(directorio, 64 * 1024, 1)) {
+            for (int i = 1; i <= 2000; i++) {
+                bitacora.agregar((byte) 1, i, i, ByteBuffer.wrap(new byte[] { 1 }));
+                if (i % 2 == 0) {
+                    // A veces el fsync ya pasó, a veces está corriendo: las dos ramas de la carrera
+                    long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                    while (bitacora.getSincronizados() < i && System.nanoTime() < limite) {
+                        Thread.onSpinWait();
+                    }
+                }
+                bitacora.sincronizar().get(5, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /**
+     * Veinte pedidos de tres registros en segmentos de 1 KB. Mientras el
+     * descarte no está habilitado no se borra nada; después se borran los
+     * segmentos anteriores al primer pedido retenido, sin perder ninguno de
+     * sus registros, y liberado ese queda solo el segmento en curso.
+     */
+    @Test
+    void seBorranLosSegmentosQueNingunPedidoRetiene() throws IOException {
+        int pedidos = 20;
+        long retenido = 12;
+        try (Bitacora bitacora = new Bitacora(directorio, 1024, 1000)) {
+            for (long id = 1; id <= pedidos; id++) {
+                bitacora.retener(id);
+                for (int i = 0; i < 3; i++) {
+                    bitacora.agregar((byte) 1, id, i, ByteBuffer.wrap(new byte[100]));
+                }
+            }
+            for (long id = 1; id <= pedidos; id++) {
+                if (id != retenido) {
+                    bitacora.liberar(id);
+                }
+            }
+            int escritos = archivos();
+            assertTrue(escritos > 5, "no se llegó a cambiar de segmento: " + escritos);
+            agregarYSincronizar(bitacora);
+            assertEquals(escritos, archivos());
+
+            bitacora.habilitarDescarte();
+            agregarYSincronizar(bitacora);
+            assertTrue(archivos() < escritos, "no se borró ningún segmento");
+            assertEquals(archivos(), bitacora.getSegmentosEnDisco());
+            List<Long> leidos = new ArrayList<>();
+            Bitacora.leer(directorio, (tipo, pedidoId, marca, contenido) -> leidos.add(pedidoId));
+            assertEquals(3, leidos.stream().filter(id -> id == retenido).count());
+            assertTrue(leidos.get(0) > 1, "quedó el primer segmento");
+
+            bitacora.liberar(retenido);
+            agregarYSincronizar(bitacora);
+            assertEquals(1, archivos());
+            assertEquals(escritos - 1, bitacora.getSegmentosDescartados());
+        }
+    }
+
+    private static void agregarYSincronizar(Bitacora bitacora) {
+        // Un registro de un pedido sin retener, para que haya una pasada de fsync que esperar
+        bitacora.agregar((byte) 1, 0, 0, ByteBuffer.wrap(new byte[] { 1 }));
+        bitacora.sincronizar().join();
+    }
+
+    private int archivos() throws IOException {
+        try (Stream<Path> segmentos = Files.list(directorio)) {
+            return (int) segmentos.count();
+        }
+    }
+
+    @Test
+    void unaEscrituraCortadaTerminaElDiario() throws IOException {
+        try (Bitacora bitacora = new Bitacora(directorio, 64 * 1024, 1000)) {
+            for (int i = 1; i <= 10; i++) {
+                bitacora.agregar((byte) 1, i, i, ByteBuffer.wrap(new byte[] { (byte) i, 2, 3 }));
+            }
+        }
+        Path segmento;
+        try (Stream<Path> segmentos = Files.list(directorio)) {
+            segmento = segmentos.findFirst().orElseThrow();
+        }
+        // Un byte cambiado en el contenido del sexto registro invalida su CRC
+        int largoRegistro = Bitacora.CABECERA + 3 + Bitacora.COLA;
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[] { 99 }), 5L * largoRegistro + Bitacora.CABECERA);
+        }
+
+        List<Long> leidos = new ArrayList<>();
+        long cantidad = Bitacora.leer(directorio, (tipo, pedidoId, marca, contenido) -> leidos.add(pedidoId));
+        assertEquals(5, cantidad);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), leidos);
+    }
+
+    private static Restaurante[] restaurantes() {
+        Restaurante[] restaurantes = new Restaurante[RESTAURANTES];
+        for (int i = 0; i < RESTAURANTES; i++) {
+            restaurantes[i] = new Restaurante("Restaurante " + i, "Prueba", "000", "Local " + i);
+            restaurantes[i].setId((long) i + 1);
+        }
+        return restaurantes;
+    }
+
+    private static void escribir(BitacoraPedidos bitacora, Restaurante[] restaurantes, AtomicLong siguienteId, long pedidos) {
+        long id;
+        while ((id = siguienteId.incrementAndGet()) <= pedidos) {
+            Pedido pedido = new Pedido(new Cliente("Cliente " + id, "555-0000", "Calle " + id),
+                    restaurantes[(int) (id % restaurantes.length)]);
+            pedido.agregarItem(new ProductoBase("Pizza", 1200));
+            pedido.agregarItem(new ProductoBase("Hamburguesa", 950));
+            pedido.agregarItem(new ProductoBase("Ensalada", 800));
+            pedido.setId(id);
+            bitacora.pedidoCreado(pedido);
+            for (Pedido.Estado estado = Pedido.Estado.RECIBIDO; !estado.esFinal(); ) {
+                estado = estado.siguiente();
+                bitacora.estadoCambiado(pedido, estado, System.currentTimeMillis());
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.delivery.bitacora;
+
+import com.delivery.cli.DeliveryComidaApplication;
+import com.delivery.decorator.ProductoBase;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import com.delivery.service.PedidoService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Arranca la aplicación sobre una bitácora con dos pedidos sin entregar,
+ * uno recibido y otro en preparación. Los dos tienen que volver al motor
+ * de ciclo de vida y terminar entregados, el que estaba en preparación
+ * con su lugar en la cocina, y un pedido nuevo no puede repetir sus ids.
+ */
+@SpringBootTest(classes = DeliveryComidaApplication.class)
+@ActiveProfiles("test")
+class RecuperacionPedidosTest {
+    // Más que cualquier id que asigne el almacén en esta corrida
+    private static final long RECIBIDO_ID = 1_000_000;
+    private static final long PREPARANDO_ID = 1_000_001;
+
+    @TempDir
+    static Path directorio;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @DynamicPropertySource
+    static void bitacora(DynamicPropertyRegistry registro) {
+        registro.add("delivery.bitacora.directorio", () -> directorio.toString());
+    }
+
+    @BeforeAll
+    static void escribirBitacora() {
+        Restaurante restaurante = new Restaurante("Restaurante", "Prueba", "000", "Local");
+        restaurante.setId(1L);
+        BitacoraPedidos bitacora = new BitacoraPedidos(directorio, 1024 * 1024, 5);
+        for (long id : new long[] {RECIBIDO_ID, PREPARANDO_ID}) {
+            Pedido pedido = new Pedido(new Cliente("Cliente " + id, "555-0000", "Calle 1"), restaurante);
+            pedido.agregarItem(new ProductoBase("Pizza", 1200));
+            pedido.setId(id);
+            bitacora.pedidoCreado(pedido);
+        }
+        Pedido preparando = new Pedido(new Cliente("Cliente", "555-0000", "Calle 1"), restaurante);
+        preparando.setId(PREPARANDO_ID);
+        bitacora.estadoCambiado(preparando, Pedido.Estado.PREPARANDO, System.currentTimeMillis());
+        bitacora.cerrar();
+    }
+
+    @Test
+    void losPedidosSinEntregarSiguenYLosIdsNoSeRepiten() throws InterruptedException {
+        Pedido preparando = pedidoService.buscarActivo(PREPARANDO_ID).orElseThrow();
+        assertTrue(preparando.getListoEstimadoEn() > 0, "volvió a ocupar su lugar en la cocina");
+
+        Pedido nuevo = pedidoService.nuevoPedido(new Cliente("Nuevo", "555-0000", "Calle 2"), preparando.getRestaurante());
+        nuevo.agregarItem(new ProductoBase("Pizza", 1200));
+        assertTrue(pedidoService.registrar(nuevo).getId() > PREPARANDO_ID);
+
+        for (long id : new long[] {RECIBIDO_ID, PREPARANDO_ID}) {
+            assertEquals(Pedido.Estado.ENTREGADO, esperarFinal(id), "pedido " + id);
+        }
+    }
+
+    private Pedido.Estado esperarFinal(long id) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        Pedido.Estado estado = null;
+        while (System.nanoTime() < limite) {
+            estado = pedidoService.buscar(id).map(Pedido::getEstado).orElse(null);
+            if (estado == Pedido.Estado.ENTREGADO) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        return estado;
+    }
+}
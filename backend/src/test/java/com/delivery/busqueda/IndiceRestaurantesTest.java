@@ -0,0 +1,205 @@
+package com.delivery.busqueda;
+
+import com.delivery.model.Restaurante;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceRestaurantesTest {
+    private static final String[] LUGARES = {"La Parrilla", "El Rincón", "La Cocina", "El Fogón", "La Casa", "El Patio"};
+    private static final String[] COCINAS = {"italiana", "mexicana", "japonesa", "peruana", "árabe", "vegana"};
+    private static final String[] ESPECIALIDADES = {"pizza", "pastas", "tacos", "sushi", "ramen", "ceviche",
+            "empanadas", "parrilla", "postres", "café"};
+    private static final String[] SILABAS = {"ba", "ca", "co", "da", "ga", "la", "ma", "mi", "pa", "ra", "sa",
+            "ta", "rez", "nez", "mar", "sol"};
+
+    /**
+     * Para consultas sacadas de los propios restaurantes, lo que encuentra el
+     * índice tiene que ser exactamente lo que da recorrerlos a todos, también
+     * después de reindexar muchas veces los mismos restaurantes.
+     */
+    @Test
+    void encuentraLoMismoQueRecorrerTodos() {
+        SplittableRandom azar = new SplittableRandom(42);
+        List<Restaurante> restaurantes = new ArrayList<>();
+        IndiceRestaurantes indice = new IndiceRestaurantes();
+        for (int i = 0; i < 2_000; i++) {
+            Restaurante restaurante = restaurante(i + 1, azar);
+            restaurantes.add(restaurante);
+            indice.indexar(restaurante);
+        }
+        comparar(indice, restaurantes, azar);
+
+        for (int i = 0; i < 20_000; i++) {
+            Restaurante restaurante = restaurantes.get(azar.nextInt(restaurantes.size()));
+            restaurante.setNombre(nombre(azar));
+            indice.indexar(restaurante);
+        }
+        assertEquals(restaurantes.size(), indice.getRestaurantes());
+        assertTrue(indice.getRenumeraciones() > 0, "no se llegó a renumerar");
+        assertTrue(indice.getDocumentosNumerados() <= 2 * restaurantes.size(), "números: " + indice.getDocumentosNumerados());
+        comparar(indice, restaurantes, azar);
+    }
+
+    /**
+     * Los números de documento no crecen con las reindexaciones ni quedan
+     * altos después de quitar casi todo: se vuelven a numerar y la búsqueda
+     * sigue encontrando lo mismo, en el mismo orden.
+     */
+    @Test
+    void losNumerosDeDocumentoSiguenALosVivos() {
+        SplittableRandom azar = new SplittableRandom(7);
+        IndiceRestaurantes indice = new IndiceRestaurantes();
+        List<Restaurante> restaurantes = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Restaurante restaurante = restaurante(i + 1, azar);
+            restaurantes.add(restaurante);
+            indice.indexar(restaurante);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            indice.indexar(restaurantes.get(azar.nextInt(restaurantes.size())));
+            assertTrue(indice.getDocumentosNumerados() <= 2 * restaurantes.size());
+        }
+        List<Restaurante> antes = indice.buscar("cocina", 0, 20).restaurantes();
+
+        while (restaurantes.size() > 100) {
+            indice.quitar(restaurantes.remove(restaurantes.size() - 1).getId());
+        }
+        assertTrue(indice.getDocumentosNumerados() <= 1024, "números: " + indice.getDocumentosNumerados());
+        assertEquals(100, indice.buscar("cocina", 0, 200).total());
+        comparar(indice, restaurantes, azar);
+        List<Restaurante> despues = indice.buscar("cocina", 0, 200).restaurantes();
+        List<Restaurante> quedaron = new ArrayList<>(antes);
+        quedaron.retainAll(restaurantes);
+        List<Restaurante> enDespues = new ArrayList<>(despues);
+        enDespues.retainAll(quedaron);
+        assertEquals(quedaron, enDespues, "cambió el orden de los que quedaron");
+    }
+
+    /**
+     * La carga inicial leyó una fila vieja, pero mientras tanto se guardó
+     * una versión nueva de ese restaurante y se borró otro: ninguno de los
+     * dos vuelve a su versión de la carga.
+     */
+    @Test
+    void laCargaNoPisaLoQueSeActualizoMientrasSeLeia() {
+        IndiceRestaurantes indice = new IndiceRestaurantes();
+        Restaurante leido = new Restaurante("Pizzería Vieja", "Cocina italiana", "555-0000", "Calle 1");
+        leido.setId(1L);
+        Restaurante borrado = new Restaurante("Tacos del Sol", "Cocina mexicana", "555-0000", "Calle 2");
+        borrado.setId(2L);
+        Restaurante otro = new Restaurante("Sushi Club", "Cocina japonesa", "555-0000", "Calle 3");
+        otro.setId(3L);
+        Restaurante guardado = new Restaurante("Pizzería Nueva", "Cocina italiana", "555-0000", "Calle 1");
+        guardado.setId(1L);
+
+        indice.indexar(guardado);
+        indice.quitar(2L);
+        indice.indexarTodos(List.of(leido, borrado, otro), Set.of(1L, 2L));
+
+        assertEquals(List.of(guardado), indice.buscar("pizzeria", 0, 10).restaurantes());
+        assertEquals(0, indice.buscar("vieja", 0, 10).total());
+        assertEquals(0, indice.buscar("tacos", 0, 10).total());
+        assertEquals(List.of(otro), indice.buscar("sushi", 0, 10).restaurantes());
+        assertEquals(2, indice.getRestaurantes());
+    }
+
+    @Test
+    void quitarSacaAlRestauranteDeLasBusquedasYSugerencias() {
+        IndiceRestaurantes indice = new IndiceRestaurantes();
+        Restaurante unico = new Restaurante("Zanahoria Feliz", "Cocina vegana", "555-0000", "Calle Sol 1");
+        unico.setId(1L);
+        Restaurante otro = new Restaurante("La Parrilla", "Cocina argentina", "555-0000", "Calle Sol 2");
+        otro.setId(2L);
+        indice.indexar(unico);
+        indice.indexar(otro);
+        assertEquals(List.of("zanahoria"), indice.sugerir("zan", 10));
+        assertEquals(2, indice.buscar("cocina", 0, 10).total());
+
+        indice.quitar(1L);
+        assertEquals(0, indice.buscar("zanahoria", 0, 10).total());
+        assertEquals(List.of(), indice.sugerir("zan", 10));
+        assertEquals(List.of(otro), indice.buscar("cocina", 0, 10).restaurantes());
+        assertEquals(1, indice.getRestaurantes());
+    }
+
+    @Test
+    void elNombrePesaMasQueLaDescripcion() {
+        IndiceRestaurantes indice = new IndiceRestaurantes();
+        Restaurante enDescripcion = new Restaurante("El Patio", "Sushi y ramen", "555-0000", "Calle 1");
+        enDescripcion.setId(1L);
+        Restaurante enNombre = new Restaurante("Sushi Club", "Cocina japonesa", "555-0000", "Calle 2");
+        enNombre.setId(2L);
+        indice.indexar(enDescripcion);
+        indice.indexar(enNombre);
+        assertEquals(List.of(enNombre, enDescripcion), indice.buscar("sushi", 0, 10).restaurantes());
+        assertThrows(IllegalArgumentException.class, () -> indice.buscar("sushi", -1, 10));
+    }
+
+    private static void comparar(IndiceRestaurantes indice, List<Restaurante> restaurantes, SplittableRandom azar) {
+        for (int i = 0; i < 300; i++) {
+            Restaurante origen = restaurantes.get(azar.nextInt(restaurantes.size()));
+            List<String> terminos = Tokenizador.indexables(texto(origen));
+            String primero = terminos.get(azar.nextInt(terminos.size()));
+            String segundo = terminos.get(azar.nextInt(terminos.size()));
+            String prefijo = segundo.substring(0, Math.min(segundo.length(), 1 + azar.nextInt(3)));
+            String consulta = i % 2 == 0 ? prefijo : primero + " " + prefijo;
+
+            Set<Long> esperados = new HashSet<>();
+            for (Restaurante restaurante : restaurantes) {
+                List<String> propios = Tokenizador.indexables(texto(restaurante));
+                boolean conPrimero = i % 2 == 0 || propios.contains(primero);
+                if (conPrimero && propios.stream().anyMatch(termino -> termino.startsWith(prefijo))) {
+                    esperados.add(restaurante.getId());
+                }
+            }
+            assertTrue(esperados.contains(origen.getId()));
+
+            Set<Long> encontrados = new HashSet<>();
+            ResultadoBusqueda pagina = indice.buscar(consulta, 0, 50);
+            assertEquals(esperados.size(), pagina.total(), consulta);
+            for (int p = 0; p < pagina.getPaginas(); p++) {
+                for (Restaurante restaurante : indice.buscar(consulta, p, 50).restaurantes()) {
+                    assertTrue(encontrados.add(restaurante.getId()), "repetido en otra página: " + consulta);
+                }
+            }
+            assertEquals(esperados, encontrados, consulta);
+        }
+    }
+
+    private static Restaurante restaurante(long id, SplittableRandom azar) {
+        String descripcion = "Cocina " + COCINAS[azar.nextInt(COCINAS.length)] + ": "
+                + ESPECIALIDADES[azar.nextInt(ESPECIALIDADES.length)] + " y "
+                + ESPECIALIDADES[azar.nextInt(ESPECIALIDADES.length)];
+        Restaurante restaurante = new Restaurante(nombre(azar), descripcion, "555-0000",
+                "Calle " + palabra(azar) + " " + (1 + azar.nextInt(9999)));
+        restaurante.setId(id);
+        return restaurante;
+    }
+
+    private static String nombre(SplittableRandom azar) {
+        return LUGARES[azar.nextInt(LUGARES.length)] + " de " + palabra(azar);
+    }
+
+    private static String palabra(SplittableRandom azar) {
+        StringBuilder palabra = new StringBuilder(12);
+        int silabas = 2 + azar.nextInt(2);
+        for (int i = 0; i < silabas; i++) {
+            palabra.append(SILABAS[azar.nextInt(SILABAS.length)]);
+        }
+        palabra.setCharAt(0, Character.toUpperCase(palabra.charAt(0)));
+        return palabra.toString();
+    }
+
+    private static String texto(Restaurante restaurante) {
+        return restaurante.getNombre() + " " + restaurante.getDescripcion() + " " + restaurante.getDireccion();
+    }
+}
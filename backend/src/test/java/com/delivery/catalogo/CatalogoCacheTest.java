@@ -0,0 +1,69 @@
+package com.delivery.catalogo;
+
+import com.delivery.cli.DeliveryComidaApplication;
+import com.delivery.model.Restaurante;
+import com.delivery.repository.RestauranteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * La versión del catálogo cambia recién cuando la escritura de un
+ * restaurante se confirma: durante la transacción y después de un
+ * rollback la caché sigue sirviendo lo confirmado, y después del commit
+ * sirve el dato nuevo.
+ */
+@SpringBootTest(classes = DeliveryComidaApplication.class)
+@ActiveProfiles("test")
+class CatalogoCacheTest {
+
+    @Autowired
+    private CatalogoCache catalogoCache;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private TransactionTemplate transaccion;
+
+    @Test
+    void laVersionCambiaDespuesDelCommit() {
+        Long id = restauranteRepository.save(new Restaurante("Antes", "Prueba", "000", "Calle 1")).getId();
+        assertEquals("Antes", nombreEnCache(id));
+
+        long version = VersionCatalogo.actual();
+        transaccion.executeWithoutResult(estado -> {
+            Restaurante restaurante = restauranteRepository.findById(id).orElseThrow();
+            restaurante.setNombre("Despues");
+            restauranteRepository.saveAndFlush(restaurante);
+            assertEquals(version, VersionCatalogo.actual(), "sin confirmar todavía");
+            assertEquals("Antes", nombreEnCache(id));
+        });
+        assertEquals(version + 1, VersionCatalogo.actual());
+        assertEquals("Despues", nombreEnCache(id));
+    }
+
+    @Test
+    void unRollbackNoInvalidaElCatalogo() {
+        Long id = restauranteRepository.save(new Restaurante("Confirmado", "Prueba", "000", "Calle 1")).getId();
+        assertEquals("Confirmado", nombreEnCache(id));
+
+        long version = VersionCatalogo.actual();
+        transaccion.executeWithoutResult(estado -> {
+            Restaurante restaurante = restauranteRepository.findById(id).orElseThrow();
+            restaurante.setNombre("Descartado");
+            restauranteRepository.saveAndFlush(restaurante);
+            estado.setRollbackOnly();
+        });
+        assertEquals(version, VersionCatalogo.actual());
+        assertEquals("Confirmado", nombreEnCache(id));
+    }
+
+    private String nombreEnCache(Long id) {
+        return catalogoCache.buscarRestaurante(id).map(Restaurante::getNombre).orElseThrow();
+    }
+}
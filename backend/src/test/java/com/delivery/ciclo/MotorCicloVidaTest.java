@@ -0,0 +1,127 @@
+package com.delivery.ciclo;
+
+import com.delivery.cocina.CocinaSaturadaException;
+import com.delivery.cocina.GestorCocinas;
+import com.delivery.cocina.PropiedadesCocina;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MotorCicloVidaTest {
+    private static final Cliente CLIENTE = new Cliente("Prueba", "000", "Sin dirección");
+
+    @Test
+    void llevaCadaPedidoHastaEntregadoUnaSolaVez() throws Exception {
+        int pedidos = 5_000;
+        MotorCicloVida motor = new MotorCicloVida(propiedades(1, 600_000), Pedido::cambiarEstado);
+        try {
+            CompletableFuture<?>[] futuros = new CompletableFuture<?>[pedidos];
+            for (int i = 0; i < pedidos; i++) {
+                futuros[i] = motor.iniciar(new Pedido(CLIENTE, null));
+            }
+            CompletableFuture.allOf(futuros).get(30, TimeUnit.SECONDS);
+            for (CompletableFuture<?> futuro : futuros) {
+                assertEquals(Pedido.Estado.ENTREGADO, ((Pedido) futuro.join()).getEstado());
+            }
+            // RECIBIDO → PREPARANDO → LISTO → EN_CAMINO → ENTREGADO
+            assertEquals(4L * pedidos, motor.getTransiciones());
+            assertEquals(pedidos, motor.getCompletados());
+            assertEquals(0, motor.getEnCurso());
+            assertEquals(0, motor.getConflictos());
+        } finally {
+            motor.detener();
+        }
+    }
+
+    @Test
+    void unPedidoQueNoAvanzaVence() {
+        // La transición rechaza todo, como si otro actor lo tuviera tomado
+        MotorCicloVida motor = new MotorCicloVida(propiedades(1, 20), (pedido, estado) -> {
+            throw new IllegalStateException("ocupado");
+        });
+        try {
+            CompletableFuture<Pedido> futuro = motor.iniciar(new Pedido(CLIENTE, null));
+            ExecutionException error = assertThrows(ExecutionException.class, () -> futuro.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, error.getCause());
+            assertEquals(1, motor.getVencidos());
+            assertEquals(0, motor.getEnCurso());
+        } finally {
+            motor.detener();
+        }
+    }
+
+    @Test
+    void unaCocinaSaturadaSeReintentaDespuesDeLoQueAvisa() throws Exception {
+        long reintentarEnMs = 200;
+        AtomicInteger rechazos = new AtomicInteger(2);
+        MotorCicloVida motor = new MotorCicloVida(propiedades(1, 600_000), (pedido, estado) -> {
+            if (estado == Pedido.Estado.PREPARANDO && rechazos.getAndDecrement() > 0) {
+                throw new CocinaSaturadaException("saturada", reintentarEnMs);
+            }
+            pedido.cambiarEstado(estado);
+        });
+        try {
+            long inicio = System.nanoTime();
+            Pedido pedido = motor.iniciar(new Pedido(CLIENTE, null)).get(10, TimeUnit.SECONDS);
+            long transcurridoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+            assertEquals(Pedido.Estado.ENTREGADO, pedido.getEstado());
+            assertTrue(transcurridoMs >= 2 * reintentarEnMs, "se reintentó antes de lo avisado: " + transcurridoMs + " ms");
+            assertEquals(2, motor.getRechazados());
+            assertEquals(0, motor.getConflictos());
+            assertEquals(4, motor.getTransiciones());
+        } finally {
+            motor.detener();
+        }
+    }
+
+    /**
+     * Un pedido que se traba en PREPARANDO vence, y al soltarlo el motor le
+     * devuelve el lugar a la cocina: el siguiente pedido entra.
+     */
+    @Test
+    void unPedidoVencidoEnPreparacionLiberaSuLugar() {
+        PropiedadesCocina capacidad = new PropiedadesCocina();
+        capacidad.setPuestos(1);
+        capacidad.setCapacidadCola(0);
+        PropiedadesCicloVida propiedades = propiedades(1, 100);
+        GestorCocinas cocinas = new GestorCocinas(capacidad, propiedades);
+        MotorCicloVida motor = new MotorCicloVida(propiedades, (pedido, estado) -> {
+            if (estado != Pedido.Estado.PREPARANDO) {
+                throw new IllegalStateException("trabado");
+            }
+            cocinas.admitir(pedido);
+            pedido.cambiarEstado(estado);
+        }, cocinas::liberar);
+        Restaurante restaurante = new Restaurante("Restaurante", "Prueba", "000", "Local");
+        restaurante.setId(1L);
+        try {
+            CompletableFuture<Pedido> futuro = motor.iniciar(new Pedido(CLIENTE, restaurante));
+            assertThrows(ExecutionException.class, () -> futuro.get(10, TimeUnit.SECONDS));
+            assertEquals(1, motor.getVencidos());
+            assertEquals(0, cocinas.getProfundidad(restaurante.getId()));
+            cocinas.admitir(new Pedido(CLIENTE, restaurante));
+        } finally {
+            motor.detener();
+        }
+    }
+
+    private static PropiedadesCicloVida propiedades(long etapaMs, long timeoutMs) {
+        PropiedadesCicloVida propiedades = new PropiedadesCicloVida();
+        propiedades.setHilos(2);
+        propiedades.setTimeoutMs(timeoutMs);
+        propiedades.setGeneral(new PropiedadesCicloVida.Tiempos(etapaMs, etapaMs, etapaMs, etapaMs));
+        return propiedades;
+    }
+}
@@ -0,0 +1,167 @@
+package com.delivery.cocina;
+
+import com.delivery.ciclo.PropiedadesCicloVida;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GestorCocinasTest {
+    private static final Cliente CLIENTE = new Cliente("Prueba", "000", "Sin dirección");
+
+    /**
+     * Con una preparación larga nada termina durante la prueba, así que cada
+     * cocina admite exactamente puestos + cola aunque muchos hilos compitan
+     * por ella, y el resto se rechaza.
+     */
+    @Test
+    void ningunaCocinaSuperaSuCapacidadConMuchosHilos() throws InterruptedException {
+        PropiedadesCocina propiedades = new PropiedadesCocina();
+        GestorCocinas gestor = new GestorCocinas(propiedades, tiemposLargos());
+        int limite = propiedades.getPuestos() + propiedades.getCapacidadCola();
+        Restaurante[] restaurantes = restaurantes(50);
+        int hilos = 8;
+        int porHilo = 5_000;
+        LongAdder admitidos = new LongAdder();
+        LongAdder rechazados = new LongAdder();
+        LongAdder excedidos = new LongAdder();
+
+        List<Thread> trabajadores = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            trabajadores.add(new Thread(() -> {
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                for (int i = 0; i < porHilo; i++) {
+                    Restaurante restaurante = restaurantes[azar.nextInt(restaurantes.length)];
+                    try {
+                        gestor.admitir(new Pedido(CLIENTE, restaurante));
+                        admitidos.increment();
+                    } catch (CocinaSaturadaException e) {
+                        rechazados.increment();
+                    }
+                    if (gestor.getProfundidad(restaurante.getId()) > limite) {
+                        excedidos.increment();
+                    }
+                }
+            }));
+        }
+        trabajadores.forEach(Thread::start);
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+
+        assertEquals(0, excedidos.sum());
+        assertEquals((long) restaurantes.length * limite, admitidos.sum());
+        assertEquals((long) hilos * porHilo - admitidos.sum(), rechazados.sum());
+        for (Cocina cocina : gestor.getCocinas()) {
+            assertEquals(limite, cocina.getAdmitidos());
+            assertEquals(limite, gestor.getProfundidad(cocina.getRestauranteId()));
+        }
+    }
+
+    @Test
+    void liberarDejaLugarParaOtroPedido() {
+        PropiedadesCocina propiedades = new PropiedadesCocina();
+        propiedades.setPuestos(1);
+        propiedades.setCapacidadCola(1);
+        GestorCocinas gestor = new GestorCocinas(propiedades, tiemposLargos());
+        Restaurante restaurante = restaurantes(1)[0];
+        Pedido primero = new Pedido(CLIENTE, restaurante);
+        gestor.admitir(primero);
+        gestor.admitir(new Pedido(CLIENTE, restaurante));
+
+        CocinaSaturadaException saturada = assertThrows(CocinaSaturadaException.class,
+                () -> gestor.admitir(new Pedido(CLIENTE, restaurante)));
+        assertTrue(saturada.getMessage().contains("saturada"));
+
+        gestor.liberar(primero);
+        Pedido tercero = new Pedido(CLIENTE, restaurante);
+        gestor.admitir(tercero);
+        assertTrue(tercero.getListoEstimadoEn() > System.currentTimeMillis());
+        assertEquals(2, gestor.getProfundidad(restaurante.getId()));
+    }
+
+    /**
+     * Pasada la hora estimada de listo el lugar sigue ocupado hasta que el
+     * pedido se libera: una cocina atrasada rechaza en vez de admitir de más.
+     */
+    @Test
+    void laHoraEstimadaNoLiberaElLugar() throws InterruptedException {
+        PropiedadesCocina propiedades = new PropiedadesCocina();
+        propiedades.setPuestos(1);
+        propiedades.setCapacidadCola(0);
+        PropiedadesCicloVida tiempos = new PropiedadesCicloVida();
+        tiempos.setGeneral(new PropiedadesCicloVida.Tiempos(1L, 5L, 1L, 1L));
+        GestorCocinas gestor = new GestorCocinas(propiedades, tiempos);
+        Restaurante restaurante = restaurantes(1)[0];
+        Pedido primero = new Pedido(CLIENTE, restaurante);
+        gestor.admitir(primero);
+        Thread.sleep(20);
+
+        CocinaSaturadaException saturada = assertThrows(CocinaSaturadaException.class,
+                () -> gestor.admitir(new Pedido(CLIENTE, restaurante)));
+        // Atrasada, se vuelve a probar cuando podría haber salido otro pedido, no al milisegundo
+        assertTrue(saturada.getReintentarEnMs() >= 5, "reintento en " + saturada.getReintentarEnMs() + " ms");
+        assertEquals(1, gestor.getProfundidad(restaurante.getId()));
+
+        gestor.liberar(primero);
+        // Liberar otra vez el mismo pedido no libera el lugar del siguiente
+        Pedido segundo = new Pedido(CLIENTE, restaurante);
+        gestor.admitir(segundo);
+        gestor.liberar(primero);
+        assertEquals(1, gestor.getProfundidad(restaurante.getId()));
+        assertThrows(CocinaSaturadaException.class, () -> gestor.admitir(new Pedido(CLIENTE, restaurante)));
+    }
+
+    /**
+     * Un pedido que entró en preparación y nadie hizo avanzar ni liberó no
+     * deja la cocina tomada para siempre: pasado el plazo de abandono desde
+     * su hora de listo, su lugar se recupera.
+     */
+    @Test
+    void unPedidoTrabadoNoBloqueaLaCocinaParaSiempre() throws InterruptedException {
+        PropiedadesCocina propiedades = new PropiedadesCocina();
+        propiedades.setPuestos(1);
+        propiedades.setCapacidadCola(0);
+        propiedades.setAbandonoMs(50);
+        PropiedadesCicloVida tiempos = new PropiedadesCicloVida();
+        tiempos.setGeneral(new PropiedadesCicloVida.Tiempos(1L, 1L, 1L, 1L));
+        GestorCocinas gestor = new GestorCocinas(propiedades, tiempos);
+        Restaurante restaurante = restaurantes(1)[0];
+        Pedido trabado = new Pedido(CLIENTE, restaurante);
+        gestor.admitir(trabado);
+
+        assertThrows(CocinaSaturadaException.class, () -> gestor.admitir(new Pedido(CLIENTE, restaurante)));
+        Thread.sleep(100);
+
+        gestor.admitir(new Pedido(CLIENTE, restaurante));
+        assertEquals(1, gestor.getProfundidad(restaurante.getId()));
+        assertEquals(1, gestor.cocina(restaurante.getId()).getAbandonados());
+        // Si al final alguien lo libera, no se lleva el lugar del que entró después
+        gestor.liberar(trabado);
+        assertEquals(1, gestor.getProfundidad(restaurante.getId()));
+    }
+
+    private static PropiedadesCicloVida tiemposLargos() {
+        PropiedadesCicloVida tiempos = new PropiedadesCicloVida();
+        tiempos.setGeneral(new PropiedadesCicloVida.Tiempos(1000L, 600_000L, 1000L, 1000L));
+        return tiempos;
+    }
+
+    private static Restaurante[] restaurantes(int cantidad) {
+        Restaurante[] restaurantes = new Restaurante[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            restaurantes[i] = new Restaurante("Restaurante " + i, "Prueba", "000", "Local " + i);
+            restaurantes[i].setId((long) i + 1);
+        }
+        return restaurantes;
+    }
+}
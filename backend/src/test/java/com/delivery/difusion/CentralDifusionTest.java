@@ -0,0 +1,170 @@
+package com.delivery.difusion;
+
+import com.delivery.cli.DeliveryComidaApplication;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Suscriptores en memoria de la central: cada uno tiene que terminar
+ * viendo el último estado de exactamente los pedidos que sigue, sin que
+ * un estado retroceda, y un suscriptor lento que sigue todo se descarta
+ * sin frenar a los demás.
+ */
+@SpringBootTest(classes = DeliveryComidaApplication.class)
+@ActiveProfiles("test")
+class CentralDifusionTest {
+    // Ids sintéticos lejos de los de otras pruebas que comparten el contexto
+    private static final long BASE_ID = 1L << 40;
+    private static final int PEDIDOS = 2_000;
+    private static final int RESTAURANTES = 20;
+
+    @Autowired
+    private CentralDifusion central;
+
+    @Test
+    void cadaSuscriptorVeElUltimoEstadoDeSusPedidos() throws InterruptedException {
+        List<Restaurante> restaurantes = new ArrayList<>();
+        for (int i = 0; i < RESTAURANTES; i++) {
+            Restaurante restaurante = new Restaurante("Prueba " + i, "", "", "");
+            restaurante.setId(BASE_ID + i);
+            restaurantes.add(restaurante);
+        }
+        List<Pedido> pedidos = new ArrayList<>();
+        Cliente cliente = new Cliente("Prueba", "555-0000", "Calle 1");
+        for (int i = 0; i < PEDIDOS; i++) {
+            Pedido pedido = new Pedido(cliente, restaurantes.get(i % RESTAURANTES));
+            pedido.setId(BASE_ID + i);
+            pedidos.add(pedido);
+        }
+
+        int previas = central.getSuscripciones();
+        long descartadosAntes = central.getDescartadosLentos();
+        List<CanalMemoria> canales = new ArrayList<>();
+        List<Suscripcion> suscripciones = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CanalMemoria canal = new CanalMemoria(idsDe(pedidos, null, null), 0);
+            canales.add(canal);
+            suscripciones.add(central.suscribir(null, null, canal));
+        }
+        for (Restaurante restaurante : restaurantes) {
+            CanalMemoria canal = new CanalMemoria(idsDe(pedidos, null, restaurante.getId()), 0);
+            canales.add(canal);
+            suscripciones.add(central.suscribir(null, restaurante.getId(), canal));
+        }
+        for (int i = 0; i < PEDIDOS; i += 97) {
+            long pedidoId = BASE_ID + i;
+            CanalMemoria canal = new CanalMemoria(idsDe(pedidos, pedidoId, null), 0);
+            canales.add(canal);
+            suscripciones.add(central.suscribir(pedidoId, null, canal));
+        }
+        CanalMemoria lento = new CanalMemoria(Set.of(), 20);
+        Suscripcion suscripcionLenta = central.suscribir(null, null, lento);
+        assertEquals(previas + suscripciones.size() + 1, central.getSuscripciones());
+
+        for (int i = 0; i < PEDIDOS; i++) {
+            Pedido pedido = pedidos.get(i);
+            for (Pedido.Estado estado = pedido.getEstado(); !estado.esFinal(); ) {
+                estado = estado.siguiente();
+                pedido.cambiarEstado(estado);
+                central.publicar(pedido, estado);
+            }
+            // Un ritmo parejo, como los cambios reales, para que los rápidos no se desborden
+            if (i % 50 == 49) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!canales.stream().allMatch(CanalMemoria::completo) && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        for (int i = 0; i < canales.size(); i++) {
+            CanalMemoria canal = canales.get(i);
+            assertFalse(suscripciones.get(i).isCerrada(), "un suscriptor rápido quedó descartado");
+            assertEquals(0, canal.retrocesos.sum());
+            assertEquals(canal.esperados, canal.ultimos.keySet());
+            assertTrue(canal.completo());
+        }
+        assertTrue(suscripcionLenta.isCerrada());
+        assertTrue(central.getDescartadosLentos() > descartadosAntes);
+
+        for (Suscripcion suscripcion : suscripciones) {
+            central.cancelar(suscripcion);
+        }
+        assertEquals(previas, central.getSuscripciones());
+    }
+
+    private static Set<Long> idsDe(List<Pedido> pedidos, Long pedidoId, Long restauranteId) {
+        Set<Long> ids = new HashSet<>();
+        for (Pedido pedido : pedidos) {
+            if ((pedidoId == null || pedidoId.equals(pedido.getId()))
+                    && (restauranteId == null || restauranteId.equals(pedido.getRestaurante().getId()))) {
+                ids.add(pedido.getId());
+            }
+        }
+        return ids;
+    }
+
+    private static final class CanalMemoria implements Canal {
+        private final Set<Long> esperados;
+        private final long esperaMs;
+        private final Map<Long, Pedido.Estado> ultimos = new ConcurrentHashMap<>();
+        private final LongAdder retrocesos = new LongAdder();
+        private final LongAdder entregados = new LongAdder();
+
+        private CanalMemoria(Set<Long> esperados, long esperaMs) {
+            this.esperados = esperados;
+            this.esperaMs = esperaMs;
+        }
+
+        @Override
+        public void enviar(List<AvisoEstado> avisos) {
+            if (esperaMs > 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(esperaMs));
+                return;
+            }
+            for (AvisoEstado aviso : avisos) {
+                // Los de un suscriptor general también reciben pedidos de otras pruebas
+                if (aviso.getPedidoId() < BASE_ID) {
+                    continue;
+                }
+                Pedido.Estado anterior = ultimos.put(aviso.getPedidoId(), aviso.getEstado());
+                if (anterior != null && anterior.ordinal() >= aviso.getEstado().ordinal()) {
+                    retrocesos.increment();
+                }
+                if (aviso.getEstado().esFinal()) {
+                    entregados.increment();
+                }
+            }
+        }
+
+        private boolean completo() {
+            return entregados.sum() >= esperados.size();
+        }
+
+        @Override
+        public void latido() {}
+
+        @Override
+        public void cerrar(String motivo) {}
+    }
+}
@@ -0,0 +1,207 @@
+package com.delivery.estimacion;
+
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import com.delivery.reparto.Geocodificador;
+import com.delivery.reparto.Punto;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simula un flujo de pedidos con reloj propio: cada restaurante tiene su
+ * tiempo de cocina y el reparto depende de la distancia y del tránsito de
+ * la zona de destino, con variación lognormal. A mitad del flujo un 20%
+ * de los restaurantes se atrasa un 60%. Los modelos aprenden solo de lo
+ * que ya pasó a esa hora, como en producción, y cada estimación se compara
+ * con la hora real de entrega.
+ */
+class EstimadorEntregaTest {
+    private static final long INICIO = 1_700_000_000_000L;
+    private static final int PEDIDOS = 60_000;
+    private static final int RESTAURANTES = 100;
+    private static final int HORAS = 24;
+    private static final double DESVIO_COCINA = 0.35;
+    private static final double DESVIO_REPARTO = 0.25;
+    private static final double CALENTAMIENTO = 0.1;
+    private static final double FRACCION_ATRASADOS = 0.2;
+    private static final double FACTOR_ATRASO = 1.6;
+
+    // Por omisión, solo el modelo general y sin decaimiento
+    private static final Precision[] AL_CONFIRMAR = new Precision[3];
+    private static final Precision[] AL_ESTAR_LISTO = new Precision[3];
+    private static final Precision[] ATRASADOS_DESPUES = new Precision[3];
+
+    @BeforeAll
+    static void simular() {
+        PropiedadesEstimacion porOmision = new PropiedadesEstimacion();
+        PropiedadesEstimacion soloGeneral = new PropiedadesEstimacion();
+        soloGeneral.setMinimoObservaciones(Double.MAX_VALUE);
+        PropiedadesEstimacion sinDecaimiento = new PropiedadesEstimacion();
+        sinDecaimiento.setVidaMediaMs(TimeUnit.DAYS.toMillis(3650));
+        EstimadorEntrega[] modelos = {new EstimadorEntrega(porOmision), new EstimadorEntrega(soloGeneral),
+                new EstimadorEntrega(sinDecaimiento)};
+        for (int m = 0; m < modelos.length; m++) {
+            AL_CONFIRMAR[m] = new Precision();
+            AL_ESTAR_LISTO[m] = new Precision();
+            ATRASADOS_DESPUES[m] = new Precision();
+        }
+
+        SplittableRandom azar = new SplittableRandom(42);
+        Restaurante[] locales = new Restaurante[RESTAURANTES];
+        Punto[] ubicaciones = new Punto[RESTAURANTES];
+        double[] cocinaMinutos = new double[RESTAURANTES];
+        boolean[] atrasados = new boolean[RESTAURANTES];
+        for (int r = 0; r < RESTAURANTES; r++) {
+            locales[r] = new Restaurante("Restaurante " + r, "", "555-0000", "Calle " + r + " " + azar.nextInt(9999));
+            locales[r].setId((long) r + 1);
+            ubicaciones[r] = Geocodificador.ubicar(locales[r].getDireccion());
+            cocinaMinutos[r] = 8 + 22 * azar.nextDouble();
+            atrasados[r] = azar.nextDouble() < FRACCION_ATRASADOS;
+        }
+        double zonaKm = porOmision.getZonaKm();
+        int columnas = (int) Math.ceil(Geocodificador.LADO_CIUDAD_KM / zonaKm);
+        double[] transito = new double[columnas * columnas];
+        for (int z = 0; z < transito.length; z++) {
+            transito[z] = 0.75 + 0.7 * azar.nextDouble();
+        }
+
+        Pedido[] simulados = new Pedido[PEDIDOS];
+        long[] entregas = new long[PEDIDOS];
+        PriorityQueue<Evento> eventos = new PriorityQueue<>();
+        long duracion = TimeUnit.HOURS.toMillis(HORAS);
+        long cambio = INICIO + duracion / 2;
+        double intervaloMedio = (double) duracion / PEDIDOS;
+        double reloj = INICIO;
+        for (int i = 0; i < PEDIDOS; i++) {
+            reloj += -Math.log(1 - azar.nextDouble()) * intervaloMedio;
+            long ahora = (long) reloj;
+            procesarHasta(ahora, eventos, simulados, entregas, modelos);
+
+            int r = azar.nextInt(RESTAURANTES);
+            String direccion = "Avenida " + azar.nextInt(5000) + " " + azar.nextInt(9999);
+            Pedido pedido = new Pedido(new Cliente("Cliente " + i, "555-1111", direccion), locales[r], ahora);
+            pedido.setId((long) i + 1);
+            boolean atrasado = atrasados[r] && ahora >= cambio;
+            long cocina = minutos(cocinaMinutos[r] * (atrasado ? FACTOR_ATRASO : 1)
+                    * Math.exp(DESVIO_COCINA * azar.nextGaussian()));
+            Punto destino = Geocodificador.ubicar(direccion);
+            int zona = Math.min(columnas - 1, (int) (destino.x() / zonaKm)) * columnas
+                    + Math.min(columnas - 1, (int) (destino.y() / zonaKm));
+            long reparto = minutos((4 + 2.2 * ubicaciones[r].distancia(destino)) * transito[zona]
+                    * Math.exp(DESVIO_REPARTO * azar.nextGaussian()));
+            simulados[i] = pedido;
+            entregas[i] = ahora + cocina + reparto;
+
+            if (i >= PEDIDOS * CALENTAMIENTO) {
+                for (int m = 0; m < modelos.length; m++) {
+                    EstimacionEntrega estimacion = modelos[m].estimar(pedido, Pedido.Estado.RECIBIDO, ahora);
+                    AL_CONFIRMAR[m].registrar(estimacion, entregas[i]);
+                    if (atrasado) {
+                        ATRASADOS_DESPUES[m].registrar(estimacion, entregas[i]);
+                    }
+                }
+            }
+            eventos.add(new Evento(ahora + cocina, i, false));
+        }
+        procesarHasta(Long.MAX_VALUE, eventos, simulados, entregas, modelos);
+    }
+
+    @Test
+    void porRestauranteYZonaEstimaMejorQueSoloElGeneral() {
+        assertTrue(AL_CONFIRMAR[0].errorMedio() < 0.85 * AL_CONFIRMAR[1].errorMedio(),
+                AL_CONFIRMAR[0] + " contra " + AL_CONFIRMAR[1]);
+        assertTrue(AL_ESTAR_LISTO[0].errorMedio() < AL_ESTAR_LISTO[1].errorMedio(),
+                AL_ESTAR_LISTO[0] + " contra " + AL_ESTAR_LISTO[1]);
+    }
+
+    @Test
+    void elDecaimientoSigueAUnRestauranteQueSeAtrasa() {
+        assertTrue(ATRASADOS_DESPUES[0].errorMedio() < ATRASADOS_DESPUES[2].errorMedio(),
+                ATRASADOS_DESPUES[0] + " contra " + ATRASADOS_DESPUES[2]);
+    }
+
+    @Test
+    void elPercentil90CubreCercaDelNoventaPorCiento() {
+        for (Precision precision : new Precision[] {AL_CONFIRMAR[0], AL_ESTAR_LISTO[0]}) {
+            assertTrue(precision.cobertura() > 0.8 && precision.cobertura() < 0.97, precision.toString());
+            assertTrue(precision.sinDatos == 0, precision.toString());
+        }
+    }
+
+    /** Aplica los cambios de estado que ya ocurrieron a la hora {@code ahora} y los modelos aprenden de ellos. */
+    private static void procesarHasta(long ahora, PriorityQueue<Evento> eventos, Pedido[] simulados, long[] entregas,
+                                      EstimadorEntrega[] modelos) {
+        while (!eventos.isEmpty() && eventos.peek().tiempo() <= ahora) {
+            Evento evento = eventos.poll();
+            Pedido pedido = simulados[evento.indice()];
+            if (evento.entrega()) {
+                pedido.cambiarEstado(Pedido.Estado.ENTREGADO, evento.tiempo());
+                for (EstimadorEntrega modelo : modelos) {
+                    modelo.aprender(pedido, Pedido.Estado.EN_CAMINO, Pedido.Estado.ENTREGADO);
+                }
+                continue;
+            }
+            pedido.cambiarEstado(Pedido.Estado.LISTO, evento.tiempo());
+            for (int m = 0; m < modelos.length; m++) {
+                modelos[m].aprender(pedido, Pedido.Estado.PREPARANDO, Pedido.Estado.LISTO);
+                if (evento.indice() >= PEDIDOS * CALENTAMIENTO) {
+                    AL_ESTAR_LISTO[m].registrar(modelos[m].estimar(pedido, Pedido.Estado.LISTO, evento.tiempo()),
+                            entregas[evento.indice()]);
+                }
+            }
+            eventos.add(new Evento(entregas[evento.indice()], evento.indice(), true));
+        }
+    }
+
+    private static long minutos(double minutos) {
+        return Math.round(minutos * 60_000);
+    }
+
+    private record Evento(long tiempo, int indice, boolean entrega) implements Comparable<Evento> {
+        @Override
+        public int compareTo(Evento otro) {
+            return Long.compare(tiempo, otro.tiempo);
+        }
+    }
+
+    /** Error medio de la mediana y cobertura del percentil 90 contra la hora real de entrega. */
+    private static final class Precision {
+        private long estimaciones;
+        private long sinDatos;
+        private long cubiertas;
+        private double sumaErrores;
+
+        void registrar(EstimacionEntrega estimacion, long entrega) {
+            if (estimacion == null) {
+                sinDatos++;
+                return;
+            }
+            estimaciones++;
+            sumaErrores += Math.abs(estimacion.medianaEn() - entrega);
+            if (entrega <= estimacion.p90En()) {
+                cubiertas++;
+            }
+        }
+
+        double errorMedio() {
+            return sumaErrores / estimaciones;
+        }
+
+        double cobertura() {
+            return (double) cubiertas / estimaciones;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("error medio %.2f min, cobertura del p90 %.1f%%, %d sin datos",
+                    errorMedio() / 60_000, 100 * cobertura(), sinDatos);
+        }
+    }
+}
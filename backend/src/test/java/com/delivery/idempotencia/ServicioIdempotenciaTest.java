@@ -0,0 +1,103 @@
+package com.delivery.idempotencia;
+
+import com.delivery.cli.DeliveryComidaApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Claves de {@code POST /api/orders} con la persistencia activada: cada
+ * clave es del cliente que la manda, y la huella de la solicitud se
+ * guarda con ella, así después de volver a cargar las claves de la base
+ * un reintento recibe el mismo pedido y otra solicitud con la misma clave
+ * se sigue rechazando.
+ */
+@SpringBootTest(classes = DeliveryComidaApplication.class, properties = "delivery.idempotencia.persistir=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServicioIdempotenciaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ServicioIdempotencia servicioIdempotencia;
+
+    @Test
+    void laMismaClaveDeOtroClienteEsOtroPedido() throws Exception {
+        String clave = UUID.randomUUID().toString();
+        long id = crear(clave, solicitud("555-1001", 1));
+        assertEquals(id, crear(clave, solicitud("555-1001", 1)), "el reintento devuelve el mismo pedido");
+        assertNotEquals(id, crear(clave, solicitud("555-1002", 1)), "otro cliente con la misma clave crea su pedido");
+        enviar(clave, solicitud("555-1001", 2)).andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void laHuellaSeRecuerdaDespuesDeCargarLasClavesDeLaBase() throws Exception {
+        String clave = UUID.randomUUID().toString();
+        long id = crear(clave, solicitud("555-2001", 1));
+        esperarHuellaEscrita(id);
+
+        // Como al arrancar: la ventana se arma de nuevo solo con lo que hay en la base
+        servicioIdempotencia.iniciar();
+
+        enviar(clave, solicitud("555-2001", 2)).andExpect(status().isUnprocessableEntity());
+        assertEquals(id, crear(clave, solicitud("555-2001", 1)));
+    }
+
+    private long crear(String clave, String cuerpo) throws Exception {
+        String respuesta = enviar(clave, cuerpo).andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(respuesta).get("id").asLong();
+    }
+
+    private ResultActions enviar(String clave, String cuerpo) throws Exception {
+        return mockMvc.perform(post("/api/orders")
+                .header("Idempotency-Key", clave)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo));
+    }
+
+    private String solicitud(String telefono, int cantidad) {
+        long restauranteId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM restaurantes", Long.class);
+        return """
+                {"customer": {"name": "Prueba", "phone": "%s", "address": "Calle 1"},
+                 "restaurantId": %d,
+                 "items": [{"productId": 1, "extraIds": [], "quantity": %d}]}
+                """.formatted(telefono, restauranteId, cantidad);
+    }
+
+    private void esperarHuellaEscrita(long id) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < limite) {
+            Integer escritas = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pedidos WHERE id = ? AND huella_idempotencia IS NOT NULL", Integer.class, id);
+            if (escritas != null && escritas == 1) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("La huella del pedido " + id + " no llegó a la base");
+    }
+}
@@ -0,0 +1,180 @@
+package com.delivery.idempotencia;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VentanaDeduplicacionTest {
+    private static final long UNA_HORA_MS = TimeUnit.HOURS.toMillis(1);
+    // Lo que tarda la operación, para que los reintentos lleguen mientras corre
+    private static final long OPERACION_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final int CLAVES = 2000;
+    private static final int HILOS = 16;
+    private static final int VUELTAS = 3;
+
+    /**
+     * Muchos hilos reintentan las mismas claves a la vez. Cada clave se
+     * ejecuta una sola vez y todos reciben el mismo resultado; una de cada
+     * diez falla la primera vez, y esa sí tiene que volver a ejecutarse.
+     */
+    @Test
+    void unaEjecucionPorClaveDesdeMuchosHilos() throws InterruptedException {
+        VentanaDeduplicacion<Long> ventana = new VentanaDeduplicacion<>(UNA_HORA_MS, CLAVES);
+        String[] nombres = new String[CLAVES];
+        for (int i = 0; i < CLAVES; i++) {
+            nombres[i] = "estado:" + i;
+        }
+        AtomicIntegerArray exitosas = new AtomicIntegerArray(CLAVES);
+        AtomicIntegerArray intentos = new AtomicIntegerArray(CLAVES);
+        AtomicLongArray vistos = new AtomicLongArray(CLAVES);
+        AtomicLong siguienteId = new AtomicLong();
+        LongAdder distintos = new LongAdder();
+
+        IntConsumer llamar = k -> {
+            try {
+                Long id = ventana.ejecutar(nombres[k], k, () -> {
+                    LockSupport.parkNanos(OPERACION_NANOS);
+                    if (k % 10 == 0 && intentos.getAndIncrement(k) == 0) {
+                        throw new IllegalStateException("Falla de prueba");
+                    }
+                    exitosas.incrementAndGet(k);
+                    return siguienteId.incrementAndGet();
+                });
+                if (!vistos.compareAndSet(k, 0, id) && vistos.get(k) != id) {
+                    distintos.increment();
+                }
+            } catch (IllegalStateException e) {
+                // La falla le llega a quien ejecutó y a los que esperaban esa ejecución
+            }
+        };
+
+        Thread[] trabajadores = new Thread[HILOS];
+        for (int h = 0; h < HILOS; h++) {
+            long semilla = h;
+            trabajadores[h] = new Thread(() -> {
+                // Cada hilo recorre todas las claves varias veces, en su propio orden
+                SplittableRandom azar = new SplittableRandom(semilla);
+                int[] orden = new int[CLAVES];
+                for (int i = 0; i < CLAVES; i++) {
+                    orden[i] = i;
+                }
+                for (int vuelta = 0; vuelta < VUELTAS; vuelta++) {
+                    for (int i = CLAVES - 1; i > 0; i--) {
+                        int j = azar.nextInt(i + 1);
+                        int otro = orden[i];
+                        orden[i] = orden[j];
+                        orden[j] = otro;
+                    }
+                    for (int k : orden) {
+                        llamar.accept(k);
+                    }
+                }
+            });
+            trabajadores[h].start();
+        }
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+        // Una pasada más desde un solo hilo: las que fallaron y nadie reintentó terminan de ejecutarse
+        for (int k = 0; k < CLAVES; k++) {
+            llamar.accept(k);
+        }
+
+        for (int k = 0; k < CLAVES; k++) {
+            assertEquals(1, exitosas.get(k), "ejecuciones exitosas de la clave " + k);
+            assertEquals(k % 10 == 0 ? 2 : 0, intentos.get(k), "intentos de la clave " + k);
+        }
+        assertEquals(0, distintos.sum());
+    }
+
+    @Test
+    void laMismaClaveConOtraSolicitudSeRechaza() {
+        VentanaDeduplicacion<Long> ventana = new VentanaDeduplicacion<>(UNA_HORA_MS, 10);
+        ventana.ejecutar("pedido:a", "solicitud 1", () -> 1L);
+
+        assertEquals(1L, ventana.ejecutar("pedido:a", "solicitud 1", () -> 2L));
+        assertThrows(ClaveReutilizadaException.class, () -> ventana.ejecutar("pedido:a", "solicitud 2", () -> 3L));
+        assertEquals(1, ventana.getEjecuciones());
+        assertEquals(1, ventana.getConflictos());
+    }
+
+    @Test
+    void respetaElMaximoYVenceConLaVentana() {
+        AtomicLong reloj = new AtomicLong();
+        VentanaDeduplicacion<Integer> ventana = new VentanaDeduplicacion<>(1000, 1000, reloj::get);
+        AtomicInteger ejecutadas = new AtomicInteger();
+        for (int i = 0; i < 10_000; i++) {
+            ventana.ejecutar("k" + i, null, ejecutadas::incrementAndGet);
+        }
+        assertEquals(1000, ventana.getTamano());
+        assertEquals(9000, ventana.getDesalojos());
+
+        int antes = ejecutadas.get();
+        ventana.ejecutar("k9999", null, ejecutadas::incrementAndGet);
+        assertEquals(antes, ejecutadas.get(), "la clave recordada no se vuelve a ejecutar");
+        reloj.addAndGet(1000);
+        ventana.ejecutar("k9999", null, ejecutadas::incrementAndGet);
+        assertEquals(antes + 1, ejecutadas.get(), "al vencer la ventana la clave se vuelve a ejecutar");
+    }
+
+    @Test
+    void unaClaveCargadaConservaSuHuella() {
+        VentanaDeduplicacion<Long> ventana = new VentanaDeduplicacion<>(UNA_HORA_MS, 10);
+        ventana.recordar("pedido:c", 5L, System.currentTimeMillis(), "solicitud 1");
+
+        assertThrows(ClaveReutilizadaException.class, () -> ventana.ejecutar("pedido:c", "solicitud 2", () -> 6L));
+        assertEquals(5L, ventana.ejecutar("pedido:c", "solicitud 1", () -> 6L));
+        assertEquals(0, ventana.getEjecuciones());
+    }
+
+    /**
+     * Hilos que insertan claves nuevas sin pausa, con la ventana llena: el
+     * mapa no puede pasar del máximo aunque uno solo limpie por vez.
+     */
+    @Test
+    void elMaximoSeRespetaConMuchosHilosInsertando() throws InterruptedException {
+        int maximo = 1000;
+        VentanaDeduplicacion<Long> ventana = new VentanaDeduplicacion<>(UNA_HORA_MS, maximo);
+        AtomicLong siguiente = new AtomicLong();
+        AtomicInteger mayor = new AtomicInteger();
+        Thread[] trabajadores = new Thread[4];
+        for (int h = 0; h < trabajadores.length; h++) {
+            trabajadores[h] = new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    long numero = siguiente.incrementAndGet();
+                    ventana.ejecutar("k" + numero, null, () -> numero);
+                    mayor.accumulateAndGet(ventana.getTamano(), Math::max);
+                }
+            });
+            trabajadores[h].start();
+        }
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+        // Cada hilo deja el mapa en el máximo antes de volver; entre medio puede haber uno por hilo de más
+        assertTrue(mayor.get() <= maximo + trabajadores.length, "tamaño máximo visto: " + mayor.get());
+        assertEquals(maximo, ventana.getTamano());
+    }
+
+    @Test
+    void unaFallaNoQuedaRecordada() {
+        VentanaDeduplicacion<Long> ventana = new VentanaDeduplicacion<>(UNA_HORA_MS, 10);
+        assertThrows(IllegalStateException.class, () -> ventana.ejecutar("pedido:b", null, () -> {
+            throw new IllegalStateException("Falla de prueba");
+        }));
+        assertEquals(0, ventana.getTamano());
+        assertEquals(7L, ventana.ejecutar("pedido:b", null, () -> 7L));
+    }
+}
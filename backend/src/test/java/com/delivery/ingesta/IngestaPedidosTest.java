@@ -0,0 +1,156 @@
+package com.delivery.ingesta;
+
+import com.delivery.cli.DeliveryComidaApplication;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import com.delivery.repository.RestauranteRepository;
+import com.delivery.service.PedidoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Importa archivos NDJSON y binarios con uno de cada mil pedidos inválido.
+ * Los válidos tienen que llegar completos y en el orden de la entrada, y
+ * cada inválido quedar rechazado con su número de registro.
+ */
+@SpringBootTest(classes = DeliveryComidaApplication.class)
+@ActiveProfiles("test")
+class IngestaPedidosTest {
+    private static final int PEDIDOS = 20_000;
+    private static final int INVALIDO_CADA = 1000;
+
+    @Autowired
+    private IngestaPedidos ingesta;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Test
+    void importaNdjsonEnOrdenYRechazaLosInvalidos() throws IOException {
+        List<SolicitudIngesta> solicitudes = solicitudes(PEDIDOS);
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        for (SolicitudIngesta solicitud : solicitudes) {
+            ndjson.write(objectMapper.writeValueAsBytes(solicitud));
+            ndjson.write('\n');
+        }
+        comprobar(solicitudes, ndjson.toByteArray(), FormatoIngesta.NDJSON);
+    }
+
+    @Test
+    void importaBinarioEnOrdenYRechazaLosInvalidos() throws IOException {
+        List<SolicitudIngesta> solicitudes = solicitudes(PEDIDOS);
+        ByteArrayOutputStream binario = new ByteArrayOutputStream();
+        try (DataOutputStream salida = new DataOutputStream(binario)) {
+            for (SolicitudIngesta solicitud : solicitudes) {
+                FormatoIngesta.escribirBinario(salida, solicitud);
+            }
+        }
+        comprobar(solicitudes, binario.toByteArray(), FormatoIngesta.BINARIO);
+    }
+
+    @Test
+    void losPedidosRegistradosSeEncuentranPorSuId() throws IOException {
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        for (SolicitudIngesta solicitud : solicitudes(100)) {
+            ndjson.write(objectMapper.writeValueAsBytes(solicitud));
+            ndjson.write('\n');
+        }
+        // El mismo camino que importar sin destino, guardando lo registrado para buscarlo
+        List<Pedido> registrados = new ArrayList<>();
+        ResultadoIngesta resultado = ingesta.importar(new ByteArrayInputStream(ndjson.toByteArray()),
+                FormatoIngesta.NDJSON, lote -> {
+                    pedidoService.registrarLote(lote);
+                    registrados.addAll(lote);
+                });
+
+        assertEquals(100, resultado.aceptados());
+        assertEquals(0, resultado.rechazados());
+        assertEquals(100, registrados.size());
+        for (Pedido pedido : registrados) {
+            assertNotNull(pedido.getId());
+            assertSame(pedido, pedidoService.buscar(pedido.getId()).orElseThrow());
+        }
+    }
+
+    private void comprobar(List<SolicitudIngesta> solicitudes, byte[] datos, FormatoIngesta formato) throws IOException {
+        List<Pedido> recibidos = new ArrayList<>();
+        ResultadoIngesta resultado = ingesta.importar(new ByteArrayInputStream(datos), formato, recibidos::addAll);
+
+        long invalidos = PEDIDOS / INVALIDO_CADA;
+        assertEquals(PEDIDOS - invalidos, resultado.aceptados());
+        assertEquals(invalidos, resultado.rechazados());
+        assertEquals(invalidos, resultado.errores().size());
+        for (int i = 0; i < invalidos; i++) {
+            ResultadoIngesta.ErrorIngesta error = resultado.errores().get(i);
+            assertEquals((long) (i + 1) * INVALIDO_CADA, error.registro());
+            assertEquals("Producto inválido: 9", error.mensaje());
+        }
+
+        int recibido = 0;
+        for (int i = 0; i < PEDIDOS; i++) {
+            if (esInvalido(i)) {
+                continue;
+            }
+            SolicitudIngesta solicitud = solicitudes.get(i);
+            Pedido pedido = recibidos.get(recibido++);
+            assertEquals(solicitud.customer().name(), pedido.getCliente().getNombre());
+            assertEquals(solicitud.restaurantId(), pedido.getRestaurante().getId());
+            int items = 0;
+            for (SolicitudIngesta.ItemIngesta item : solicitud.items()) {
+                items += item.quantity();
+            }
+            assertEquals(items, pedido.getItems().size());
+        }
+        assertEquals(recibidos.size(), recibido);
+    }
+
+    private List<SolicitudIngesta> solicitudes(int cantidad) {
+        List<Restaurante> restaurantes = restauranteRepository.findAll();
+        assertFalse(restaurantes.isEmpty());
+        SplittableRandom azar = new SplittableRandom(42);
+        List<SolicitudIngesta> solicitudes = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            int cantidadItems = 1 + azar.nextInt(5);
+            List<SolicitudIngesta.ItemIngesta> items = new ArrayList<>(cantidadItems);
+            for (int j = 0; j < cantidadItems; j++) {
+                List<Integer> extras = azar.nextBoolean() ? List.of(1 + azar.nextInt(4)) : List.of();
+                // El producto 9 no existe: uno de cada mil pedidos es inválido
+                int producto = esInvalido(i) ? 9 : 1 + azar.nextInt(3);
+                items.add(new SolicitudIngesta.ItemIngesta(producto, extras, 1 + azar.nextInt(2)));
+            }
+            Restaurante restaurante = restaurantes.get(azar.nextInt(restaurantes.size()));
+            Long restauranteId = restaurante.getId();
+            assertNotNull(restauranteId);
+            solicitudes.add(new SolicitudIngesta(
+                    new SolicitudIngesta.ClienteIngesta("Cliente " + i, "555-" + (1000 + i % 9000), "Calle " + i),
+                    restauranteId, "Calle " + i + " piso " + (i % 10), items));
+        }
+        return solicitudes;
+    }
+
+    private static boolean esInvalido(int indice) {
+        return indice % INVALIDO_CADA == INVALIDO_CADA - 1;
+    }
+}
@@ -0,0 +1,66 @@
+package com.delivery.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DineroTest {
+
+    @Test
+    void formateaConDosDecimales() {
+        assertEquals("0.00", Dinero.formatear(0));
+        assertEquals("0.05", Dinero.formatear(5));
+        assertEquals("12.50", Dinero.formatear(1250));
+        assertEquals("1234.07", Dinero.formatear(123407));
+    }
+
+    @Test
+    void formateaNegativos() {
+        assertEquals("-0.01", Dinero.formatear(-1));
+        assertEquals("-0.50", Dinero.formatear(-50));
+        assertEquals("-1.00", Dinero.formatear(-100));
+        assertEquals("-12.34", Dinero.formatear(-1234));
+    }
+
+    @Test
+    void formateaLosExtremosDeLong() {
+        assertEquals("92233720368547758.07", Dinero.formatear(Long.MAX_VALUE));
+        assertEquals("-92233720368547758.08", Dinero.formatear(Long.MIN_VALUE));
+    }
+
+    @Test
+    void formatearCoincideConBigDecimal() {
+        SplittableRandom azar = new SplittableRandom(6);
+        for (int i = 0; i < 100_000; i++) {
+            long centavos = i % 2 == 0 ? azar.nextLong() : azar.nextLong(-100_000, 100_000);
+            assertEquals(BigDecimal.valueOf(centavos, 2).toPlainString(), Dinero.formatear(centavos),
+                    () -> "centavos = " + centavos);
+        }
+    }
+
+    @Test
+    void escribirAgregaAlFinalDelDestino() {
+        StringBuilder destino = new StringBuilder("Total: $");
+        Dinero.escribir(destino, 990);
+        assertEquals("Total: $9.90", destino.toString());
+    }
+
+    @Test
+    void centavosRedondeaAlCentavo() {
+        assertEquals(250, Dinero.centavos(2.50));
+        assertEquals(30, Dinero.centavos(0.1 + 0.2));
+        assertEquals(-199, Dinero.centavos(-1.99));
+        assertEquals(12.5, Dinero.aDecimal(1250));
+    }
+
+    @Test
+    void sumarYRestarFallanAlDesbordar() {
+        assertEquals(Long.MAX_VALUE, Dinero.sumar(Long.MAX_VALUE - 1, 1));
+        assertThrows(ArithmeticException.class, () -> Dinero.sumar(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Dinero.restar(Long.MIN_VALUE, 1));
+    }
+}
@@ -0,0 +1,160 @@
+package com.delivery.model;
+
+import com.delivery.decorator.ExtraCarne;
+import com.delivery.decorator.ExtraQueso;
+import com.delivery.decorator.ExtraSalsa;
+import com.delivery.decorator.ProductoBase;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * El total que {@link Pedido} mantiene al agregar y quitar items tiene que
+ * ser siempre la suma decimal exacta de los precios menos el descuento, sin
+ * importar el orden ni cuántos items tenga el pedido. El total esperado se
+ * calcula aparte, en decimal y con los precios de los extras escritos en
+ * la prueba, sin pasar por los precios de los productos ni por Dinero.
+ */
+class PedidoTotalesTest {
+
+    @RepeatedTest(50)
+    void elTotalEsLaSumaExactaDeLosItems(RepetitionInfo repeticion) {
+        SplittableRandom azar = new SplittableRandom(repeticion.getCurrentRepetition());
+        Pedido pedido = nuevoPedido();
+        List<BigDecimal> precios = new ArrayList<>();
+        int items = azar.nextInt(1, 10_001);
+        for (int i = 0; i < items; i++) {
+            precios.add(agregarAlAzar(pedido, azar));
+        }
+
+        assertEquals(suma(precios), BigDecimal.valueOf(pedido.getTotalCentavos(), 2));
+        assertEquals(items, pedido.getLineas().size());
+        pedido.calcularTotal();
+        assertEquals(suma(precios), BigDecimal.valueOf(pedido.getTotalCentavos(), 2));
+    }
+
+    /**
+     * Agrega, quita y de vez en cuando fija un descuento como lo hace la
+     * cotización. Quitar un item anula el descuento.
+     */
+    @RepeatedTest(50)
+    void agregarYQuitarMantieneElTotal(RepetitionInfo repeticion) {
+        SplittableRandom azar = new SplittableRandom(1000 + repeticion.getCurrentRepetition());
+        Pedido pedido = nuevoPedido();
+        List<BigDecimal> presentes = new ArrayList<>();
+        BigDecimal descuento = BigDecimal.ZERO.setScale(2);
+        for (int paso = 0; paso < 2_000; paso++) {
+            int accion = azar.nextInt(6);
+            if (presentes.isEmpty() || accion < 3) {
+                presentes.add(agregarAlAzar(pedido, azar));
+            } else if (accion < 5) {
+                int indice = azar.nextInt(presentes.size());
+                pedido.quitarItem(indice);
+                presentes.remove(indice);
+                descuento = BigDecimal.ZERO.setScale(2);
+            } else {
+                long centavos = azar.nextLong(0, suma(presentes).movePointRight(2).longValueExact() + 1);
+                pedido.aplicarPrecios(preciosActuales(pedido), centavos);
+                descuento = BigDecimal.valueOf(centavos, 2);
+            }
+            assertEquals(suma(presentes).subtract(descuento), BigDecimal.valueOf(pedido.getTotalCentavos(), 2));
+            assertEquals(descuento, BigDecimal.valueOf(pedido.getDescuentoCentavos(), 2));
+        }
+        long incremental = pedido.getTotalCentavos();
+        pedido.calcularTotal();
+        assertEquals(incremental, pedido.getTotalCentavos());
+        while (!presentes.isEmpty()) {
+            pedido.quitarItem(presentes.size() - 1);
+            presentes.remove(presentes.size() - 1);
+        }
+        assertEquals(0, pedido.getTotalCentavos());
+    }
+
+    @Test
+    void agregarYQuitarElMismoItemVuelveAlTotalAnterior() {
+        Pedido pedido = nuevoPedido();
+        pedido.agregarItem(new ProductoBase("Pizza", 1250));
+        long antes = pedido.getTotalCentavos();
+        pedido.agregarItem(new ExtraQueso(new ProductoBase("Hamburguesa", 899)));
+        pedido.quitarItem(1);
+        assertEquals(antes, pedido.getTotalCentavos());
+        assertEquals(1, pedido.getItems().size());
+    }
+
+    @Test
+    void elDescuentoSeRestaDelSubtotal() {
+        Pedido pedido = nuevoPedido();
+        pedido.agregarItem(new ProductoBase("Pizza", 1250));
+        pedido.agregarItem(new ProductoBase("Gaseosa", 300));
+        pedido.aplicarPrecios(new long[] { 1000, 300 }, 150);
+        assertEquals(1150, pedido.getTotalCentavos());
+        assertEquals(1300, pedido.getSubtotalCentavos());
+        assertEquals(150, pedido.getDescuentoCentavos());
+    }
+
+    @Test
+    void quitarUnItemAnulaElDescuento() {
+        Pedido pedido = nuevoPedido();
+        pedido.agregarItem(new ProductoBase("Pizza", 1250));
+        pedido.agregarItem(new ProductoBase("Gaseosa", 300));
+        pedido.aplicarPrecios(new long[] { 1250, 300 }, 150);
+        pedido.quitarItem(1);
+        assertEquals(0, pedido.getDescuentoCentavos());
+        assertEquals(1250, pedido.getTotalCentavos());
+        assertEquals(1250, pedido.getSubtotalCentavos());
+    }
+
+    @Test
+    void unItemQueDesbordaNoCambiaElPedido() {
+        Pedido pedido = nuevoPedido();
+        pedido.agregarItem(new ProductoBase("Caro", Long.MAX_VALUE - 10));
+        assertThrows(ArithmeticException.class, () -> pedido.agregarItem(new ProductoBase("Uno más", 11)));
+        assertEquals(Long.MAX_VALUE - 10, pedido.getTotalCentavos());
+        assertEquals(1, pedido.getItems().size());
+        assertEquals(1, pedido.getLineas().size());
+    }
+
+    private static Pedido nuevoPedido() {
+        return new Pedido(new Cliente("Ana", "555-0000", "Calle 1"), null);
+    }
+
+    /** Agrega un plato al azar y devuelve su precio esperado, en pesos. */
+    private static BigDecimal agregarAlAzar(Pedido pedido, SplittableRandom azar) {
+        long base = azar.nextLong(1, 100_000);
+        BigDecimal precio = BigDecimal.valueOf(base, 2);
+        Producto producto = new ProductoBase("Plato", base);
+        switch (azar.nextInt(4)) {
+            case 1 -> {
+                producto = new ExtraQueso(producto);
+                precio = precio.add(new BigDecimal("2.50"));
+            }
+            case 2 -> {
+                producto = new ExtraSalsa(new ExtraCarne(producto));
+                precio = precio.add(new BigDecimal("4.00")).add(new BigDecimal("1.00"));
+            }
+            default -> { }
+        }
+        pedido.agregarItem(producto);
+        return precio;
+    }
+
+    private static long[] preciosActuales(Pedido pedido) {
+        return pedido.getLineas().stream().mapToLong(ItemPedido::getPrecioCentavos).toArray();
+    }
+
+    private static BigDecimal suma(List<BigDecimal> precios) {
+        BigDecimal suma = BigDecimal.ZERO.setScale(2);
+        for (BigDecimal precio : precios) {
+            suma = suma.add(precio);
+        }
+        return suma;
+    }
+}
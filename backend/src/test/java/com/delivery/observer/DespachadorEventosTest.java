@@ -0,0 +1,138 @@
+package com.delivery.observer;
+
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cada política de contrapresión con un observador lento: la primera
+ * entrega queda trabada hasta que la prueba la suelta, así la cola del
+ * tipo de observador se llena. La cola es una sola para todos los pedidos,
+ * por eso con capacidad 4 alcanza con notificar unos pocos pedidos
+ * distintos para llenarla.
+ */
+class DespachadorEventosTest {
+    private static final Cliente CLIENTE = new Cliente("Prueba", "000", "Sin dirección");
+    private static final int CAPACIDAD = 4;
+    private static final int PEDIDOS = 20;
+
+    private final CountDownLatch ocupado = new CountDownLatch(1);
+    private final CountDownLatch soltar = new CountDownLatch(1);
+    private final List<EventoPedido> recibidos = new CopyOnWriteArrayList<>();
+    private DespachadorEventos despachador;
+
+    @AfterEach
+    void detener() {
+        soltar.countDown();
+        despachador.detener();
+    }
+
+    @Test
+    void bloquearFrenaAlQueNotificaSinPerderNada() throws InterruptedException {
+        despachador = new DespachadorEventos(1, CAPACIDAD, PoliticaContrapresion.BLOQUEAR);
+        List<Pedido> pedidos = pedidos(PEDIDOS);
+        Thread notificador = new Thread(() -> pedidos.forEach(Pedido::notificarObservadores));
+        notificador.start();
+        assertTrue(ocupado.await(10, TimeUnit.SECONDS));
+
+        // La entrega trabada más la cola llena: el resto espera en el hilo que notifica
+        notificador.join(200);
+        assertTrue(notificador.isAlive(), "el hilo que notifica no quedó esperando lugar");
+        assertEquals(1 + CAPACIDAD, despachador.getMetricas().getEncolados());
+
+        soltar.countDown();
+        notificador.join(TimeUnit.SECONDS.toMillis(10));
+        esperarEntregas(PEDIDOS);
+        assertEquals(0, despachador.getMetricas().getDescartados());
+        for (int i = 0; i < PEDIDOS; i++) {
+            assertEquals(pedidos.get(i), recibidos.get(i).getPedido(), "entregado fuera de orden");
+        }
+    }
+
+    @Test
+    void descartarAntiguoSeQuedaConLosUltimos() throws InterruptedException {
+        despachador = new DespachadorEventos(1, CAPACIDAD, PoliticaContrapresion.DESCARTAR_ANTIGUO);
+        List<Pedido> pedidos = pedidos(PEDIDOS);
+        pedidos.get(0).notificarObservadores();
+        assertTrue(ocupado.await(10, TimeUnit.SECONDS));
+
+        // No bloquea: cada evento que no entra desplaza al más viejo de la cola
+        pedidos.subList(1, PEDIDOS).forEach(Pedido::notificarObservadores);
+        assertEquals(PEDIDOS - 1 - CAPACIDAD, despachador.getMetricas().getDescartados());
+
+        soltar.countDown();
+        esperarEntregas(1 + CAPACIDAD);
+        List<Pedido> esperados = new ArrayList<>(pedidos.subList(PEDIDOS - CAPACIDAD, PEDIDOS));
+        esperados.add(0, pedidos.get(0));
+        assertEquals(esperados, recibidos.stream().map(EventoPedido::getPedido).toList());
+    }
+
+    @Test
+    void coalescerUltimoEntregaSoloElEstadoMasReciente() throws InterruptedException {
+        despachador = new DespachadorEventos(1, CAPACIDAD, PoliticaContrapresion.COALESCER_ULTIMO);
+        Pedido pedido = pedidos(1).get(0);
+        pedido.notificarObservadores();
+        assertTrue(ocupado.await(10, TimeUnit.SECONDS));
+
+        pedido.cambiarEstado(Pedido.Estado.PREPARANDO);
+        pedido.cambiarEstado(Pedido.Estado.LISTO);
+        pedido.cambiarEstado(Pedido.Estado.EN_CAMINO);
+        pedido.cambiarEstado(Pedido.Estado.ENTREGADO);
+        assertEquals(3, despachador.getMetricas().getCoalescidos());
+
+        soltar.countDown();
+        esperarEntregas(2);
+        assertEquals(List.of(Pedido.Estado.RECIBIDO, Pedido.Estado.ENTREGADO),
+                recibidos.stream().map(EventoPedido::getEstado).toList());
+    }
+
+    private List<Pedido> pedidos(int cantidad) {
+        List<Pedido> pedidos = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            Pedido pedido = new Pedido(CLIENTE, null);
+            pedido.setDespachador(despachador);
+            // Un observador por pedido, como en la aplicación; todos del mismo tipo
+            pedido.agregarObservador(new ObservadorLento());
+            pedidos.add(pedido);
+        }
+        return pedidos;
+    }
+
+    private void esperarEntregas(int cantidad) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (recibidos.size() < cantidad && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        // Un poco más, por si llegara alguna de más
+        Thread.sleep(50);
+        assertEquals(cantidad, recibidos.size());
+    }
+
+    private class ObservadorLento implements Observador {
+        @Override
+        public void actualizar(Pedido pedido) {
+            actualizar(pedido, pedido.getEstado());
+        }
+
+        @Override
+        public void actualizar(Pedido pedido, Pedido.Estado estado) {
+            ocupado.countDown();
+            try {
+                soltar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            recibidos.add(new EventoPedido(pedido, estado));
+        }
+    }
+}
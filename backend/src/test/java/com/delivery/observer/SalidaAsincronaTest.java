@@ -0,0 +1,57 @@
+package com.delivery.observer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SalidaAsincronaTest {
+
+    /**
+     * Muchos hilos escriben contra una cola chica, así se llena y tienen que
+     * esperar. Al detener no se pierde nada: cada mensaje sale entero en su
+     * línea y los de cada hilo en el orden en que los escribió.
+     */
+    @Test
+    void imprimeTodoSinMezclarMensajesNiPerderlosAlDetener() throws InterruptedException {
+        int hilos = 8;
+        int porHilo = 20_000;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SalidaAsincrona salida = new SalidaAsincrona(new PrintStream(bytes, false, StandardCharsets.UTF_8), 64);
+        List<Thread> escritores = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            escritores.add(new Thread(() -> {
+                for (int i = 0; i < porHilo; i++) {
+                    StringBuilder mensaje = SalidaAsincrona.buffer();
+                    mensaje.append("hilo ").append(hilo).append(" mensaje ").append(i);
+                    salida.escribir(mensaje);
+                }
+            }));
+        }
+        escritores.forEach(Thread::start);
+        for (Thread escritor : escritores) {
+            escritor.join();
+        }
+        salida.detener();
+
+        assertEquals((long) hilos * porHilo, salida.getEscritos());
+        assertEquals(0, salida.getPendientes());
+        assertTrue(salida.getLotes() < salida.getEscritos(), "los mensajes salen agrupados");
+        String[] lineas = bytes.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        assertEquals(hilos * porHilo, lineas.length);
+        int[] siguiente = new int[hilos];
+        for (String linea : lineas) {
+            String[] partes = linea.split(" ");
+            assertEquals(4, partes.length, linea);
+            int hilo = Integer.parseInt(partes[1]);
+            assertEquals(siguiente[hilo]++, Integer.parseInt(partes[3]), linea);
+        }
+    }
+}
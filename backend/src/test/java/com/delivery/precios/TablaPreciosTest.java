@@ -0,0 +1,111 @@
+package com.delivery.precios;
+
+import com.delivery.decorator.Extra;
+import com.delivery.decorator.Menu;
+import com.delivery.decorator.Plato;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.PrecioLista;
+import com.delivery.model.Producto;
+import com.delivery.model.Promocion;
+import com.delivery.model.Restaurante;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TablaPreciosTest {
+    private static final int PEDIDOS = 1_000;
+
+    /**
+     * Un hilo alterna entre dos tablas con precios y promociones distintos
+     * mientras otros cotizan: cada cotización tiene que coincidir completa
+     * con la tabla de la versión que trae, nunca una mezcla de las dos.
+     */
+    @Test
+    void reemplazarLaTablaMientrasSeCotizaNuncaMezcla() throws InterruptedException {
+        Restaurante restaurante = new Restaurante("Prueba", "Prueba", "000", "Local 1");
+        restaurante.setId(1L);
+        TablaPrecios tablaA = TablaPrecios.compilar(1, List.of(),
+                List.of(Promocion.combo("Combo", null, Plato.HAMBURGUESA.getId() + "," + Plato.ENSALADA.getId(), 150)),
+                ZoneOffset.UTC);
+        TablaPrecios tablaB = TablaPrecios.compilar(2, List.of(
+                        new PrecioLista(1L, PrecioLista.Tipo.PLATO, Plato.PIZZA.getId(), 1500),
+                        new PrecioLista(1L, PrecioLista.Tipo.EXTRA, Extra.QUESO.getId(), 300)),
+                List.of(Promocion.horaFeliz("Todo el día", 1L, null, 20, 0, 0)), ZoneOffset.UTC);
+
+        Cliente cliente = new Cliente("Prueba", "000", "Sin dirección");
+        Pedido[] pedidos = new Pedido[PEDIDOS];
+        long ahora = System.currentTimeMillis();
+        long[] totalesA = new long[PEDIDOS];
+        long[] totalesB = new long[PEDIDOS];
+        for (int i = 0; i < PEDIDOS; i++) {
+            pedidos[i] = new Pedido(cliente, restaurante);
+            for (int j = 0; j < 1 + i % 6; j++) {
+                pedidos[i].agregarItem(producto(i + j));
+            }
+            totalesA[i] = tablaA.cotizar(pedidos[i], ahora).totalCentavos();
+            totalesB[i] = tablaB.cotizar(pedidos[i], ahora).totalCentavos();
+        }
+        assertNotEquals(totalesA[0], totalesB[0], "las dos tablas tienen que dar totales distintos");
+
+        Vigente vigente = new Vigente(tablaA);
+        LongAdder inconsistentes = new LongAdder();
+        LongAdder[] porVersion = {new LongAdder(), new LongAdder()};
+        long fin = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+        List<Thread> trabajadores = new ArrayList<>();
+        trabajadores.add(new Thread(() -> {
+            while (System.nanoTime() < fin) {
+                vigente.tabla = vigente.tabla == tablaA ? tablaB : tablaA;
+                Thread.yield();
+            }
+        }));
+        for (int h = 0; h < 4; h++) {
+            int desplazamiento = h;
+            trabajadores.add(new Thread(() -> {
+                int i = desplazamiento;
+                while (System.nanoTime() < fin) {
+                    int indice = i++ % PEDIDOS;
+                    Cotizacion cotizacion = vigente.tabla.cotizar(pedidos[indice], ahora);
+                    long esperado = cotizacion.version() == 1 ? totalesA[indice] : totalesB[indice];
+                    if (cotizacion.totalCentavos() != esperado) {
+                        inconsistentes.increment();
+                    }
+                    porVersion[(int) cotizacion.version() - 1].increment();
+                }
+            }));
+        }
+        trabajadores.forEach(Thread::start);
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+
+        assertEquals(0, inconsistentes.sum());
+        assertTrue(porVersion[0].sum() > 0 && porVersion[1].sum() > 0, "se cotizó con las dos tablas");
+    }
+
+    // Mezcla platos solos y con extras para cubrir los dos caminos de la cotización
+    private static Producto producto(int numero) {
+        Plato plato = Plato.values()[numero % Plato.values().length];
+        Producto producto = plato.crear();
+        if (numero % 2 == 0) {
+            producto = Menu.agregarExtra(producto, Extra.QUESO.getId());
+        }
+        return producto;
+    }
+
+    private static final class Vigente {
+        private volatile TablaPrecios tabla;
+
+        private Vigente(TablaPrecios tabla) {
+            this.tabla = tabla;
+        }
+    }
+}
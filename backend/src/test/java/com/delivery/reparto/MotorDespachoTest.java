@@ -0,0 +1,88 @@
+package com.delivery.reparto;
+
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MotorDespachoTest {
+
+    /**
+     * Llegan de golpe muchos más pedidos que repartidores: los lotes que no
+     * consiguen repartidor esperan a que vuelva alguno, y al final todos
+     * quedan asignados sin superar el máximo por viaje.
+     */
+    @Test
+    void asignaTodosLosPedidosAunqueFalteFlota() throws InterruptedException {
+        PropiedadesReparto propiedades = new PropiedadesReparto();
+        propiedades.setRepartidores(20);
+        propiedades.setVentanaLoteMs(5);
+        // Viajes cortos para que la flota rote durante la prueba
+        propiedades.setMsPorKm(1);
+        MotorDespacho motor = new MotorDespacho(propiedades);
+        Restaurante[] restaurantes = restaurantes(200);
+        int pedidos = 5_000;
+        try {
+            ThreadLocalRandom azar = ThreadLocalRandom.current();
+            for (int i = 0; i < pedidos; i++) {
+                Cliente cliente = new Cliente("Cliente " + i, "000", "Destino " + azar.nextInt(1_000_000));
+                Pedido pedido = new Pedido(cliente, restaurantes[azar.nextInt(restaurantes.length)]);
+                pedido.setId((long) i + 1);
+                motor.pedidoListo(pedido);
+            }
+            esperarAsignados(motor, pedidos);
+
+            assertEquals(pedidos, motor.getRecibidos());
+            assertEquals(pedidos, motor.getAsignados());
+            assertTrue(motor.getPedidosPorViaje() <= propiedades.getMaximoPorViaje());
+            assertTrue(motor.getViajes() * propiedades.getMaximoPorViaje() >= pedidos);
+        } finally {
+            motor.detener();
+        }
+    }
+
+    @Test
+    void unListoRepetidoSeAsignaUnaVez() throws InterruptedException {
+        PropiedadesReparto propiedades = new PropiedadesReparto();
+        propiedades.setRepartidores(1);
+        propiedades.setVentanaLoteMs(5);
+        MotorDespacho motor = new MotorDespacho(propiedades);
+        try {
+            Pedido pedido = new Pedido(new Cliente("Cliente", "000", "Destino"), restaurantes(1)[0]);
+            pedido.setId(7L);
+            motor.pedidoListo(pedido);
+            motor.pedidoListo(pedido);
+            esperarAsignados(motor, 1);
+            Thread.sleep(50);
+
+            assertEquals(2, motor.getRecibidos());
+            assertEquals(1, motor.getAsignados());
+            assertEquals(1, motor.getViajes());
+            assertTrue(motor.getRepartidorAsignado(7L).isPresent());
+        } finally {
+            motor.detener();
+        }
+    }
+
+    private static void esperarAsignados(MotorDespacho motor, long cantidad) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (motor.getAsignados() < cantidad && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static Restaurante[] restaurantes(int cantidad) {
+        Restaurante[] restaurantes = new Restaurante[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            restaurantes[i] = new Restaurante("Restaurante " + i, "Prueba", "000", "Local " + i);
+            restaurantes[i].setId((long) i + 1);
+        }
+        return restaurantes;
+    }
+}
@@ -0,0 +1,117 @@
+package com.delivery.service;
+
+import com.delivery.cli.DeliveryComidaApplication;
+import com.delivery.decorator.Menu;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Write-behind del almacén con la escritura periódica apagada: la prueba
+ * llama a {@code escribirPendientes} a mano. Un pedido de un restaurante
+ * que todavía no está en la base hace fallar el MERGE en lote; el resto se
+ * escribe de a uno y el pedido malo se reintenta en las pasadas siguientes
+ * hasta el máximo, sin trabar a los demás.
+ */
+@SpringBootTest(classes = DeliveryComidaApplication.class, properties = {
+        "delivery.pedidos.intervalo-escritura-ms=3600000", "delivery.pedidos.reintentos-escritura=2"})
+@ActiveProfiles("test")
+class AlmacenPedidosTest {
+    // Lejos de los ids de los restaurantes de la base
+    private static final long SIN_FILA = 1L << 40;
+
+    @Autowired
+    private AlmacenPedidos almacenPedidos;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void borrarRestaurantesSinFila() {
+        jdbcTemplate.update("DELETE FROM pedido_items WHERE pedido_id IN (SELECT id FROM pedidos WHERE restaurante_id >= ?)",
+                SIN_FILA);
+        jdbcTemplate.update("DELETE FROM pedidos WHERE restaurante_id >= ?", SIN_FILA);
+        jdbcTemplate.update("DELETE FROM restaurantes WHERE id >= ?", SIN_FILA);
+    }
+
+    @Test
+    void unaFilaMalaNoTrabaElLoteYSeReintentaHastaElMaximo() {
+        List<Pedido> buenos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            buenos.add(registrar(null));
+        }
+        Pedido reintentado = registrar(restaurante(SIN_FILA));
+        Pedido abandonado = registrar(restaurante(SIN_FILA + 1));
+
+        almacenPedidos.escribirPendientes();
+        for (Pedido pedido : buenos) {
+            assertEquals(1, filasPedido(pedido));
+            assertEquals(2, contar("SELECT COUNT(*) FROM pedido_items WHERE pedido_id = ?", pedido.getId()));
+        }
+        assertEquals(0, filasPedido(reintentado));
+        assertEquals(0, filasPedido(abandonado));
+
+        // Segunda pasada: el que ahora puede escribirse se escribe; el otro llega al máximo de reintentos
+        insertarRestaurante(SIN_FILA);
+        almacenPedidos.escribirPendientes();
+        assertEquals(1, filasPedido(reintentado));
+        assertEquals(2, contar("SELECT COUNT(*) FROM pedido_items WHERE pedido_id = ?", reintentado.getId()));
+        assertEquals(0, filasPedido(abandonado));
+
+        // Ya no se reintenta solo aunque ahora pudiera escribirse; vuelve con su próximo cambio
+        insertarRestaurante(SIN_FILA + 1);
+        almacenPedidos.escribirPendientes();
+        assertEquals(0, filasPedido(abandonado));
+        almacenPedidos.cambiarEstado(abandonado, Pedido.Estado.PREPARANDO);
+        almacenPedidos.escribirPendientes();
+        assertEquals(1, filasPedido(abandonado));
+
+        // Un cambio de un pedido ya escrito actualiza su fila por MERGE, sin repetir los ítems
+        Pedido cambiado = buenos.get(0);
+        almacenPedidos.cambiarEstado(cambiado, Pedido.Estado.PREPARANDO);
+        almacenPedidos.escribirPendientes();
+        assertEquals("PREPARANDO", jdbcTemplate.queryForObject(
+                "SELECT estado FROM pedidos WHERE id = ?", String.class, cambiado.getId()));
+        assertEquals(2, contar("SELECT COUNT(*) FROM pedido_items WHERE pedido_id = ?", cambiado.getId()));
+    }
+
+    private Pedido registrar(Restaurante restaurante) {
+        Pedido pedido = pedidoService.nuevoPedido(new Cliente("Prueba", "555-0000", "Calle 1"), restaurante);
+        pedido.agregarItem(Menu.crearProductoBase(1));
+        pedido.agregarItem(Menu.crearProductoBase(2));
+        return pedidoService.registrar(pedido);
+    }
+
+    private static Restaurante restaurante(long id) {
+        Restaurante restaurante = new Restaurante("Sin fila", "Prueba", "000", "Calle 1");
+        restaurante.setId(id);
+        return restaurante;
+    }
+
+    private void insertarRestaurante(long id) {
+        jdbcTemplate.update("INSERT INTO restaurantes (id, nombre, descripcion, telefono, direccion) VALUES (?, ?, ?, ?, ?)",
+                id, "Sin fila", "Prueba", "000", "Calle 1");
+    }
+
+    private int filasPedido(Pedido pedido) {
+        return contar("SELECT COUNT(*) FROM pedidos WHERE id = ?", pedido.getId());
+    }
+
+    private int contar(String sql, Long id) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, id);
+    }
+}
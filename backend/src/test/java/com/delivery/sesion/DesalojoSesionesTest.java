@@ -0,0 +1,96 @@
+package com.delivery.sesion;
+
+import com.delivery.auth.Sesion;
+import com.delivery.cli.DeliveryComidaApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Con el máximo de contextos chico: pasado el máximo salen los que no se
+ * usaron desde que llegaron, no los que se siguen usando, y un mismo
+ * token abierto desde varios hilos a la vez tiene un solo contexto. Los
+ * tokens son inventados, así que un contexto desalojado no se vuelve a
+ * crear al buscarlo.
+ */
+@SpringBootTest(classes = DeliveryComidaApplication.class, properties = "delivery.sesiones.maximo=100")
+@ActiveProfiles("test")
+class DesalojoSesionesTest {
+
+    @Autowired
+    private GestorSesiones gestor;
+
+    @Value("${delivery.sesiones.maximo}")
+    private int maximo;
+
+    @Test
+    void pasadoElMaximoSalenLosQueNoSeUsaron() throws InterruptedException {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < maximo; i++) {
+            tokens.add(gestor.abrir(sesion()).getToken());
+        }
+        // El último uso tiene resolución de milisegundos
+        Thread.sleep(5);
+        List<String> usados = tokens.subList(0, 10);
+        for (String token : usados) {
+            assertTrue(gestor.buscar(token).isPresent());
+        }
+
+        for (int i = 0; i < 10; i++) {
+            gestor.abrir(sesion());
+        }
+
+        assertEquals(maximo, gestor.getActivos());
+        for (String token : usados) {
+            assertTrue(gestor.buscar(token).isPresent(), "un contexto usado quedó desalojado");
+        }
+        for (String token : tokens.subList(10, 20)) {
+            assertFalse(gestor.buscar(token).isPresent(), "siguió un contexto sin usar más viejo");
+        }
+    }
+
+    @Test
+    void unTokenAbiertoDesdeVariosHilosTieneUnSoloContexto() throws InterruptedException {
+        Sesion sesion = sesion();
+        long abiertosAntes = gestor.getAbiertos();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(8);
+        CountDownLatch largada = new CountDownLatch(1);
+        Set<ContextoSesion> vistos = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 64; i++) {
+            ejecutor.execute(() -> {
+                try {
+                    largada.await();
+                    vistos.add(gestor.abrir(sesion));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        largada.countDown();
+        ejecutor.shutdown();
+        assertTrue(ejecutor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(1, vistos.size());
+        assertEquals(abiertosAntes + 1, gestor.getAbiertos());
+    }
+
+    private static Sesion sesion() {
+        return new Sesion(UUID.randomUUID().toString(), 1L, "prueba", "Prueba", "prueba@delivery.com", "555-0000");
+    }
+}
@@ -0,0 +1,104 @@
+package com.delivery.sesion;
+
+import com.delivery.auth.Sesion;
+import com.delivery.cli.DeliveryComidaApplication;
+import com.delivery.decorator.Extra;
+import com.delivery.decorator.Menu;
+import com.delivery.decorator.Plato;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import com.delivery.repository.RestauranteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Muchas sesiones arman y confirman su propio pedido a la vez. Ningún
+ * pedido se puede mezclar con el de otra sesión: cada uno tiene
+ * exactamente sus items y un id distinto.
+ */
+@SpringBootTest(classes = DeliveryComidaApplication.class)
+@ActiveProfiles("test")
+class GestorSesionesTest {
+    private static final int SESIONES = 2000;
+    private static final int HILOS = 16;
+
+    @Autowired
+    private GestorSesiones gestor;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Test
+    void sesionesConcurrentesNoMezclanPedidos() throws InterruptedException {
+        List<Restaurante> restaurantes = restauranteRepository.findAll();
+        assertFalse(restaurantes.isEmpty());
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        LongAdder inconsistentes = new LongAdder();
+        Set<Throwable> errores = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < SESIONES; i++) {
+            int numero = i;
+            ejecutor.execute(() -> {
+                try {
+                    largada.await();
+                    Pedido pedido = armarPedido(restaurantes, numero);
+                    if (!ids.add(pedido.getId()) || pedido.getItems().size() != itemsDe(numero)
+                            || pedido.getTotalCentavos() != totalDe(numero)
+                            || !pedido.getCliente().getNombre().equals("Prueba " + numero)) {
+                        inconsistentes.increment();
+                    }
+                } catch (Throwable e) {
+                    errores.add(e);
+                }
+            });
+        }
+        largada.countDown();
+        ejecutor.shutdown();
+        assertTrue(ejecutor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertTrue(errores.isEmpty(), () -> "Errores: " + errores);
+        assertEquals(0, inconsistentes.sum());
+        assertEquals(SESIONES, ids.size());
+    }
+
+    private Pedido armarPedido(List<Restaurante> restaurantes, int numero) {
+        String token = "prueba-" + UUID.randomUUID();
+        gestor.abrir(new Sesion(token, null, "prueba" + numero, "Prueba " + numero, null, "555-0000"));
+        try {
+            ContextoSesion contexto = gestor.buscar(token).orElseThrow();
+            gestor.iniciarPedido(contexto, restaurantes.get(numero % restaurantes.size()), "Dirección " + numero);
+            for (int i = 0; i < itemsDe(numero); i++) {
+                gestor.agregarItem(contexto, Menu.agregarExtra(Plato.PIZZA.crear(), Extra.QUESO.getId()));
+            }
+            return gestor.confirmarPedido(contexto);
+        } finally {
+            gestor.cerrar(token);
+        }
+    }
+
+    // Cada sesión arma un pedido de tamaño distinto para detectar mezclas
+    private static int itemsDe(int numero) {
+        return 1 + numero % 5;
+    }
+
+    private static long totalDe(int numero) {
+        return itemsDe(numero) * (Plato.PIZZA.getPrecioCentavos() + Extra.QUESO.getPrecioCentavos());
+    }
+}
@@ -0,0 +1,69 @@
+package com.delivery.singleton;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VentanaDeslizanteTest {
+
+    /**
+     * Con cuatro cubetas de un segundo, el periodo 6 cae en la misma cubeta
+     * que el 10. Una muestra del 6 que llega después no puede borrar lo del
+     * 10 ni contarse en su lugar.
+     */
+    @Test
+    void unaMuestraAtrasadaNoReiniciaLaCubeta() {
+        VentanaDeslizante ventana = new VentanaDeslizante(4, 1000);
+        ventana.registrar(10_000, 100);
+        ventana.registrar(6_500, 50);
+        assertEquals(1, ventana.getPedidos(10_000));
+        assertEquals(100, ventana.getIngresosCentavos(10_000));
+
+        ventana.registrar(10_999, 30);
+        assertEquals(2, ventana.getPedidos(10_999));
+        assertEquals(130, ventana.getIngresosCentavos(10_999));
+    }
+
+    /**
+     * Varios hilos registran a la vez, cada uno con su propio reloj que
+     * avanza por cuatro periodos, así muchos llegan juntos a una cubeta
+     * nueva y otros siguen en la anterior. La ventana abarca todos los
+     * periodos: no se puede perder ni sobrar ninguna muestra.
+     */
+    @Test
+    void losRegistrosSimultaneosNoSePierden() throws InterruptedException {
+        int hilos = 8;
+        int muestras = 100_000;
+        long ancho = 1000;
+        VentanaDeslizante ventana = new VentanaDeslizante(8, ancho);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> corredores = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            Thread hilo = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < muestras; i++) {
+                    ventana.registrar(4 * ancho * i / muestras, 3);
+                }
+            });
+            hilo.start();
+            corredores.add(hilo);
+        }
+        largada.countDown();
+        for (Thread hilo : corredores) {
+            hilo.join();
+        }
+
+        long ahora = 4 * ancho - 1;
+        assertEquals((long) hilos * muestras, ventana.getPedidos(ahora));
+        assertEquals(3L * hilos * muestras, ventana.getIngresosCentavos(ahora));
+    }
+}
@@ -0,0 +1,97 @@
+package com.delivery.benchmarks;
+
+import com.delivery.analitica.HistorialColumnar;
+import com.delivery.analitica.TiemposRestaurante;
+import com.delivery.analitica.UsoExtra;
+import com.delivery.analitica.VentaPorHora;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Las consultas del historial columnar sobre pedidos sintéticos de un año,
+ * cargados en orden de entrega como llegarían: sobre todo el historial y
+ * sobre la última semana, que solo recorre los bloques de esos días.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AnaliticaBenchmark {
+    private static final int TAMANO_BLOQUE = 65536;
+    private static final int RESTAURANTES = 1000;
+    private static final int DIAS = 365;
+    // Probabilidad de que un pedido lleve cada extra, en el orden de Extra
+    private static final double[] PROBABILIDAD_EXTRA = {0.40, 0.15, 0.20, 0.30};
+
+    @Param({"1000000", "10000000"})
+    private int pedidos;
+
+    @Param({"todo", "semana"})
+    private String rango;
+
+    private ForkJoinPool pool;
+    private HistorialColumnar historial;
+    private long desde;
+
+    @Setup
+    public void cargar() {
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        historial = new HistorialColumnar(TAMANO_BLOQUE, pedidos, ZoneId.systemDefault(), pool);
+        long hasta = System.currentTimeMillis();
+        long inicio = hasta - TimeUnit.DAYS.toMillis(DIAS);
+        double paso = (double) (hasta - inicio) / pedidos;
+        SplittableRandom azar = new SplittableRandom(42);
+        for (int i = 0; i < pedidos; i++) {
+            int preparacionMs = (int) TimeUnit.MINUTES.toMillis(5) + azar.nextInt((int) TimeUnit.MINUTES.toMillis(35));
+            int entregaMs = preparacionMs + (int) TimeUnit.MINUTES.toMillis(10)
+                    + azar.nextInt((int) TimeUnit.MINUTES.toMillis(40));
+            int extras = 0;
+            for (int e = 0; e < PROBABILIDAD_EXTRA.length; e++) {
+                if (azar.nextDouble() < PROBABILIDAD_EXTRA[e]) {
+                    extras |= 1 << e;
+                }
+            }
+            historial.agregar(1 + azar.nextInt(RESTAURANTES), inicio + (long) (i * paso), preparacionMs, entregaMs,
+                    800 + azar.nextInt(5200), 1 + azar.nextInt(6), extras);
+        }
+        desde = rango.equals("todo") ? Long.MIN_VALUE : hasta - TimeUnit.DAYS.toMillis(7);
+    }
+
+    @TearDown
+    public void cerrar() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<VentaPorHora> ventasPorRestauranteYHora() {
+        return historial.ventasPorRestauranteYHora(desde, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public List<UsoExtra> extrasPopulares() {
+        return historial.extrasPopulares(desde, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public List<TiemposRestaurante> tiemposPorRestaurante() {
+        return historial.tiemposPorRestaurante(desde, Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,103 @@
+package com.delivery.benchmarks;
+
+import com.delivery.repository.RestauranteRepository;
+import com.delivery.repository.RestauranteResumen;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga sobre {@code /api/orders} por HTTP, con la aplicación completa
+ * escuchando en un puerto libre y cuatro hilos cliente: crear un pedido,
+ * leer uno de los creados al preparar y listar los de un restaurante.
+ * Mide lo que ve un cliente, con Tomcat, Jackson y el almacén de pedidos
+ * en el medio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ApiPedidosBenchmark {
+    private static final int PEDIDOS = 1000;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private String base;
+    private long[] restaurantes;
+    private long[] pedidos;
+
+    @Setup
+    public void arrancar() throws IOException, InterruptedException {
+        contexto = Aplicacion.arrancar("default");
+        base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/api/orders";
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        restaurantes = contexto.getBean(RestauranteRepository.class).listarResumenes().stream()
+                .mapToLong(RestauranteResumen::id).toArray();
+        ObjectMapper json = contexto.getBean(ObjectMapper.class);
+        pedidos = new long[PEDIDOS];
+        for (int i = 0; i < PEDIDOS; i++) {
+            pedidos[i] = json.readTree(crear()).get("id").asLong();
+        }
+    }
+
+    @TearDown
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public String crear() throws IOException, InterruptedException {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        String cuerpo = """
+                {"customer": {"name": "Cliente", "phone": "555-%04d", "address": "Calle 1"},
+                 "restaurantId": %d,
+                 "items": [{"productId": %d, "extraIds": [%d], "quantity": %d}]}
+                """.formatted(azar.nextInt(10_000), restaurantes[azar.nextInt(restaurantes.length)],
+                1 + azar.nextInt(3), 1 + azar.nextInt(4), 1 + azar.nextInt(2));
+        return enviar(HttpRequest.newBuilder(URI.create(base))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo)), 201);
+    }
+
+    @Benchmark
+    public String obtener() throws IOException, InterruptedException {
+        long id = pedidos[ThreadLocalRandom.current().nextInt(PEDIDOS)];
+        return enviar(HttpRequest.newBuilder(URI.create(base + "/" + id)).GET(), 200);
+    }
+
+    @Benchmark
+    public String listarPorRestaurante() throws IOException, InterruptedException {
+        long id = restaurantes[ThreadLocalRandom.current().nextInt(restaurantes.length)];
+        return enviar(HttpRequest.newBuilder(URI.create(base + "?restaurantId=" + id)).GET(), 200);
+    }
+
+    private String enviar(HttpRequest.Builder solicitud, int esperado) throws IOException, InterruptedException {
+        HttpResponse<String> respuesta = cliente.send(solicitud.build(), HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() != esperado) {
+            throw new IllegalStateException("HTTP " + respuesta.statusCode() + ": " + respuesta.body());
+        }
+        return respuesta.body();
+    }
+}
@@ -0,0 +1,46 @@
+package com.delivery.benchmarks;
+
+import com.delivery.cli.DeliveryComidaApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Arranca la aplicación completa para los benchmarks que pasan por Spring:
+ * sin consola interactiva ni historial, en un puerto libre, sin imprimir el
+ * SQL y con la bitácora y la base en archivo de {@code produccion} en un
+ * directorio temporal. Van como propiedades del sistema para que ningún
+ * perfil las pise; cada benchmark corre en su propia JVM.
+ */
+final class Aplicacion {
+
+    private Aplicacion() {}
+
+    static ConfigurableApplicationContext arrancar(String perfil) {
+        Path datos;
+        try {
+            datos = Files.createTempDirectory("datos-benchmark");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.setProperty("spring.shell.interactive.enabled", "false");
+        System.setProperty("spring.shell.history.enabled", "false");
+        System.setProperty("server.port", "0");
+        System.setProperty("spring.jpa.show-sql", "false");
+        System.setProperty("logging.level.root", "WARN");
+        System.setProperty("delivery.bitacora.directorio", datos.resolve("bitacora").toString());
+        if (perfil.equals("produccion")) {
+            System.setProperty("spring.datasource.url",
+                    "jdbc:h2:file:" + datos.resolve("h2/deliverydb").toAbsolutePath() + ";DB_CLOSE_ON_EXIT=FALSE");
+        }
+        SpringApplicationBuilder aplicacion = new SpringApplicationBuilder(DeliveryComidaApplication.class);
+        if (!perfil.equals("default")) {
+            aplicacion.profiles(perfil);
+        }
+        return aplicacion.run();
+    }
+}
@@ -0,0 +1,211 @@
+package com.delivery.benchmarks;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Arranca la aplicación varias veces en JVMs nuevas y mide cuánto tarda en
+ * contestar la primera petición a {@code /api/restaurants}, cuánto dura
+ * esa petición y la siguiente, y el arranque que informa Spring. Compara
+ * el perfil por omisión con {@code rapido} y, si están, con las clases AOT
+ * y el archivo AppCDS que arma el perfil de Maven {@code arranque-rapido}.
+ * No es un benchmark JMH: cada muestra es una JVM nueva.
+ *
+ * <p>Uso: {@code java -cp target/benchmarks.jar com.delivery.benchmarks.Arranque
+ * <jar> [repeticiones] [archivo CDS] [opciones de la JVM...]}. Cada
+ * instancia corre sin consola interactiva, en un puerto libre y con su
+ * propia bitácora temporal.
+ */
+public final class Arranque {
+    private static final String RUTA = "/api/restaurants";
+    private static final String CLASES_AOT = "com/delivery/cli/DeliveryComidaApplication__ApplicationContextInitializer.class";
+    private static final long ESPERA_MAXIMA_NANOS = TimeUnit.MINUTES.toNanos(3);
+    private static final Pattern ARRANQUE_SPRING = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+
+    private Arranque() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Uso: Arranque <jar> [repeticiones] [archivo CDS] [opciones de la JVM...]");
+            System.exit(2);
+        }
+        Path jar = Path.of(args[0]);
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        String archivoCds = args.length > 2 ? args[2] : "";
+        List<String> extras = args.length > 3 ? Arrays.asList(args).subList(3, args.length) : List.of();
+        boolean conAot = hayClasesAot(jar);
+        boolean conCds = !archivoCds.isBlank() && Files.isRegularFile(Path.of(archivoCds));
+
+        List<Variante> variantes = new ArrayList<>();
+        variantes.add(new Variante("por omisión", List.of()));
+        variantes.add(new Variante("rapido", List.of("-Dspring.profiles.active=rapido")));
+        if (conAot) {
+            variantes.add(new Variante("rapido + AOT",
+                    List.of("-Dspring.profiles.active=rapido", "-Dspring.aot.enabled=true")));
+        }
+        if (conCds) {
+            List<String> opciones = new ArrayList<>(List.of("-Dspring.profiles.active=rapido",
+                    "-XX:SharedArchiveFile=" + archivoCds));
+            if (conAot) {
+                opciones.add("-Dspring.aot.enabled=true");
+            }
+            variantes.add(new Variante(conAot ? "rapido + AOT + CDS" : "rapido + CDS", opciones));
+        }
+
+        System.out.println("Jar: " + jar + ", repeticiones: " + repeticiones + ", clases AOT: " + (conAot ? "sí" : "no")
+                + ", archivo CDS: " + (conCds ? archivoCds : "no")
+                + (extras.isEmpty() ? "" : ", opciones de la JVM: " + String.join(" ", extras)));
+        if (!conCds && !archivoCds.isBlank()) {
+            System.out.println("No existe " + archivoCds + ": se arma con mvn -Parranque-rapido package en backend/");
+        }
+
+        HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1)).build();
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        for (Variante variante : variantes) {
+            List<Corrida> corridas = new ArrayList<>(repeticiones);
+            for (int i = 0; i < repeticiones; i++) {
+                List<String> comando = new ArrayList<>();
+                comando.add(java);
+                comando.addAll(variante.opciones());
+                comando.addAll(extras);
+                comando.add("-jar");
+                comando.add(jar.toString());
+                Corrida corrida = correr(comando, cliente);
+                if (corrida == null) {
+                    break;
+                }
+                corridas.add(corrida);
+            }
+            informar(variante.nombre(), corridas);
+        }
+    }
+
+    /** Las clases AOT van sueltas en el jar liviano y bajo BOOT-INF/classes en el ejecutable. */
+    private static boolean hayClasesAot(Path jar) throws IOException {
+        try (JarFile archivo = new JarFile(jar.toFile())) {
+            return archivo.getEntry(CLASES_AOT) != null || archivo.getEntry("BOOT-INF/classes/" + CLASES_AOT) != null;
+        }
+    }
+
+    /** Una instancia: arranca, espera la primera respuesta, pide otra y la apaga. null si no llegó a contestar. */
+    private static Corrida correr(List<String> comando, HttpClient cliente) throws IOException, InterruptedException {
+        Path directorio = Files.createTempDirectory("arranque-benchmark");
+        Path salida = directorio.resolve("salida.log");
+        int puerto;
+        try (ServerSocket libre = new ServerSocket(0)) {
+            puerto = libre.getLocalPort();
+        }
+        List<String> completo = new ArrayList<>(comando);
+        // Como propiedades y no como argumentos: la consola toma los argumentos como un comando a ejecutar
+        completo.addAll(1, List.of("-Dserver.port=" + puerto, "-Dspring.shell.interactive.enabled=false",
+                "-Ddelivery.bitacora.directorio=" + directorio.resolve("bitacora")));
+        HttpRequest solicitud = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + RUTA))
+                .timeout(Duration.ofSeconds(30)).build();
+
+        long inicio = System.nanoTime();
+        Process proceso = new ProcessBuilder(completo).redirectErrorStream(true).redirectOutput(salida.toFile()).start();
+        try {
+            proceso.getOutputStream().close();
+            long nanosPrimera = -1;
+            long listoEn = -1;
+            while (listoEn < 0) {
+                if (!proceso.isAlive() || System.nanoTime() - inicio > ESPERA_MAXIMA_NANOS) {
+                    System.err.println("La instancia no contestó" + (proceso.isAlive() ? " a tiempo" : " (terminó con "
+                            + proceso.exitValue() + ")") + ". Últimas líneas de la salida:");
+                    ultimasLineas(salida, 15).forEach(linea -> System.err.println("  " + linea));
+                    return null;
+                }
+                long antes = System.nanoTime();
+                try {
+                    HttpResponse<Void> respuesta = cliente.send(solicitud, HttpResponse.BodyHandlers.discarding());
+                    if (respuesta.statusCode() == 200) {
+                        listoEn = System.nanoTime();
+                        nanosPrimera = listoEn - antes;
+                    } else {
+                        Thread.sleep(5);
+                    }
+                } catch (ConnectException e) {
+                    Thread.sleep(5);
+                }
+            }
+            long antes = System.nanoTime();
+            cliente.send(solicitud, HttpResponse.BodyHandlers.discarding());
+            long nanosSegunda = System.nanoTime() - antes;
+            return new Corrida(listoEn - inicio, nanosPrimera, nanosSegunda, arranqueSpring(salida));
+        } finally {
+            proceso.destroy();
+            if (!proceso.waitFor(30, TimeUnit.SECONDS)) {
+                proceso.destroyForcibly().waitFor();
+            }
+            borrar(directorio);
+        }
+    }
+
+    // La línea de Spring puede salir un poco después de que Tomcat ya atiende
+    private static double arranqueSpring(Path salida) throws IOException, InterruptedException {
+        for (int intento = 0; intento < 100; intento++) {
+            Matcher encontrado = ARRANQUE_SPRING.matcher(Files.readString(salida, StandardCharsets.ISO_8859_1));
+            if (encontrado.find()) {
+                return Double.parseDouble(encontrado.group(1));
+            }
+            Thread.sleep(20);
+        }
+        return Double.NaN;
+    }
+
+    private static void informar(String variante, List<Corrida> corridas) {
+        if (corridas.isEmpty()) {
+            System.out.println(variante + ": sin corridas completas");
+            return;
+        }
+        long[] listo = corridas.stream().mapToLong(Corrida::nanosListo).sorted().toArray();
+        long[] primera = corridas.stream().mapToLong(Corrida::nanosPrimera).sorted().toArray();
+        long[] segunda = corridas.stream().mapToLong(Corrida::nanosSegunda).sorted().toArray();
+        double[] spring = corridas.stream().mapToDouble(Corrida::segundosSpring).sorted().toArray();
+        System.out.println(variante + " (mediana / mínima de " + corridas.size() + "): primera respuesta a los "
+                + milis(listo[listo.length / 2]) + " / " + milis(listo[0]) + " ms del lanzamiento, "
+                + "primera petición " + milis(primera[primera.length / 2]) + " / " + milis(primera[0]) + " ms, "
+                + "segunda " + milis(segunda[segunda.length / 2]) + " / " + milis(segunda[0]) + " ms, "
+                + "Spring informa " + spring[spring.length / 2] + " / " + spring[0] + " s");
+    }
+
+    private static long milis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static List<String> ultimasLineas(Path salida, int cantidad) throws IOException {
+        List<String> lineas = Files.readAllLines(salida, StandardCharsets.ISO_8859_1);
+        return lineas.subList(Math.max(0, lineas.size() - cantidad), lineas.size());
+    }
+
+    private static void borrar(Path directorio) throws IOException {
+        try (Stream<Path> rutas = Files.walk(directorio)) {
+            for (Path ruta : rutas.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(ruta);
+            }
+        }
+    }
+
+    private record Variante(String nombre, List<String> opciones) {}
+
+    private record Corrida(long nanosListo, long nanosPrimera, long nanosSegunda, double segundosSpring) {}
+}
@@ -0,0 +1,145 @@
+package com.delivery.benchmarks;
+
+import com.delivery.bitacora.Bitacora;
+import com.delivery.bitacora.BitacoraPedidos;
+import com.delivery.bitacora.ReconstruccionPedidos;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Agregar cambios de estado a la bitácora desde cuatro hilos, sin esperar
+ * el fsync y esperándolo, y reproducir una bitácora de un millón de
+ * eventos. Cada iteración de escritura empieza con un directorio vacío.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitacoraBenchmark {
+    private static final int TAMANO_SEGMENTO = 64 * 1024 * 1024;
+    private static final long INTERVALO_FSYNC_MS = 5;
+    private static final int RESTAURANTES = 100;
+    private static final int PEDIDOS_REPRODUCIDOS = 125_000;
+
+    @State(Scope.Benchmark)
+    public static class Escritura {
+        Path directorio;
+        BitacoraPedidos bitacora;
+        final AtomicLong siguienteId = new AtomicLong();
+
+        @Setup(Level.Iteration)
+        public void abrir() throws IOException {
+            directorio = Files.createTempDirectory("bitacora-benchmark");
+            bitacora = new BitacoraPedidos(directorio, TAMANO_SEGMENTO, INTERVALO_FSYNC_MS);
+        }
+
+        @TearDown(Level.Iteration)
+        public void cerrar() throws IOException {
+            bitacora.cerrar();
+            borrar(directorio);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Hilo {
+        Pedido pedido;
+
+        @Setup
+        public void preparar(Escritura escritura) {
+            long id = escritura.siguienteId.incrementAndGet();
+            pedido = Datos.pedido(3, Datos.restaurante(id), id);
+            pedido.setId(id);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Reproduccion {
+        Path directorio;
+        Restaurante[] restaurantes;
+
+        @Setup
+        public void escribir() throws IOException {
+            directorio = Files.createTempDirectory("bitacora-benchmark");
+            restaurantes = new Restaurante[RESTAURANTES];
+            for (int i = 0; i < RESTAURANTES; i++) {
+                restaurantes[i] = Datos.restaurante(i + 1);
+            }
+            BitacoraPedidos bitacora = new BitacoraPedidos(directorio, TAMANO_SEGMENTO, INTERVALO_FSYNC_MS);
+            for (long id = 1; id <= PEDIDOS_REPRODUCIDOS; id++) {
+                Pedido pedido = Datos.pedido(1 + (int) (id % 5), restaurantes[(int) (id % RESTAURANTES)], id);
+                pedido.setId(id);
+                bitacora.pedidoCreado(pedido);
+                for (Pedido.Estado estado = Pedido.Estado.RECIBIDO; !estado.esFinal(); ) {
+                    estado = estado.siguiente();
+                    bitacora.estadoCambiado(pedido, estado, pedido.getCreadoEn());
+                }
+            }
+            bitacora.sincronizar().join();
+            bitacora.cerrar();
+        }
+
+        @TearDown
+        public void borrar() throws IOException {
+            BitacoraBenchmark.borrar(directorio);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void agregar(Escritura escritura, Hilo hilo) {
+        escritura.bitacora.estadoCambiado(hilo.pedido, Pedido.Estado.EN_CAMINO, System.currentTimeMillis());
+    }
+
+    /** Como un cambio de estado que responde recién cuando el evento está en disco. */
+    @Benchmark
+    @Threads(4)
+    public void agregarYEsperarDisco(Escritura escritura, Hilo hilo) {
+        escritura.bitacora.estadoCambiado(hilo.pedido, Pedido.Estado.EN_CAMINO, System.currentTimeMillis());
+        escritura.bitacora.sincronizar().join();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long reproducir(Reproduccion reproduccion) throws IOException {
+        Restaurante[] restaurantes = reproduccion.restaurantes;
+        ReconstruccionPedidos reconstruccion =
+                new ReconstruccionPedidos(id -> restaurantes[(int) (id - 1)], null);
+        Bitacora.leer(reproduccion.directorio, reconstruccion);
+        return reconstruccion.getEventos();
+    }
+
+    private static void borrar(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            archivos.sorted(Comparator.reverseOrder()).forEach(archivo -> {
+                try {
+                    Files.delete(archivo);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
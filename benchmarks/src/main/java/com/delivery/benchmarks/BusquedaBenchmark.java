@@ -0,0 +1,179 @@
+package com.delivery.benchmarks;
+
+import com.delivery.busqueda.IndiceRestaurantes;
+import com.delivery.busqueda.ResultadoBusqueda;
+import com.delivery.model.Restaurante;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsquedas en el índice de restaurantes desde cuatro hilos: un término,
+ * un término y un prefijo, un prefijo de 2 o 3 letras como al escribir, la
+ * segunda página y sugerencias; además reindexar un restaurante que cambió
+ * de nombre. Como referencia, una búsqueda recorriendo todos los textos,
+ * que es lo que haría falta sin índice. Los restaurantes son sintéticos y
+ * con miles de términos distintos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusquedaBenchmark {
+    private static final String[] LUGARES = {"La Parrilla", "El Rincón", "La Cocina", "El Fogón", "La Casa",
+            "El Patio", "La Esquina", "El Horno", "La Terraza", "El Mesón", "La Taberna", "El Bodegón"};
+    private static final String[] COCINAS = {"italiana", "mexicana", "japonesa", "china", "india", "peruana",
+            "árabe", "vegana", "argentina", "española", "coreana", "tailandesa", "griega", "francesa"};
+    private static final String[] ESPECIALIDADES = {"pizza", "pastas", "tacos", "sushi", "ramen", "curry",
+            "ceviche", "empanadas", "hamburguesas", "ensaladas", "parrilla", "mariscos", "postres", "café",
+            "panadería", "helados", "wok", "kebab", "tapas", "milanesas"};
+    private static final String[] VIAS = {"Calle", "Avenida", "Pasaje", "Boulevard", "Camino"};
+    private static final String[] SILABAS = {"ba", "be", "ca", "co", "da", "di", "fe", "ga", "go", "la", "li",
+            "lo", "ma", "me", "mi", "na", "no", "pa", "pe", "ra", "re", "ro", "sa", "se", "ta", "te", "to", "va",
+            "vi", "za", "rez", "nez", "dez", "tin", "mar", "sol", "ver", "mon"};
+    private static final int CONSULTAS = 4096;
+    private static final int TAMANO_PAGINA = 20;
+
+    @Param({"10000", "100000"})
+    private int restaurantes;
+
+    private final IndiceRestaurantes indice = new IndiceRestaurantes();
+    private List<Restaurante> locales;
+    private String[] textos;
+    private String[] unTermino;
+    private String[] terminoYPrefijo;
+    private String[] prefijos;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom azar = new SplittableRandom(42);
+        locales = new ArrayList<>(restaurantes);
+        textos = new String[restaurantes];
+        for (int i = 0; i < restaurantes; i++) {
+            Restaurante restaurante = restaurante(i + 1, azar);
+            locales.add(restaurante);
+            indice.indexar(restaurante);
+            textos[i] = texto(restaurante).toLowerCase(Locale.ROOT);
+        }
+        // Las consultas salen de palabras de restaurantes reales, como las escribiría alguien que los busca
+        unTermino = new String[CONSULTAS];
+        terminoYPrefijo = new String[CONSULTAS];
+        prefijos = new String[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            String[] palabras = textos[azar.nextInt(restaurantes)].split(" ");
+            String primero = palabraLarga(palabras, azar);
+            String segundo = palabraLarga(palabras, azar);
+            unTermino[i] = primero;
+            terminoYPrefijo[i] = primero + " " + segundo.substring(0, Math.min(segundo.length(), 2 + azar.nextInt(4)));
+            prefijos[i] = primero.substring(0, Math.min(primero.length(), 2 + azar.nextInt(2)));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ResultadoBusqueda unTermino() {
+        return indice.buscar(unTermino[consulta()], 0, TAMANO_PAGINA);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ResultadoBusqueda terminoYPrefijo() {
+        return indice.buscar(terminoYPrefijo[consulta()], 0, TAMANO_PAGINA);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ResultadoBusqueda prefijoCorto() {
+        return indice.buscar(prefijos[consulta()], 0, TAMANO_PAGINA);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ResultadoBusqueda segundaPagina() {
+        return indice.buscar(unTermino[consulta()], 1, TAMANO_PAGINA);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<String> sugerir() {
+        return indice.sugerir(prefijos[consulta()], 10);
+    }
+
+    @Benchmark
+    public void reindexar() {
+        Restaurante restaurante = locales.get(ThreadLocalRandom.current().nextInt(restaurantes));
+        restaurante.setNombre(nombre(new SplittableRandom(ThreadLocalRandom.current().nextLong())));
+        indice.indexar(restaurante);
+    }
+
+    @Benchmark
+    public int sinIndice() {
+        String termino = unTermino[consulta()];
+        int encontrados = 0;
+        for (String texto : textos) {
+            if (texto.contains(termino)) {
+                encontrados++;
+            }
+        }
+        return encontrados;
+    }
+
+    private static int consulta() {
+        return ThreadLocalRandom.current().nextInt(CONSULTAS);
+    }
+
+    private static String palabraLarga(String[] palabras, SplittableRandom azar) {
+        String palabra;
+        do {
+            palabra = palabras[azar.nextInt(palabras.length)];
+        } while (palabra.length() < 3 || Character.isDigit(palabra.charAt(0)));
+        return palabra.endsWith(":") ? palabra.substring(0, palabra.length() - 1) : palabra;
+    }
+
+    private static Restaurante restaurante(long id, SplittableRandom azar) {
+        String descripcion = "Cocina " + COCINAS[azar.nextInt(COCINAS.length)] + ": "
+                + ESPECIALIDADES[azar.nextInt(ESPECIALIDADES.length)] + " y "
+                + ESPECIALIDADES[azar.nextInt(ESPECIALIDADES.length)];
+        String direccion = VIAS[azar.nextInt(VIAS.length)] + " " + palabra(azar) + " " + (1 + azar.nextInt(9999));
+        Restaurante restaurante = new Restaurante(nombre(azar), descripcion, "555-0000", direccion);
+        restaurante.setId(id);
+        return restaurante;
+    }
+
+    private static String nombre(SplittableRandom azar) {
+        return LUGARES[azar.nextInt(LUGARES.length)] + " de " + palabra(azar);
+    }
+
+    /** Apellidos y nombres de calles inventados, para que el vocabulario tenga miles de términos. */
+    private static String palabra(SplittableRandom azar) {
+        StringBuilder palabra = new StringBuilder(12);
+        int silabas = 2 + azar.nextInt(2);
+        for (int i = 0; i < silabas; i++) {
+            palabra.append(SILABAS[azar.nextInt(SILABAS.length)]);
+        }
+        palabra.setCharAt(0, Character.toUpperCase(palabra.charAt(0)));
+        return palabra.toString();
+    }
+
+    private static String texto(Restaurante restaurante) {
+        return restaurante.getNombre() + " " + restaurante.getDescripcion() + " " + restaurante.getDireccion();
+    }
+}
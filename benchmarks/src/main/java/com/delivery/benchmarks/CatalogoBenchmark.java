@@ -0,0 +1,92 @@
+package com.delivery.benchmarks;
+
+import com.delivery.carga.GeneradorDatos;
+import com.delivery.catalogo.CatalogoCache;
+import com.delivery.decorator.ProductoBase;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import com.delivery.repository.RestauranteRepository;
+import com.delivery.repository.RestauranteResumen;
+import com.delivery.service.PedidoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * Crear un pedido a través de {@link PedidoService} desde cuatro hilos
+ * con la aplicación completa, buscando el restaurante en la caché del
+ * catálogo o directo en el repositorio, como hacían los controladores
+ * antes de la caché. Lo demás del pedido es igual en los dos casos;
+ * {@code buscarRestaurante} mide la búsqueda sola, sin los pedidos que se
+ * van acumulando en memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CatalogoBenchmark {
+    private static final int RESTAURANTES = 1000;
+    private static final ProductoBase PIZZA = new ProductoBase("Pizza", 1200);
+
+    @Param({"cache", "repositorio"})
+    private String fuente;
+
+    private ConfigurableApplicationContext contexto;
+    private PedidoService pedidoService;
+    private LongFunction<Optional<Restaurante>> buscarRestaurante;
+    private long[] ids;
+
+    @Setup
+    public void arrancar() {
+        contexto = Aplicacion.arrancar("default");
+        pedidoService = contexto.getBean(PedidoService.class);
+        RestauranteRepository restauranteRepository = contexto.getBean(RestauranteRepository.class);
+        contexto.getBean(GeneradorDatos.class)
+                .sembrarRestaurantes(Math.max(0, RESTAURANTES - restauranteRepository.count()));
+        ids = restauranteRepository.listarResumenes().stream().mapToLong(RestauranteResumen::id).toArray();
+        CatalogoCache catalogoCache = contexto.getBean(CatalogoCache.class);
+        buscarRestaurante = fuente.equals("cache") ? catalogoCache::buscarRestaurante : restauranteRepository::findById;
+    }
+
+    @TearDown
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Optional<Restaurante> buscarRestaurante() {
+        return buscarRestaurante.apply(idAlAzar());
+    }
+
+    @Benchmark
+    public Pedido crearPedido() {
+        Restaurante restaurante = buscarRestaurante.apply(idAlAzar()).orElseThrow();
+        Pedido pedido = pedidoService.nuevoPedido(new Cliente("Cliente", "555-0000", "Calle 1"), restaurante);
+        pedido.agregarItem(PIZZA);
+        return pedidoService.registrar(pedido);
+    }
+
+    private long idAlAzar() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,86 @@
+package com.delivery.benchmarks;
+
+import com.delivery.ciclo.MotorCicloVida;
+import com.delivery.ciclo.PropiedadesCicloVida;
+import com.delivery.metricas.MetricasPedidos;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Lleva una tanda de pedidos de RECIBIDO a ENTREGADO por el motor del ciclo
+ * de vida con etapas de 0 ms, con y sin los timers por estado. El tiempo
+ * se informa por transición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CicloVidaBenchmark {
+    private static final int PEDIDOS = 10_000;
+    private static final int RESTAURANTES = 1000;
+    // RECIBIDO → PREPARANDO → LISTO → EN_CAMINO → ENTREGADO
+    private static final int TRANSICIONES = 4;
+    private static final Cliente CLIENTE = new Cliente("Cliente", "000", "Calle 1");
+
+    @Param({"false", "true"})
+    private boolean metricas;
+
+    private MotorCicloVida motor;
+    private Restaurante[] restaurantes;
+
+    @Setup
+    public void preparar() {
+        restaurantes = new Restaurante[RESTAURANTES];
+        for (int i = 0; i < RESTAURANTES; i++) {
+            restaurantes[i] = Datos.restaurante(i + 1);
+        }
+        BiConsumer<Pedido, Pedido.Estado> transicion = Pedido::cambiarEstado;
+        if (metricas) {
+            MetricasPedidos timers = new MetricasPedidos(new SimpleMeterRegistry(), RESTAURANTES);
+            transicion = (pedido, estado) -> {
+                Pedido.Estado anterior = pedido.getEstado();
+                pedido.cambiarEstado(estado);
+                timers.transicion(pedido, anterior, estado);
+            };
+        }
+        PropiedadesCicloVida propiedades = new PropiedadesCicloVida();
+        propiedades.setGeneral(new PropiedadesCicloVida.Tiempos(0L, 0L, 0L, 0L));
+        motor = new MotorCicloVida(propiedades, transicion);
+    }
+
+    @TearDown
+    public void detener() {
+        motor.detener();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PEDIDOS * TRANSICIONES)
+    public void tanda() {
+        CompletableFuture<?>[] futuros = new CompletableFuture<?>[PEDIDOS];
+        for (int i = 0; i < PEDIDOS; i++) {
+            futuros[i] = motor.iniciar(new Pedido(CLIENTE, restaurantes[i % RESTAURANTES]));
+        }
+        CompletableFuture.allOf(futuros).join();
+    }
+}
@@ -0,0 +1,82 @@
+package com.delivery.benchmarks;
+
+import com.delivery.ciclo.PropiedadesCicloVida;
+import com.delivery.cocina.CocinaSaturadaException;
+import com.delivery.cocina.GestorCocinas;
+import com.delivery.cocina.PropiedadesCocina;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admitir y liberar pedidos en las cocinas desde cuatro hilos, repartidos
+ * entre muchos restaurantes o todos contra el mismo, y rechazar pedidos
+ * de una cocina llena.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class CocinasBenchmark {
+    private static final Cliente CLIENTE = new Cliente("Cliente", "000", "Calle 1");
+
+    @Param({"1", "1000"})
+    private int restaurantes;
+
+    private GestorCocinas gestor;
+    private Restaurante[] locales;
+    private Restaurante llena;
+
+    @Setup
+    public void preparar() {
+        PropiedadesCicloVida tiempos = new PropiedadesCicloVida();
+        // Nada termina de prepararse durante la medición: solo cuenta lo que se libera a mano
+        tiempos.setGeneral(new PropiedadesCicloVida.Tiempos(1000L, 600_000L, 1000L, 1000L));
+        PropiedadesCocina propiedades = new PropiedadesCocina();
+        gestor = new GestorCocinas(propiedades, tiempos);
+        locales = new Restaurante[restaurantes];
+        for (int i = 0; i < restaurantes; i++) {
+            locales[i] = Datos.restaurante(i + 1);
+        }
+        llena = Datos.restaurante(restaurantes + 1);
+        for (int i = 0; i < propiedades.getPuestos() + propiedades.getCapacidadCola(); i++) {
+            gestor.admitir(new Pedido(CLIENTE, llena));
+        }
+    }
+
+    @Benchmark
+    public Pedido admitirYLiberar() {
+        Pedido pedido = new Pedido(CLIENTE, locales[ThreadLocalRandom.current().nextInt(restaurantes)]);
+        gestor.admitir(pedido);
+        gestor.liberar(pedido);
+        return pedido;
+    }
+
+    @Benchmark
+    public Object rechazar() {
+        try {
+            gestor.admitir(new Pedido(CLIENTE, llena));
+            throw new IllegalStateException("La cocina llena admitió un pedido");
+        } catch (CocinaSaturadaException e) {
+            return e;
+        }
+    }
+}
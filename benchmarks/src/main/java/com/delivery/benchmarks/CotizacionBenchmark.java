@@ -0,0 +1,59 @@
+package com.delivery.benchmarks;
+
+import com.delivery.decorator.Plato;
+import com.delivery.model.Pedido;
+import com.delivery.model.PrecioLista;
+import com.delivery.model.Promocion;
+import com.delivery.precios.Cotizacion;
+import com.delivery.precios.TablaPrecios;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cotizar un pedido con la tabla de precios compilada: precio propio del
+ * restaurante para un plato y el combo de la base de demostración.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CotizacionBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int items;
+
+    private TablaPrecios tabla;
+    private Pedido pedido;
+    private long ahora;
+
+    @Setup
+    public void preparar() {
+        List<PrecioLista> precios = List.of(
+                new PrecioLista(1L, PrecioLista.Tipo.PLATO, Plato.PIZZA.getId(), 1100));
+        List<Promocion> promociones = List.of(Promocion.combo("Combo hamburguesa + ensalada", null,
+                Plato.HAMBURGUESA.getId() + "," + Plato.ENSALADA.getId(), 150));
+        tabla = TablaPrecios.compilar(1, precios, promociones, ZoneOffset.UTC);
+        pedido = Datos.pedido(items, Datos.restaurante(1), 42);
+        ahora = System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public Cotizacion cotizar() {
+        return tabla.cotizar(pedido, ahora);
+    }
+}
@@ -0,0 +1,45 @@
+package com.delivery.benchmarks;
+
+import com.delivery.decorator.Menu;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Producto;
+import com.delivery.model.Restaurante;
+
+import java.util.SplittableRandom;
+
+/**
+ * Pedidos y productos sintéticos para los benchmarks. Con la misma semilla
+ * salen siempre los mismos, así dos corridas comparan lo mismo.
+ */
+final class Datos {
+    private static final int PLATOS = 3;
+    private static final int EXTRAS = 4;
+
+    private Datos() {}
+
+    static Restaurante restaurante(long id) {
+        Restaurante restaurante = new Restaurante("Restaurante " + id, "Benchmark", "000", "Local " + id);
+        restaurante.setId(id);
+        return restaurante;
+    }
+
+    /** Pedido con {@code items} productos, cada uno con hasta dos extras al azar. */
+    static Pedido pedido(int items, Restaurante restaurante, long semilla) {
+        SplittableRandom azar = new SplittableRandom(semilla);
+        Pedido pedido = new Pedido(new Cliente("Cliente " + semilla, "000", "Calle " + semilla), restaurante);
+        for (int i = 0; i < items; i++) {
+            pedido.agregarItem(producto(azar, azar.nextInt(3)));
+        }
+        return pedido;
+    }
+
+    /** Producto del menú decorado con {@code extras} extras al azar, sin compilar. */
+    static Producto producto(SplittableRandom azar, int extras) {
+        Producto producto = Menu.crearProductoBase(1 + azar.nextInt(PLATOS));
+        for (int i = 0; i < extras; i++) {
+            producto = Menu.agregarExtra(producto, 1 + azar.nextInt(EXTRAS));
+        }
+        return producto;
+    }
+}
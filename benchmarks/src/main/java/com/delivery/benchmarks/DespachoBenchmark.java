@@ -0,0 +1,82 @@
+package com.delivery.benchmarks;
+
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import com.delivery.reparto.MotorDespacho;
+import com.delivery.reparto.PropiedadesReparto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cuánto tarda una tanda de pedidos listos en quedar asignada, por pedido,
+ * con una flota que vuelve al instante. Incluye la espera de la ventana
+ * de lotes, acortada a 5 ms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DespachoBenchmark {
+    private static final int RESTAURANTES = 200;
+    private static final int TANDA = 1000;
+
+    private final AtomicLong siguienteId = new AtomicLong();
+    private MotorDespacho motor;
+    private Restaurante[] restaurantes;
+
+    @Setup
+    public void preparar() {
+        PropiedadesReparto propiedades = new PropiedadesReparto();
+        propiedades.setVentanaLoteMs(5);
+        propiedades.setMsPorKm(0);
+        motor = new MotorDespacho(propiedades);
+        restaurantes = new Restaurante[RESTAURANTES];
+        for (int i = 0; i < RESTAURANTES; i++) {
+            restaurantes[i] = Datos.restaurante(i + 1);
+        }
+    }
+
+    @TearDown
+    public void detener() {
+        motor.detener();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TANDA)
+    public void tanda() {
+        long objetivo = motor.getAsignados() + TANDA;
+        for (int i = 0; i < TANDA; i++) {
+            motor.pedidoListo(pedido());
+        }
+        while (motor.getAsignados() < objetivo) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+    private Pedido pedido() {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        long id = siguienteId.incrementAndGet();
+        Cliente cliente = new Cliente("Cliente " + id, "000", "Destino " + azar.nextInt(1_000_000));
+        Pedido pedido = new Pedido(cliente, restaurantes[azar.nextInt(RESTAURANTES)]);
+        pedido.setId(id);
+        return pedido;
+    }
+}
@@ -0,0 +1,104 @@
+package com.delivery.benchmarks;
+
+import com.delivery.difusion.AvisoEstado;
+import com.delivery.difusion.Canal;
+import com.delivery.difusion.CentralDifusion;
+import com.delivery.difusion.Suscripcion;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import com.delivery.singleton.HistogramaLatencia;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publicar cambios de estado a {@code suscriptores} suscriptores que
+ * siguen todos los pedidos, con la central de la aplicación completa y
+ * canales en memoria que no bloquean. La medición es lo que tarda
+ * publicar; al final se imprimen la mediana y el percentil 99 de la
+ * latencia de entrega que registra la central, desde que se arma el aviso
+ * hasta que el canal lo recibe, junto con los avisos coalescidos y los
+ * suscriptores descartados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DifusionBenchmark {
+    // Menos que los pendientes que admite un suscriptor: publicando sin pausa los avisos de un mismo
+    // pedido se coalescen, pero ningún suscriptor junta tantos pedidos distintos como para descartarse
+    private static final int PEDIDOS = 128;
+    private static final Pedido.Estado[] ESTADOS = Pedido.Estado.values();
+
+    @Param({"1", "100", "1000"})
+    private int suscriptores;
+
+    private ConfigurableApplicationContext contexto;
+    private CentralDifusion central;
+    private final List<Suscripcion> suscripciones = new ArrayList<>();
+    private final LongAdder recibidos = new LongAdder();
+    private Pedido[] pedidos;
+    private int siguiente;
+
+    @Setup
+    public void arrancar() {
+        contexto = Aplicacion.arrancar("default");
+        central = contexto.getBean(CentralDifusion.class);
+        Canal canal = new Canal() {
+            @Override
+            public void enviar(List<AvisoEstado> avisos) {
+                recibidos.add(avisos.size());
+            }
+
+            @Override
+            public void latido() {}
+
+            @Override
+            public void cerrar(String motivo) {}
+        };
+        for (int i = 0; i < suscriptores; i++) {
+            suscripciones.add(central.suscribir(null, null, canal));
+        }
+        Restaurante restaurante = Datos.restaurante(1);
+        pedidos = new Pedido[PEDIDOS];
+        for (int i = 0; i < PEDIDOS; i++) {
+            pedidos[i] = Datos.pedido(1, restaurante, i);
+            // Lejos de los ids que pueda asignar la aplicación
+            pedidos[i].setId((1L << 40) + i);
+        }
+    }
+
+    @TearDown
+    public void detener() {
+        HistogramaLatencia latencia = central.getLatenciaMicros();
+        System.out.println("Entrega a " + suscriptores + " suscriptores, p50 / p99: "
+                + latencia.getPercentil(50) + " / " + latencia.getPercentil(99) + " µs ("
+                + latencia.getTotal() + " entregas, " + recibidos.sum() + " avisos recibidos, "
+                + central.getCoalescidos() + " coalescidos, " + central.getDescartadosLentos() + " descartados)");
+        suscripciones.forEach(central::cancelar);
+        contexto.close();
+    }
+
+    @Benchmark
+    public void publicar() {
+        int n = siguiente++;
+        central.publicar(pedidos[n % PEDIDOS], ESTADOS[(n / PEDIDOS) % ESTADOS.length]);
+    }
+}
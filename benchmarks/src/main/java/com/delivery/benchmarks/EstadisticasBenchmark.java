@@ -0,0 +1,71 @@
+package com.delivery.benchmarks;
+
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import com.delivery.singleton.Estadisticas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registrar un pedido entregado en las estadísticas globales cuando ya hay
+ * 0, 1 y 10 millones registrados, desde uno y desde cuatro hilos. Cada
+ * combinación corre en su propio proceso, así el singleton empieza vacío.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EstadisticasBenchmark {
+    private static final int PEDIDOS = 1024;
+    private static final int RESTAURANTES = 1000;
+
+    @Param({"0", "1000000", "10000000"})
+    private int previos;
+
+    private final Estadisticas estadisticas = Estadisticas.getInstancia();
+    private Pedido[] pedidos;
+
+    @Setup
+    public void preparar() {
+        Restaurante[] restaurantes = new Restaurante[RESTAURANTES];
+        for (int i = 0; i < RESTAURANTES; i++) {
+            restaurantes[i] = Datos.restaurante(i + 1);
+        }
+        pedidos = new Pedido[PEDIDOS];
+        long ahora = System.currentTimeMillis();
+        for (int i = 0; i < PEDIDOS; i++) {
+            Pedido pedido = Datos.pedido(1 + i % 5, restaurantes[i % RESTAURANTES], i);
+            pedido.cambiarEstado(Pedido.Estado.ENTREGADO, ahora);
+            pedidos[i] = pedido;
+        }
+        for (int i = 0; i < previos; i++) {
+            estadisticas.registrarPedidoCompletado(pedidos[i % PEDIDOS], ahora);
+        }
+    }
+
+    @Benchmark
+    public void registrar() {
+        estadisticas.registrarPedidoCompletado(pedidos[ThreadLocalRandom.current().nextInt(PEDIDOS)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void registrarConcurrente() {
+        estadisticas.registrarPedidoCompletado(pedidos[ThreadLocalRandom.current().nextInt(PEDIDOS)]);
+    }
+}
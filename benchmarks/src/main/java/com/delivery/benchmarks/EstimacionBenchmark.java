@@ -0,0 +1,104 @@
+package com.delivery.benchmarks;
+
+import com.delivery.estimacion.BosquejoDecaido;
+import com.delivery.estimacion.EstimacionEntrega;
+import com.delivery.estimacion.EstimadorEntrega;
+import com.delivery.estimacion.PropiedadesEstimacion;
+import com.delivery.model.Cliente;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimar la entrega de un pedido recién confirmado, desde cuatro hilos,
+ * con un estimador que ya aprendió de un día de pedidos sintéticos, y
+ * registrar una observación en un bosquejo con decaimiento.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EstimacionBenchmark {
+    private static final long INICIO = 1_700_000_000_000L;
+    private static final int APRENDIDOS = 50_000;
+    private static final int CONSULTADOS = 4096;
+    private static final int RESTAURANTES = 100;
+
+    private final PropiedadesEstimacion propiedades = new PropiedadesEstimacion();
+    private EstimadorEntrega estimador;
+    private BosquejoDecaido bosquejo;
+    private Pedido[] consultados;
+    private long[] duraciones;
+    private long reloj = INICIO;
+    private int observacion;
+
+    @Setup
+    public void aprender() {
+        SplittableRandom azar = new SplittableRandom(42);
+        Restaurante[] restaurantes = new Restaurante[RESTAURANTES];
+        for (int i = 0; i < RESTAURANTES; i++) {
+            restaurantes[i] = Datos.restaurante(i + 1);
+        }
+        estimador = new EstimadorEntrega(propiedades);
+        long paso = TimeUnit.DAYS.toMillis(1) / APRENDIDOS;
+        for (int i = 0; i < APRENDIDOS; i++) {
+            long creado = INICIO + i * paso;
+            Pedido pedido = new Pedido(cliente(i, azar), restaurantes[azar.nextInt(RESTAURANTES)], creado);
+            pedido.setId((long) i + 1);
+            long listo = creado + minutos(8 + 22 * azar.nextDouble());
+            pedido.cambiarEstado(Pedido.Estado.LISTO, listo);
+            estimador.aprender(pedido, Pedido.Estado.PREPARANDO, Pedido.Estado.LISTO);
+            pedido.cambiarEstado(Pedido.Estado.ENTREGADO, listo + minutos(5 + 30 * azar.nextDouble()));
+            estimador.aprender(pedido, Pedido.Estado.EN_CAMINO, Pedido.Estado.ENTREGADO);
+        }
+        long ahora = INICIO + TimeUnit.DAYS.toMillis(1);
+        consultados = new Pedido[CONSULTADOS];
+        for (int i = 0; i < CONSULTADOS; i++) {
+            consultados[i] = new Pedido(cliente(APRENDIDOS + i, azar), restaurantes[azar.nextInt(RESTAURANTES)], ahora);
+        }
+
+        bosquejo = new BosquejoDecaido(propiedades.getVidaMediaMs());
+        duraciones = new long[CONSULTADOS];
+        for (int i = 0; i < CONSULTADOS; i++) {
+            duraciones[i] = minutos(20 * Math.exp(0.35 * azar.nextGaussian()));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public EstimacionEntrega estimar() {
+        Pedido pedido = consultados[ThreadLocalRandom.current().nextInt(CONSULTADOS)];
+        return estimador.estimar(pedido, Pedido.Estado.RECIBIDO, pedido.getCreadoEn());
+    }
+
+    /** Un segundo simulado por observación: recorre varias reescalas de los pesos. */
+    @Benchmark
+    public void registrar() {
+        reloj += 1000;
+        bosquejo.registrar(duraciones[observacion++ & (CONSULTADOS - 1)], reloj);
+    }
+
+    private static Cliente cliente(int i, SplittableRandom azar) {
+        return new Cliente("Cliente " + i, "000", "Avenida " + azar.nextInt(5000) + " " + azar.nextInt(9999));
+    }
+
+    private static long minutos(double minutos) {
+        return Math.round(minutos * 60_000);
+    }
+}
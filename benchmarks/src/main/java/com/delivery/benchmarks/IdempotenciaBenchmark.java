@@ -0,0 +1,70 @@
+package com.delivery.benchmarks;
+
+import com.delivery.idempotencia.VentanaDeduplicacion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * La ventana de deduplicación llena, desde cuatro hilos: reintentos de
+ * claves con resultado guardado, claves nuevas que desalojan a las más
+ * viejas y una mezcla con nueve reintentos de cada diez.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class IdempotenciaBenchmark {
+    private static final long UNA_HORA_MS = TimeUnit.HOURS.toMillis(1);
+    private static final int MAXIMO = 100_000;
+    private static final int GUARDADAS = 10_000;
+
+    private final VentanaDeduplicacion<Long> ventana = new VentanaDeduplicacion<>(UNA_HORA_MS, MAXIMO);
+    private final AtomicLong siguiente = new AtomicLong();
+    private String[] guardadas;
+
+    @Setup
+    public void preparar() {
+        guardadas = new String[GUARDADAS];
+        for (int i = 0; i < GUARDADAS; i++) {
+            guardadas[i] = "pedido:guardada-" + i;
+            long resultado = i;
+            ventana.ejecutar(guardadas[i], null, () -> resultado);
+        }
+        // Llena la ventana hasta el máximo para que cada clave nueva desaloje otra
+        while (siguiente.get() < MAXIMO - GUARDADAS) {
+            claveNueva();
+        }
+    }
+
+    @Benchmark
+    public Long reintento() {
+        return ventana.ejecutar(guardadas[ThreadLocalRandom.current().nextInt(GUARDADAS)], null, () -> -1L);
+    }
+
+    @Benchmark
+    public Long claveNueva() {
+        long numero = siguiente.incrementAndGet();
+        return ventana.ejecutar("pedido:nueva-" + numero, null, () -> numero);
+    }
+
+    @Benchmark
+    public Long mezcla() {
+        return ThreadLocalRandom.current().nextInt(10) == 0 ? claveNueva() : reintento();
+    }
+}
@@ -0,0 +1,110 @@
+package com.delivery.benchmarks;
+
+import com.delivery.catalogo.CatalogoCache;
+import com.delivery.ingesta.FormatoIngesta;
+import com.delivery.ingesta.IngestaPedidos;
+import com.delivery.ingesta.ResultadoIngesta;
+import com.delivery.ingesta.SolicitudIngesta;
+import com.delivery.model.Restaurante;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodificar, validar y armar un archivo de pedidos sintéticos en NDJSON
+ * y en binario, uno de cada mil inválido, sin registrarlos. El tiempo se
+ * informa por pedido.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IngestaBenchmark {
+    private static final int PEDIDOS = 100_000;
+    private static final int MUESTRAS = 4096;
+    private static final int INVALIDO_CADA = 1000;
+
+    @Param({"NDJSON", "BINARIO"})
+    private FormatoIngesta formato;
+
+    private ConfigurableApplicationContext contexto;
+    private IngestaPedidos ingesta;
+    private byte[] archivo;
+
+    @Setup
+    public void preparar() throws IOException {
+        contexto = Aplicacion.arrancar("default");
+        ingesta = contexto.getBean(IngestaPedidos.class);
+        ObjectMapper json = contexto.getBean(ObjectMapper.class);
+        List<SolicitudIngesta> muestras = muestras(contexto.getBean(CatalogoCache.class).getRestaurantes());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(PEDIDOS * 256);
+        DataOutputStream salida = new DataOutputStream(bytes);
+        for (int i = 0; i < PEDIDOS; i++) {
+            SolicitudIngesta solicitud = muestras.get(i % MUESTRAS);
+            if (i % INVALIDO_CADA == INVALIDO_CADA - 1) {
+                solicitud = new SolicitudIngesta(solicitud.customer(), solicitud.restaurantId(),
+                        solicitud.deliveryAddress(), List.of(new SolicitudIngesta.ItemIngesta(9, List.of(), 1)));
+            }
+            if (formato == FormatoIngesta.BINARIO) {
+                FormatoIngesta.escribirBinario(salida, solicitud);
+            } else {
+                salida.write(json.writeValueAsBytes(solicitud));
+                salida.write('\n');
+            }
+        }
+        salida.flush();
+        archivo = bytes.toByteArray();
+    }
+
+    @TearDown
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PEDIDOS)
+    public ResultadoIngesta importar() throws IOException {
+        return ingesta.importar(new ByteArrayInputStream(archivo), formato, lote -> {});
+    }
+
+    private static List<SolicitudIngesta> muestras(List<Restaurante> restaurantes) {
+        SplittableRandom azar = new SplittableRandom(42);
+        List<SolicitudIngesta> muestras = new ArrayList<>(MUESTRAS);
+        for (int i = 0; i < MUESTRAS; i++) {
+            int cantidadItems = 1 + azar.nextInt(5);
+            List<SolicitudIngesta.ItemIngesta> items = new ArrayList<>(cantidadItems);
+            for (int j = 0; j < cantidadItems; j++) {
+                List<Integer> extras = azar.nextBoolean() ? List.of(1 + azar.nextInt(4)) : List.of();
+                items.add(new SolicitudIngesta.ItemIngesta(1 + azar.nextInt(3), extras, 1 + azar.nextInt(2)));
+            }
+            Restaurante restaurante = restaurantes.get(azar.nextInt(restaurantes.size()));
+            muestras.add(new SolicitudIngesta(
+                    new SolicitudIngesta.ClienteIngesta("Cliente " + i, "555-" + (1000 + i % 9000), "Calle " + i),
+                    restaurante.getId(), "Calle " + i + " piso " + (i % 10), items));
+        }
+        return muestras;
+    }
+}
@@ -0,0 +1,85 @@
+package com.delivery.benchmarks;
+
+import com.delivery.auth.ResultadoLogin;
+import com.delivery.auth.ServicioAutenticacion;
+import com.delivery.carga.GeneradorDatos;
+import com.delivery.repository.UsuarioRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins por segundo desde cuatro hilos con la aplicación completa y un
+ * millón de usuarios sembrados: con la contraseña correcta, con una
+ * incorrecta repartida entre todos los usuarios (cada uno falla pocas
+ * veces, así que todos pagan el hash) y contra un solo usuario ya
+ * bloqueado, que el limitador corta antes de ir a la base.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoginBenchmark {
+    private static final String BLOQUEADO = "bloqueado";
+
+    @Param({"1000000"})
+    private int usuarios;
+
+    private ConfigurableApplicationContext contexto;
+    private ServicioAutenticacion servicioAutenticacion;
+    // Los sembrados se llaman usuarioN desde la cantidad que ya había en la base
+    private int primero;
+
+    @Setup
+    public void arrancar() {
+        contexto = Aplicacion.arrancar("default");
+        servicioAutenticacion = contexto.getBean(ServicioAutenticacion.class);
+        primero = (int) contexto.getBean(UsuarioRepository.class).count();
+        contexto.getBean(GeneradorDatos.class).sembrarUsuarios(usuarios - primero);
+        // Agota los intentos del usuario que se usa para medir el bloqueo
+        while (servicioAutenticacion.iniciarSesion(BLOQUEADO, "incorrecta").join().getEstado()
+                != ResultadoLogin.Estado.BLOQUEADO) {
+        }
+    }
+
+    @TearDown
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public ResultadoLogin correcta() {
+        return servicioAutenticacion.iniciarSesion(usuarioAlAzar(), GeneradorDatos.CONTRASENA_SINTETICA).join();
+    }
+
+    @Benchmark
+    public ResultadoLogin incorrecta() {
+        return servicioAutenticacion.iniciarSesion(usuarioAlAzar(), "incorrecta").join();
+    }
+
+    @Benchmark
+    public ResultadoLogin bloqueado() {
+        return servicioAutenticacion.iniciarSesion(BLOQUEADO, "incorrecta").join();
+    }
+
+    private String usuarioAlAzar() {
+        return "usuario" + ThreadLocalRandom.current().nextInt(primero, usuarios);
+    }
+}
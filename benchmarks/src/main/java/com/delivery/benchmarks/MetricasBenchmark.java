@@ -0,0 +1,74 @@
+package com.delivery.benchmarks;
+
+import com.delivery.metricas.MetricasPedidos;
+import com.delivery.model.Pedido;
+import com.delivery.model.Restaurante;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo aislado de registrar una transición en los timers por estado, con
+ * pedidos que ya pasaron por todos los estados. Los bytes por llamada salen
+ * del perfilador de GC que agrega {@link Principal}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricasBenchmark {
+    private static final int PEDIDOS = 10_000;
+    private static final int RESTAURANTES = 1000;
+    private static final Pedido.Estado[] ESTADOS = Pedido.Estado.values();
+
+    private MetricasPedidos metricas;
+    private Pedido[] entregados;
+
+    @Setup
+    public void preparar() {
+        metricas = new MetricasPedidos(new SimpleMeterRegistry(), RESTAURANTES);
+        Restaurante[] restaurantes = new Restaurante[RESTAURANTES];
+        for (int i = 0; i < RESTAURANTES; i++) {
+            restaurantes[i] = Datos.restaurante(i + 1);
+        }
+        entregados = new Pedido[PEDIDOS];
+        for (int i = 0; i < PEDIDOS; i++) {
+            entregados[i] = Datos.pedido(1, restaurantes[i % RESTAURANTES], i);
+            for (Pedido.Estado estado = Pedido.Estado.RECIBIDO; !estado.esFinal(); ) {
+                estado = estado.siguiente();
+                entregados[i].cambiarEstado(estado);
+            }
+        }
+    }
+
+    @Benchmark
+    public void transicion() {
+        registrar();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void transicionConcurrente() {
+        registrar();
+    }
+
+    private void registrar() {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        Pedido.Estado anterior = ESTADOS[azar.nextInt(ESTADOS.length - 1)];
+        metricas.transicion(entregados[azar.nextInt(PEDIDOS)], anterior, anterior.siguiente());
+    }
+}
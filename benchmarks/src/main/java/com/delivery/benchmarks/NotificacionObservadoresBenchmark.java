@@ -0,0 +1,70 @@
+package com.delivery.benchmarks;
+
+import com.delivery.model.Pedido;
+import com.delivery.observer.DespachadorEventos;
+import com.delivery.observer.PoliticaContrapresion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Costo para el hilo que cambia el estado de notificar a 1, 10 y 100
+ * observadores con cada política de contrapresión. Los observadores solo
+ * consumen el evento; con BLOQUEAR el resultado queda atado a lo que
+ * tardan los hilos de notificación en vaciar las colas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificacionObservadoresBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int observadores;
+
+    @Param({"BLOQUEAR", "DESCARTAR_ANTIGUO", "COALESCER_ULTIMO"})
+    private PoliticaContrapresion politica;
+
+    private final LongAdder recibidos = new LongAdder();
+    private DespachadorEventos despachador;
+    private Pedido pedido;
+
+    @Setup
+    public void preparar() {
+        despachador = new DespachadorEventos(2, 256, politica);
+        pedido = Datos.pedido(3, Datos.restaurante(1), 42);
+        pedido.setDespachador(despachador);
+        for (int i = 0; i < observadores; i++) {
+            pedido.agregarObservador(notificado -> recibidos.increment());
+        }
+    }
+
+    @TearDown
+    public void terminar() throws InterruptedException {
+        // Apagar el ejecutor con colas pendientes rechaza los vaciados que todavía se reprograman
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (despachador.getMetricas().getProfundidad() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(1);
+        }
+        despachador.detener();
+    }
+
+    @Benchmark
+    public void notificar() {
+        pedido.notificarObservadores();
+    }
+}
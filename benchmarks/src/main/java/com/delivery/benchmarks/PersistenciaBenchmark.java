@@ -0,0 +1,98 @@
+package com.delivery.benchmarks;
+
+import com.delivery.carga.GeneradorDatos;
+import com.delivery.model.Restaurante;
+import com.delivery.model.Usuario;
+import com.delivery.repository.RestauranteRepository;
+import com.delivery.repository.RestauranteResumen;
+import com.delivery.repository.UsuarioRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas de la base desde cuatro hilos con la aplicación completa: el
+ * listado de restaurantes con entidades contra la proyección, un
+ * restaurante por id y un usuario por nombre como en el login, entre
+ * todos o entre los pocos que inician sesión seguido. Se corre con el
+ * perfil por omisión y con {@code produccion}, que cambia el pool y la
+ * caché de segundo nivel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class PersistenciaBenchmark {
+    private static final int RESTAURANTES = 1000;
+    private static final int USUARIOS = 100_000;
+    private static final int RECURRENTES = 1000;
+
+    @Param({"default", "produccion"})
+    private String perfil;
+
+    private ConfigurableApplicationContext contexto;
+    private RestauranteRepository restauranteRepository;
+    private UsuarioRepository usuarioRepository;
+    private long[] ids;
+
+    @Setup
+    public void arrancar() {
+        contexto = Aplicacion.arrancar(perfil);
+        restauranteRepository = contexto.getBean(RestauranteRepository.class);
+        usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        GeneradorDatos generador = contexto.getBean(GeneradorDatos.class);
+        generador.sembrarRestaurantes(Math.max(0, RESTAURANTES - restauranteRepository.count()));
+        generador.sembrarUsuarios(Math.max(0, USUARIOS - usuarioRepository.count()));
+        ids = restauranteRepository.listarResumenes().stream().mapToLong(RestauranteResumen::id).toArray();
+    }
+
+    @TearDown
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Restaurante> listarEntidades() {
+        return restauranteRepository.findAll();
+    }
+
+    @Benchmark
+    public List<RestauranteResumen> listarResumenes() {
+        return restauranteRepository.listarResumenes();
+    }
+
+    @Benchmark
+    public Optional<Restaurante> restaurantePorId() {
+        return restauranteRepository.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    // Los usuarios sintéticos se llaman usuarioN; unos pocos nombres no existen y también se buscan
+    @Benchmark
+    public Optional<Usuario> usuarioPorNombre() {
+        return usuarioRepository.findByNombreUsuario("usuario" + ThreadLocalRandom.current().nextInt(USUARIOS));
+    }
+
+    @Benchmark
+    public Optional<Usuario> usuarioRecurrente() {
+        return usuarioRepository.findByNombreUsuario("usuario" + ThreadLocalRandom.current().nextInt(RECURRENTES));
+    }
+}
@@ -0,0 +1,67 @@
+package com.delivery.benchmarks;
+
+import com.delivery.model.Producto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Precio y descripción de un producto con 1, 5 y 20 extras: recorriendo la
+ * cadena de decoradores contra la forma compilada, y el costo de compilar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrecioDecoradoresBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int extras;
+
+    private Producto cadena;
+    private Producto compilado;
+
+    @Setup
+    public void preparar() {
+        cadena = Datos.producto(new SplittableRandom(42), extras);
+        compilado = cadena.compilar();
+    }
+
+    @Benchmark
+    public long precioCadena() {
+        return cadena.getPrecioCentavos();
+    }
+
+    @Benchmark
+    public long precioCompilado() {
+        return compilado.getPrecioCentavos();
+    }
+
+    @Benchmark
+    public String descripcionCadena() {
+        return cadena.getDescripcion();
+    }
+
+    @Benchmark
+    public String descripcionCompilada() {
+        return compilado.getDescripcion();
+    }
+
+    @Benchmark
+    public Producto compilar() {
+        return cadena.compilar();
+    }
+}
@@ -0,0 +1,60 @@
+package com.delivery.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Corre los benchmarks con las opciones de línea de comandos de JMH y
+ * agrega lo que se usa para comparar entre commits: el perfilador de GC
+ * (bytes asignados por operación) y los resultados en JSON en
+ * {@code resultados/jmh-<commit>.json}. El commit se pasa con
+ * {@code -Dcommit=...}; cualquiera de las dos cosas se puede pisar con
+ * {@code -prof} o {@code -rf}/{@code -rff}.
+ */
+public final class Principal {
+
+    private Principal() {}
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions linea = new CommandLineOptions(args);
+        if (linea.shouldHelp()) {
+            linea.showHelp();
+            return;
+        }
+        ChainedOptionsBuilder opciones = new OptionsBuilder().parent(linea);
+        if (linea.shouldList()) {
+            new Runner(opciones.build()).list();
+            return;
+        }
+        boolean conGc = linea.getProfilers().stream()
+                .anyMatch(perfilador -> perfilador.getKlass().equals("gc")
+                        || perfilador.getKlass().equals(GCProfiler.class.getName()));
+        if (!conGc) {
+            opciones.addProfiler(GCProfiler.class);
+        }
+        ResultFormatType formato = linea.getResultFormat().orElse(ResultFormatType.JSON);
+        opciones.resultFormat(formato);
+        if (!linea.getResult().hasValue()) {
+            opciones.result(archivoResultados(formato).toString());
+        }
+        new Runner(opciones.build()).run();
+    }
+
+    private static Path archivoResultados(ResultFormatType formato) throws IOException {
+        String commit = System.getProperty("commit", LocalDate.now().toString());
+        Path directorio = Path.of("resultados");
+        Files.createDirectories(directorio);
+        return directorio.resolve("jmh-" + commit + "." + formato.name().toLowerCase());
+    }
+}
@@ -0,0 +1,65 @@
+package com.delivery.benchmarks;
+
+import com.delivery.model.Pedido;
+import com.delivery.model.Producto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumen de un pedido como String nuevo contra escrito en un buffer que
+ * se reutiliza, como lo hacen las notificaciones, y con {@code String.format}
+ * como se armaba antes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResumenPedidoBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int items;
+
+    private Pedido pedido;
+    private final StringBuilder buffer = new StringBuilder(4096);
+
+    @Setup
+    public void preparar() {
+        pedido = Datos.pedido(items, Datos.restaurante(1), 42);
+    }
+
+    /** Cómo se armaba el resumen antes del renderizado a buffers. */
+    @Benchmark
+    public String conFormat() {
+        StringBuilder resumen = new StringBuilder();
+        resumen.append(String.format("Pedido para %s:\n", pedido.getCliente().getNombre()));
+        for (Producto item : pedido.getItems()) {
+            resumen.append(String.format("- %s: $%.2f\n", item.getDescripcion(), item.getPrecio()));
+        }
+        resumen.append(String.format("Total: $%.2f", pedido.getTotal()));
+        return resumen.toString();
+    }
+
+    @Benchmark
+    public String verResumen() {
+        return pedido.verResumen();
+    }
+
+    @Benchmark
+    public int escribirResumen() {
+        buffer.setLength(0);
+        return pedido.escribirResumen(buffer).length();
+    }
+}
@@ -0,0 +1,65 @@
+package com.delivery.benchmarks;
+
+import com.delivery.model.Pedido;
+import com.delivery.observer.ClienteObservador;
+import com.delivery.observer.SalidaAsincrona;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imprimir una notificación de cliente desde cuatro hilos: con tres println
+ * y {@code String.format} en el hilo que notifica, como antes, o a través
+ * de {@link SalidaAsincrona}. La salida va a un stream que descarta todo,
+ * así se mide el armado y el bloqueo y no la terminal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class SalidaNotificacionesBenchmark {
+    private final PrintStream nulo = new PrintStream(OutputStream.nullOutputStream());
+    private SalidaAsincrona salida;
+    private ClienteObservador observador;
+    private Pedido pedido;
+
+    @Setup
+    public void preparar() {
+        salida = new SalidaAsincrona(nulo, 16_384);
+        observador = new ClienteObservador("Cliente", salida);
+        pedido = Datos.pedido(3, Datos.restaurante(1), 42);
+    }
+
+    @TearDown
+    public void detener() {
+        salida.detener();
+    }
+
+    @Benchmark
+    public void printlnDirecto() {
+        nulo.println("🔔 Notificación para Cliente:");
+        nulo.println("Su pedido cambió al estado: " + pedido.getEstado());
+        nulo.println("Total del pedido: $" + String.format("%.2f", pedido.getTotal()));
+    }
+
+    @Benchmark
+    public void salidaAsincrona() {
+        observador.actualizar(pedido, pedido.getEstado());
+    }
+}
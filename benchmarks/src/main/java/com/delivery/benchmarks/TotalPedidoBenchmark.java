@@ -0,0 +1,65 @@
+package com.delivery.benchmarks;
+
+import com.delivery.model.Pedido;
+import com.delivery.model.Producto;
+import com.delivery.model.Restaurante;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Total de un pedido: recalcularlo desde cero con {@code calcularTotal} y
+ * armar el pedido agregando los items, que mantiene el total al agregar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TotalPedidoBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int items;
+
+    private Pedido pedido;
+    private Producto[] productos;
+    private Restaurante restaurante;
+
+    @Setup
+    public void preparar() {
+        restaurante = Datos.restaurante(1);
+        pedido = Datos.pedido(items, restaurante, 42);
+        SplittableRandom azar = new SplittableRandom(42);
+        productos = new Producto[items];
+        for (int i = 0; i < items; i++) {
+            productos[i] = Datos.producto(azar, azar.nextInt(3));
+        }
+    }
+
+    @Benchmark
+    public long calcularTotal() {
+        pedido.calcularTotal();
+        return pedido.getTotalCentavos();
+    }
+
+    @Benchmark
+    public Pedido agregarItems() {
+        Pedido nuevo = new Pedido(pedido.getCliente(), restaurante);
+        for (Producto producto : productos) {
+            nuevo.agregarItem(producto);
+        }
+        return nuevo;
+    }
+}